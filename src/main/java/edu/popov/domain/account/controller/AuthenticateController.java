@@ -1,12 +1,15 @@
 package edu.popov.domain.account.controller;
 
 import edu.popov.domain.account.dto.AccountDTO;
+import edu.popov.domain.account.service.AccountAvailabilityService;
 import edu.popov.domain.account.service.AccountService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RequiredArgsConstructor
@@ -15,6 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthenticateController {
 
     private final AccountService accountService;
+    private final AccountAvailabilityService accountAvailabilityService;
 
     @PostMapping
     public AccountDTO registration(@RequestBody @Valid AccountDTO.Registration request) {
@@ -26,4 +30,12 @@ public class AuthenticateController {
         return accountService.auth(request);
     }
 
+    @GetMapping("/availability")
+    public AccountDTO.Availability availability(
+            @RequestParam(value = "username", required = false) String username,
+            @RequestParam(value = "email", required = false) String email
+    ) {
+        return accountAvailabilityService.availability(username, email);
+    }
+
 }
\ No newline at end of file
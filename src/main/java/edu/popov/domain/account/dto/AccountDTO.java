@@ -62,6 +62,23 @@ public class AccountDTO {
 
     }
 
+    /**
+     * True if the name is free, names that were not asked for are left out
+     */
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Getter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, include = JsonTypeInfo.As.WRAPPER_OBJECT)
+    @JsonTypeName("availability")
+    public static class Availability {
+
+        private Boolean username;
+        private Boolean email;
+
+    }
+
     @Builder
     @AllArgsConstructor
     @NoArgsConstructor
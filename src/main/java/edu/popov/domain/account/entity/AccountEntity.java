@@ -10,7 +10,7 @@ import java.util.Set;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(exclude = {"id", "followings", "followers"})
+@EqualsAndHashCode(exclude = {"id", "followings", "followers", "followersCount", "articlesCount"})
 @ToString(exclude = {"followings", "followers"})
 @Getter
 @Setter
@@ -41,6 +41,19 @@ public class AccountEntity {
     @Column(name = "image")
     private String image;
 
+    // counters are changed only by atomic UPDATE statements, so dirty checking must never write them back
+    @Builder.Default
+    @Column(name = "followers_count", nullable = false, updatable = false)
+    private Long followersCount = 0L;
+    @Builder.Default
+    @Column(name = "articles_count", nullable = false, updatable = false)
+    private Long articlesCount = 0L;
+
+    // incremented when email or password changes, tokens issued with an older version are revoked
+    @Builder.Default
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion = 0L;
+
     @Column(
             name = "created_at",
             nullable = false,
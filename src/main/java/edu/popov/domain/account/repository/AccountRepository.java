@@ -2,9 +2,11 @@ package edu.popov.domain.account.repository;
 
 import edu.popov.domain.account.entity.AccountEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
@@ -18,4 +20,62 @@ public interface AccountRepository extends JpaRepository<AccountEntity, Long> {
     @Query("SELECT a FROM Account a WHERE a.email = :email AND a.password = :password")
     Optional<AccountEntity> findByEmailAndPassword(@Param("email")String email, @Param("password")String password);
 
+    @Modifying
+    @Query("UPDATE Account a SET a.followersCount = a.followersCount + :delta WHERE a.id = :id")
+    int incrementFollowersCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Account a SET a.articlesCount = a.articlesCount + :delta WHERE a.id = :id")
+    int incrementArticlesCount(@Param("id") Long id, @Param("delta") long delta);
+
+    /**
+     * Repair followers counters that drifted from follow_relation, only mismatched rows are written.
+     */
+    @Modifying
+    @Query(value = "UPDATE account a SET followers_count = " +
+            "(SELECT COUNT(*) FROM follow_relation fr WHERE fr.account_to_follow_id = a.id) " +
+            "WHERE a.followers_count <> " +
+            "(SELECT COUNT(*) FROM follow_relation fr WHERE fr.account_to_follow_id = a.id)", nativeQuery = true)
+    int reconcileFollowersCount();
+
+    /**
+     * Repair articles counters that drifted from article, only mismatched rows are written.
+     */
+    @Modifying
+    @Query(value = "UPDATE account a SET articles_count = " +
+            "(SELECT COUNT(*) FROM article ar WHERE ar.author_id = a.id) " +
+            "WHERE a.articles_count <> " +
+            "(SELECT COUNT(*) FROM article ar WHERE ar.author_id = a.id)", nativeQuery = true)
+    int reconcileArticlesCount();
+
+    /**
+     * Username and followers count of every account, rows are records built by the query as all accounts are read.
+     */
+    @Query("SELECT new edu.popov.domain.account.repository.AccountRepository$UsernameCount(a.username, a.followersCount) " +
+            "FROM Account a")
+    List<UsernameCount> findFollowersCounts();
+
+    record UsernameCount(String username, Long followersCount) {
+    }
+
+    /**
+     * Token versions of accounts whose tokens were revoked at least once.
+     */
+    @Query("SELECT new edu.popov.domain.account.repository.AccountRepository$TokenVersion(a.id, a.tokenVersion) " +
+            "FROM Account a WHERE a.tokenVersion > 0")
+    List<TokenVersion> findRevokedTokenVersions();
+
+    record TokenVersion(Long id, Long tokenVersion) {
+    }
+
+    /**
+     * Username and email of every account, rows are records built by the query as all accounts are read.
+     */
+    @Query("SELECT new edu.popov.domain.account.repository.AccountRepository$AccountNames(a.username, a.email) " +
+            "FROM Account a")
+    List<AccountNames> findAllNames();
+
+    record AccountNames(String username, String email) {
+    }
+
 }
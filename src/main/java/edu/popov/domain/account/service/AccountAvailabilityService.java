@@ -0,0 +1,21 @@
+package edu.popov.domain.account.service;
+
+import edu.popov.domain.account.dto.AccountDTO;
+
+public interface AccountAvailabilityService {
+
+    AccountDTO.Availability availability(String username, String email);
+
+    boolean mayExistByUsername(String username);
+
+    boolean mayExistByEmail(String email);
+
+    void accountAdded(String username, String email);
+
+    void usernameChanged(String username);
+
+    void emailChanged(String email);
+
+    void rebuild();
+
+}
@@ -0,0 +1,142 @@
+package edu.popov.domain.account.service;
+
+import edu.popov.domain.account.dto.AccountDTO;
+import edu.popov.domain.account.model.BloomFilter;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.utils.RebuildableIndex;
+import edu.popov.utils.exception.BadRequestException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static java.lang.String.format;
+
+/**
+ * Usernames and emails of all accounts in Bloom filters, so names that are certainly free are answered without
+ * database access and only "maybe taken" names are looked up. Filters are built on startup and on
+ * account.availability.rebuild-cron, sized for account.availability.expected-accounts or twice the current
+ * accounts. Written names are added at once and again after commit, as an extra name only costs a lookup.
+ * Renamed names stay in the filters until the next build.
+ */
+@Slf4j
+@Service
+public class AccountAvailabilityServiceImpl implements AccountAvailabilityService {
+
+    private final AccountRepository accountRepository;
+
+    @Value("${account.availability.expected-accounts}")
+    private Long expectedAccounts;
+    @Value("${account.availability.false-positive-rate}")
+    private Double falsePositiveRate;
+
+    private static final String NOTHING_TO_CHECK = "Username or email is required";
+
+    // no filters until the first build, every name may exist
+    private final RebuildableIndex<Filters> filters = new RebuildableIndex<>();
+
+    public AccountAvailabilityServiceImpl(AccountRepository accountRepository, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        gauges(meterRegistry, "username", Filters::usernames);
+        gauges(meterRegistry, "email", Filters::emails);
+    }
+
+    @Override
+    public AccountDTO.Availability availability(String username, String email) {
+        if (Objects.isNull(username) && Objects.isNull(email)) {
+            log.error(NOTHING_TO_CHECK);
+            throw new BadRequestException(NOTHING_TO_CHECK);
+        }
+        return AccountDTO.Availability.builder()
+                .username(Objects.isNull(username) ? null
+                        : !mayExistByUsername(username) || accountRepository.findByUsername(username).isEmpty())
+                .email(Objects.isNull(email) ? null
+                        : !mayExistByEmail(email) || accountRepository.findByEmail(email).isEmpty())
+                .build();
+    }
+
+    /**
+     * False if no account has the username, true if one may have it.
+     */
+    @Override
+    public boolean mayExistByUsername(String username) {
+        return Objects.nonNull(username) && filters.read(built -> built.usernames().mightContain(username), () -> true);
+    }
+
+    /**
+     * False if no account has the email, true if one may have it.
+     */
+    @Override
+    public boolean mayExistByEmail(String email) {
+        return Objects.nonNull(email) && filters.read(built -> built.emails().mightContain(email), () -> true);
+    }
+
+    @Override
+    public void accountAdded(String username, String email) {
+        usernameChanged(username);
+        emailChanged(email);
+    }
+
+    @Override
+    public void usernameChanged(String username) {
+        // a build reading before commit would miss the name, so it is added again after commit
+        addNowAndAfterCommit(built -> built.usernames().put(username));
+    }
+
+    @Override
+    public void emailChanged(String email) {
+        addNowAndAfterCommit(built -> built.emails().put(email));
+    }
+
+    @Override
+    public void rebuild() {
+        filters.rebuild(this::load).ifPresent(rebuilt -> {
+            report("username", rebuilt.names(), rebuilt.usernames());
+            report("email", rebuilt.names(), rebuilt.emails());
+        });
+    }
+
+    private Filters load() {
+        List<AccountRepository.AccountNames> accounts = accountRepository.findAllNames();
+        long capacity = Math.max(expectedAccounts, 2L * accounts.size());
+        BloomFilter usernames = BloomFilter.of(capacity, falsePositiveRate);
+        BloomFilter emails = BloomFilter.of(capacity, falsePositiveRate);
+        for (AccountRepository.AccountNames account : accounts) {
+            usernames.put(account.username());
+            emails.put(account.email());
+        }
+        return new Filters(usernames, emails, accounts.size());
+    }
+
+    private void addNowAndAfterCommit(Consumer<Filters> add) {
+        filters.write(add);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            filters.writeAfterCommit(add);
+    }
+
+    private void report(String kind, int names, BloomFilter filter) {
+        log.info(format("Account %s filter is built: %d names, %d KB, %d hashes, false positive rate %.4f (target %.4f)",
+                kind, names, filter.bitSize() / 8 / 1024, filter.hashCount(), filter.falsePositiveRate(), falsePositiveRate));
+    }
+
+    private void gauges(MeterRegistry meterRegistry, String kind, Function<Filters, BloomFilter> filter) {
+        Gauge.builder("account.availability.filter.bytes",
+                        () -> filters.read(built -> filter.apply(built).bitSize() / 8, () -> 0L))
+                .tag("name", kind)
+                .register(meterRegistry);
+        Gauge.builder("account.availability.filter.fpp",
+                        () -> filters.read(built -> filter.apply(built).falsePositiveRate(), () -> 1.0))
+                .tag("name", kind)
+                .register(meterRegistry);
+    }
+
+    private record Filters(BloomFilter usernames, BloomFilter emails, int names) {
+    }
+}
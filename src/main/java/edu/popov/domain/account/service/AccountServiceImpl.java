@@ -4,14 +4,19 @@ import edu.popov.domain.account.dto.AccountDTO;
 import edu.popov.domain.account.dto.AccountMapper;
 import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.autocomplete.service.AutocompleteService;
+import edu.popov.domain.profile.service.ProfileCache;
 import edu.popov.security.AccountDetails;
 import edu.popov.security.jwt.JwtUtils;
+import edu.popov.security.jwt.TokenVersions;
+import edu.popov.security.jwt.VerifiedTokenCache;
 import edu.popov.utils.exception.BadRequestException;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
@@ -29,8 +34,15 @@ public class AccountServiceImpl implements AccountService {
     private final AccountValidationService accountValidationService;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final AutocompleteService autocompleteService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenVersions tokenVersions;
+    private final AccountAvailabilityService accountAvailabilityService;
+    private final ProfileCache profileCache;
+    private final TransactionOperations transactionOperations;
 
     private static final String ACCOUNT_NOT_FOUND_BY_ID = "Account with id %d is not exist";
+    private static final String ACCOUNT_ALREADY_EXIST = "Account with username %s or email %s already exist";
 
     /**
      * Check that account are not exist by email and username, register new account.
@@ -45,9 +57,18 @@ public class AccountServiceImpl implements AccountService {
         account.setCreatedAt(LocalDateTime.now());
         account.setUpdatedAt(LocalDateTime.now());
 
-        AccountDTO accountDTO = mapper.mapToAccountDTO(
-                accountRepository.save(account)
-        );
+        AccountEntity saved;
+        try {
+            saved = accountRepository.save(account);
+        } catch (DataIntegrityViolationException e) {
+            // registered since the filters were built by another instance or concurrently
+            String msg = format(ACCOUNT_ALREADY_EXIST, account.getUsername(), account.getEmail());
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        AccountDTO accountDTO = mapper.mapToAccountDTO(saved);
+        autocompleteService.userAdded(account.getUsername());
+        accountAvailabilityService.accountAdded(account.getUsername(), account.getEmail());
 
         log.info(accountDTO.toString());
         return accountDTO;
@@ -64,7 +85,7 @@ public class AccountServiceImpl implements AccountService {
                 .id(account.getId())
                 .email(account.getEmail())
                 .password(account.getPassword())
-                .build());
+                .build(), account.getTokenVersion());
 
 
         AccountDTO accountDTO = AccountDTO.builder()
@@ -80,22 +101,45 @@ public class AccountServiceImpl implements AccountService {
     }
 
     /**
-     * Update account
+     * Update account. The new password is hashed before the transaction is opened: hashing may wait
+     * for the bounded hashing pool, and a waiting update should not hold a database connection.
      */
     @Override
-    @Transactional
     public AccountDTO update(Long id, AccountDTO.Update request) {
         log.debug("Update account with id {}, new account {}", id, request.toString());
-        AccountEntity account = accountValidationService.updateValidation(id, request);
+        String password = Objects.isNull(request.getPassword()) ? null : passwordEncoder.encode(request.getPassword());
+        return transactionOperations.execute(status -> update(id, request, password));
+    }
 
-        if (Objects.nonNull(request.getUsername()))
+    private AccountDTO update(Long id, AccountDTO.Update request, String password) {
+        AccountEntity account = accountValidationService.updateValidation(id, request);
+        boolean credentialsChanged = Objects.nonNull(request.getPassword())
+                || Objects.nonNull(request.getEmail()) && !request.getEmail().equals(account.getEmail());
+        boolean profileChanged = Objects.nonNull(request.getUsername()) && !request.getUsername().equals(account.getUsername())
+                || Objects.nonNull(request.getBio()) && !request.getBio().equals(account.getBio())
+                || Objects.nonNull(request.getImage()) && !request.getImage().equals(account.getImage());
+
+        if (Objects.nonNull(request.getUsername()) && !request.getUsername().equals(account.getUsername())) {
+            autocompleteService.userRenamed(account.getUsername(), request.getUsername(), account.getFollowersCount());
+            accountAvailabilityService.usernameChanged(request.getUsername());
             account.setUsername(request.getUsername());
+        }
+
+        if (Objects.nonNull(request.getEmail()) && !request.getEmail().equals(account.getEmail()))
+            accountAvailabilityService.emailChanged(request.getEmail());
 
         if (Objects.nonNull(request.getEmail()))
             account.setEmail(request.getEmail());
 
-        if (Objects.nonNull(request.getPassword()))
-            account.setPassword(passwordEncoder.encode(request.getPassword()));
+        if (Objects.nonNull(password))
+            account.setPassword(password);
+
+        // tokens issued before are revoked, the response carries a new one
+        if (credentialsChanged) {
+            account.setTokenVersion(account.getTokenVersion() + 1);
+            tokenVersions.revoked(account.getId(), account.getTokenVersion());
+            verifiedTokenCache.invalidateAccount(account.getId());
+        }
 
         if (Objects.nonNull(request.getBio()))
             account.setBio(request.getBio());
@@ -106,8 +150,16 @@ public class AccountServiceImpl implements AccountService {
         account.setUpdatedAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        if (profileChanged)
+            profileCache.invalidate(account.getId());
 
         AccountDTO accountDTO = mapper.mapToAccountDTO(account);
+        if (credentialsChanged)
+            accountDTO.setToken(jwtUtils.generateToken(AccountDetails.builder()
+                    .id(account.getId())
+                    .email(account.getEmail())
+                    .password(account.getPassword())
+                    .build(), account.getTokenVersion()));
         log.info(accountDTO.toString());
         return accountDTO;
     }
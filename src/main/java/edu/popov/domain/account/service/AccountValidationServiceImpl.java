@@ -21,6 +21,7 @@ public class AccountValidationServiceImpl implements AccountValidationService {
 
     private final AccountRepository accountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AccountAvailabilityService accountAvailabilityService;
 
     private static final String ACCOUNT_ALREADY_EXIST_BY_EMAIL = "Account with email %s already exist";
     private static final String ACCOUNT_ALREADY_EXIST_BY_USERNAME = "Account with username %s already exist";
@@ -29,14 +30,14 @@ public class AccountValidationServiceImpl implements AccountValidationService {
     private static final String WRONG_PASSWORD = "Invalid password for account with email %s";
 
     /**
-     * Validate account for unique email and username.
+     * Validate account for unique email and username, names that are certainly free are not looked up.
      */
     @Override
     public Boolean registryValidation(AccountDTO.Registration request) {
         log.debug(request.toString());
 
         String email = request.getEmail();
-        if (accountRepository.findByEmail(email).isPresent()) {
+        if (accountAvailabilityService.mayExistByEmail(email) && accountRepository.findByEmail(email).isPresent()) {
             String msg = format(ACCOUNT_ALREADY_EXIST_BY_EMAIL, email);
             log.error(msg);
             throw new BadRequestException(msg);
@@ -44,7 +45,7 @@ public class AccountValidationServiceImpl implements AccountValidationService {
 
 
         String username = request.getUsername();
-        if (accountRepository.findByUsername(username).isPresent()) {
+        if (accountAvailabilityService.mayExistByUsername(username) && accountRepository.findByUsername(username).isPresent()) {
             String msg = format(ACCOUNT_ALREADY_EXIST_BY_USERNAME, username);
             log.error(msg);
             throw new BadRequestException(msg);
@@ -92,7 +93,9 @@ public class AccountValidationServiceImpl implements AccountValidationService {
 
 
         String email = request.getEmail();
-        Optional<AccountEntity> byEmail = accountRepository.findByEmail(email);
+        Optional<AccountEntity> byEmail = accountAvailabilityService.mayExistByEmail(email)
+                ? accountRepository.findByEmail(email)
+                : Optional.empty();
         if (byEmail.isPresent() && !byEmail.get().getId().equals(id)) {
             String msg = format(ACCOUNT_ALREADY_EXIST_BY_EMAIL, email);
             log.error(msg);
@@ -100,7 +103,9 @@ public class AccountValidationServiceImpl implements AccountValidationService {
         }
 
         String username = request.getUsername();
-        Optional<AccountEntity> byUsername = accountRepository.findByUsername(username);
+        Optional<AccountEntity> byUsername = accountAvailabilityService.mayExistByUsername(username)
+                ? accountRepository.findByUsername(username)
+                : Optional.empty();
         if (byUsername.isPresent() && !byUsername.get().getId().equals(id)) {
             String msg = format(ACCOUNT_ALREADY_EXIST_BY_USERNAME, username);
             log.error(msg);
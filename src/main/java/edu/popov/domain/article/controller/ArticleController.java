@@ -3,7 +3,9 @@ package edu.popov.domain.article.controller;
 import edu.popov.domain.article.dto.ArticleDTO;
 import edu.popov.domain.article.dto.CommentDTO;
 import edu.popov.domain.article.model.ArticleFilter;
+import edu.popov.domain.article.model.CommentParams;
 import edu.popov.domain.article.model.FeedParams;
+import edu.popov.domain.article.model.SearchParams;
 import edu.popov.domain.article.service.ArticleService;
 import edu.popov.domain.article.service.CommentService;
 import edu.popov.security.AccountDetails;
@@ -11,6 +13,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Objects;
 
@@ -39,15 +42,19 @@ public class ArticleController {
     }
 
     // title = i love dragons -> slug = i-love-dragons
+    // ETag is taken before the body, so a concurrent write can only make the ETag older than the body
     @GetMapping("/{slug}")
     public ArticleDTO.SingleArticle<ArticleDTO> getArticleBySlug(
             @PathVariable("slug") String slug,
-            @AuthenticationPrincipal AccountDetails accountDetails) {
+            @AuthenticationPrincipal AccountDetails accountDetails,
+            WebRequest request) {
 
         Long id = null;
         if (!Objects.isNull(accountDetails))
             id = accountDetails.id();
 
+        if (request.checkNotModified(articleService.getArticleETag(slug, id)))
+            return null;
         return articleService.getArticleBySlug(slug, id);
     }
 
@@ -96,6 +103,14 @@ public class ArticleController {
         return articleService.getArticlesByFeed(feedParams, id);
     }
 
+    @GetMapping("/search")
+    public ArticleDTO.MultipleArticle searchArticles(
+            @ModelAttribute SearchParams searchParams,
+            @AuthenticationPrincipal AccountDetails accountDetails
+    ) {
+        return articleService.searchArticles(searchParams, accountDetails);
+    }
+
     @PostMapping("/{slug}/comments")
     public CommentDTO.SingleComment addCommentToArticle(
             @PathVariable("slug") String slug,
@@ -107,9 +122,18 @@ public class ArticleController {
 
     @GetMapping("/{slug}/comments")
     public CommentDTO.MultipleComments getComment(
-            @PathVariable("slug") String slug
+            @PathVariable("slug") String slug,
+            @ModelAttribute CommentParams commentParams,
+            @AuthenticationPrincipal AccountDetails accountDetails,
+            WebRequest request
     ) {
-        return commentService.getComments(slug);
+        Long id = null;
+        if (!Objects.isNull(accountDetails))
+            id = accountDetails.id();
+
+        if (request.checkNotModified(commentService.getCommentsETag(slug, commentParams, id)))
+            return null;
+        return commentService.getComments(slug, commentParams, id);
     }
 
     @ResponseStatus(HttpStatus.OK)
@@ -122,4 +146,4 @@ public class ArticleController {
         commentService.deleteComment(slug, commentId, accountDetails.id());
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
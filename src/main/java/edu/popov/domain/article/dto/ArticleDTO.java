@@ -1,6 +1,8 @@
 package edu.popov.domain.article.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import edu.popov.domain.article.model.ArticleCountMode;
 import edu.popov.domain.profile.dto.ProfileDTO;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotEmpty;
@@ -36,6 +38,7 @@ public class ArticleDTO {
     private ProfileDTO author;
     private Boolean favorited;
     private Long favoritesCount;
+    private Long commentsCount;
 
     @Getter
     @Builder
@@ -56,6 +59,12 @@ public class ArticleDTO {
         private List<ArticleDTO> articles;
         private int articlesCount;
 
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private ArticleCountMode articlesCountMode;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
+
     }
 
     @Getter
@@ -69,4 +78,4 @@ public class ArticleDTO {
         private String body;
 
     }
-}
\ No newline at end of file
+}
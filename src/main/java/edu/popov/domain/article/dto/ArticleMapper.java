@@ -1,48 +1,111 @@
 package edu.popov.domain.article.dto;
 
+import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.article.entity.ArticleEntity;
-import edu.popov.domain.article.entity.FavoriteEntity;
+import edu.popov.domain.article.model.ArticleSnapshot;
+import edu.popov.domain.article.service.FavoriteIndexService;
+import edu.popov.domain.profile.dto.ProfileDTO;
 import edu.popov.domain.profile.dto.ProfileMapper;
+import edu.popov.domain.profile.service.FollowGraphService;
 import edu.popov.domain.profile.service.ProfileService;
 import edu.popov.domain.tag.entity.TagEntity;
+import edu.popov.domain.tag.repository.TagRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ArticleMapper {
 
     private final ProfileService profileService;
+    private final ProfileMapper profileMapper;
+    private final TagRepository tagRepository;
+    private final FavoriteIndexService favoriteIndexService;
+    private final FollowGraphService followGraphService;
 
     public ArticleDTO mapToSingleArticleDTO(ArticleEntity article, Long userId) {
-        List<FavoriteEntity> favoriteList = article.getFavoriteList();
+        return mapToSingleArticleDTO(ArticleSnapshot.of(article), userId);
+    }
 
-        List<String> tags = new ArrayList<>();
-        if (Objects.nonNull(article.getTags()))
-            tags = article.getTags().stream().map(TagEntity::getTagName).toList();
+    public ArticleDTO mapToSingleArticleDTO(ArticleSnapshot article, Long userId) {
+        return mapToSingleArticleDTO(article, userId, favoriteIndexService.isFavorited(userId, article.id()));
+    }
 
+    /**
+     * Map article with already known favorited flag of the user.
+     */
+    public ArticleDTO mapToSingleArticleDTO(ArticleSnapshot article, Long userId, boolean favorited) {
         return ArticleDTO.builder()
+                        .slug(article.slug())
+                        .title(article.title())
+                        .description(article.description())
+                        .body(article.body())
+                        .author(profileService.getProfileById(article.authorId(), userId))
+                        .tagList(article.tags())
+                        .updatedAt(article.updatedAt())
+                        .createdAt(article.createdAt())
+                        .favorited(favorited)
+                        .favoritesCount(article.favoritesCount())
+                        .commentsCount(article.commentsCount())
+                        .build();
+    }
+
+    /**
+     * Map page of articles. Tags and following flags are loaded for the whole page at once (one query each),
+     * favorited flags are one index probe per row, so the number of statements does not depend on page size. Counters are read from
+     * the article columns. Authors must be already fetched with the articles.
+     */
+    public List<ArticleDTO> mapToMultipleArticleDTOList(List<ArticleEntity> articleEntities, Long accountDetailsId) {
+        if (articleEntities.isEmpty())
+            return List.of();
+
+        List<Long> articleIds = articleEntities.stream().map(ArticleEntity::getId).toList();
+        Map<Long, AccountEntity> authors = articleEntities.stream()
+                .map(ArticleEntity::getAuthor)
+                .collect(Collectors.toMap(AccountEntity::getId, author -> author, (a, b) -> a));
+
+        Map<Long, List<String>> tags = tagRepository.findByArticleIds(articleIds).stream()
+                .collect(Collectors.groupingBy(TagRepository.ArticleTag::getArticleId,
+                        Collectors.mapping(TagRepository.ArticleTag::getTagName, Collectors.toList())));
+
+        Set<Long> favorited = new HashSet<>();
+        Set<Long> followed = new HashSet<>();
+        if (Objects.nonNull(accountDetailsId)) {
+            favorited.addAll(favoriteIndexService.findFavorited(accountDetailsId, articleIds));
+            followed.addAll(followGraphService.findFollowed(accountDetailsId, authors.keySet()));
+        }
+
+        Map<Long, ProfileDTO> profiles = new HashMap<>();
+        authors.forEach((id, author) -> {
+            ProfileDTO profile = profileMapper.mapToProfileDTO(author);
+            profile.setFollowing(followed.contains(id));
+            profiles.put(id, profile);
+        });
+
+        return articleEntities.stream().map(article ->
+                ArticleDTO.builder()
                         .slug(article.getSlug())
                         .title(article.getTitle())
                         .description(article.getDescription())
                         .body(article.getBody())
-                        .author(profileService.getProfile(article.getAuthor().getUsername(), userId))
-                        .tagList(tags)
+                        .author(profiles.get(article.getAuthor().getId()))
+                        .tagList(tags.getOrDefault(article.getId(), List.of()))
                         .updatedAt(article.getUpdatedAt())
                         .createdAt(article.getCreatedAt())
-                        .favorited(favoriteList.stream().anyMatch(favoriteEntity -> favoriteEntity.getAccount().getId().equals(userId)))
-                        .favoritesCount((long) favoriteList.size())
-                        .build();
-    }
-
-    public List<ArticleDTO> mapToMultipleArticleDTOList(List<ArticleEntity> articleEntities, Long accountDetailsId) {
-        return articleEntities.stream().map(entity ->
-                mapToSingleArticleDTO(entity, accountDetailsId)
+                        .favorited(favorited.contains(article.getId()))
+                        .favoritesCount(article.getFavoritesCount())
+                        .commentsCount(article.getCommentsCount())
+                        .build()
         ).toList();
     }
 
-}
\ No newline at end of file
+}
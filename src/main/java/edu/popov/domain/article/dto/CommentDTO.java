@@ -1,5 +1,6 @@
 package edu.popov.domain.article.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import edu.popov.domain.profile.dto.ProfileDTO;
@@ -39,6 +40,10 @@ public class CommentDTO {
     public static class MultipleComments {
 
         private List<CommentDTO> comments;
+        private long commentsCount;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
 
     }
 
@@ -56,4 +61,4 @@ public class CommentDTO {
 
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -2,13 +2,13 @@ package edu.popov.domain.article.dto;
 
 import edu.popov.domain.account.dto.AccountMapper;
 import edu.popov.domain.article.entity.CommentEntity;
+import edu.popov.domain.article.repository.CommentRepository.CommentView;
+import edu.popov.domain.profile.dto.ProfileDTO;
 import edu.popov.domain.profile.dto.ProfileMapper;
 import edu.popov.domain.profile.service.ProfileService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 public class CommentMapper {
@@ -27,7 +27,23 @@ public class CommentMapper {
                 .build();
     }
 
-    public List<CommentDTO> mapToCommentDTOList(List<CommentEntity> commentEntities) {
-        return commentEntities.stream().map(this::mapToCommentDTO).toList();
+    /**
+     * Comment read with its author in one row, the following flag is resolved by the caller for the whole page.
+     */
+    public CommentDTO mapToCommentDTO(CommentView comment, boolean following) {
+        return CommentDTO.builder()
+                .id(comment.id())
+                .body(comment.body())
+                .author(ProfileDTO.builder()
+                        .username(comment.authorUsername())
+                        .bio(comment.authorBio())
+                        .image(comment.authorImage())
+                        .following(following)
+                        .followersCount(comment.authorFollowersCount())
+                        .articlesCount(comment.authorArticlesCount())
+                        .build())
+                .createdAt(comment.createdAt())
+                .updatedAt(comment.updatedAt())
+                .build();
     }
 }
\ No newline at end of file
@@ -12,7 +12,7 @@ import java.util.List;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@EqualsAndHashCode(exclude = {"id"})
+@EqualsAndHashCode(exclude = {"id", "favoritesCount", "commentsCount"})
 @Getter
 @Setter
 @Entity(name = "Article")
@@ -20,6 +20,9 @@ import java.util.List;
         name = "article",
         uniqueConstraints = {
                 @UniqueConstraint(name = "article_slug_unique", columnNames = "slug")
+        },
+        indexes = {
+                @Index(name = "article_created_at_id_idx", columnList = "created_at DESC, id DESC")
         }
 )
 public class ArticleEntity {
@@ -46,13 +49,33 @@ public class ArticleEntity {
     )
     private AccountEntity author;
 
+    // tags are shared dictionary rows, only the join rows belong to the article
     @Builder.Default
-    @OneToMany(mappedBy = "article", fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.REMOVE})
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "article_tag",
+            joinColumns = @JoinColumn(name = "article_id", foreignKey = @ForeignKey(name = "article_tag_article_id_fk")),
+            inverseJoinColumns = @JoinColumn(name = "tag_id", foreignKey = @ForeignKey(name = "article_tag_tag_id_fk")),
+            uniqueConstraints = {
+                    @UniqueConstraint(name = "article_tag_article_id_tag_id_unique", columnNames = {"article_id", "tag_id"})
+            },
+            indexes = {
+                    @Index(name = "article_tag_tag_id_article_id_idx", columnList = "tag_id, article_id")
+            }
+    )
     private List<TagEntity> tags = new ArrayList<>();
     @Builder.Default
     @OneToMany(mappedBy = "article", fetch = FetchType.LAZY, cascade = {CascadeType.REMOVE})
     private List<FavoriteEntity> favoriteList = new ArrayList<>();
 
+    // counters are changed only by atomic UPDATE statements, so dirty checking must never write them back
+    @Builder.Default
+    @Column(name = "favorites_count", nullable = false, updatable = false)
+    private Long favoritesCount = 0L;
+    @Builder.Default
+    @Column(name = "comments_count", nullable = false, updatable = false)
+    private Long commentsCount = 0L;
+
     @Column(
             name = "created_at",
             nullable = false
@@ -66,11 +89,10 @@ public class ArticleEntity {
 
     public void addTag(TagEntity tag) {
         tags.add(tag);
-        tag.setArticle(this);
     }
 
     public void addFavorite(FavoriteEntity favorite) {
         favoriteList.add(favorite);
         favorite.setArticle(this);
     }
-}
\ No newline at end of file
+}
@@ -13,7 +13,12 @@ import java.time.ZonedDateTime;
 @EqualsAndHashCode(exclude = {"id"})
 @Getter
 @Entity(name = "Comment")
-@Table(name = "comment")
+@Table(
+        name = "comment",
+        indexes = {
+                @Index(name = "comment_article_id_id_idx", columnList = "article_id, id")
+        }
+)
 public class CommentEntity {
 
     @Id
@@ -51,4 +56,4 @@ public class CommentEntity {
     )
     private ZonedDateTime updatedAt;
 
-}
\ No newline at end of file
+}
\ No newline at end of file
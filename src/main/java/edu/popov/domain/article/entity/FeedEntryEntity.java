@@ -0,0 +1,40 @@
+package edu.popov.domain.article.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Feed inbox row: article pushed to the follower when it was created. Rows are derived data,
+ * they are written by set-based statements in FeedEntryRepository and can be rebuilt from follow_relation.
+ */
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@EqualsAndHashCode
+@Getter
+@Setter
+@Entity(name = "FeedEntry")
+@Table(
+        name = "feed_entry",
+        indexes = {
+                @Index(name = "feed_entry_follower_id_created_at_idx", columnList = "follower_id, created_at DESC, article_id DESC"),
+                @Index(name = "feed_entry_article_id_idx", columnList = "article_id")
+        }
+)
+public class FeedEntryEntity {
+
+    @EmbeddedId
+    private FeedEntryId id;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(
+            name = "created_at",
+            nullable = false
+    )
+    private ZonedDateTime createdAt;
+
+}
@@ -0,0 +1,20 @@
+package edu.popov.domain.article.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+@Builder
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class FeedEntryId {
+
+    @Column(name = "follower_id")
+    private Long followerId;
+
+    @Column(name = "article_id")
+    private Long articleId;
+
+}
@@ -0,0 +1,9 @@
+package edu.popov.domain.article.event;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Published by article creation, handled after the transaction is committed.
+ */
+public record ArticleCreatedEvent(Long articleId, Long authorId, ZonedDateTime createdAt) {
+}
@@ -0,0 +1,28 @@
+package edu.popov.domain.article.event;
+
+import edu.popov.domain.article.service.FeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Fan-out runs outside of the request, so creating an article does not wait for follower inboxes.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class FeedFanOutListener {
+
+    private final FeedService feedService;
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onArticleCreated(ArticleCreatedEvent event) {
+        log.debug("Fan out article {}", event.articleId());
+        feedService.articleCreated(event);
+    }
+
+}
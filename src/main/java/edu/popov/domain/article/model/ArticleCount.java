@@ -0,0 +1,4 @@
+package edu.popov.domain.article.model;
+
+public record ArticleCount(long count, ArticleCountMode mode) {
+}
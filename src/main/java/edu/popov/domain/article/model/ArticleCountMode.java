@@ -0,0 +1,23 @@
+package edu.popov.domain.article.model;
+
+/**
+ * How articlesCount of the article list was computed.
+ */
+public enum ArticleCountMode {
+
+    /**
+     * Count query over the filter.
+     */
+    EXACT,
+
+    /**
+     * Exact count computed by previous request with the same filter.
+     */
+    CACHED,
+
+    /**
+     * Planner row estimate, used for very large result sets.
+     */
+    ESTIMATED
+
+}
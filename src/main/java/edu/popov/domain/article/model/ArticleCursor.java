@@ -0,0 +1,43 @@
+package edu.popov.domain.article.model;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.utils.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+
+import static java.lang.String.format;
+
+/**
+ * Position in the article list ordered by (createdAt desc, id desc).
+ * Clients get it as opaque string and send it back to seek to the next page.
+ */
+public record ArticleCursor(ZonedDateTime createdAt, Long id) {
+
+    private static final String INVALID_CURSOR = "Cursor %s is not valid";
+    private static final String SEPARATOR = "|";
+
+    public static ArticleCursor of(ArticleEntity article) {
+        return new ArticleCursor(article.getCreatedAt(), article.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.toInstant().toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ArticleCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            ZonedDateTime createdAt = Instant.parse(raw.substring(0, separator)).atZone(ZoneId.systemDefault());
+            return new ArticleCursor(createdAt, Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException(format(INVALID_CURSOR, cursor));
+        }
+    }
+
+}
@@ -2,6 +2,8 @@ package edu.popov.domain.article.model;
 
 import lombok.*;
 
+import java.util.List;
+
 @Builder
 @Getter
 @Setter
@@ -9,10 +11,16 @@ import lombok.*;
 @AllArgsConstructor
 public class ArticleFilter {
 
-    private String tag;
+    // article has all of these tags
+    private List<String> tag;
+    // article has at least one of these tags
+    private List<String> anyTag;
+    // article has none of these tags
+    private List<String> notTag;
     private String author;
     private String favorited;
     private Integer limit;
     private Integer offset;
+    private String cursor;
 
-}
\ No newline at end of file
+}
\ No newline at end of file
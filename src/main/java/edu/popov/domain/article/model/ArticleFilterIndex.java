@@ -0,0 +1,215 @@
+package edu.popov.domain.article.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static edu.popov.domain.article.model.RecentArticleBuffer.compare;
+
+/**
+ * Articles numbered by append-only ordinals with one {@link OrdinalBitmap} of ordinals per tag, per author
+ * and per favoriting account. Filters are set operations on bitmaps, the page is read by walking the
+ * intersection from the highest ordinal. Articles come in (createdAt, id) order except the ones committed
+ * after a newer article; those late ordinals are kept in their own bitmap and their few matches are sorted
+ * into the page, so no ordinal is ever renumbered.
+ * Deleted articles are removed from the live bitmap only, other bitmaps keep them until the index is rebuilt.
+ * Not thread safe, callers synchronize access.
+ */
+public final class ArticleFilterIndex {
+
+    private long[] createdAt = new long[16];
+    private long[] articleIds = new long[16];
+    private long[] authorIds = new long[16];
+    private int size;
+    // ordinals that are not late, sorted by both ordinal and (createdAt, id)
+    private int[] inOrder = new int[16];
+    private int inOrderSize;
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final OrdinalBitmap late = new OrdinalBitmap();
+    private final OrdinalBitmap live = new OrdinalBitmap();
+    private final Map<Long, OrdinalBitmap> byTag = new HashMap<>();
+    private final Map<Long, OrdinalBitmap> byAuthor = new HashMap<>();
+    private final Map<Long, OrdinalBitmap> byFavoriter = new HashMap<>();
+
+    private static final OrdinalBitmap EMPTY = new OrdinalBitmap();
+
+    /**
+     * Append article with the next ordinal. An article older than the newest one is marked late.
+     */
+    public void add(long articleId, long time, long authorId, Collection<Long> tagIds) {
+        if (ordinals.containsKey(articleId))
+            return;
+
+        if (size == articleIds.length) {
+            createdAt = Arrays.copyOf(createdAt, size * 2);
+            articleIds = Arrays.copyOf(articleIds, size * 2);
+            authorIds = Arrays.copyOf(authorIds, size * 2);
+        }
+        int ordinal = size++;
+        createdAt[ordinal] = time;
+        articleIds[ordinal] = articleId;
+        authorIds[ordinal] = authorId;
+        ordinals.put(articleId, ordinal);
+
+        if (inOrderSize > 0 && isBefore(ordinal, inOrder[inOrderSize - 1]))
+            late.add(ordinal);
+        else {
+            if (inOrderSize == inOrder.length)
+                inOrder = Arrays.copyOf(inOrder, inOrderSize * 2);
+            inOrder[inOrderSize++] = ordinal;
+        }
+
+        live.add(ordinal);
+        byAuthor.computeIfAbsent(authorId, id -> new OrdinalBitmap()).add(ordinal);
+        for (Long tagId : tagIds)
+            byTag.computeIfAbsent(tagId, id -> new OrdinalBitmap()).add(ordinal);
+    }
+
+    public void remove(long articleId) {
+        Integer ordinal = ordinals.remove(articleId);
+        if (Objects.isNull(ordinal))
+            return;
+        live.remove(ordinal);
+        OrdinalBitmap authored = byAuthor.get(authorIds[ordinal]);
+        authored.remove(ordinal);
+        if (authored.isEmpty())
+            byAuthor.remove(authorIds[ordinal]);
+    }
+
+    public void favorite(long articleId, long accountId) {
+        Integer ordinal = ordinals.get(articleId);
+        if (Objects.nonNull(ordinal))
+            byFavoriter.computeIfAbsent(accountId, id -> new OrdinalBitmap()).add(ordinal);
+    }
+
+    public void unfavorite(long articleId, long accountId) {
+        Integer ordinal = ordinals.get(articleId);
+        OrdinalBitmap favorites = byFavoriter.get(accountId);
+        if (Objects.isNull(ordinal) || Objects.isNull(favorites))
+            return;
+        favorites.remove(ordinal);
+        if (favorites.isEmpty())
+            byFavoriter.remove(accountId);
+    }
+
+    public int size() {
+        return ordinals.size();
+    }
+
+    /**
+     * Ordinals of live articles matching all filters that are set (not null or not empty).
+     * Required bitmaps are intersected from the smallest, excluded tags are subtracted at the end.
+     */
+    public OrdinalBitmap match(TagFilter tags, Long authorId, Long favoriterId) {
+        List<OrdinalBitmap> bitmaps = new ArrayList<>(4);
+        for (Long tagId : tags.allOf())
+            bitmaps.add(byTag.getOrDefault(tagId, EMPTY));
+        if (!tags.anyOf().isEmpty())
+            bitmaps.add(union(byTag, tags.anyOf()));
+        if (Objects.nonNull(authorId))
+            bitmaps.add(byAuthor.getOrDefault(authorId, EMPTY));
+        if (Objects.nonNull(favoriterId))
+            bitmaps.add(byFavoriter.getOrDefault(favoriterId, EMPTY));
+
+        OrdinalBitmap matched = live;
+        if (!bitmaps.isEmpty()) {
+            bitmaps.sort((a, b) -> Integer.compare(a.cardinality(), b.cardinality()));
+            matched = bitmaps.get(0);
+            for (int i = 1; i < bitmaps.size() && !matched.isEmpty(); i++)
+                matched = matched.and(bitmaps.get(i));
+            // author bitmaps hold live articles only
+            if (Objects.isNull(authorId))
+                matched = matched.and(live);
+        }
+        if (!tags.noneOf().isEmpty() && !matched.isEmpty())
+            matched = matched.andNot(union(byTag, tags.noneOf()));
+        return matched;
+    }
+
+    /**
+     * Article ids of one page from newest to oldest. If cursor time is set the page starts after
+     * the (time, id) of the cursor and skip is ignored.
+     * Ordinals in order are walked from the highest one and merged with the sorted late matches.
+     */
+    public List<Long> page(OrdinalBitmap matched, Long cursorTime, Long cursorId, int skip, int limit) {
+        int start = size - 1;
+        if (Objects.nonNull(cursorTime)) {
+            int index = firstNotBefore(cursorTime, cursorId);
+            start = index < inOrderSize ? inOrder[index] - 1 : size - 1;
+            skip = 0;
+        }
+        List<Integer> lateMatches = lateMatches(matched, cursorTime, cursorId);
+
+        List<Long> ids = new ArrayList<>(limit);
+        int ordinal = previousInOrder(matched, start);
+        int next = 0;
+        while (ids.size() < limit && (ordinal >= 0 || next < lateMatches.size())) {
+            int current;
+            if (next < lateMatches.size() && (ordinal < 0 || isBefore(ordinal, lateMatches.get(next))))
+                current = lateMatches.get(next++);
+            else {
+                current = ordinal;
+                ordinal = previousInOrder(matched, ordinal - 1);
+            }
+            if (skip > 0)
+                skip--;
+            else
+                ids.add(articleIds[current]);
+        }
+        return ids;
+    }
+
+    /**
+     * Matched late ordinals before the cursor, newest first.
+     */
+    private List<Integer> lateMatches(OrdinalBitmap matched, Long cursorTime, Long cursorId) {
+        List<Integer> matches = new ArrayList<>();
+        if (late.isEmpty())
+            return matches;
+        OrdinalBitmap lateMatched = matched.and(late);
+        for (int ordinal = lateMatched.previous(size - 1); ordinal >= 0; ordinal = lateMatched.previous(ordinal - 1))
+            if (Objects.isNull(cursorTime) || compare(createdAt[ordinal], articleIds[ordinal], cursorTime, cursorId) < 0)
+                matches.add(ordinal);
+        matches.sort((a, b) -> compare(createdAt[b], articleIds[b], createdAt[a], articleIds[a]));
+        return matches;
+    }
+
+    private int previousInOrder(OrdinalBitmap matched, int from) {
+        int ordinal = matched.previous(from);
+        while (ordinal >= 0 && late.contains(ordinal))
+            ordinal = matched.previous(ordinal - 1);
+        return ordinal;
+    }
+
+    private boolean isBefore(int ordinal, int other) {
+        return compare(createdAt[ordinal], articleIds[ordinal], createdAt[other], articleIds[other]) < 0;
+    }
+
+    private static OrdinalBitmap union(Map<Long, OrdinalBitmap> bitmaps, List<Long> ids) {
+        OrdinalBitmap union = EMPTY;
+        for (Long id : ids)
+            union = union.or(bitmaps.getOrDefault(id, EMPTY));
+        return union;
+    }
+
+    /**
+     * Index of the first ordinal in order whose (time, id) is not before the given one.
+     */
+    private int firstNotBefore(long time, long id) {
+        int low = 0;
+        int high = inOrderSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(createdAt[inOrder[middle]], articleIds[inOrder[middle]], time, id) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,273 @@
+package edu.popov.domain.article.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index of article title, description and body ranked by BM25. Documents are numbered in the
+ * order they are added, so each posting list is appended in ascending order and stored as deltas in an int array.
+ * Updated and deleted articles are only marked dead, their postings are dropped by {@link #compact()}.
+ * Searches can run concurrently, writes need exclusive access.
+ */
+public final class ArticleSearchIndex {
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MAX_TERM_LENGTH = 40;
+    // title matches weigh more than description matches, description more than body matches
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int BODY_WEIGHT = 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // posting is delta << 8 | term frequency, larger deltas are split into entries with zero frequency
+    private static final int FREQUENCY_BITS = 8;
+    private static final int MAX_FREQUENCY = (1 << FREQUENCY_BITS) - 1;
+    private static final int MAX_DELTA = Integer.MAX_VALUE >>> FREQUENCY_BITS;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> documents = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] articleIds = new long[16];
+    private int[] lengths = new int[16];
+    private int size;
+    private long liveLength;
+    // score arrays of finished queries, at most one per core is kept
+    private final BlockingQueue<Accumulator> accumulators =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Terms of one article with weighted frequencies, built outside of the index lock.
+     */
+    public record Document(long articleId, Map<String, Integer> frequencies, int length) {
+
+        public static Document of(long articleId, String title, String description, String body) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = count(frequencies, title, TITLE_WEIGHT)
+                    + count(frequencies, description, DESCRIPTION_WEIGHT)
+                    + count(frequencies, body, BODY_WEIGHT);
+            return new Document(articleId, frequencies, length);
+        }
+
+        private static int count(Map<String, Integer> frequencies, String text, int weight) {
+            List<String> terms = terms(text);
+            terms.forEach(term -> frequencies.merge(term, weight, Integer::sum));
+            return terms.size() * weight;
+        }
+    }
+
+    /**
+     * Article ids of the best hits, best first, and number of all matching articles.
+     */
+    public record Hits(List<Long> articleIds, int total) {
+    }
+
+    /**
+     * Lower case words and numbers of the text, too long tokens are skipped.
+     */
+    public static List<String> terms(String text) {
+        if (Objects.isNull(text) || text.isBlank())
+            return List.of();
+        List<String> terms = new ArrayList<>();
+        for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+            if (!token.isEmpty() && token.length() <= MAX_TERM_LENGTH)
+                terms.add(token);
+        return terms;
+    }
+
+    /**
+     * Index the document, previous document of the same article is replaced.
+     */
+    public void add(Document document) {
+        remove(document.articleId());
+        if (size == articleIds.length) {
+            articleIds = Arrays.copyOf(articleIds, size * 2);
+            lengths = Arrays.copyOf(lengths, size * 2);
+        }
+        int doc = size++;
+        articleIds[doc] = document.articleId();
+        lengths[doc] = document.length();
+        documents.put(document.articleId(), doc);
+        live.set(doc);
+        liveLength += document.length();
+        document.frequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new Postings()).append(doc, frequency));
+    }
+
+    public void remove(long articleId) {
+        Integer doc = documents.remove(articleId);
+        if (Objects.isNull(doc))
+            return;
+        live.clear(doc);
+        liveLength -= lengths[doc];
+        if (size - documents.size() > documents.size())
+            compact();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Best hits for any of the terms, one pass over the posting list of each term. Scores are summed
+     * per document, ties are broken by newer document first.
+     */
+    public Hits search(List<String> terms, int limit) {
+        int liveCount = documents.size();
+        if (liveCount == 0 || limit <= 0)
+            return new Hits(List.of(), 0);
+
+        Accumulator accumulator = Objects.requireNonNullElseGet(accumulators.poll(), Accumulator::new).reset(size);
+        float[] scores = accumulator.scores;
+        float averageLength = Math.max(1f, (float) liveLength / liveCount);
+        float lengthNorm = K1 * B / averageLength;
+        for (String term : terms.stream().distinct().toList()) {
+            Postings list = postings.get(term);
+            if (Objects.isNull(list))
+                continue;
+            double frequency = list.documents;
+            float idf = (float) Math.log(1 + (liveCount - frequency + 0.5) / (frequency + 0.5)) * (K1 + 1);
+            int doc = 0;
+            for (int i = 0; i < list.size; i++) {
+                int entry = list.entries[i];
+                doc += entry >>> FREQUENCY_BITS;
+                int tf = entry & MAX_FREQUENCY;
+                if (tf == 0 || !live.get(doc))
+                    continue;
+                if (scores[doc] == 0)
+                    accumulator.touch(doc);
+                scores[doc] += idf * tf / (tf + K1 * (1 - B) + lengthNorm * lengths[doc]);
+            }
+        }
+        Hits hits = new Hits(top(accumulator, limit), accumulator.touched);
+        accumulators.offer(accumulator);
+        return hits;
+    }
+
+    /**
+     * Drop postings of dead documents and renumber live documents, runs when more than half are dead.
+     */
+    public void compact() {
+        int[] renumbered = new int[size];
+        int next = 0;
+        for (int doc = 0; doc < size; doc++) {
+            if (live.get(doc)) {
+                renumbered[doc] = next;
+                articleIds[next] = articleIds[doc];
+                lengths[next] = lengths[doc];
+                documents.put(articleIds[next], next);
+                next++;
+            } else {
+                renumbered[doc] = -1;
+            }
+        }
+        postings.values().removeIf(list -> list.retain(renumbered));
+        live.clear();
+        live.set(0, next);
+        size = next;
+    }
+
+    private List<Long> top(Accumulator accumulator, int limit) {
+        float[] scores = accumulator.scores;
+        PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> a.equals(b) ? 0
+                : scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(a, b));
+        for (int i = 0; i < accumulator.touched; i++) {
+            int doc = accumulator.docs[i];
+            if (best.size() < limit) {
+                best.add(doc);
+            } else if (scores[doc] > scores[best.peek()] || scores[doc] == scores[best.peek()] && doc > best.peek()) {
+                best.poll();
+                best.add(doc);
+            }
+        }
+        Long[] ids = new Long[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--)
+            ids[i] = articleIds[best.poll()];
+        return List.of(ids);
+    }
+
+    /**
+     * Scores of one query, reused by later queries so large indexes do not allocate per query.
+     * Only touched documents are cleared.
+     */
+    private static final class Accumulator {
+
+        private float[] scores = new float[0];
+        private int[] docs = new int[16];
+        private int touched;
+
+        private Accumulator reset(int size) {
+            for (int i = 0; i < touched; i++)
+                scores[docs[i]] = 0;
+            touched = 0;
+            if (scores.length < size)
+                scores = new float[Math.max(size, scores.length * 3 / 2)];
+            return this;
+        }
+
+        private void touch(int doc) {
+            if (touched == docs.length)
+                docs = Arrays.copyOf(docs, touched * 2);
+            docs[touched++] = doc;
+        }
+    }
+
+    private static final class Postings {
+
+        private int[] entries = new int[2];
+        private int size;
+        private int last;
+        // documents in the list, dead ones included until compaction
+        private int documents;
+
+        private void append(int doc, int frequency) {
+            int delta = doc - last;
+            while (delta > MAX_DELTA) {
+                add(MAX_DELTA << FREQUENCY_BITS);
+                delta -= MAX_DELTA;
+            }
+            add(delta << FREQUENCY_BITS | Math.min(Math.max(frequency, 1), MAX_FREQUENCY));
+            last = doc;
+            documents++;
+        }
+
+        /**
+         * Keep postings of renumbered documents only.
+         *
+         * @return true if no postings are left
+         */
+        private boolean retain(int[] renumbered) {
+            int[] old = entries;
+            int oldSize = size;
+            entries = new int[Math.max(2, documents)];
+            size = 0;
+            last = 0;
+            documents = 0;
+            int doc = 0;
+            for (int i = 0; i < oldSize; i++) {
+                doc += old[i] >>> FREQUENCY_BITS;
+                int tf = old[i] & MAX_FREQUENCY;
+                if (tf > 0 && renumbered[doc] >= 0)
+                    append(renumbered[doc], tf);
+            }
+            return documents == 0;
+        }
+
+        private void add(int entry) {
+            if (size == entries.length)
+                entries = Arrays.copyOf(entries, size * 2);
+            entries[size++] = entry;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package edu.popov.domain.article.model;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.tag.entity.TagEntity;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable copy of the article with author and tags, safe to share between requests
+ * and to keep in the cache (no lazy proxies).
+ */
+public record ArticleSnapshot(
+        Long id,
+        String slug,
+        String title,
+        String description,
+        String body,
+        Long authorId,
+        String authorUsername,
+        String authorEmail,
+        List<String> tags,
+        ZonedDateTime createdAt,
+        ZonedDateTime updatedAt,
+        long favoritesCount,
+        long commentsCount
+) {
+
+    public static ArticleSnapshot of(ArticleEntity article) {
+        List<String> tags = List.of();
+        if (Objects.nonNull(article.getTags()))
+            tags = article.getTags().stream().map(TagEntity::getTagName).toList();
+
+        return new ArticleSnapshot(
+                article.getId(),
+                article.getSlug(),
+                article.getTitle(),
+                article.getDescription(),
+                article.getBody(),
+                article.getAuthor().getId(),
+                article.getAuthor().getUsername(),
+                article.getAuthor().getEmail(),
+                tags,
+                article.getCreatedAt(),
+                article.getUpdatedAt(),
+                Objects.requireNonNullElse(article.getFavoritesCount(), 0L),
+                Objects.requireNonNullElse(article.getCommentsCount(), 0L)
+        );
+    }
+
+    public ArticleSnapshot withFavoritesCount(long favoritesCount) {
+        return new ArticleSnapshot(id, slug, title, description, body, authorId, authorUsername, authorEmail,
+                tags, createdAt, updatedAt, favoritesCount, commentsCount);
+    }
+
+}
@@ -0,0 +1,32 @@
+package edu.popov.domain.article.model;
+
+import edu.popov.utils.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static java.lang.String.format;
+
+/**
+ * Position in the comments of an article. Comment ids come from a sequence at insert, so the id alone
+ * orders comments by creation in either direction.
+ * Clients get it as opaque string and send it back to seek to the next page.
+ */
+public record CommentCursor(Long id) {
+
+    private static final String INVALID_CURSOR = "Cursor %s is not valid";
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CommentCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new CommentCursor(Long.parseLong(raw));
+        } catch (RuntimeException e) {
+            throw new BadRequestException(format(INVALID_CURSOR, cursor));
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package edu.popov.domain.article.model;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentParams {
+
+    // oldest (default) or newest first
+    private String order;
+    private Integer limit;
+    private String cursor;
+
+}
@@ -0,0 +1,32 @@
+package edu.popov.domain.article.model;
+
+import edu.popov.utils.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static java.lang.String.format;
+
+/**
+ * Position in the favorites of a profile, ordered by article id desc. The id alone is unique and
+ * never changes, so pages are stable however the favorites are read.
+ * Clients get it as opaque string and send it back to seek to the next page.
+ */
+public record FavoriteCursor(Long articleId) {
+
+    private static final String INVALID_CURSOR = "Cursor %s is not valid";
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(articleId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FavoriteCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new FavoriteCursor(Long.parseLong(raw));
+        } catch (RuntimeException e) {
+            throw new BadRequestException(format(INVALID_CURSOR, cursor));
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package edu.popov.domain.article.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Favorited article ids of every account as one {@link OrdinalBitmap} per account. Article ids come from
+ * a sequence at insert, so walking a bitmap from the highest id lists favorites from the newest article.
+ * Deleted articles are kept in a bitmap of their own and skipped, account bitmaps keep them until the index
+ * is rebuilt. Ids must fit in an int.
+ * Not thread safe, callers synchronize access.
+ */
+public final class FavoriteIndex {
+
+    private final Map<Long, OrdinalBitmap> byAccount = new HashMap<>();
+    private final OrdinalBitmap deleted = new OrdinalBitmap();
+    private int favorites;
+
+    private static final OrdinalBitmap EMPTY = new OrdinalBitmap();
+
+    /**
+     * @return false if the article id does not fit in an int and can not be indexed
+     */
+    public boolean favorite(long articleId, long accountId) {
+        if (!fits(articleId))
+            return false;
+        OrdinalBitmap favorited = byAccount.computeIfAbsent(accountId, id -> new OrdinalBitmap());
+        if (!favorited.contains((int) articleId)) {
+            favorited.add((int) articleId);
+            favorites++;
+        }
+        return true;
+    }
+
+    public void unfavorite(long articleId, long accountId) {
+        OrdinalBitmap favorited = byAccount.get(accountId);
+        if (!fits(articleId) || Objects.isNull(favorited) || !favorited.contains((int) articleId))
+            return;
+        favorited.remove((int) articleId);
+        favorites--;
+        if (favorited.isEmpty())
+            byAccount.remove(accountId);
+    }
+
+    public void remove(long articleId) {
+        if (fits(articleId))
+            deleted.add((int) articleId);
+    }
+
+    public boolean isFavorited(long accountId, long articleId) {
+        return fits(articleId)
+                && byAccount.getOrDefault(accountId, EMPTY).contains((int) articleId)
+                && !deleted.contains((int) articleId);
+    }
+
+    /**
+     * Number of live articles favorited by the account.
+     */
+    public int count(long accountId) {
+        OrdinalBitmap favorited = byAccount.get(accountId);
+        if (Objects.isNull(favorited))
+            return 0;
+        return deleted.isEmpty() ? favorited.cardinality() : favorited.andNot(deleted).cardinality();
+    }
+
+    /**
+     * Ids of one page of live articles favorited by the account, newest first. If before id is set
+     * the page starts with the first lower id and skip is ignored.
+     */
+    public List<Long> page(long accountId, Long beforeId, int skip, int limit) {
+        OrdinalBitmap favorited = byAccount.getOrDefault(accountId, EMPTY);
+        int id = Integer.MAX_VALUE;
+        if (Objects.nonNull(beforeId)) {
+            id = (int) Math.min(beforeId - 1, Integer.MAX_VALUE);
+            skip = 0;
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+        for (id = favorited.previous(id); id >= 0 && ids.size() < limit; id = favorited.previous(id - 1)) {
+            if (deleted.contains(id))
+                continue;
+            if (skip > 0)
+                skip--;
+            else
+                ids.add((long) id);
+        }
+        return ids;
+    }
+
+    public int accounts() {
+        return byAccount.size();
+    }
+
+    public int size() {
+        return favorites;
+    }
+
+    private static boolean fits(long articleId) {
+        return articleId >= 0 && articleId <= Integer.MAX_VALUE;
+    }
+}
@@ -11,5 +11,6 @@ public class FeedParams {
 
     private Integer limit;
     private Integer offset;
+    private String cursor;
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,372 @@
+package edu.popov.domain.article.model;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints split into chunks of 65536 values by the high 16 bits, as in roaring bitmaps.
+ * Sparse chunks keep a sorted array of low bits (2 bytes per value), dense chunks keep a fixed 8 KB bitset.
+ * Not thread safe, callers synchronize access.
+ */
+public final class OrdinalBitmap {
+
+    // above this number of values a bitset is smaller than an array
+    private static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    public void add(int value) {
+        char key = (char) (value >>> 16);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayContainer());
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+
+    public void remove(int value) {
+        int index = indexOf((char) (value >>> 16));
+        if (index < 0)
+            return;
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() == 0)
+            delete(index);
+        else
+            containers[index] = container;
+    }
+
+    public boolean contains(int value) {
+        int index = indexOf((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++)
+            cardinality += containers[i].cardinality();
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Largest value not greater than the given one, -1 if there is none.
+     */
+    public int previous(int value) {
+        if (value < 0)
+            return -1;
+        char key = (char) (value >>> 16);
+        int index = indexOf(key);
+        if (index >= 0) {
+            int low = containers[index].previous((char) value);
+            if (low >= 0)
+                return key << 16 | low;
+            index--;
+        } else {
+            index = -index - 2;
+        }
+        return index >= 0 ? keys[index] << 16 | containers[index].last() : -1;
+    }
+
+    /**
+     * New bitmap with values present in both bitmaps, chunks are intersected pairwise.
+     */
+    public OrdinalBitmap and(OrdinalBitmap other) {
+        OrdinalBitmap result = new OrdinalBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Container container = containers[i].and(other.containers[j]);
+                if (container.cardinality() > 0)
+                    result.insert(result.size, keys[i], container);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * New bitmap with values present in any of the bitmaps.
+     */
+    public OrdinalBitmap or(OrdinalBitmap other) {
+        OrdinalBitmap result = new OrdinalBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+                result.insert(result.size, keys[i], fromWords(containers[i].words()));
+                i++;
+            } else if (i == size || keys[i] > other.keys[j]) {
+                result.insert(result.size, other.keys[j], fromWords(other.containers[j].words()));
+                j++;
+            } else {
+                long[] words = containers[i].words();
+                long[] otherWords = other.containers[j].words();
+                for (int k = 0; k < words.length; k++)
+                    words[k] |= otherWords[k];
+                result.insert(result.size, keys[i], fromWords(words));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * New bitmap with values of this bitmap that are not present in the other one.
+     */
+    public OrdinalBitmap andNot(OrdinalBitmap other) {
+        OrdinalBitmap result = new OrdinalBitmap();
+        for (int i = 0; i < size; i++) {
+            long[] words = containers[i].words();
+            int j = other.indexOf(keys[i]);
+            if (j >= 0) {
+                long[] otherWords = other.containers[j].words();
+                for (int k = 0; k < words.length; k++)
+                    words[k] &= ~otherWords[k];
+            }
+            Container container = fromWords(words);
+            if (container.cardinality() > 0)
+                result.insert(result.size, keys[i], container);
+        }
+        return result;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void delete(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        /**
+         * Largest value not greater than the given one, -1 if there is none.
+         */
+        abstract int previous(char value);
+
+        abstract int last();
+
+        abstract Container and(Container other);
+
+        /**
+         * Values of the chunk as a new bitset.
+         */
+        abstract long[] words();
+    }
+
+    private static Container fromWords(long[] words) {
+        int cardinality = 0;
+        for (long word : words)
+            cardinality += Long.bitCount(word);
+        if (cardinality > ARRAY_MAX)
+            return new BitmapContainer(words, cardinality);
+
+        char[] values = new char[cardinality];
+        int count = 0;
+        for (int i = 0; i < words.length; i++) {
+            long word = words[i];
+            while (word != 0) {
+                values[count++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return new ArrayContainer(values, count);
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0)
+                return this;
+            if (cardinality == ARRAY_MAX)
+                return toBitmap().add(value);
+            index = -index - 1;
+            if (cardinality == values.length)
+                values = Arrays.copyOf(values, Math.max(4, Math.min(cardinality * 2, ARRAY_MAX)));
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index < 0)
+                return this;
+            System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+            cardinality--;
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int previous(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0)
+                return value;
+            index = -index - 2;
+            return index >= 0 ? values[index] : -1;
+        }
+
+        @Override
+        int last() {
+            return values[cardinality - 1];
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++)
+                if (other.contains(values[i]))
+                    result[count++] = values[i];
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[1024];
+            for (int i = 0; i < cardinality; i++)
+                words[values[i] >>> 6] |= 1L << values[i];
+            return words;
+        }
+
+        private BitmapContainer toBitmap() {
+            return new BitmapContainer(words(), cardinality);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0)
+                return this;
+            words[value >>> 6] &= ~bit;
+            cardinality--;
+            return cardinality <= ARRAY_MAX ? fromWords(words) : this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        int previous(char value) {
+            int index = value >>> 6;
+            // bits up to and including the value
+            long word = words[index] & -1L >>> (63 - (value & 63));
+            while (word == 0) {
+                if (--index < 0)
+                    return -1;
+                word = words[index];
+            }
+            return index * 64 + 63 - Long.numberOfLeadingZeros(word);
+        }
+
+        @Override
+        int last() {
+            return previous(Character.MAX_VALUE);
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer)
+                return other.and(this);
+            long[] result = words();
+            long[] otherWords = ((BitmapContainer) other).words;
+            for (int i = 0; i < result.length; i++)
+                result[i] &= otherWords[i];
+            return fromWords(result);
+        }
+
+        @Override
+        long[] words() {
+            return words.clone();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package edu.popov.domain.article.model;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * Ring buffer of the most recent (createdAt, articleId) entries of one author ordered from oldest to newest.
+ * Entries are kept in two primitive arrays, 16 bytes per article. When the buffer is full the oldest entry
+ * is dropped and the buffer is no longer complete: older articles of the author exist only in the database.
+ * Not thread safe, callers synchronize on the buffer.
+ */
+public final class RecentArticleBuffer {
+
+    public static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    private final long[] createdAt;
+    private final long[] articleIds;
+    private int oldest;
+    private int size;
+    private boolean complete = true;
+
+    public RecentArticleBuffer(int capacity) {
+        this.createdAt = new long[capacity];
+        this.articleIds = new long[capacity];
+    }
+
+    /**
+     * Sort key of article time, database rounds timestamps to microseconds.
+     */
+    public static long key(ZonedDateTime time) {
+        Instant instant = time.toInstant();
+        return instant.getEpochSecond() * 1_000_000L + (instant.getNano() + 500) / 1_000;
+    }
+
+    public int capacity() {
+        return articleIds.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void markIncomplete() {
+        complete = false;
+    }
+
+    /**
+     * Add entry keeping the order, usually it is the newest one and goes to the end.
+     */
+    public void add(long time, long articleId) {
+        for (int i = 0; i < size; i++)
+            if (articleIds[index(i)] == articleId)
+                return;
+
+        if (size == capacity()) {
+            if (compare(time, articleId, createdAt[oldest], articleIds[oldest]) < 0) {
+                complete = false;
+                return;
+            }
+            oldest = index(1);
+            size--;
+            complete = false;
+        }
+
+        int position = size;
+        while (position > 0) {
+            int previous = index(position - 1);
+            if (compare(createdAt[previous], articleIds[previous], time, articleId) < 0)
+                break;
+            createdAt[index(position)] = createdAt[previous];
+            articleIds[index(position)] = articleIds[previous];
+            position--;
+        }
+        createdAt[index(position)] = time;
+        articleIds[index(position)] = articleId;
+        size++;
+    }
+
+    public boolean remove(long articleId) {
+        for (int i = 0; i < size; i++) {
+            if (articleIds[index(i)] != articleId)
+                continue;
+            for (int j = i; j < size - 1; j++) {
+                createdAt[index(j)] = createdAt[index(j + 1)];
+                articleIds[index(j)] = articleIds[index(j + 1)];
+            }
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copy of entries from newest to oldest, safe to read without the lock.
+     */
+    public Snapshot snapshot() {
+        long[] times = new long[size];
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            int from = index(size - 1 - i);
+            times[i] = createdAt[from];
+            ids[i] = articleIds[from];
+        }
+        return new Snapshot(times, ids, complete);
+    }
+
+    private int index(int i) {
+        return (oldest + i) % capacity();
+    }
+
+    public static int compare(long time1, long id1, long time2, long id2) {
+        int result = Long.compare(time1, time2);
+        return result != 0 ? result : Long.compare(id1, id2);
+    }
+
+    public record Snapshot(long[] createdAt, long[] articleIds, boolean complete) {
+
+        public int size() {
+            return articleIds.length;
+        }
+
+    }
+}
@@ -0,0 +1,17 @@
+package edu.popov.domain.article.model;
+
+import lombok.*;
+
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchParams {
+
+    // words to find in title, description or body
+    private String q;
+    private Integer limit;
+    private Integer offset;
+
+}
@@ -0,0 +1,21 @@
+package edu.popov.domain.article.model;
+
+import java.util.List;
+
+/**
+ * Tag part of the article filter as dictionary ids: article has all tags of allOf,
+ * at least one tag of anyOf (when it is not empty) and none of the tags of noneOf.
+ */
+public record TagFilter(List<Long> allOf, List<Long> anyOf, List<Long> noneOf) {
+
+    public static final TagFilter NONE = new TagFilter(List.of(), List.of(), List.of());
+
+    public static TagFilter allOf(Long... tagIds) {
+        return new TagFilter(List.of(tagIds), List.of(), List.of());
+    }
+
+    public boolean isEmpty() {
+        return allOf.isEmpty() && anyOf.isEmpty() && noneOf.isEmpty();
+    }
+
+}
@@ -4,41 +4,129 @@ import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.article.entity.ArticleEntity;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
-public interface ArticleRepository extends JpaRepository<ArticleEntity, Long> {
+public interface ArticleRepository extends JpaRepository<ArticleEntity, Long>, ArticleRepositoryCustom {
 
     Optional<ArticleEntity> findBySlug(String slug);
 
     Long deleteBySlug(String slug);
 
+    @Query("SELECT ar FROM Article ar JOIN FETCH ar.author LEFT JOIN FETCH ar.tags WHERE ar.slug = :slug")
+    Optional<ArticleEntity> findWithAuthorAndTagsBySlug(@Param("slug") String slug);
+
+    @Query("SELECT ar FROM Article ar JOIN FETCH ar.author WHERE ar.id IN :ids")
+    List<ArticleEntity> findAllWithAuthorByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Articles with authors in the order of ids, ids of deleted articles are skipped.
+     */
+    default List<ArticleEntity> findAllWithAuthorInOrder(List<Long> ids) {
+        if (ids.isEmpty())
+            return List.of();
+
+        Map<Long, ArticleEntity> articles = new HashMap<>();
+        findAllWithAuthorByIdIn(ids).forEach(article -> articles.put(article.getId(), article));
+        return ids.stream().map(articles::get).filter(Objects::nonNull).toList();
+    }
+
     @Query("SELECT DISTINCT ar FROM Article ar " +
-            "LEFT JOIN ar.tags tag " +
-            "LEFT JOIN ar.author ac " +
-            "LEFT JOIN ar.favoriteList fav " +
+            "JOIN FETCH ar.author ac " +
+            "LEFT JOIN ac.followers fe " +
             "WHERE " +
-            "(:tag IS NULL OR tag.tagName = :tag) AND " +
-            "(:author IS NULL OR ac.username = :author) AND " +
-            "(:favorited IS NULL OR fav.account = :favorited)")
-    List<ArticleEntity> findByFilter(
-            @Param("tag") String tag,
-            @Param("author") String author,
-            @Param("favorited") AccountEntity user,
+            "(fe.userAccount = :follower)")
+    List<ArticleEntity> findByFeed(
+            @Param("follower") AccountEntity user,
             Pageable pageable
     );
 
+    /**
+     * Keyset variant of {@link #findByFeed}: seek to articles older than (createdAt, id) of the cursor.
+     */
     @Query("SELECT DISTINCT ar FROM Article ar " +
-            "LEFT JOIN ar.author ac " +
+            "JOIN FETCH ar.author ac " +
             "LEFT JOIN ac.followers fe " +
             "WHERE " +
-            "(fe.userAccount = :follower)")
-    List<ArticleEntity> findByFeed(
+            "(fe.userAccount = :follower) AND " +
+            "(ar.createdAt < :createdAt OR (ar.createdAt = :createdAt AND ar.id < :id))")
+    List<ArticleEntity> findByFeedBefore(
             @Param("follower") AccountEntity user,
+            @Param("createdAt") ZonedDateTime createdAt,
+            @Param("id") Long id,
             Pageable pageable
     );
 
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE Article ar SET ar.favoritesCount = ar.favoritesCount + :delta WHERE ar.id = :id")
+    int incrementFavoritesCount(@Param("id") Long id, @Param("delta") long delta);
+
+    @Modifying
+    @Query("UPDATE Article ar SET ar.commentsCount = ar.commentsCount + :delta WHERE ar.id = :id")
+    int incrementCommentsCount(@Param("id") Long id, @Param("delta") long delta);
+
+    /**
+     * Repair favorites counters that drifted from favorite, only mismatched rows are written.
+     */
+    @Modifying
+    @Query(value = "UPDATE article ar SET favorites_count = " +
+            "(SELECT COUNT(*) FROM favorite f WHERE f.article_id = ar.id) " +
+            "WHERE ar.favorites_count <> " +
+            "(SELECT COUNT(*) FROM favorite f WHERE f.article_id = ar.id)", nativeQuery = true)
+    int reconcileFavoritesCount();
+
+    /**
+     * Repair comments counters that drifted from comment, only mismatched rows are written.
+     */
+    @Modifying
+    @Query(value = "UPDATE article ar SET comments_count = " +
+            "(SELECT COUNT(*) FROM comment c WHERE c.article_id = ar.id) " +
+            "WHERE ar.comments_count <> " +
+            "(SELECT COUNT(*) FROM comment c WHERE c.article_id = ar.id)", nativeQuery = true)
+    int reconcileCommentsCount();
+
+    /**
+     * All articles in (createdAt, id) order, used to number articles of the bitmap filter index.
+     * Whole tables are read here, so rows are records built by the query instead of projection proxies.
+     */
+    @Query("SELECT new edu.popov.domain.article.repository.ArticleRepository$ArticleOrdinal(ar.id, ar.createdAt, ar.author.id) " +
+            "FROM Article ar ORDER BY ar.createdAt, ar.id")
+    List<ArticleOrdinal> findAllOrdinals();
+
+    @Query("SELECT new edu.popov.domain.article.repository.ArticleRepository$ArticleTag(ar.id, tag.id) " +
+            "FROM Article ar JOIN ar.tags tag")
+    List<ArticleTag> findAllArticleTags();
+
+    @Query("SELECT new edu.popov.domain.article.repository.ArticleRepository$IdRange(MIN(ar.id), MAX(ar.id)) FROM Article ar")
+    IdRange findIdRange();
+
+    /**
+     * Texts of articles with ids in the range, the search index is built from parallel range reads.
+     */
+    @Query("SELECT new edu.popov.domain.article.repository.ArticleRepository$ArticleText(ar.id, ar.title, ar.description, ar.body) " +
+            "FROM Article ar WHERE ar.id BETWEEN :fromId AND :toId")
+    List<ArticleText> findTextsByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    record ArticleOrdinal(Long id, ZonedDateTime createdAt, Long authorId) {
+    }
+
+    // both ids are null when there are no articles
+    record IdRange(Long minId, Long maxId) {
+    }
+
+    record ArticleText(Long id, String title, String description, String body) {
+    }
+
+    record ArticleTag(Long articleId, Long tagId) {
+    }
+
+}
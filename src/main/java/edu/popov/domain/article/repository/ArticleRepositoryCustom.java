@@ -0,0 +1,33 @@
+package edu.popov.domain.article.repository;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.TagFilter;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Queries which shape depends on the filter, so they can not be declared with {@code @Query}.
+ */
+public interface ArticleRepositoryCustom {
+
+    /**
+     * Page of articles with authors matching the filter ordered by (createdAt, id) desc. When cursor is set
+     * the page starts right after it and offset is ignored. Tags and favorites are checked by EXISTS
+     * semi-joins, so rows are not multiplied and no DISTINCT is needed.
+     */
+    List<ArticleEntity> findByFilter(TagFilter tags, String author, AccountEntity favorited, ArticleCursor cursor, int limit, int offset);
+
+    /**
+     * Count articles matching the filter. Only the joins required by not null filter values are used.
+     */
+    long countByFilter(TagFilter tags, String author, AccountEntity favorited);
+
+    /**
+     * Row estimate of the filter from the planner statistics. Empty when database can not provide it.
+     */
+    OptionalLong estimateByFilter(TagFilter tags, String author, AccountEntity favorited);
+
+}
\ No newline at end of file
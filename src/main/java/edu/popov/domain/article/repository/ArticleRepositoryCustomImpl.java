@@ -0,0 +1,151 @@
+package edu.popov.domain.article.repository;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.TagFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RequiredArgsConstructor
+public class ArticleRepositoryCustomImpl implements ArticleRepositoryCustom {
+
+    private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\"\\s*:\\s*(\\d+)");
+    private static final String POSTGRESQL = "PostgreSQL";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    @Override
+    public List<ArticleEntity> findByFilter(TagFilter tags, String author, AccountEntity favorited, ArticleCursor cursor, int limit, int offset) {
+        StringBuilder jpql = new StringBuilder("SELECT ar FROM Article ar JOIN FETCH ar.author ac");
+        Map<String, Object> params = new HashMap<>();
+        List<String> predicates = predicates(tags, author, favorited, params);
+        if (Objects.nonNull(cursor)) {
+            predicates.add("(ar.createdAt < :createdAt OR (ar.createdAt = :createdAt AND ar.id < :id))");
+            params.put("createdAt", cursor.createdAt());
+            params.put("id", cursor.id());
+        }
+        if (!predicates.isEmpty())
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+        jpql.append(" ORDER BY ar.createdAt DESC, ar.id DESC");
+
+        TypedQuery<ArticleEntity> query = entityManager.createQuery(jpql.toString(), ArticleEntity.class);
+        params.forEach(query::setParameter);
+        return query
+                .setFirstResult(Objects.isNull(cursor) ? offset : 0)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public long countByFilter(TagFilter tags, String author, AccountEntity favorited) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(ar) FROM Article ar");
+        if (Objects.nonNull(author))
+            jpql.append(" JOIN ar.author ac");
+        Map<String, Object> params = new HashMap<>();
+        List<String> predicates = predicates(tags, author, favorited, params);
+        if (!predicates.isEmpty())
+            jpql.append(" WHERE ").append(String.join(" AND ", predicates));
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public OptionalLong estimateByFilter(TagFilter tags, String author, AccountEntity favorited) {
+        if (!isPostgres())
+            return OptionalLong.empty();
+
+        StringBuilder sql = new StringBuilder("EXPLAIN (FORMAT JSON) SELECT a.id FROM article a");
+        List<String> predicates = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+
+        for (Long tagId : tags.allOf()) {
+            predicates.add("EXISTS (SELECT 1 FROM article_tag t WHERE t.article_id = a.id AND t.tag_id = ?)");
+            args.add(tagId);
+        }
+        if (!tags.anyOf().isEmpty()) {
+            predicates.add("EXISTS (SELECT 1 FROM article_tag t WHERE t.article_id = a.id AND t.tag_id IN ("
+                    + placeholders(tags.anyOf().size()) + "))");
+            args.addAll(tags.anyOf());
+        }
+        if (!tags.noneOf().isEmpty()) {
+            predicates.add("NOT EXISTS (SELECT 1 FROM article_tag t WHERE t.article_id = a.id AND t.tag_id IN ("
+                    + placeholders(tags.noneOf().size()) + "))");
+            args.addAll(tags.noneOf());
+        }
+        if (Objects.nonNull(author)) {
+            sql.append(" JOIN account ac ON ac.id = a.author_id");
+            predicates.add("ac.user_name = ?");
+            args.add(author);
+        }
+        if (Objects.nonNull(favorited)) {
+            predicates.add("EXISTS (SELECT 1 FROM favorite f WHERE f.article_id = a.id AND f.account_id = ?)");
+            args.add(favorited.getId());
+        }
+        if (!predicates.isEmpty())
+            sql.append(" WHERE ").append(String.join(" AND ", predicates));
+
+        String plan = jdbcTemplate.queryForObject(sql.toString(), String.class, args.toArray());
+        Matcher matcher = PLAN_ROWS.matcher(Objects.requireNonNull(plan));
+        return matcher.find() ? OptionalLong.of(Long.parseLong(matcher.group(1))) : OptionalLong.empty();
+    }
+
+    /**
+     * Filter predicates over article ar, author join must be added by the caller as ac.
+     * Every required tag gets its own semi-join, so the planner can start from the most selective tag.
+     */
+    private static List<String> predicates(TagFilter tags, String author, AccountEntity favorited, Map<String, Object> params) {
+        List<String> predicates = new ArrayList<>();
+        for (int i = 0; i < tags.allOf().size(); i++) {
+            predicates.add("EXISTS (SELECT 1 FROM ar.tags t" + i + " WHERE t" + i + ".id = :allOf" + i + ")");
+            params.put("allOf" + i, tags.allOf().get(i));
+        }
+        if (!tags.anyOf().isEmpty()) {
+            predicates.add("EXISTS (SELECT 1 FROM ar.tags ta WHERE ta.id IN :anyOf)");
+            params.put("anyOf", tags.anyOf());
+        }
+        if (!tags.noneOf().isEmpty()) {
+            predicates.add("NOT EXISTS (SELECT 1 FROM ar.tags tn WHERE tn.id IN :noneOf)");
+            params.put("noneOf", tags.noneOf());
+        }
+        if (Objects.nonNull(author)) {
+            predicates.add("ac.username = :author");
+            params.put("author", author);
+        }
+        if (Objects.nonNull(favorited)) {
+            predicates.add("EXISTS (SELECT 1 FROM Favorite fav WHERE fav.article = ar AND fav.account = :favorited)");
+            params.put("favorited", favorited);
+        }
+        return predicates;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private boolean isPostgres() {
+        if (Objects.isNull(postgres))
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    POSTGRESQL.equals(connection.getMetaData().getDatabaseProductName()));
+        return Boolean.TRUE.equals(postgres);
+    }
+
+}
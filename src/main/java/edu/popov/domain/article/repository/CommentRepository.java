@@ -2,8 +2,14 @@ package edu.popov.domain.article.repository;
 
 import edu.popov.domain.article.entity.ArticleEntity;
 import edu.popov.domain.article.entity.CommentEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,4 +19,92 @@ public interface CommentRepository extends JpaRepository<CommentEntity, Long> {
 
     Optional<CommentEntity> findByIdAndArticle(Long id, ArticleEntity article);
 
+    /**
+     * Delete the comment only if it belongs to the article and was written by the account.
+     *
+     * @return 1 if the comment is deleted, 0 if it is not found or written by someone else
+     */
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :id AND c.article.id = :articleId AND c.account.id = :accountId")
+    int deleteOwned(@Param("id") Long id, @Param("articleId") Long articleId, @Param("accountId") Long accountId);
+
+    /**
+     * Comments of the article, oldest first, with the author read in the same row.
+     */
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentView(" +
+            "c.id, c.body, c.createdAt, c.updatedAt, a.id, a.username, a.bio, a.image, a.followersCount, " +
+            "a.articlesCount, a.updatedAt) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId ORDER BY c.id")
+    List<CommentView> findOldest(@Param("articleId") Long articleId, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findOldest}: seek to comments after the cursor.
+     */
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentView(" +
+            "c.id, c.body, c.createdAt, c.updatedAt, a.id, a.username, a.bio, a.image, a.followersCount, " +
+            "a.articlesCount, a.updatedAt) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId AND c.id > :cursorId ORDER BY c.id")
+    List<CommentView> findOldestAfter(@Param("articleId") Long articleId, @Param("cursorId") Long cursorId,
+                                      Pageable pageable);
+
+    /**
+     * Comments of the article, newest first, with the author read in the same row.
+     */
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentView(" +
+            "c.id, c.body, c.createdAt, c.updatedAt, a.id, a.username, a.bio, a.image, a.followersCount, " +
+            "a.articlesCount, a.updatedAt) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId ORDER BY c.id DESC")
+    List<CommentView> findNewest(@Param("articleId") Long articleId, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findNewest}: seek to comments before the cursor.
+     */
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentView(" +
+            "c.id, c.body, c.createdAt, c.updatedAt, a.id, a.username, a.bio, a.image, a.followersCount, " +
+            "a.articlesCount, a.updatedAt) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId AND c.id < :cursorId ORDER BY c.id DESC")
+    List<CommentView> findNewestBefore(@Param("articleId") Long articleId, @Param("cursorId") Long cursorId,
+                                       Pageable pageable);
+
+    /**
+     * Stamps of {@link #findOldest}: what a page renders without the bodies, for the ETag.
+     */
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentStamp(" +
+            "c.id, c.updatedAt, a.id, a.updatedAt, a.followersCount, a.articlesCount) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId ORDER BY c.id")
+    List<CommentStamp> findOldestStamps(@Param("articleId") Long articleId, Pageable pageable);
+
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentStamp(" +
+            "c.id, c.updatedAt, a.id, a.updatedAt, a.followersCount, a.articlesCount) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId AND c.id > :cursorId ORDER BY c.id")
+    List<CommentStamp> findOldestStampsAfter(@Param("articleId") Long articleId, @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentStamp(" +
+            "c.id, c.updatedAt, a.id, a.updatedAt, a.followersCount, a.articlesCount) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId ORDER BY c.id DESC")
+    List<CommentStamp> findNewestStamps(@Param("articleId") Long articleId, Pageable pageable);
+
+    @Query("SELECT new edu.popov.domain.article.repository.CommentRepository$CommentStamp(" +
+            "c.id, c.updatedAt, a.id, a.updatedAt, a.followersCount, a.articlesCount) FROM Comment c JOIN c.account a " +
+            "WHERE c.article.id = :articleId AND c.id < :cursorId ORDER BY c.id DESC")
+    List<CommentStamp> findNewestStampsBefore(@Param("articleId") Long articleId, @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    record CommentView(Long id, String body, ZonedDateTime createdAt, ZonedDateTime updatedAt, Long authorId,
+                       String authorUsername, String authorBio, String authorImage, Long authorFollowersCount,
+                       Long authorArticlesCount, LocalDateTime authorUpdatedAt) {
+
+        public CommentStamp stamp() {
+            return new CommentStamp(id, updatedAt, authorId, authorUpdatedAt, authorFollowersCount, authorArticlesCount);
+        }
+    }
+
+    /**
+     * Comments can not be edited and a rename updates the account, so the id and timestamps stand for the text.
+     */
+    record CommentStamp(Long id, ZonedDateTime updatedAt, Long authorId, LocalDateTime authorUpdatedAt,
+                        Long authorFollowersCount, Long authorArticlesCount) {
+    }
+
 }
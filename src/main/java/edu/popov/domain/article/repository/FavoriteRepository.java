@@ -2,7 +2,63 @@ package edu.popov.domain.article.repository;
 
 import edu.popov.domain.article.entity.FavoriteEntityId;
 import edu.popov.domain.article.entity.FavoriteEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface FavoriteRepository extends JpaRepository<FavoriteEntity, FavoriteEntityId> {
+
+    @Query("SELECT f.id.articleId FROM Favorite f WHERE f.id.accountId = :accountId AND f.id.articleId IN :articleIds")
+    List<Long> findFavoritedArticleIds(
+            @Param("accountId") Long accountId,
+            @Param("articleIds") Collection<Long> articleIds
+    );
+
+    /**
+     * Favorite the article in one statement, concurrent favorites of the same pair do not fail.
+     *
+     * @return 1 if the article is favorited now, 0 if it was already favorited
+     */
+    @Modifying
+    @Query(value = "INSERT INTO favorite (article_id, account_id) VALUES (:articleId, :accountId) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("articleId") Long articleId, @Param("accountId") Long accountId);
+
+    /**
+     * @return 1 if the article is unfavorited now, 0 if it was not favorited
+     */
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.id.articleId = :articleId AND f.id.accountId = :accountId")
+    int deleteIfPresent(@Param("articleId") Long articleId, @Param("accountId") Long accountId);
+
+    /**
+     * Ids of articles favorited by the account, newest article id first. The primary key starts with
+     * the account id, so the page is a range scan of the key without reading articles.
+     */
+    @Query("SELECT f.id.articleId FROM Favorite f WHERE f.id.accountId = :accountId ORDER BY f.id.articleId DESC")
+    List<Long> findFavoritedIds(@Param("accountId") Long accountId, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findFavoritedIds}: seek to articles with ids below the cursor.
+     */
+    @Query("SELECT f.id.articleId FROM Favorite f WHERE f.id.accountId = :accountId AND f.id.articleId < :cursorId " +
+            "ORDER BY f.id.articleId DESC")
+    List<Long> findFavoritedIdsBefore(
+            @Param("accountId") Long accountId,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    @Query("SELECT new edu.popov.domain.article.repository.FavoriteRepository$FavoritePair(f.id.articleId, f.id.accountId) " +
+            "FROM Favorite f")
+    List<FavoritePair> findAllPairs();
+
+    record FavoritePair(Long articleId, Long accountId) {
+    }
+
 }
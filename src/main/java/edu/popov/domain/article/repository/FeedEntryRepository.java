@@ -0,0 +1,123 @@
+package edu.popov.domain.article.repository;
+
+import edu.popov.domain.article.entity.FeedEntryEntity;
+import edu.popov.domain.article.entity.FeedEntryId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface FeedEntryRepository extends JpaRepository<FeedEntryEntity, FeedEntryId> {
+
+    @Query("SELECT fe.id.articleId AS articleId, fe.createdAt AS createdAt FROM FeedEntry fe " +
+            "WHERE fe.id.followerId = :followerId " +
+            "ORDER BY fe.createdAt DESC, fe.id.articleId DESC")
+    List<FeedItem> findByFollower(@Param("followerId") Long followerId, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findByFollower}: seek to entries older than (createdAt, articleId) of the cursor.
+     */
+    @Query("SELECT fe.id.articleId AS articleId, fe.createdAt AS createdAt FROM FeedEntry fe " +
+            "WHERE fe.id.followerId = :followerId AND " +
+            "(fe.createdAt < :createdAt OR (fe.createdAt = :createdAt AND fe.id.articleId < :articleId)) " +
+            "ORDER BY fe.createdAt DESC, fe.id.articleId DESC")
+    List<FeedItem> findByFollowerBefore(
+            @Param("followerId") Long followerId,
+            @Param("createdAt") ZonedDateTime createdAt,
+            @Param("articleId") Long articleId,
+            Pageable pageable
+    );
+
+    /**
+     * Recent articles of authors that are not fanned out, merged into the feed at read time.
+     */
+    @Query("SELECT ar.id AS articleId, ar.createdAt AS createdAt FROM Article ar " +
+            "WHERE ar.author.id IN :authorIds " +
+            "ORDER BY ar.createdAt DESC, ar.id DESC")
+    List<FeedItem> findByAuthors(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query("SELECT ar.id AS articleId, ar.createdAt AS createdAt FROM Article ar " +
+            "WHERE ar.author.id IN :authorIds AND " +
+            "(ar.createdAt < :createdAt OR (ar.createdAt = :createdAt AND ar.id < :articleId)) " +
+            "ORDER BY ar.createdAt DESC, ar.id DESC")
+    List<FeedItem> findByAuthorsBefore(
+            @Param("authorIds") Collection<Long> authorIds,
+            @Param("createdAt") ZonedDateTime createdAt,
+            @Param("articleId") Long articleId,
+            Pageable pageable
+    );
+
+    /**
+     * Push article to inboxes of all followers of its author, unless author has more than threshold followers.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO feed_entry (follower_id, article_id, author_id, created_at) " +
+            "SELECT fr.user_account_id, ar.id, ar.author_id, ar.created_at FROM article ar " +
+            "JOIN account ac ON ac.id = ar.author_id " +
+            "JOIN follow_relation fr ON fr.account_to_follow_id = ar.author_id " +
+            "WHERE ar.id = :articleId AND ac.followers_count <= :threshold AND NOT EXISTS " +
+            "(SELECT 1 FROM feed_entry fe WHERE fe.follower_id = fr.user_account_id AND fe.article_id = ar.id)",
+            nativeQuery = true)
+    int fanOut(@Param("articleId") Long articleId, @Param("threshold") long threshold);
+
+    /**
+     * Copy recent articles of just followed author into the follower inbox.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO feed_entry (follower_id, article_id, author_id, created_at) " +
+            "SELECT :followerId, ar.id, ar.author_id, ar.created_at FROM article ar " +
+            "JOIN account ac ON ac.id = ar.author_id " +
+            "WHERE ar.author_id = :authorId AND ac.followers_count <= :threshold AND NOT EXISTS " +
+            "(SELECT 1 FROM feed_entry fe WHERE fe.follower_id = :followerId AND fe.article_id = ar.id) " +
+            "ORDER BY ar.created_at DESC, ar.id DESC LIMIT :size",
+            nativeQuery = true)
+    int backfill(
+            @Param("followerId") Long followerId,
+            @Param("authorId") Long authorId,
+            @Param("threshold") long threshold,
+            @Param("size") int size
+    );
+
+    /**
+     * Copy recent articles of the author into inboxes of all followers, only when the author has just dropped
+     * to the threshold. Articles published above the threshold were never fanned out and are no longer
+     * merged in at read time.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO feed_entry (follower_id, article_id, author_id, created_at) " +
+            "SELECT fr.user_account_id, ar.id, ar.author_id, ar.created_at FROM " +
+            "(SELECT id, author_id, created_at FROM article WHERE author_id = :authorId " +
+            "ORDER BY created_at DESC, id DESC LIMIT :size) ar " +
+            "JOIN account ac ON ac.id = ar.author_id " +
+            "JOIN follow_relation fr ON fr.account_to_follow_id = ar.author_id " +
+            "WHERE ac.followers_count = :threshold AND NOT EXISTS " +
+            "(SELECT 1 FROM feed_entry fe WHERE fe.follower_id = fr.user_account_id AND fe.article_id = ar.id)",
+            nativeQuery = true)
+    int backfillFollowers(
+            @Param("authorId") Long authorId,
+            @Param("threshold") long threshold,
+            @Param("size") int size
+    );
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry fe WHERE fe.id.articleId = :articleId")
+    int deleteByArticleId(@Param("articleId") Long articleId);
+
+    @Modifying
+    @Query("DELETE FROM FeedEntry fe WHERE fe.id.followerId = :followerId AND fe.authorId = :authorId")
+    int deleteByFollowerAndAuthor(@Param("followerId") Long followerId, @Param("authorId") Long authorId);
+
+    interface FeedItem {
+
+        Long getArticleId();
+
+        ZonedDateTime getCreatedAt();
+
+    }
+
+}
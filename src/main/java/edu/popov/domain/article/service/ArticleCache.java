@@ -0,0 +1,19 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.model.ArticleSnapshot;
+
+import java.util.Optional;
+
+public interface ArticleCache {
+
+    /**
+     * Article by slug, empty when article is not exist.
+     */
+    Optional<ArticleSnapshot> getBySlug(String slug);
+
+    /**
+     * Drop the slug now and once more after the current transaction is committed.
+     */
+    void invalidate(String slug);
+
+}
@@ -0,0 +1,50 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.model.ArticleSnapshot;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.utils.LruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of article snapshots by slug. Concurrent misses of one slug wait for a single load,
+ * unknown slugs are cached for a short negative ttl so 404 floods do not reach the database.
+ */
+@Service
+public class ArticleCacheImpl implements ArticleCache {
+
+    private static final String CACHE_NAME = "article";
+
+    private final ArticleRepository articleRepository;
+    private final LruCache<String, Optional<ArticleSnapshot>> cache;
+
+    @Value("${article.cache.max-size}")
+    private Integer maxSize;
+    @Value("${article.cache.ttl}")
+    private Duration ttl;
+    @Value("${article.cache.negative-ttl}")
+    private Duration negativeTtl;
+
+    public ArticleCacheImpl(ArticleRepository articleRepository, MeterRegistry meterRegistry) {
+        this.articleRepository = articleRepository;
+        this.cache = LruCache.<String, Optional<ArticleSnapshot>>builder(CACHE_NAME, meterRegistry)
+                .maxSize(() -> maxSize)
+                .ttl(article -> article.isPresent() ? ttl : negativeTtl)
+                .loadResult(article -> article.isPresent() ? "found" : "not_found")
+                .build();
+    }
+
+    @Override
+    public Optional<ArticleSnapshot> getBySlug(String slug) {
+        return cache.get(slug, key -> articleRepository.findWithAuthorAndTagsBySlug(key).map(ArticleSnapshot::of));
+    }
+
+    @Override
+    public void invalidate(String slug) {
+        cache.invalidate(slug);
+    }
+}
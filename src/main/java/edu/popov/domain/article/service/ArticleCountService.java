@@ -0,0 +1,13 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.TagFilter;
+
+public interface ArticleCountService {
+
+    ArticleCount countByFilter(TagFilter tags, String author, AccountEntity favorited);
+
+    void invalidate();
+
+}
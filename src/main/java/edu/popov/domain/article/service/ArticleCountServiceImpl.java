@@ -0,0 +1,92 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCountMode;
+import edu.popov.domain.article.model.TagFilter;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.utils.LruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+@Slf4j
+@Service
+public class ArticleCountServiceImpl implements ArticleCountService {
+
+    private static final String CACHE_NAME = "article_count";
+
+    private final ArticleRepository articleRepository;
+    // least recently used filters are evicted first
+    private final LruCache<String, CachedCount> cache;
+
+    @Value("${article.count.estimate-threshold}")
+    private Long estimateThreshold;
+
+    @Value("${article.count.cache-size}")
+    private Integer cacheSize;
+
+    @Value("${article.count.cache-ttl}")
+    private Duration cacheTtl;
+
+    public ArticleCountServiceImpl(ArticleRepository articleRepository, MeterRegistry meterRegistry) {
+        this.articleRepository = articleRepository;
+        this.cache = LruCache.<String, CachedCount>builder(CACHE_NAME, meterRegistry)
+                .maxSize(() -> cacheSize)
+                .ttl(count -> cacheTtl)
+                .build();
+    }
+
+    /**
+     * Count articles by filter. Cached count is returned first, then planner estimate if it is too
+     * large to count, otherwise the exact count is computed. Estimates and exact counts are cached
+     * under the filter, so a cached filter runs neither the count nor the EXPLAIN.
+     * Author and favorited filters match at most the articles of one account, they are counted
+     * without asking the planner first.
+     */
+    @Override
+    public ArticleCount countByFilter(TagFilter tags, String author, AccountEntity favorited) {
+        String key = key(tags, author, favorited);
+        Optional<CachedCount> cached = cache.getIfPresent(key);
+        if (cached.isPresent())
+            return new ArticleCount(cached.get().count(),
+                    cached.get().estimated() ? ArticleCountMode.ESTIMATED : ArticleCountMode.CACHED);
+
+        long generation = cache.generation();
+        if (Objects.isNull(author) && Objects.isNull(favorited)) {
+            OptionalLong estimate = articleRepository.estimateByFilter(tags, null, null);
+            if (estimate.isPresent() && estimate.getAsLong() >= estimateThreshold) {
+                log.debug("Estimated {} articles for filter {}", estimate.getAsLong(), key);
+                cache.put(key, new CachedCount(estimate.getAsLong(), true), generation);
+                return new ArticleCount(estimate.getAsLong(), ArticleCountMode.ESTIMATED);
+            }
+        }
+
+        long count = articleRepository.countByFilter(tags, author, favorited);
+        cache.put(key, new CachedCount(count, false), generation);
+        return new ArticleCount(count, ArticleCountMode.EXACT);
+    }
+
+    /**
+     * Drop cached counts now and once more after the current transaction is committed.
+     * Called when articles, tags or favorites are written.
+     */
+    @Override
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    private String key(TagFilter tags, String author, AccountEntity favorited) {
+        return tags.toString() + '\u0000' + author + '\u0000' + (Objects.isNull(favorited) ? null : favorited.getId());
+    }
+
+    private record CachedCount(long count, boolean estimated) {
+    }
+
+}
@@ -0,0 +1,39 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.TagFilter;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read side of article filters (tags, author, favorited), implementation is selected by article.filter.engine (sql or bitmap).
+ * Write methods are called by article and favorite write paths inside their transaction.
+ */
+public interface ArticleFilterEngine {
+
+    /**
+     * Page of articles matching all filters that are set, ordered by (createdAt, id) desc, cursor has priority over offset.
+     * Authors must be fetched with the articles.
+     */
+    List<ArticleEntity> findByFilter(TagFilter tags, String author, AccountEntity favorited, ArticleCursor cursor, int limit, int offset);
+
+    ArticleCount countByFilter(TagFilter tags, String author, AccountEntity favorited);
+
+    default void articleCreated(Long articleId, ZonedDateTime createdAt, Long authorId, Collection<Long> tagIds) {
+    }
+
+    default void articleDeleted(Long articleId) {
+    }
+
+    default void articleFavorited(Long articleId, Long accountId) {
+    }
+
+    default void articleUnfavorited(Long articleId, Long accountId) {
+    }
+
+}
@@ -0,0 +1,16 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleSearchIndex;
+
+public interface ArticleSearchService {
+
+    ArticleSearchIndex.Hits search(String query, int limit);
+
+    void articleIndexed(ArticleEntity article);
+
+    void articleRemoved(Long articleId);
+
+    void rebuild();
+
+}
@@ -0,0 +1,133 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleSearchIndex;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.utils.RebuildableIndex;
+import edu.popov.utils.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static java.lang.String.format;
+
+/**
+ * Search is answered from an in-memory {@link ArticleSearchIndex}, only the articles of one page are read
+ * from the database. The index is updated after commit by article writes of this instance and built
+ * on startup from id ranges read and tokenized in parallel. Until the build finishes, search sees
+ * only articles written since startup.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class ArticleSearchServiceImpl implements ArticleSearchService {
+
+    private final ArticleRepository articleRepository;
+
+    @Value("${article.search.max-terms}")
+    private Integer maxTerms;
+    @Value("${article.search.rebuild-threads}")
+    private Integer rebuildThreads;
+    @Value("${article.search.rebuild-chunk-size}")
+    private Integer rebuildChunkSize;
+
+    private static final String QUERY_HAS_NO_TERMS = "Search query has no words";
+    private static final String TOO_MANY_TERMS = "Search query has %d words, at most %d are allowed";
+
+    private final RebuildableIndex<ArticleSearchIndex> searchIndex = new RebuildableIndex<>(new ArticleSearchIndex());
+
+    /**
+     * Best matches of any word of the query, best first.
+     */
+    @Override
+    public ArticleSearchIndex.Hits search(String query, int limit) {
+        List<String> terms = ArticleSearchIndex.terms(query);
+        if (terms.isEmpty()) {
+            log.error(QUERY_HAS_NO_TERMS);
+            throw new BadRequestException(QUERY_HAS_NO_TERMS);
+        }
+        if (terms.size() > maxTerms) {
+            String msg = format(TOO_MANY_TERMS, terms.size(), maxTerms);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+
+        return searchIndex.read(index -> index.search(terms, limit), () -> new ArticleSearchIndex.Hits(List.of(), 0));
+    }
+
+    /**
+     * Index created or updated article, text is tokenized now and applied after commit.
+     */
+    @Override
+    public void articleIndexed(ArticleEntity article) {
+        ArticleSearchIndex.Document document = ArticleSearchIndex.Document.of(
+                article.getId(), article.getTitle(), article.getDescription(), article.getBody());
+        searchIndex.writeAfterCommit(index -> index.add(document));
+    }
+
+    @Override
+    public void articleRemoved(Long articleId) {
+        searchIndex.writeAfterCommit(index -> index.remove(articleId));
+    }
+
+    /**
+     * Build the index from the database, search is answered by the old index meanwhile.
+     * Id ranges are read and tokenized by rebuild-threads workers and added in id order,
+     * at most two ranges per worker are held in memory. Writes committed during the build are replayed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Override
+    public void rebuild() {
+        searchIndex.rebuild(this::load)
+                .ifPresent(rebuilt -> log.info("Article search index is built, {} articles", rebuilt.size()));
+    }
+
+    private ArticleSearchIndex load() {
+        ArticleSearchIndex loaded = new ArticleSearchIndex();
+        ArticleRepository.IdRange range = articleRepository.findIdRange();
+        if (Objects.isNull(range) || Objects.isNull(range.minId()))
+            return loaded;
+
+        ExecutorService executor = Executors.newFixedThreadPool(rebuildThreads);
+        try {
+            Deque<Future<List<ArticleSearchIndex.Document>>> chunks = new ArrayDeque<>();
+            long from = range.minId();
+            while (from <= range.maxId() || !chunks.isEmpty()) {
+                while (from <= range.maxId() && chunks.size() < rebuildThreads * 2) {
+                    long chunkFrom = from;
+                    long chunkTo = Math.min(range.maxId(), from + rebuildChunkSize - 1);
+                    chunks.add(executor.submit(() -> tokenize(chunkFrom, chunkTo)));
+                    from = chunkTo + 1;
+                }
+                chunks.poll().get().forEach(loaded::add);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return loaded;
+    }
+
+    private List<ArticleSearchIndex.Document> tokenize(long fromId, long toId) {
+        return articleRepository.findTextsByIdBetween(fromId, toId).stream()
+                .map(article -> ArticleSearchIndex.Document.of(
+                        article.id(), article.title(), article.description(), article.body()))
+                .toList();
+    }
+}
@@ -3,6 +3,8 @@ package edu.popov.domain.article.service;
 import edu.popov.domain.article.dto.ArticleDTO;
 import edu.popov.domain.article.model.ArticleFilter;
 import edu.popov.domain.article.model.FeedParams;
+import edu.popov.domain.article.model.SearchParams;
+import edu.popov.domain.profile.model.PageParams;
 import edu.popov.security.AccountDetails;
 
 public interface ArticleService {
@@ -13,6 +15,8 @@ public interface ArticleService {
 
     ArticleDTO.SingleArticle<ArticleDTO> getArticleBySlug(String slug, Long userId);
 
+    String getArticleETag(String slug, Long userId);
+
     ArticleDTO.SingleArticle<ArticleDTO> updateArticle(String slug, ArticleDTO.Update articleDTO, Long userId);
 
     void deleteArticle(String slug, String username);
@@ -23,4 +27,8 @@ public interface ArticleService {
 
     ArticleDTO.MultipleArticle getArticlesByFeed(FeedParams feedParams, Long id);
 
-}
\ No newline at end of file
+    ArticleDTO.MultipleArticle searchArticles(SearchParams searchParams, AccountDetails user);
+
+    ArticleDTO.MultipleArticle getFavoritedArticles(String username, PageParams pageParams, Long userId);
+
+}
\ No newline at end of file
@@ -1,34 +1,49 @@
 package edu.popov.domain.article.service;
 
 import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
 import edu.popov.domain.article.dto.ArticleDTO;
 import edu.popov.domain.article.dto.ArticleMapper;
 import edu.popov.domain.article.entity.ArticleEntity;
-import edu.popov.domain.article.entity.FavoriteEntity;
-import edu.popov.domain.article.entity.FavoriteEntityId;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCountMode;
+import edu.popov.domain.article.model.ArticleCursor;
 import edu.popov.domain.article.model.ArticleFilter;
+import edu.popov.domain.article.model.ArticleSearchIndex;
+import edu.popov.domain.article.model.ArticleSnapshot;
+import edu.popov.domain.article.model.FavoriteCursor;
 import edu.popov.domain.article.model.FeedParams;
+import edu.popov.domain.article.model.SearchParams;
+import edu.popov.domain.article.model.TagFilter;
 import edu.popov.domain.article.repository.ArticleRepository;
 import edu.popov.domain.article.repository.FavoriteRepository;
-import edu.popov.domain.article.repository.OffsetBasedPageRequest;
+import edu.popov.domain.profile.model.PageParams;
+import edu.popov.domain.profile.service.ProfileCache;
 import edu.popov.domain.profile.service.ProfileService;
 import edu.popov.domain.tag.entity.TagEntity;
+import edu.popov.domain.tag.service.TagService;
 import edu.popov.security.AccountDetails;
+import edu.popov.utils.ETag;
 import edu.popov.utils.exception.BadRequestException;
 import edu.popov.utils.exception.ForbiddenException;
 import edu.popov.utils.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static java.lang.String.format;
 
@@ -41,10 +56,34 @@ public class ArticleServiceImpl implements ArticleService {
     private final ProfileService profileService;
     private final ArticleMapper articleMapper;
     private final FavoriteRepository favoriteRepository;
+    private final ArticleCountService articleCountService;
+    private final AccountRepository accountRepository;
+    private final FeedService feedService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ArticleCache articleCache;
+    private final TagService tagService;
+    private final ArticleFilterEngine articleFilterEngine;
+    private final ArticleSearchService articleSearchService;
+    private final ProfileCache profileCache;
+    private final FavoriteIndexService favoriteIndexService;
+    private final CommentCache commentCache;
+
+    @Value("${article.pagination.max-offset}")
+    private Integer maxOffset;
+    @Value("${article.filter.max-tags}")
+    private Integer maxTags;
+    @Value("${article.favorites.max-limit}")
+    private Integer maxFavoritesLimit;
+    @Value("${article.search.max-limit}")
+    private Integer maxSearchLimit;
 
     private static final String ARTICLE_NOT_FOUND_BY_SLUG = "Article with slug %s is not found";
     private static final String ARTICLE_ALREADY_EXISTS_BY_SLUG = "Article with slug %s is already exist";
     private static final String IS_NOT_AN_OWNER_OF_ARTICLE = "Article with slug %s is not owned by %s";
+    private static final String OFFSET_IS_TOO_LARGE = "Offset %d is larger than %d, use cursor for deeper pages";
+    private static final String OFFSET_IS_NEGATIVE = "Offset %d is negative";
+    private static final String TOO_MANY_TAGS = "Filter has %d tags, at most %d are allowed";
+    private static final String LIMIT_IS_OUT_OF_RANGE = "Limit %d is out of range, use 1 to %d";
 
     /**
      * Create article and check that article with same slug is not exist
@@ -67,8 +106,7 @@ public class ArticleServiceImpl implements ArticleService {
 
         List<TagEntity> tags = new ArrayList<>();
         if (Objects.nonNull(articleDTO.getTagList()))
-            tags = articleDTO.getTagList().stream()
-                    .map(t -> TagEntity.builder().tagName(t).build()).toList();
+            tags = tagService.resolveTags(articleDTO.getTagList());
 
         ArticleEntity article = ArticleEntity.builder()
                 .slug(slug)
@@ -82,33 +120,54 @@ public class ArticleServiceImpl implements ArticleService {
                 .build();
         tags.forEach(article::addTag);
 
+        ArticleEntity savedArticle = articleRepository.save(article);
+        // slug could be cached as not found
+        articleCache.invalidate(slug);
+        tagService.articleTagsAdded(tags.stream().map(TagEntity::getTagName).toList());
+        articleFilterEngine.articleCreated(savedArticle.getId(), savedArticle.getCreatedAt(), author.getId(),
+                tags.stream().map(TagEntity::getId).toList());
+        articleSearchService.articleIndexed(savedArticle);
+        accountRepository.incrementArticlesCount(author.getId(), 1);
+        author.setArticlesCount(author.getArticlesCount() + 1);
+        profileCache.invalidate(author.getId());
+        eventPublisher.publishEvent(new ArticleCreatedEvent(
+                savedArticle.getId(), author.getId(), savedArticle.getCreatedAt()));
+
         ArticleDTO.SingleArticle<ArticleDTO> articleDto = new ArticleDTO.SingleArticle<>(articleMapper.mapToSingleArticleDTO(
-                articleRepository.save(article), userId));
+                savedArticle, userId));
+        articleCountService.invalidate();
         log.info("Create article {}", articleDto);
 
         return articleDto;
     }
 
     /**
-     * Return slug by slug
+     * Return slug by slug, article is read through {@link ArticleCache}.
      */
     @Override
     @Transactional(readOnly = true)
     public ArticleDTO.SingleArticle<ArticleDTO> getArticleBySlug(String slug, Long userId) {
-        Optional<ArticleEntity> optionalArticle = articleRepository.findBySlug(slug);
-        if (optionalArticle.isEmpty()) {
-            String msg = format(ARTICLE_NOT_FOUND_BY_SLUG, slug);
-            log.error(msg);
-            throw new NotFoundException(msg);
-        }
-
-        ArticleEntity article = optionalArticle.get();
+        ArticleSnapshot article = getSnapshot(slug);
 
         ArticleDTO.SingleArticle<ArticleDTO> articleDto = new ArticleDTO.SingleArticle<>(articleMapper.mapToSingleArticleDTO(article, userId));
         log.info(articleDto.toString());
         return articleDto;
     }
 
+    /**
+     * Version of the single article response for the viewer, built without the mapper.
+     * Author profile is part of the response, so its version is included too.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getArticleETag(String slug, Long userId) {
+        ArticleSnapshot article = getSnapshot(slug);
+        boolean favorited = favoriteIndexService.isFavorited(userId, article.id());
+
+        return ETag.of(article.id(), article.updatedAt(), article.favoritesCount(), article.commentsCount(),
+                article.tags(), favorited, profileService.getProfileETagById(article.authorId(), userId));
+    }
+
     /**
      * Update article by slug and check, that slug with the same name is not exist
      */
@@ -125,8 +184,10 @@ public class ArticleServiceImpl implements ArticleService {
 
         ArticleEntity articleEntity = optionalArticle.get();
 
+        articleCache.invalidate(slug);
         if (Objects.nonNull(articleDTO.getTitle())) {
             String newSlug = String.join("-", articleDTO.getTitle().split(" "));
+            articleCache.invalidate(newSlug);
             articleEntity.setSlug(newSlug);
             articleEntity.setTitle(articleDTO.getTitle());
         }
@@ -135,9 +196,12 @@ public class ArticleServiceImpl implements ArticleService {
             articleEntity.setDescription(articleDTO.getDescription());
         if (Objects.nonNull(articleDTO.getBody()))
             articleEntity.setBody(articleDTO.getBody());
+        articleEntity.setUpdatedAt(ZonedDateTime.now());
 
+        ArticleEntity savedArticle = articleRepository.save(articleEntity);
+        articleSearchService.articleIndexed(savedArticle);
         ArticleDTO.SingleArticle<ArticleDTO> articleDto = new ArticleDTO.SingleArticle<>(articleMapper.mapToSingleArticleDTO(
-                articleRepository.save(articleEntity), userId
+                savedArticle, userId
         ));
         log.info("Create article {}", articleDto);
         return articleDto;
@@ -157,9 +221,20 @@ public class ArticleServiceImpl implements ArticleService {
             throw new NotFoundException(msg);
         }
 
-        if (optionalArticle.get().getAuthor().getEmail().equals(username)) {
+        AccountEntity author = optionalArticle.get().getAuthor();
+        if (author.getEmail().equals(username)) {
             log.info("Deleting article with slug {}", slug);
+            feedService.articleDeleted(optionalArticle.get());
+            tagService.articleTagsRemoved(optionalArticle.get().getTags().stream().map(TagEntity::getTagName).toList());
             articleRepository.deleteBySlug(slug);
+            articleFilterEngine.articleDeleted(optionalArticle.get().getId());
+            favoriteIndexService.articleDeleted(optionalArticle.get().getId());
+            articleSearchService.articleRemoved(optionalArticle.get().getId());
+            articleCache.invalidate(slug);
+            commentCache.invalidate(optionalArticle.get().getId());
+            accountRepository.incrementArticlesCount(author.getId(), -1);
+            profileCache.invalidate(author.getId());
+            articleCountService.invalidate();
             return;
         }
         String msg = format(IS_NOT_AN_OWNER_OF_ARTICLE, slug, username);
@@ -169,7 +244,12 @@ public class ArticleServiceImpl implements ArticleService {
 
     /**
      * Get article by user filters (tags, author), also can set pagination and offset.
-     * Favorite article other users can be seen by set favorited filter (username)
+     * Favorite article other users can be seen by set favorited filter (username).
+     * If cursor is set then offset is ignored and page starts right after the cursor.
+     * Article must have all tags of tag, one of the tags of anyTag and none of notTag.
+     * Tags are resolved to dictionary ids first, unknown required tag has no articles.
+     * Articles and count are read by the configured {@link ArticleFilterEngine}, only favorited filter is a walk
+     * over the bitmap of the {@link FavoriteIndexService}, newest article id first.
      */
     @Override
     @Transactional(readOnly = true)
@@ -183,8 +263,6 @@ public class ArticleServiceImpl implements ArticleService {
         if (articleFilter.getOffset() != null)
             offset = articleFilter.getOffset();
 
-        Pageable pageable = new OffsetBasedPageRequest(limit, offset, Sort.by(Sort.Order.desc("createdAt")));
-
         AccountEntity account = null;
         if (articleFilter.getFavorited() != null)
             account = profileService.getAccountByUsername(articleFilter.getFavorited());
@@ -193,84 +271,162 @@ public class ArticleServiceImpl implements ArticleService {
         if (user != null)
             userId = user.id();
 
-        List<ArticleDTO> articles = articleMapper.mapToMultipleArticleDTOList(
-                articleRepository.findByFilter(articleFilter.getTag(), articleFilter.getAuthor(), account, pageable),
-                userId);
+        Optional<TagFilter> optionalTags = resolveTagFilter(articleFilter);
+        if (optionalTags.isEmpty())
+            return ArticleDTO.MultipleArticle.builder()
+                    .articles(List.of())
+                    .articlesCount(0)
+                    .articlesCountMode(ArticleCountMode.EXACT)
+                    .build();
+        TagFilter tags = optionalTags.get();
+
+        ArticleCursor cursor = null;
+        if (articleFilter.getCursor() != null)
+            cursor = ArticleCursor.decode(articleFilter.getCursor());
+        else
+            checkOffset(offset);
+
+        Optional<List<Long>> favoritedIds = Optional.empty();
+        if (account != null && tags.isEmpty() && articleFilter.getAuthor() == null)
+            favoritedIds = favoriteIndexService.findFavoritedPage(account.getId(), cursor, limit, offset);
+
+        List<ArticleEntity> articleEntities;
+        ArticleCount count;
+        if (favoritedIds.isPresent()) {
+            articleEntities = articleRepository.findAllWithAuthorInOrder(favoritedIds.get());
+            AccountEntity favoritedBy = account;
+            count = favoriteIndexService.countFavorited(favoritedBy.getId())
+                    .map(favorites -> new ArticleCount(favorites, ArticleCountMode.EXACT))
+                    .orElseGet(() -> articleFilterEngine.countByFilter(tags, null, favoritedBy));
+        } else {
+            articleEntities = articleFilterEngine.findByFilter(
+                    tags, articleFilter.getAuthor(), account, cursor, limit, offset);
+            count = articleFilterEngine.countByFilter(tags, articleFilter.getAuthor(), account);
+        }
+
+        List<ArticleDTO> articles = articleMapper.mapToMultipleArticleDTOList(articleEntities, userId);
         ArticleDTO.MultipleArticle articleDto = ArticleDTO.MultipleArticle.builder()
                 .articles(
                         articles
                 )
-                .articlesCount(articles.size())
+                .articlesCount((int) count.count())
+                .articlesCountMode(count.mode())
+                .nextCursor(nextCursor(articleEntities, limit))
                 .build();
         log.debug("Return article {}", articleDto);
         return articleDto;
     }
 
     /**
-     * Add article to favorite.
+     * Articles matching words of the query in title, description or body, best match first.
+     * Ranking is done by {@link ArticleSearchService}, only articles of the page are read from the database.
      */
     @Override
-    public ArticleDTO.SingleArticle<ArticleDTO> favoriteArticle(String slug, Long userId) {
-        Optional<ArticleEntity> optionalArticle = articleRepository.findBySlug(slug);
-        if (optionalArticle.isEmpty()) {
-            String msg = format(ARTICLE_NOT_FOUND_BY_SLUG, slug);
-            log.error(msg);
-            throw new NotFoundException(msg);
-        }
+    @Transactional(readOnly = true)
+    public ArticleDTO.MultipleArticle searchArticles(SearchParams searchParams, AccountDetails user) {
 
-        ArticleEntity articleEntity = optionalArticle.get();
-        AccountEntity user = profileService.getAccountById(userId);
+        int limit = checkLimit(searchParams.getLimit(), maxSearchLimit);
+        int offset = 0;
 
-        FavoriteEntityId favoriteEntityId = FavoriteEntityId.builder()
-                .articleId(articleEntity.getId())
-                .accountId(user.getId())
-                .build();
+        if (searchParams.getOffset() != null)
+            offset = searchParams.getOffset();
+        checkOffset(offset);
 
-        if (favoriteRepository.findById(favoriteEntityId).isPresent()) {
-            return getArticleBySlug(slug, userId);
-        }
+        Long userId = null;
+        if (user != null)
+            userId = user.id();
 
-        FavoriteEntity favorite = FavoriteEntity.builder()
-                .id(favoriteEntityId)
-                .article(articleEntity)
-                .account(user)
-                .build();
-        favoriteRepository.save(favorite);
+        ArticleSearchIndex.Hits hits = articleSearchService.search(searchParams.getQ(), offset + limit);
+        List<Long> ids = hits.articleIds().subList(Math.min(offset, hits.articleIds().size()), hits.articleIds().size());
 
-        return getArticleBySlug(slug, userId);
+        List<ArticleDTO> articles = articleMapper.mapToMultipleArticleDTOList(articleRepository.findAllWithAuthorInOrder(ids), userId);
+        return ArticleDTO.MultipleArticle.builder()
+                .articles(articles)
+                .articlesCount(hits.total())
+                .articlesCountMode(ArticleCountMode.EXACT)
+                .build();
     }
 
     /**
-     * Remove article from favorite
+     * Articles favorited by the profile, newest article id first. Ids of the page are a keyset range
+     * of the favorite key, only articles of the page are read. Unlike the favorited filter the order and
+     * the cursor do not depend on whether the favorite index is built.
      */
     @Override
-    public ArticleDTO.SingleArticle<ArticleDTO> unfavoriteArticle(String slug, Long userId) {
-        Optional<ArticleEntity> optionalArticle = articleRepository.findBySlug(slug);
-        if (optionalArticle.isEmpty()) {
-            String msg = format(ARTICLE_NOT_FOUND_BY_SLUG, slug);
-            log.error(msg);
-            throw new NotFoundException(msg);
+    @Transactional(readOnly = true)
+    public ArticleDTO.MultipleArticle getFavoritedArticles(String username, PageParams pageParams, Long userId) {
+        int limit = checkLimit(pageParams.getLimit(), maxFavoritesLimit);
+        AccountEntity account = profileService.getAccountByUsername(username);
+
+        Pageable page = PageRequest.of(0, limit);
+        List<Long> ids;
+        if (Objects.isNull(pageParams.getCursor()))
+            ids = favoriteRepository.findFavoritedIds(account.getId(), page);
+        else {
+            FavoriteCursor cursor = FavoriteCursor.decode(pageParams.getCursor());
+            ids = favoriteRepository.findFavoritedIdsBefore(account.getId(), cursor.articleId(), page);
         }
 
-        ArticleEntity articleEntity = optionalArticle.get();
-        AccountEntity user = profileService.getAccountById(userId);
+        ArticleCount count = favoriteIndexService.countFavorited(account.getId())
+                .map(favorites -> new ArticleCount(favorites, ArticleCountMode.EXACT))
+                .orElseGet(() -> articleFilterEngine.countByFilter(TagFilter.NONE, null, account));
 
-        FavoriteEntityId favoriteEntityId = FavoriteEntityId.builder()
-                .articleId(articleEntity.getId())
-                .accountId(user.getId())
+        List<ArticleDTO> articles = articleMapper.mapToMultipleArticleDTOList(articleRepository.findAllWithAuthorInOrder(ids), userId);
+        return ArticleDTO.MultipleArticle.builder()
+                .articles(articles)
+                .articlesCount((int) count.count())
+                .articlesCountMode(count.mode())
+                .nextCursor(ids.size() < limit ? null : new FavoriteCursor(ids.get(ids.size() - 1)).encode())
                 .build();
+    }
 
-        if (favoriteRepository.findById(favoriteEntityId).isEmpty())
-            return getArticleBySlug(slug, userId);
+    /**
+     * Add article to favorite. The favorite is inserted by one conditional statement and the counter is only
+     * moved when the row is new, the response is built from the cached article.
+     */
+    @Override
+    @Transactional
+    public ArticleDTO.SingleArticle<ArticleDTO> favoriteArticle(String slug, Long userId) {
+        ArticleSnapshot article = getSnapshot(slug);
+
+        if (favoriteRepository.insertIfAbsent(article.id(), userId) == 0)
+            return new ArticleDTO.SingleArticle<>(articleMapper.mapToSingleArticleDTO(article, userId, true));
+
+        articleRepository.incrementFavoritesCount(article.id(), 1);
+        articleFilterEngine.articleFavorited(article.id(), userId);
+        favoriteIndexService.articleFavorited(article.id(), userId);
+        articleCache.invalidate(slug);
+        articleCountService.invalidate();
+
+        return new ArticleDTO.SingleArticle<>(articleMapper.mapToSingleArticleDTO(
+                article.withFavoritesCount(article.favoritesCount() + 1), userId, true));
+    }
+
+    /**
+     * Remove article from favorite, by one conditional delete.
+     */
+    @Override
+    @Transactional
+    public ArticleDTO.SingleArticle<ArticleDTO> unfavoriteArticle(String slug, Long userId) {
+        ArticleSnapshot article = getSnapshot(slug);
+
+        if (favoriteRepository.deleteIfPresent(article.id(), userId) == 0)
+            return new ArticleDTO.SingleArticle<>(articleMapper.mapToSingleArticleDTO(article, userId, false));
 
-        favoriteRepository.deleteById(favoriteEntityId);
+        articleRepository.incrementFavoritesCount(article.id(), -1);
+        articleFilterEngine.articleUnfavorited(article.id(), userId);
+        favoriteIndexService.articleUnfavorited(article.id(), userId);
+        articleCache.invalidate(slug);
+        articleCountService.invalidate();
 
-        return getArticleBySlug(slug, userId);
+        return new ArticleDTO.SingleArticle<>(articleMapper.mapToSingleArticleDTO(
+                article.withFavoritesCount(article.favoritesCount() - 1), userId, false));
     }
 
     /**
      * For authenticated users we can show feed -> recent articles of followed profiles.
-     * Pagination and offset available.
+     * Pagination and offset available, cursor can be used instead of offset.
+     * Feed is read by the configured {@link FeedEngine}.
      */
     @Override
     @Transactional(readOnly = true)
@@ -284,16 +440,109 @@ public class ArticleServiceImpl implements ArticleService {
         if (feedParams.getOffset() != null)
             offset = feedParams.getOffset();
 
-        Pageable pageable = new OffsetBasedPageRequest(limit, offset, Sort.by(Sort.Order.desc("createdAt")));
-
         AccountEntity user = profileService.getAccountById(userId);
 
-        List<ArticleDTO> articles = articleMapper.mapToMultipleArticleDTOList(
-                articleRepository.findByFeed(user, pageable),
-                userId);
+        ArticleCursor cursor = null;
+        if (feedParams.getCursor() != null)
+            cursor = ArticleCursor.decode(feedParams.getCursor());
+        else
+            checkOffset(offset);
+
+        List<ArticleEntity> articleEntities = feedService.getFeed(user.getId(), cursor, limit, offset);
+
+        List<ArticleDTO> articles = articleMapper.mapToMultipleArticleDTOList(articleEntities, userId);
         return ArticleDTO.MultipleArticle.builder()
                 .articles(articles)
                 .articlesCount(articles.size())
+                .nextCursor(nextCursor(articleEntities, limit))
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Tag names of the filter as dictionary ids, resolved by one statement. Empty when nothing can match:
+     * a tag of tag is unknown or no tag of anyTag is known. Unknown tags of notTag are ignored.
+     */
+    private Optional<TagFilter> resolveTagFilter(ArticleFilter articleFilter) {
+        List<String> allOf = tagNames(articleFilter.getTag());
+        List<String> anyOf = tagNames(articleFilter.getAnyTag());
+        List<String> noneOf = tagNames(articleFilter.getNotTag());
+
+        int tagsCount = allOf.size() + anyOf.size() + noneOf.size();
+        if (tagsCount > maxTags) {
+            String msg = format(TOO_MANY_TAGS, tagsCount, maxTags);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        if (tagsCount == 0)
+            return Optional.of(TagFilter.NONE);
+
+        Map<String, Long> ids = tagService.findTagIds(
+                Stream.of(allOf, anyOf, noneOf).flatMap(List::stream).distinct().toList());
+        if (!ids.keySet().containsAll(allOf))
+            return Optional.empty();
+        List<Long> anyOfIds = anyOf.stream().map(ids::get).filter(Objects::nonNull).toList();
+        if (!anyOf.isEmpty() && anyOfIds.isEmpty())
+            return Optional.empty();
+
+        return Optional.of(new TagFilter(
+                allOf.stream().map(ids::get).toList(),
+                anyOfIds,
+                noneOf.stream().map(ids::get).filter(Objects::nonNull).toList()));
+    }
+
+    private static List<String> tagNames(List<String> tagNames) {
+        if (Objects.isNull(tagNames))
+            return List.of();
+        return tagNames.stream().filter(tagName -> !tagName.isBlank()).distinct().toList();
+    }
+
+    private ArticleSnapshot getSnapshot(String slug) {
+        Optional<ArticleSnapshot> optionalArticle = articleCache.getBySlug(slug);
+        if (optionalArticle.isEmpty()) {
+            String msg = format(ARTICLE_NOT_FOUND_BY_SLUG, slug);
+            log.error(msg);
+            throw new NotFoundException(msg);
+        }
+        return optionalArticle.get();
+    }
+
+    /**
+     * Offset pagination is kept for spec compatibility, but deep offsets are rejected:
+     * the database has to read and drop every skipped row.
+     */
+    private void checkOffset(int offset) {
+        if (offset < 0) {
+            String msg = format(OFFSET_IS_NEGATIVE, offset);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        if (offset > maxOffset) {
+            String msg = format(OFFSET_IS_TOO_LARGE, offset, maxOffset);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+    }
+
+    /**
+     * Page size of the request, 20 when not set. Pages are held in memory, so the size is bounded.
+     */
+    private int checkLimit(Integer limit, int maxLimit) {
+        if (Objects.isNull(limit))
+            return 20;
+        if (limit < 1 || limit > maxLimit) {
+            String msg = format(LIMIT_IS_OUT_OF_RANGE, limit, maxLimit);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        return limit;
+    }
+
+    /**
+     * Cursor of the last article of the page, null when there are no more pages.
+     */
+    private String nextCursor(List<ArticleEntity> page, int limit) {
+        if (page.isEmpty() || page.size() < limit)
+            return null;
+        return ArticleCursor.of(page.get(page.size() - 1)).encode();
+    }
+}
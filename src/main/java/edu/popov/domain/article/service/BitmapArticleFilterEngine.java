@@ -0,0 +1,157 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCountMode;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.ArticleFilterIndex;
+import edu.popov.domain.article.model.OrdinalBitmap;
+import edu.popov.domain.article.model.RecentArticleBuffer;
+import edu.popov.domain.article.model.TagFilter;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FavoriteRepository;
+import edu.popov.utils.RebuildableIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Filters are answered from an in-memory {@link ArticleFilterIndex}: the matching ordinals are intersected
+ * in memory, and only the ids of one page are fetched from the database. Counts are exact bitmap cardinalities.
+ * The index is built on startup and rebuilt on article.filter.bitmap.rebuild-cron. Writes of other
+ * instances are only picked up by the rebuild. Until the index is built reads go to {@link SqlArticleFilterEngine},
+ * and the build is started in the background, request threads never wait for it.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@ConditionalOnProperty(name = "article.filter.engine", havingValue = "bitmap")
+public class BitmapArticleFilterEngine implements ArticleFilterEngine {
+
+    private final ArticleRepository articleRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final AccountRepository accountRepository;
+    private final ArticleCountService articleCountService;
+
+    private final RebuildableIndex<ArticleFilterIndex> filterIndex = new RebuildableIndex<>();
+
+    private static final Long UNKNOWN_AUTHOR = -1L;
+
+    @Override
+    public List<ArticleEntity> findByFilter(TagFilter tags, String author, AccountEntity favorited, ArticleCursor cursor, int limit, int offset) {
+        Long authorId = authorId(author);
+        List<Long> ids = read(index -> {
+            OrdinalBitmap matched = index.match(tags, authorId, favoriterId(favorited));
+            if (Objects.isNull(cursor))
+                return index.page(matched, null, null, offset, limit);
+            return index.page(matched, RecentArticleBuffer.key(cursor.createdAt()), cursor.id(), 0, limit);
+        });
+        if (Objects.isNull(ids))
+            return fallbackEngine().findByFilter(tags, author, favorited, cursor, limit, offset);
+        return articleRepository.findAllWithAuthorInOrder(ids);
+    }
+
+    @Override
+    public ArticleCount countByFilter(TagFilter tags, String author, AccountEntity favorited) {
+        Long authorId = authorId(author);
+        Integer count = read(index -> index.match(tags, authorId, favoriterId(favorited)).cardinality());
+        if (Objects.isNull(count))
+            return fallbackEngine().countByFilter(tags, author, favorited);
+        return new ArticleCount(count, ArticleCountMode.EXACT);
+    }
+
+    @Override
+    public void articleCreated(Long articleId, ZonedDateTime createdAt, Long authorId, Collection<Long> tagIds) {
+        long time = RecentArticleBuffer.key(createdAt);
+        List<Long> tags = List.copyOf(tagIds);
+        filterIndex.writeAfterCommit(index -> index.add(articleId, time, authorId, tags));
+    }
+
+    @Override
+    public void articleDeleted(Long articleId) {
+        filterIndex.writeAfterCommit(index -> index.remove(articleId));
+    }
+
+    @Override
+    public void articleFavorited(Long articleId, Long accountId) {
+        filterIndex.writeAfterCommit(index -> index.favorite(articleId, accountId));
+    }
+
+    @Override
+    public void articleUnfavorited(Long articleId, Long accountId) {
+        filterIndex.writeAfterCommit(index -> index.unfavorite(articleId, accountId));
+    }
+
+    /**
+     * Build the index from the database, reads are answered by the old index meanwhile.
+     * Writes committed during the load are replayed on the new index, all writes are idempotent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${article.filter.bitmap.rebuild-cron}")
+    public void rebuild() {
+        filterIndex.rebuild(this::load)
+                .ifPresent(rebuilt -> log.info("Article filter index is built, {} articles", rebuilt.size()));
+    }
+
+    private ArticleFilterIndex load() {
+        Map<Long, List<Long>> tags = new HashMap<>();
+        articleRepository.findAllArticleTags().forEach(articleTag ->
+                tags.computeIfAbsent(articleTag.articleId(), id -> new ArrayList<>()).add(articleTag.tagId()));
+
+        ArticleFilterIndex loaded = new ArticleFilterIndex();
+        articleRepository.findAllOrdinals().forEach(article -> loaded.add(
+                article.id(), RecentArticleBuffer.key(article.createdAt()), article.authorId(),
+                tags.getOrDefault(article.id(), List.of())));
+        favoriteRepository.findAllPairs().forEach(favorite -> loaded.favorite(favorite.articleId(), favorite.accountId()));
+        return loaded;
+    }
+
+    /**
+     * Query the index, null when there is no index: the caller reads from the database and the index
+     * is built in the background unless a build is already running.
+     */
+    private <T> T read(Function<ArticleFilterIndex, T> query) {
+        return filterIndex.read(query, () -> {
+            if (!filterIndex.isRebuilding())
+                CompletableFuture.runAsync(this::rebuild)
+                        .exceptionally(e -> {
+                            log.error("Article filter index is not built", e);
+                            return null;
+                        });
+            return null;
+        });
+    }
+
+    /**
+     * Author id of the filter, null if not set. Unknown author has no bitmap, so nothing matches.
+     */
+    private Long authorId(String author) {
+        if (Objects.isNull(author))
+            return null;
+        return accountRepository.findByUsername(author).map(AccountEntity::getId).orElse(UNKNOWN_AUTHOR);
+    }
+
+    private static Long favoriterId(AccountEntity favorited) {
+        return Objects.isNull(favorited) ? null : favorited.getId();
+    }
+
+    private SqlArticleFilterEngine fallbackEngine() {
+        return new SqlArticleFilterEngine(articleRepository, articleCountService);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.repository.CommentRepository.CommentView;
+
+import java.util.List;
+
+public interface CommentCache {
+
+    /**
+     * First article.comments.default-limit comments of the article with their authors, oldest or newest first.
+     */
+    List<CommentView> getFirstPage(Long articleId, boolean newestFirst);
+
+    /**
+     * Drop both pages of the article now and once more after the current transaction is committed.
+     */
+    void invalidate(Long articleId);
+
+}
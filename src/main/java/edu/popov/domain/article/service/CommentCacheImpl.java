@@ -0,0 +1,78 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.repository.CommentRepository;
+import edu.popov.domain.article.repository.CommentRepository.CommentView;
+import edu.popov.utils.LruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * LRU cache of the first comment page of each article, bounded by the estimated bytes of the pages rather than
+ * their number as threads vary in size. Concurrent misses of one page wait for a single load. Pages are dropped
+ * by comment writes and article deletes of this instance, author updates and writes of other instances are seen
+ * after article.comments.cache.ttl. Following flags depend on the viewer and are not cached.
+ */
+@Service
+public class CommentCacheImpl implements CommentCache {
+
+    private static final String CACHE_NAME = "comment";
+    // headers, references and fixed width fields of a row and its strings
+    private static final int ROW_OVERHEAD_BYTES = 160;
+    private static final int PAGE_OVERHEAD_BYTES = 96;
+
+    private final CommentRepository commentRepository;
+    private final LruCache<Key, List<CommentView>> cache;
+
+    @Value("${article.comments.default-limit}")
+    private Integer pageSize;
+    @Value("${article.comments.cache.budget}")
+    private DataSize budget;
+    @Value("${article.comments.cache.ttl}")
+    private Duration ttl;
+
+    public CommentCacheImpl(CommentRepository commentRepository, MeterRegistry meterRegistry) {
+        this.commentRepository = commentRepository;
+        this.cache = LruCache.<Key, List<CommentView>>builder(CACHE_NAME, meterRegistry)
+                .budget(() -> budget, CommentCacheImpl::weigh)
+                .ttl(comments -> ttl)
+                .build();
+    }
+
+    @Override
+    public List<CommentView> getFirstPage(Long articleId, boolean newestFirst) {
+        return cache.get(new Key(articleId, newestFirst), key -> {
+            Pageable page = PageRequest.of(0, pageSize);
+            return List.copyOf(newestFirst
+                    ? commentRepository.findNewest(articleId, page)
+                    : commentRepository.findOldest(articleId, page));
+        });
+    }
+
+    @Override
+    public void invalidate(Long articleId) {
+        cache.invalidate(List.of(new Key(articleId, false), new Key(articleId, true)));
+    }
+
+    private static long weigh(List<CommentView> comments) {
+        long weight = PAGE_OVERHEAD_BYTES;
+        for (CommentView comment : comments)
+            weight += ROW_OVERHEAD_BYTES + 2L * (length(comment.body()) + length(comment.authorUsername())
+                    + length(comment.authorBio()) + length(comment.authorImage()));
+        return weight;
+    }
+
+    private static int length(String value) {
+        return Objects.isNull(value) ? 0 : value.length();
+    }
+
+    private record Key(Long articleId, boolean newestFirst) {
+    }
+}
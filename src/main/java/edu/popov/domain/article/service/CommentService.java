@@ -1,12 +1,15 @@
 package edu.popov.domain.article.service;
 
 import edu.popov.domain.article.dto.CommentDTO;
+import edu.popov.domain.article.model.CommentParams;
 
 public interface CommentService {
 
     CommentDTO.SingleComment addComment(String slug, CommentDTO.Create comment, Long id);
 
-    CommentDTO.MultipleComments getComments(String slug);
+    CommentDTO.MultipleComments getComments(String slug, CommentParams params, Long userId);
+
+    String getCommentsETag(String slug, CommentParams params, Long userId);
 
     void deleteComment(String slug, Long commentId, Long userId);
 
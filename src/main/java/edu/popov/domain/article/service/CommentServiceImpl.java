@@ -5,18 +5,32 @@ import edu.popov.domain.article.dto.CommentDTO;
 import edu.popov.domain.article.dto.CommentMapper;
 import edu.popov.domain.article.entity.ArticleEntity;
 import edu.popov.domain.article.entity.CommentEntity;
+import edu.popov.domain.article.model.ArticleSnapshot;
+import edu.popov.domain.article.model.CommentCursor;
+import edu.popov.domain.article.model.CommentParams;
 import edu.popov.domain.article.repository.ArticleRepository;
 import edu.popov.domain.article.repository.CommentRepository;
+import edu.popov.domain.article.repository.CommentRepository.CommentStamp;
+import edu.popov.domain.article.repository.CommentRepository.CommentView;
+import edu.popov.domain.profile.service.FollowGraphService;
 import edu.popov.domain.profile.service.ProfileService;
+import edu.popov.utils.ETag;
+import edu.popov.utils.exception.BadRequestException;
 import edu.popov.utils.exception.ForbiddenException;
 import edu.popov.utils.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 import static java.lang.String.format;
 
@@ -29,10 +43,22 @@ public class CommentServiceImpl implements CommentService {
     private final ProfileService profileService;
     private final ArticleRepository articleRepository;
     private final CommentMapper commentMapper;
+    private final ArticleCache articleCache;
+    private final FollowGraphService followGraphService;
+    private final CommentCache commentCache;
+
+    @Value("${article.comments.default-limit}")
+    private Integer defaultLimit;
+    @Value("${article.comments.max-limit}")
+    private Integer maxLimit;
 
     private static final String ARTICLE_NOT_FOUND_BY_SLUG = "Article with slug %s is not found";
     private static final String COMMENT_NOT_FOUND_BY_SLUG_AND_ID = "Comment with id %d of article with slug %s is not found";
     private static final String IS_NOT_AN_OWNER_OF_COMMENT = "Comment with id %d is not owned by %s";
+    private static final String LIMIT_IS_OUT_OF_RANGE = "Limit %d is not in range 1..%d";
+    private static final String ORDER_IS_NOT_VALID = "Order %s is not valid, use oldest or newest";
+    private static final String OLDEST = "oldest";
+    private static final String NEWEST = "newest";
 
     /**
      * Add comment to article (Login required)
@@ -40,8 +66,7 @@ public class CommentServiceImpl implements CommentService {
     @Override
     @Transactional
     public CommentDTO.SingleComment addComment(String slug, CommentDTO.Create comment, Long commentatorId) {
-        ArticleEntity article = articleRepository.findBySlug(slug)
-                .orElseThrow(() -> new NotFoundException(format(ARTICLE_NOT_FOUND_BY_SLUG, slug)));
+        ArticleEntity article = getArticleReference(slug);
 
         AccountEntity account = profileService.getAccountById(commentatorId);
 
@@ -54,6 +79,9 @@ public class CommentServiceImpl implements CommentService {
                 .build();
 
         CommentEntity savedComment = commentRepository.save(commentEntity);
+        articleRepository.incrementCommentsCount(article.getId(), 1);
+        articleCache.invalidate(slug);
+        commentCache.invalidate(article.getId());
 
         CommentDTO.SingleComment commentDto = new CommentDTO.SingleComment(commentMapper.mapToCommentDTO(savedComment));
         log.info("Add comment {} to article with slug {}", comment, slug);
@@ -61,44 +89,158 @@ public class CommentServiceImpl implements CommentService {
     }
 
     /**
-     * Get comments by article slug.
+     * Get one page of comments by article slug, oldest or newest first. Comments and authors are read in one
+     * query, following flags of all authors on the page in one lookup and the total from the cached article.
+     * First pages up to the default limit are served from {@link CommentCache}.
      */
     @Override
     @Transactional(readOnly = true)
-    public CommentDTO.MultipleComments getComments(String slug) {
-        ArticleEntity article = articleRepository.findBySlug(slug)
-                .orElseThrow(() -> new NotFoundException(format(ARTICLE_NOT_FOUND_BY_SLUG, slug)));
-
+    public CommentDTO.MultipleComments getComments(String slug, CommentParams params, Long userId) {
+        CommentPage page = getPage(slug, params, userId);
+
+        List<CommentDTO> comments = page.comments().stream()
+                .map(comment -> commentMapper.mapToCommentDTO(comment, page.followed().contains(comment.authorId())))
+                .toList();
+        String nextCursor = page.comments().size() < page.limit()
+                ? null
+                : new CommentCursor(page.comments().get(page.comments().size() - 1).id()).encode();
         return CommentDTO.MultipleComments.builder()
-                .comments(
-                        commentMapper.mapToCommentDTOList(
-                                commentRepository.findByArticle(article))
-                )
+                .comments(comments)
+                .commentsCount(page.commentsCount())
+                .nextCursor(nextCursor)
                 .build();
     }
 
+    /**
+     * Version of the comments page, checked before the page is read and mapped. Cached first pages are stamped
+     * from memory, other pages from a projection without the bodies and author texts. Following flags come
+     * from {@link FollowGraphService}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public String getCommentsETag(String slug, CommentParams params, Long userId) {
+        ArticleSnapshot article = getArticle(slug);
+        boolean newestFirst = isNewestFirst(params.getOrder());
+        int limit = checkLimit(params.getLimit());
+        Pageable pageable = PageRequest.of(0, limit);
+
+        List<CommentStamp> comments;
+        if (isFirstPageCached(params, limit))
+            comments = getFirstPage(article.id(), newestFirst, limit).stream().map(CommentView::stamp).toList();
+        else if (Objects.isNull(params.getCursor()))
+            comments = newestFirst
+                    ? commentRepository.findNewestStamps(article.id(), pageable)
+                    : commentRepository.findOldestStamps(article.id(), pageable);
+        else {
+            Long cursorId = CommentCursor.decode(params.getCursor()).id();
+            comments = newestFirst
+                    ? commentRepository.findNewestStampsBefore(article.id(), cursorId, pageable)
+                    : commentRepository.findOldestStampsAfter(article.id(), cursorId, pageable);
+        }
+
+        Set<Long> followed = followGraphService.findFollowed(userId,
+                comments.stream().map(CommentStamp::authorId).distinct().toList());
+        List<Object> stamps = new ArrayList<>();
+        stamps.add(article.commentsCount());
+        for (CommentStamp comment : comments) {
+            stamps.add(comment);
+            stamps.add(followed.contains(comment.authorId()));
+        }
+        return ETag.of(stamps.toArray());
+    }
+
     /**
      * Users can delete their comments (Login required).
+     * Ownership is part of the delete statement, the comment is only read again to tell why nothing was deleted.
      */
     @Override
     @Transactional
     public void deleteComment(String slug, Long commentId, Long userId) {
-        ArticleEntity article = articleRepository.findBySlug(slug)
-                .orElseThrow(() -> new NotFoundException(format(ARTICLE_NOT_FOUND_BY_SLUG, slug)));
+        ArticleEntity article = getArticleReference(slug);
+
+        if (commentRepository.deleteOwned(commentId, article.getId(), userId) == 1) {
+            articleRepository.incrementCommentsCount(article.getId(), -1);
+            articleCache.invalidate(slug);
+            commentCache.invalidate(article.getId());
+            log.info("Delete comment with id {} of article with slug {}", commentId, slug);
+            return;
+        }
 
-        CommentEntity commentEntity = commentRepository.findByIdAndArticle(commentId, article)
+        commentRepository.findByIdAndArticle(commentId, article)
                 .orElseThrow(() -> new NotFoundException(format(COMMENT_NOT_FOUND_BY_SLUG_AND_ID, commentId, slug)));
 
-        AccountEntity user = profileService.getAccountById(userId);
+        String msg = format(IS_NOT_AN_OWNER_OF_COMMENT, commentId, profileService.getAccountById(userId).getUsername());
+        log.error(msg);
+        throw new ForbiddenException(msg);
+    }
 
-        if (commentEntity.getAccount().getUsername().equals(user.getUsername())) {
-            commentRepository.deleteById(commentId);
-            log.info("Add comment with id {} to article with slug {}", commentId, slug);
-            return;
+    private CommentPage getPage(String slug, CommentParams params, Long userId) {
+        ArticleSnapshot article = getArticle(slug);
+        boolean newestFirst = isNewestFirst(params.getOrder());
+        int limit = checkLimit(params.getLimit());
+        Pageable pageable = PageRequest.of(0, limit);
+
+        List<CommentView> comments;
+        if (isFirstPageCached(params, limit))
+            comments = getFirstPage(article.id(), newestFirst, limit);
+        else if (Objects.isNull(params.getCursor()))
+            comments = newestFirst
+                    ? commentRepository.findNewest(article.id(), pageable)
+                    : commentRepository.findOldest(article.id(), pageable);
+        else {
+            Long cursorId = CommentCursor.decode(params.getCursor()).id();
+            comments = newestFirst
+                    ? commentRepository.findNewestBefore(article.id(), cursorId, pageable)
+                    : commentRepository.findOldestAfter(article.id(), cursorId, pageable);
         }
 
-        String msg = format(IS_NOT_AN_OWNER_OF_COMMENT, commentId, user.getUsername());
+        Set<Long> followed = followGraphService.findFollowed(userId,
+                comments.stream().map(CommentView::authorId).distinct().toList());
+        return new CommentPage(comments, followed, article.commentsCount(), limit);
+    }
+
+    private boolean isFirstPageCached(CommentParams params, int limit) {
+        return Objects.isNull(params.getCursor()) && limit <= defaultLimit;
+    }
+
+    private List<CommentView> getFirstPage(Long articleId, boolean newestFirst, int limit) {
+        List<CommentView> comments = commentCache.getFirstPage(articleId, newestFirst);
+        return comments.subList(0, Math.min(limit, comments.size()));
+    }
+
+    private static boolean isNewestFirst(String order) {
+        if (Objects.isNull(order) || OLDEST.equalsIgnoreCase(order))
+            return false;
+        if (NEWEST.equalsIgnoreCase(order))
+            return true;
+        String msg = format(ORDER_IS_NOT_VALID, order);
         log.error(msg);
-        throw new ForbiddenException(msg);
+        throw new BadRequestException(msg);
+    }
+
+    private int checkLimit(Integer limit) {
+        if (Objects.isNull(limit))
+            return defaultLimit;
+        if (limit < 1 || limit > maxLimit) {
+            String msg = format(LIMIT_IS_OUT_OF_RANGE, limit, maxLimit);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        return limit;
+    }
+
+    /**
+     * Article existence is checked by {@link ArticleCache}, comments only need a reference to the row.
+     */
+    private ArticleEntity getArticleReference(String slug) {
+        return articleRepository.getReferenceById(getArticle(slug).id());
+    }
+
+    private ArticleSnapshot getArticle(String slug) {
+        return articleCache.getBySlug(slug)
+                .orElseThrow(() -> new NotFoundException(format(ARTICLE_NOT_FOUND_BY_SLUG, slug)));
+    }
+
+    private record CommentPage(List<CommentView> comments, Set<Long> followed, long commentsCount, int limit) {
     }
 }
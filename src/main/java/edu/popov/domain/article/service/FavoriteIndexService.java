@@ -0,0 +1,41 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.model.ArticleCursor;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+public interface FavoriteIndexService {
+
+    boolean isFavorited(Long accountId, Long articleId);
+
+    /**
+     * Articles of the given ones that the account favorited.
+     */
+    Set<Long> findFavorited(Long accountId, Collection<Long> articleIds);
+
+    /**
+     * Ids of one page of articles favorited by the account, newest first, empty when there is no index.
+     * Cursor has priority over offset.
+     */
+    Optional<List<Long>> findFavoritedPage(Long accountId, ArticleCursor cursor, int limit, int offset);
+
+    /**
+     * Number of articles favorited by the account, empty when there is no index.
+     */
+    Optional<Integer> countFavorited(Long accountId);
+
+    /**
+     * Writes are applied after the current transaction is committed.
+     */
+    void articleFavorited(Long articleId, Long accountId);
+
+    void articleUnfavorited(Long articleId, Long accountId);
+
+    void articleDeleted(Long articleId);
+
+    void rebuild();
+
+}
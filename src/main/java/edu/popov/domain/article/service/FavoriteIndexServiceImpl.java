@@ -0,0 +1,121 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.FavoriteEntityId;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.FavoriteIndex;
+import edu.popov.domain.article.repository.FavoriteRepository;
+import edu.popov.utils.RebuildableIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Favorited flags and "favorited by" pages answered from an in-memory {@link FavoriteIndex}, a flag is one
+ * bitmap probe and a page is a walk over one bitmap. The index is built on startup and on
+ * article.favorites.rebuild-cron, favorites of this instance are applied after commit. Until the index is
+ * built, or after an article id that does not fit the index, flags are read from the database and pages are
+ * left to the {@link ArticleFilterEngine}.
+ */
+@Slf4j
+@Service
+public class FavoriteIndexServiceImpl implements FavoriteIndexService {
+
+    private final FavoriteRepository favoriteRepository;
+
+    // no index until built and after an article id out of range
+    private final RebuildableIndex<FavoriteIndex> favoriteIndex = new RebuildableIndex<>();
+
+    public FavoriteIndexServiceImpl(FavoriteRepository favoriteRepository, MeterRegistry meterRegistry) {
+        this.favoriteRepository = favoriteRepository;
+        Gauge.builder("article.favorites.size", () -> read(FavoriteIndex::size).orElse(0))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isFavorited(Long accountId, Long articleId) {
+        if (Objects.isNull(accountId))
+            return false;
+        return read(index -> index.isFavorited(accountId, articleId))
+                .orElseGet(() -> favoriteRepository.existsById(FavoriteEntityId.builder()
+                        .articleId(articleId)
+                        .accountId(accountId)
+                        .build()));
+    }
+
+    @Override
+    public Set<Long> findFavorited(Long accountId, Collection<Long> articleIds) {
+        if (Objects.isNull(accountId) || articleIds.isEmpty())
+            return Set.of();
+        return read(index -> {
+            Set<Long> favorited = new HashSet<>();
+            for (Long articleId : articleIds)
+                if (index.isFavorited(accountId, articleId))
+                    favorited.add(articleId);
+            return favorited;
+        }).orElseGet(() -> new HashSet<>(favoriteRepository.findFavoritedArticleIds(accountId, articleIds)));
+    }
+
+    @Override
+    public Optional<List<Long>> findFavoritedPage(Long accountId, ArticleCursor cursor, int limit, int offset) {
+        Long beforeId = Objects.isNull(cursor) ? null : cursor.id();
+        return read(index -> index.page(accountId, beforeId, offset, limit));
+    }
+
+    @Override
+    public Optional<Integer> countFavorited(Long accountId) {
+        return read(index -> index.count(accountId));
+    }
+
+    @Override
+    public void articleFavorited(Long articleId, Long accountId) {
+        favoriteIndex.updateAfterCommit(index -> fits(index, index.favorite(articleId, accountId)));
+    }
+
+    @Override
+    public void articleUnfavorited(Long articleId, Long accountId) {
+        favoriteIndex.writeAfterCommit(index -> index.unfavorite(articleId, accountId));
+    }
+
+    @Override
+    public void articleDeleted(Long articleId) {
+        favoriteIndex.writeAfterCommit(index -> index.remove(articleId));
+    }
+
+    /**
+     * Build the index from the database, reads are answered by the old index meanwhile.
+     * Writes committed during the load are replayed on the new index, all writes are idempotent.
+     */
+    @Override
+    public void rebuild() {
+        favoriteIndex.rebuild(() -> {
+            FavoriteIndex loaded = new FavoriteIndex();
+            boolean indexed = favoriteRepository.findAllPairs().stream()
+                    .allMatch(favorite -> loaded.favorite(favorite.articleId(), favorite.accountId()));
+            return fits(loaded, indexed);
+        }).ifPresent(loaded ->
+                log.info("Favorite index is built, {} favorites of {} accounts", loaded.size(), loaded.accounts()));
+    }
+
+    private <T> Optional<T> read(Function<FavoriteIndex, T> query) {
+        return favoriteIndex.read(index -> Optional.of(query.apply(index)), Optional::empty);
+    }
+
+    /**
+     * The index is dropped when an article id does not fit it.
+     */
+    private static FavoriteIndex fits(FavoriteIndex index, boolean indexed) {
+        if (indexed)
+            return index;
+        log.warn("Article id does not fit the favorite index, favorites are read from the database");
+        return null;
+    }
+}
@@ -0,0 +1,27 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleCursor;
+
+import java.util.List;
+
+/**
+ * Read side of the feed, implementation is selected by article.feed.engine (inbox, memory or sql).
+ * Feed inbox is maintained by {@link FeedService} whatever engine is selected, so engines can be switched by restart.
+ */
+public interface FeedEngine {
+
+    /**
+     * Page of articles of followed authors ordered by (createdAt, id) desc, cursor has priority over offset.
+     * Authors must be fetched with the articles.
+     */
+    List<ArticleEntity> getFeed(Long followerId, ArticleCursor cursor, int limit, int offset);
+
+    default void articleCreated(ArticleCreatedEvent event) {
+    }
+
+    default void articleDeleted(Long authorId, Long articleId) {
+    }
+
+}
@@ -0,0 +1,21 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleCursor;
+
+import java.util.List;
+
+public interface FeedService {
+
+    List<ArticleEntity> getFeed(Long followerId, ArticleCursor cursor, int limit, int offset);
+
+    void articleCreated(ArticleCreatedEvent event);
+
+    void articleDeleted(ArticleEntity article);
+
+    void follow(Long followerId, Long authorId);
+
+    void unfollow(Long followerId, Long authorId);
+
+}
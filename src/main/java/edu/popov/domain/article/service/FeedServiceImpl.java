@@ -0,0 +1,77 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.repository.FeedEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Maintains follower inboxes (fan-out on write) and notifies the selected {@link FeedEngine}.
+ * Authors with more than fan-out threshold followers are not pushed to inboxes.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class FeedServiceImpl implements FeedService {
+
+    private final FeedEntryRepository feedEntryRepository;
+    private final FeedEngine feedEngine;
+
+    @Value("${article.feed.fan-out-threshold}")
+    private Long fanOutThreshold;
+    @Value("${article.feed.backfill-size}")
+    private Integer backfillSize;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ArticleEntity> getFeed(Long followerId, ArticleCursor cursor, int limit, int offset) {
+        return feedEngine.getFeed(followerId, cursor, limit, offset);
+    }
+
+    /**
+     * Push article to follower inboxes with one set-based insert.
+     */
+    @Override
+    @Transactional
+    public void articleCreated(ArticleCreatedEvent event) {
+        int inserted = feedEntryRepository.fanOut(event.articleId(), fanOutThreshold);
+        log.info("Article {} pushed to {} inboxes", event.articleId(), inserted);
+        feedEngine.articleCreated(event);
+    }
+
+    @Override
+    @Transactional
+    public void articleDeleted(ArticleEntity article) {
+        feedEntryRepository.deleteByArticleId(article.getId());
+        feedEngine.articleDeleted(article.getAuthor().getId(), article.getId());
+    }
+
+    /**
+     * Recent articles of the followed author are copied to the inbox, so the feed is complete right away.
+     */
+    @Override
+    @Transactional
+    public void follow(Long followerId, Long authorId) {
+        feedEntryRepository.backfill(followerId, authorId, fanOutThreshold, backfillSize);
+    }
+
+    /**
+     * Followers count of the author is already decremented. If it has just dropped to the threshold, recent
+     * articles of the author are pushed to the remaining followers, as they are no longer merged in at read time.
+     */
+    @Override
+    @Transactional
+    public void unfollow(Long followerId, Long authorId) {
+        feedEntryRepository.deleteByFollowerAndAuthor(followerId, authorId);
+        int inserted = feedEntryRepository.backfillFollowers(authorId, fanOutThreshold, backfillSize);
+        if (inserted > 0)
+            log.info("Author {} dropped to fan-out threshold, {} articles pushed to inboxes", authorId, inserted);
+    }
+}
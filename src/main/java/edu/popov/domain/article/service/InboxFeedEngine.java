@@ -0,0 +1,81 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FeedEntryRepository;
+import edu.popov.domain.article.repository.FeedEntryRepository.FeedItem;
+import edu.popov.domain.article.repository.OffsetBasedPageRequest;
+import edu.popov.domain.profile.service.FollowGraphService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Feed is read from the follower inbox (fan-out on write). Authors with more than
+ * fan-out threshold followers are not pushed to inboxes, their articles are merged in at read time.
+ * When such an author drops to the threshold, {@link FeedService#unfollow} backfills the follower inboxes.
+ */
+@RequiredArgsConstructor
+@Service
+@ConditionalOnProperty(name = "article.feed.engine", havingValue = "inbox", matchIfMissing = true)
+public class InboxFeedEngine implements FeedEngine {
+
+    private final FeedEntryRepository feedEntryRepository;
+    private final ArticleRepository articleRepository;
+    private final FollowGraphService followGraphService;
+
+    @Value("${article.feed.fan-out-threshold}")
+    private Long fanOutThreshold;
+
+    private static final Comparator<FeedItem> FEED_ORDER = Comparator
+            .comparing(FeedItem::getCreatedAt)
+            .thenComparing(FeedItem::getArticleId)
+            .reversed();
+
+    @Override
+    public List<ArticleEntity> getFeed(Long followerId, ArticleCursor cursor, int limit, int offset) {
+        List<Long> pulledAuthors = followGraphService.getFollowingIdsWithFollowersAbove(followerId, fanOutThreshold);
+
+        List<FeedItem> items;
+        if (pulledAuthors.isEmpty()) {
+            items = Objects.isNull(cursor)
+                    ? feedEntryRepository.findByFollower(followerId, page(limit, offset))
+                    : feedEntryRepository.findByFollowerBefore(followerId, cursor.createdAt(), cursor.id(), page(limit, 0));
+        } else {
+            // both sources are sorted, so first offset + limit rows of each are enough for the merge
+            int window = Objects.isNull(cursor) ? offset + limit : limit;
+            items = new ArrayList<>();
+            if (Objects.isNull(cursor)) {
+                items.addAll(feedEntryRepository.findByFollower(followerId, page(window, 0)));
+                items.addAll(feedEntryRepository.findByAuthors(pulledAuthors, page(window, 0)));
+            } else {
+                items.addAll(feedEntryRepository.findByFollowerBefore(followerId, cursor.createdAt(), cursor.id(), page(window, 0)));
+                items.addAll(feedEntryRepository.findByAuthorsBefore(pulledAuthors, cursor.createdAt(), cursor.id(), page(window, 0)));
+            }
+            // author may have crossed the threshold, then the same article comes from both sources
+            Set<Long> seen = new HashSet<>();
+            items = items.stream()
+                    .sorted(FEED_ORDER)
+                    .filter(item -> seen.add(item.getArticleId()))
+                    .skip(Objects.isNull(cursor) ? offset : 0)
+                    .limit(limit)
+                    .toList();
+        }
+
+        return articleRepository.findAllWithAuthorInOrder(items.stream().map(FeedItem::getArticleId).toList());
+    }
+
+    private static OffsetBasedPageRequest page(int limit, int offset) {
+        return new OffsetBasedPageRequest(limit, offset, Sort.unsorted());
+    }
+}
@@ -0,0 +1,201 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.RecentArticleBuffer;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FeedEntryRepository;
+import edu.popov.domain.article.repository.OffsetBasedPageRequest;
+import edu.popov.domain.profile.service.FollowGraphService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+
+import static edu.popov.domain.article.model.RecentArticleBuffer.compare;
+
+/**
+ * Feed is merged in memory from per-author buffers of recent articles, no sort in the database.
+ * Buffers are loaded lazily, updated by article create and delete, and evicted in LRU order
+ * when the number of buffers exceeds the memory budget. When the page reaches past the oldest
+ * entry of an incomplete buffer the page is read by {@link SqlFeedEngine} instead.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+@ConditionalOnProperty(name = "article.feed.engine", havingValue = "memory")
+public class MemoryFeedEngine implements FeedEngine {
+
+    // object headers, array headers and map entry of one buffer
+    private static final int BUFFER_OVERHEAD_BYTES = 128;
+
+    private final FeedEntryRepository feedEntryRepository;
+    private final ArticleRepository articleRepository;
+    private final AccountRepository accountRepository;
+    private final FollowGraphService followGraphService;
+
+    @Value("${article.feed.memory.buffer-size}")
+    private Integer bufferSize;
+    @Value("${article.feed.memory.budget}")
+    private DataSize budget;
+
+    private final Map<Long, RecentArticleBuffer> buffers = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, RecentArticleBuffer> eldest) {
+            return size() > maxBuffers();
+        }
+    };
+
+    @Override
+    public List<ArticleEntity> getFeed(Long followerId, ArticleCursor cursor, int limit, int offset) {
+        List<Long> authorIds = followGraphService.getFollowingIds(followerId);
+        if (authorIds.isEmpty())
+            return List.of();
+
+        int needed = Objects.isNull(cursor) ? offset + limit : limit;
+        long cursorTime = Objects.isNull(cursor) ? Long.MAX_VALUE : RecentArticleBuffer.key(cursor.createdAt());
+        long cursorId = Objects.isNull(cursor) ? Long.MAX_VALUE : cursor.id();
+
+        PriorityQueue<Head> heap = new PriorityQueue<>(authorIds.size());
+        for (Long authorId : authorIds) {
+            RecentArticleBuffer.Snapshot snapshot = snapshot(authorId);
+            int index = firstBefore(snapshot, cursorTime, cursorId);
+            if (index < snapshot.size())
+                heap.add(new Head(snapshot, index));
+            else if (!snapshot.complete())
+                return fallback(followerId, cursor, limit, offset);
+        }
+
+        List<Long> ids = new ArrayList<>(needed);
+        while (ids.size() < needed && !heap.isEmpty()) {
+            Head head = heap.poll();
+            ids.add(head.articleId());
+            if (++head.index < head.snapshot.size())
+                heap.add(head);
+            else if (!head.snapshot.complete() && ids.size() < needed)
+                // older articles of this author are only in the database
+                return fallback(followerId, cursor, limit, offset);
+        }
+
+        int from = Objects.isNull(cursor) ? Math.min(offset, ids.size()) : 0;
+        return articleRepository.findAllWithAuthorInOrder(ids.subList(from, ids.size()));
+    }
+
+    @Override
+    public void articleCreated(ArticleCreatedEvent event) {
+        RecentArticleBuffer buffer = cached(event.authorId());
+        if (Objects.isNull(buffer))
+            return;
+        synchronized (buffer) {
+            buffer.add(RecentArticleBuffer.key(event.createdAt()), event.articleId());
+        }
+    }
+
+    @Override
+    public void articleDeleted(Long authorId, Long articleId) {
+        RecentArticleBuffer buffer = cached(authorId);
+        if (Objects.isNull(buffer))
+            return;
+        synchronized (buffer) {
+            buffer.remove(articleId);
+        }
+    }
+
+    private RecentArticleBuffer.Snapshot snapshot(Long authorId) {
+        RecentArticleBuffer buffer = cached(authorId);
+        if (Objects.isNull(buffer)) {
+            RecentArticleBuffer loaded = load(authorId);
+            synchronized (buffers) {
+                buffer = buffers.putIfAbsent(authorId, loaded);
+            }
+            if (Objects.isNull(buffer))
+                buffer = loaded;
+        }
+        synchronized (buffer) {
+            return buffer.snapshot();
+        }
+    }
+
+    private RecentArticleBuffer cached(Long authorId) {
+        synchronized (buffers) {
+            return buffers.get(authorId);
+        }
+    }
+
+    /**
+     * One more row than capacity tells whether the author has older articles.
+     */
+    private RecentArticleBuffer load(Long authorId) {
+        List<FeedEntryRepository.FeedItem> items = feedEntryRepository.findByAuthors(
+                List.of(authorId), new OffsetBasedPageRequest(bufferSize + 1, 0, Sort.unsorted()));
+
+        RecentArticleBuffer buffer = new RecentArticleBuffer(bufferSize);
+        for (int i = Math.min(items.size(), bufferSize) - 1; i >= 0; i--)
+            buffer.add(RecentArticleBuffer.key(items.get(i).getCreatedAt()), items.get(i).getArticleId());
+        if (items.size() > bufferSize)
+            buffer.markIncomplete();
+        return buffer;
+    }
+
+    /**
+     * Index of the first entry older than (time, id), entries are ordered from newest to oldest.
+     */
+    private static int firstBefore(RecentArticleBuffer.Snapshot snapshot, long time, long id) {
+        int low = 0;
+        int high = snapshot.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(snapshot.createdAt()[middle], snapshot.articleIds()[middle], time, id) < 0)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        return low;
+    }
+
+    private List<ArticleEntity> fallback(Long followerId, ArticleCursor cursor, int limit, int offset) {
+        log.debug("Feed of {} is read from database, buffers are incomplete", followerId);
+        return new SqlFeedEngine(articleRepository, accountRepository).getFeed(followerId, cursor, limit, offset);
+    }
+
+    private long maxBuffers() {
+        return Math.max(1, budget.toBytes() / ((long) bufferSize * RecentArticleBuffer.ENTRY_BYTES + BUFFER_OVERHEAD_BYTES));
+    }
+
+    private static final class Head implements Comparable<Head> {
+
+        private final RecentArticleBuffer.Snapshot snapshot;
+        private int index;
+
+        private Head(RecentArticleBuffer.Snapshot snapshot, int index) {
+            this.snapshot = snapshot;
+            this.index = index;
+        }
+
+        private long createdAt() {
+            return snapshot.createdAt()[index];
+        }
+
+        private long articleId() {
+            return snapshot.articleIds()[index];
+        }
+
+        // newest entry first
+        @Override
+        public int compareTo(Head other) {
+            return compare(other.createdAt(), other.articleId(), createdAt(), articleId());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.TagFilter;
+import edu.popov.domain.article.repository.ArticleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Filters are checked by semi-joins on tags and favorites and sorted at read time, counts come from {@link ArticleCountService}.
+ * No write-side state, also used as fallback by {@link BitmapArticleFilterEngine}.
+ */
+@RequiredArgsConstructor
+@Service
+@ConditionalOnProperty(name = "article.filter.engine", havingValue = "sql", matchIfMissing = true)
+public class SqlArticleFilterEngine implements ArticleFilterEngine {
+
+    private final ArticleRepository articleRepository;
+    private final ArticleCountService articleCountService;
+
+    @Override
+    public List<ArticleEntity> findByFilter(TagFilter tags, String author, AccountEntity favorited, ArticleCursor cursor, int limit, int offset) {
+        return articleRepository.findByFilter(tags, author, favorited, cursor, limit, offset);
+    }
+
+    @Override
+    public ArticleCount countByFilter(TagFilter tags, String author, AccountEntity favorited) {
+        return articleCountService.countByFilter(tags, author, favorited);
+    }
+}
@@ -0,0 +1,39 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.OffsetBasedPageRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Feed is joined from article, author and follow relations and sorted at read time.
+ * No write-side state, also used as fallback by {@link MemoryFeedEngine}.
+ */
+@RequiredArgsConstructor
+@Service
+@ConditionalOnProperty(name = "article.feed.engine", havingValue = "sql")
+public class SqlFeedEngine implements FeedEngine {
+
+    private final ArticleRepository articleRepository;
+    private final AccountRepository accountRepository;
+
+    private static final Sort ARTICLE_ORDER = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    @Override
+    public List<ArticleEntity> getFeed(Long followerId, ArticleCursor cursor, int limit, int offset) {
+        AccountEntity follower = accountRepository.getReferenceById(followerId);
+        if (Objects.isNull(cursor))
+            return articleRepository.findByFeed(follower, new OffsetBasedPageRequest(limit, offset, ARTICLE_ORDER));
+        return articleRepository.findByFeedBefore(
+                follower, cursor.createdAt(), cursor.id(), new OffsetBasedPageRequest(limit, 0, ARTICLE_ORDER));
+    }
+}
@@ -0,0 +1,34 @@
+package edu.popov.domain.autocomplete.controller;
+
+import edu.popov.domain.autocomplete.dto.AutocompleteDTO;
+import edu.popov.domain.autocomplete.service.AutocompleteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping("api/autocomplete")
+public class AutocompleteController {
+
+    private final AutocompleteService autocompleteService;
+
+    @GetMapping("/tags")
+    public AutocompleteDTO.Suggestions suggestTags(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return autocompleteService.suggestTags(prefix, limit);
+    }
+
+    @GetMapping("/users")
+    public AutocompleteDTO.Suggestions suggestUsers(
+            @RequestParam(value = "prefix", defaultValue = "") String prefix,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ) {
+        return autocompleteService.suggestUsers(prefix, limit);
+    }
+
+}
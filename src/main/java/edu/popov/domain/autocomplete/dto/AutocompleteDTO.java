@@ -0,0 +1,22 @@
+package edu.popov.domain.autocomplete.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+public class AutocompleteDTO {
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Suggestions {
+
+        @JsonProperty("suggestions")
+        private List<String> suggestions;
+
+    }
+}
@@ -0,0 +1,219 @@
+package edu.popov.domain.autocomplete.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Immutable radix trie of names stored in flat arrays. Names are matched case-insensitively and sorted by key,
+ * so every node covers a contiguous range of entries and chains of single children are collapsed into one node.
+ * Nodes covering more than {@link #SCAN_LIMIT} entries keep their best entries, smaller ranges are scanned.
+ */
+public final class PrefixTrie {
+
+    // ranges up to this size are scanned instead of keeping the best entries per node
+    private static final int SCAN_LIMIT = 64;
+
+    private final String[] names;
+    private final String[] keys;
+    private final long[] scores;
+    private final int best;
+
+    // node i covers entries [from[i], to[i]) with key prefix of length depth[i]
+    private int[] from = new int[16];
+    private int[] to = new int[16];
+    private int[] depth = new int[16];
+    // children of node i are nodes [firstChild[i], firstChild[i] + childCount[i]), sorted by next char
+    private int[] firstChild = new int[16];
+    private int[] childCount = new int[16];
+    // best entries of node i start at top[bestStart[i]], -1 if the range is scanned
+    private int[] bestStart = new int[16];
+    private int[] top = new int[16];
+    private int nodes;
+    private int topSize;
+
+    private PrefixTrie(String[] names, String[] keys, long[] scores, int best) {
+        this.names = names;
+        this.keys = keys;
+        this.scores = scores;
+        this.best = best;
+    }
+
+    /**
+     * Build the trie from names and scores.
+     *
+     * @param best number of best entries answered by a query at most
+     */
+    public static PrefixTrie of(Map<String, Long> scores, int best) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(scores.entrySet());
+        entries.sort(Comparator.<Map.Entry<String, Long>, String>comparing(entry -> key(entry.getKey()))
+                .thenComparing(Map.Entry::getKey));
+
+        int size = entries.size();
+        String[] names = new String[size];
+        String[] keys = new String[size];
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = entries.get(i).getKey();
+            keys[i] = key(names[i]);
+            values[i] = entries.get(i).getValue();
+        }
+        PrefixTrie trie = new PrefixTrie(names, keys, values, best);
+        trie.build();
+        return trie;
+    }
+
+    public static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Names starting with the prefix, highest score first, ties by name.
+     */
+    public List<Suggestion> top(String prefix, int limit) {
+        int node = find(key(prefix));
+        if (node < 0 || limit <= 0)
+            return List.of();
+        int count = Math.min(limit, best);
+        int[] entries = bestStart[node] >= 0
+                ? Arrays.copyOfRange(top, bestStart[node], bestStart[node] + Math.min(count, to[node] - from[node]))
+                : scan(from[node], to[node], count);
+        List<Suggestion> result = new ArrayList<>(entries.length);
+        for (int entry : entries)
+            result.add(new Suggestion(names[entry], scores[entry]));
+        return result;
+    }
+
+    /**
+     * Higher score first, names of equal score sort by name.
+     */
+    private int compare(int a, int b) {
+        int byScore = Long.compare(scores[b], scores[a]);
+        return byScore != 0 ? byScore : names[a].compareTo(names[b]);
+    }
+
+    /**
+     * Node whose range holds all keys starting with the prefix, -1 if there are none.
+     */
+    private int find(String prefix) {
+        int node = 0;
+        if (nodes == 0)
+            return -1;
+        while (depth[node] < prefix.length()) {
+            int child = child(node, prefix.charAt(depth[node]));
+            if (child < 0)
+                return -1;
+            String key = keys[from[child]];
+            int end = Math.min(depth[child], prefix.length());
+            if (!key.regionMatches(depth[node], prefix, depth[node], end - depth[node]))
+                return -1;
+            node = child;
+        }
+        return node;
+    }
+
+    private int child(int node, char next) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        int at = depth[node];
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char c = keys[from[middle]].charAt(at);
+            if (c < next)
+                low = middle + 1;
+            else if (c > next)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -1;
+    }
+
+    /**
+     * Breadth-first, so children of a node get consecutive numbers.
+     */
+    private void build() {
+        if (names.length == 0)
+            return;
+        // root is the empty prefix, so prefixes shorter than the common prefix of all keys are checked by children
+        addNode(0, names.length, 0);
+        for (int node = 0; node < nodes; node++) {
+            int at = depth[node];
+            int start = from[node];
+            // keys ending at this node sort first and have no child
+            while (start < to[node] && keys[start].length() == at)
+                start++;
+            firstChild[node] = nodes;
+            while (start < to[node]) {
+                char c = keys[start].charAt(at);
+                int end = start + 1;
+                while (end < to[node] && keys[end].charAt(at) == c)
+                    end++;
+                addNode(start, end, commonPrefix(start, end, at + 1));
+                start = end;
+            }
+            childCount[node] = nodes - firstChild[node];
+            if (to[node] - from[node] > SCAN_LIMIT)
+                keepBest(node);
+        }
+    }
+
+    private void addNode(int start, int end, int length) {
+        if (nodes == from.length) {
+            int capacity = nodes * 2;
+            from = Arrays.copyOf(from, capacity);
+            to = Arrays.copyOf(to, capacity);
+            depth = Arrays.copyOf(depth, capacity);
+            firstChild = Arrays.copyOf(firstChild, capacity);
+            childCount = Arrays.copyOf(childCount, capacity);
+            bestStart = Arrays.copyOf(bestStart, capacity);
+        }
+        from[nodes] = start;
+        to[nodes] = end;
+        depth[nodes] = length;
+        bestStart[nodes] = -1;
+        nodes++;
+    }
+
+    /**
+     * Length of the common prefix of sorted keys in the range, at least the given length.
+     */
+    private int commonPrefix(int start, int end, int length) {
+        String first = keys[start];
+        String last = keys[end - 1];
+        int max = Math.min(first.length(), last.length());
+        while (length < max && first.charAt(length) == last.charAt(length))
+            length++;
+        return length;
+    }
+
+    private void keepBest(int node) {
+        int[] entries = scan(from[node], to[node], best);
+        if (topSize + entries.length > top.length)
+            top = Arrays.copyOf(top, Math.max(top.length * 2, topSize + entries.length));
+        System.arraycopy(entries, 0, top, topSize, entries.length);
+        bestStart[node] = topSize;
+        topSize += entries.length;
+    }
+
+    private int[] scan(int start, int end, int limit) {
+        PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> compare(b, a));
+        for (int entry = start; entry < end; entry++) {
+            heap.add(entry);
+            if (heap.size() > limit)
+                heap.poll();
+        }
+        int[] entries = new int[heap.size()];
+        for (int i = entries.length - 1; i >= 0; i--)
+            entries[i] = heap.poll();
+        return entries;
+    }
+}
@@ -0,0 +1,13 @@
+package edu.popov.domain.autocomplete.model;
+
+import java.util.Comparator;
+
+/**
+ * Name with its popularity, for tags the number of articles and for users the number of followers.
+ */
+public record Suggestion(String name, long score) {
+
+    public static final Comparator<Suggestion> BEST_FIRST =
+            Comparator.comparingLong(Suggestion::score).reversed().thenComparing(Suggestion::name);
+
+}
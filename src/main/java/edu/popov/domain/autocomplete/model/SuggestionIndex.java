@@ -0,0 +1,71 @@
+package edu.popov.domain.autocomplete.model;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * {@link PrefixTrie} built from the database plus names added or removed since the build. Added names live in
+ * a sorted map, so a prefix is a range of it. Trie entries of removed and re-added names are hidden and filtered
+ * from the trie answer, which is asked for more names to make up for them. The trie keeps a fixed number of
+ * best names per large prefix, so until the next build such a prefix may answer fewer names.
+ * Not thread safe, callers synchronize access.
+ */
+public final class SuggestionIndex {
+
+    private final PrefixTrie trie;
+    // lower case key and name, so names with the same key are kept apart
+    private final TreeMap<String, Suggestion> added = new TreeMap<>();
+    // trie entries that are outdated
+    private final Set<String> hidden = new HashSet<>();
+
+    private SuggestionIndex(PrefixTrie trie) {
+        this.trie = trie;
+    }
+
+    /**
+     * @param best number of best names answered by a query at most
+     */
+    public static SuggestionIndex of(Map<String, Long> scores, int best) {
+        return new SuggestionIndex(PrefixTrie.of(scores, best));
+    }
+
+    public void add(String name, long score) {
+        hidden.add(name);
+        added.put(sortKey(name), new Suggestion(name, score));
+    }
+
+    public void remove(String name) {
+        hidden.add(name);
+        added.remove(sortKey(name));
+    }
+
+    /**
+     * Names starting with the prefix, highest score first. Names added since the build are ranked by the score
+     * they were added with, names of the trie by the score of the build.
+     */
+    public List<Suggestion> top(String prefix, int limit) {
+        String key = PrefixTrie.key(prefix);
+        Map<String, Suggestion> range = added.subMap(key, key + Character.MAX_VALUE);
+        if (range.isEmpty() && hidden.isEmpty())
+            return trie.top(prefix, limit);
+
+        List<Suggestion> merged = new ArrayList<>(range.values());
+        for (Suggestion suggestion : trie.top(prefix, limit + hidden.size()))
+            if (!hidden.contains(suggestion.name()))
+                merged.add(suggestion);
+        merged.sort(Suggestion.BEST_FIRST);
+        return merged.subList(0, Math.min(limit, merged.size()));
+    }
+
+    public int size() {
+        return trie.size() + added.size();
+    }
+
+    private static String sortKey(String name) {
+        return PrefixTrie.key(name) + '\0' + name;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.popov.domain.autocomplete.service;
+
+import edu.popov.domain.autocomplete.dto.AutocompleteDTO;
+
+import java.util.Collection;
+
+public interface AutocompleteService {
+
+    AutocompleteDTO.Suggestions suggestTags(String prefix, Integer limit);
+
+    AutocompleteDTO.Suggestions suggestUsers(String prefix, Integer limit);
+
+    void tagsAdded(Collection<String> tagNames);
+
+    void userAdded(String username);
+
+    void userRenamed(String oldUsername, String newUsername, long followersCount);
+
+    void rebuild();
+
+}
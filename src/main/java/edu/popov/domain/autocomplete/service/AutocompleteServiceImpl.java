@@ -0,0 +1,129 @@
+package edu.popov.domain.autocomplete.service;
+
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.autocomplete.dto.AutocompleteDTO;
+import edu.popov.domain.autocomplete.model.Suggestion;
+import edu.popov.domain.autocomplete.model.SuggestionIndex;
+import edu.popov.domain.tag.repository.TagRepository;
+import edu.popov.utils.RebuildableIndex;
+import edu.popov.utils.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Tags ranked by number of articles and users ranked by number of followers, answered from in-memory
+ * {@link SuggestionIndex}es without database access. Indexes are built on startup and on
+ * autocomplete.rebuild-cron, tags created and users registered or renamed by this instance are applied
+ * after commit. Names added since the build are ranked by their score at the time of the write.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+    private final TagRepository tagRepository;
+    private final AccountRepository accountRepository;
+
+    @Value("${autocomplete.default-limit}")
+    private Integer defaultLimit;
+    @Value("${autocomplete.max-limit}")
+    private Integer maxLimit;
+
+    private static final String LIMIT_IS_OUT_OF_RANGE = "Limit %d is not in range 1..%d";
+
+    private final Suggestions tags = new Suggestions("tag");
+    private final Suggestions users = new Suggestions("user");
+
+    @Override
+    public AutocompleteDTO.Suggestions suggestTags(String prefix, Integer limit) {
+        return tags.top(prefix, checkLimit(limit));
+    }
+
+    @Override
+    public AutocompleteDTO.Suggestions suggestUsers(String prefix, Integer limit) {
+        return users.top(prefix, checkLimit(limit));
+    }
+
+    /**
+     * New dictionary tags, counted from their first article.
+     */
+    @Override
+    public void tagsAdded(Collection<String> tagNames) {
+        List<String> names = List.copyOf(tagNames);
+        tags.index.writeAfterCommit(index -> names.forEach(name -> index.add(name, 1)));
+    }
+
+    @Override
+    public void userAdded(String username) {
+        users.index.writeAfterCommit(index -> index.add(username, 0));
+    }
+
+    @Override
+    public void userRenamed(String oldUsername, String newUsername, long followersCount) {
+        users.index.writeAfterCommit(index -> {
+            index.remove(oldUsername);
+            index.add(newUsername, followersCount);
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        tags.rebuild(() -> {
+            Map<String, Long> counts = new HashMap<>();
+            tagRepository.findArticleCounts().forEach(tag -> counts.put(tag.tagName(), tag.articlesCount()));
+            return counts;
+        });
+        users.rebuild(() -> {
+            Map<String, Long> counts = new HashMap<>();
+            accountRepository.findFollowersCounts().forEach(user -> counts.put(user.username(), user.followersCount()));
+            return counts;
+        });
+    }
+
+    private int checkLimit(Integer limit) {
+        if (Objects.isNull(limit))
+            return defaultLimit;
+        if (limit < 1 || limit > maxLimit) {
+            String msg = format(LIMIT_IS_OUT_OF_RANGE, limit, maxLimit);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        return limit;
+    }
+
+    /**
+     * One index of a kind of names. Until the first build there is no index and nothing is suggested.
+     */
+    private final class Suggestions {
+
+        private final String kind;
+        private final RebuildableIndex<SuggestionIndex> index = new RebuildableIndex<>();
+
+        private Suggestions(String kind) {
+            this.kind = kind;
+        }
+
+        private AutocompleteDTO.Suggestions top(String prefix, int limit) {
+            List<Suggestion> suggestions = index.read(built -> built.top(prefix, limit), List::of);
+            return AutocompleteDTO.Suggestions.builder()
+                    .suggestions(suggestions.stream().map(Suggestion::name).toList())
+                    .build();
+        }
+
+        private void rebuild(Supplier<Map<String, Long>> scores) {
+            index.rebuild(() -> SuggestionIndex.of(scores.get(), maxLimit))
+                    .ifPresent(rebuilt -> log.info("Autocomplete {} index is built, {} names", kind, rebuilt.size()));
+        }
+    }
+}
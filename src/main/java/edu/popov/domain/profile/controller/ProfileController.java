@@ -1,13 +1,18 @@
 package edu.popov.domain.profile.controller;
 
+import edu.popov.domain.article.dto.ArticleDTO;
+import edu.popov.domain.article.service.ArticleService;
 import edu.popov.domain.profile.dto.ProfileDTO;
+import edu.popov.domain.profile.model.PageParams;
 import edu.popov.domain.profile.service.ProfileService;
 import edu.popov.security.AccountDetails;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Objects;
 
 @RequiredArgsConstructor
@@ -16,18 +21,29 @@ import java.util.Objects;
 public class ProfileController {
 
     private final ProfileService profileService;
+    private final ArticleService articleService;
 
+    /**
+     * Anonymous viewers get the serialized profile of the cache as is.
+     */
     @GetMapping("/{username}")
-    public ProfileDTO getProfile(
+    public ResponseEntity<?> getProfile(
             @PathVariable("username") String username,
-            @AuthenticationPrincipal AccountDetails accountDetails
+            @AuthenticationPrincipal AccountDetails accountDetails,
+            WebRequest request
     ) {
 
         Long id = null;
         if (!Objects.isNull(accountDetails))
             id = accountDetails.id();
 
-        return profileService.getProfile(username, id);
+        if (request.checkNotModified(profileService.getProfileETag(username, id)))
+            return null;
+        if (Objects.isNull(id))
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(profileService.getProfileJson(username));
+        return ResponseEntity.ok(profileService.getProfile(username, id));
     }
 
     @PostMapping("/{username}/follow")
@@ -47,17 +63,35 @@ public class ProfileController {
     }
 
     @GetMapping("/followers")
-    public List<ProfileDTO> getFollowers(
+    public ProfileDTO.MultipleProfiles getFollowers(
+            @ModelAttribute PageParams pageParams,
             @AuthenticationPrincipal AccountDetails accountDetails
     ) {
-        return profileService.getFollowers(accountDetails.id());
+        return profileService.getFollowers(accountDetails.id(), pageParams);
     }
 
     @GetMapping("/followings")
-    public List<ProfileDTO> getFollowings(
+    public ProfileDTO.MultipleProfiles getFollowings(
+            @ModelAttribute PageParams pageParams,
+            @AuthenticationPrincipal AccountDetails accountDetails
+    ) {
+        return profileService.getFollowings(accountDetails.id(), pageParams);
+    }
+
+    /**
+     * Articles favorited by the profile, newest article id first.
+     */
+    @GetMapping("/{username}/favorites")
+    public ArticleDTO.MultipleArticle getFavorites(
+            @PathVariable("username") String username,
+            @ModelAttribute PageParams pageParams,
             @AuthenticationPrincipal AccountDetails accountDetails
     ) {
-        return profileService.getFollowings(accountDetails.id());
+        Long id = null;
+        if (!Objects.isNull(accountDetails))
+            id = accountDetails.id();
+
+        return articleService.getFavoritedArticles(username, pageParams, id);
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
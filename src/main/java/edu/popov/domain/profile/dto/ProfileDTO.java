@@ -1,10 +1,13 @@
 package edu.popov.domain.profile.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import lombok.*;
 
+import java.util.List;
+
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -18,5 +21,20 @@ public class ProfileDTO {
     private String bio;
     private String image;
     private boolean following;
+    private Long followersCount;
+    private Long articlesCount;
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MultipleProfiles {
+
+        private List<ProfileDTO> profiles;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String nextCursor;
+
+    }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
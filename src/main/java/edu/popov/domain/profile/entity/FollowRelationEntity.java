@@ -14,7 +14,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @EqualsAndHashCode(exclude = {"id"})
 @Entity(name = "FollowRelation")
-@Table(name = "follow_relation")
+@Table(
+        name = "follow_relation",
+        indexes = {
+                @Index(name = "follow_relation_followee_created_at_idx",
+                        columnList = "account_to_follow_id, created_at DESC, user_account_id DESC"),
+                @Index(name = "follow_relation_follower_created_at_idx",
+                        columnList = "user_account_id, created_at DESC, account_to_follow_id DESC")
+        }
+)
 public class FollowRelationEntity {
 
     @EmbeddedId
@@ -0,0 +1,100 @@
+package edu.popov.domain.profile.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable adjacency lists of account ids in compressed sparse row form. Sources are sorted and distinct,
+ * targets of source {@code nodes[i]} are {@code targets[offsets[i]..offsets[i + 1])}, sorted, so an edge
+ * is found by two binary searches.
+ */
+public final class FollowAdjacency {
+
+    private static final FollowAdjacency EMPTY = new FollowAdjacency(new long[0], new int[]{0}, new long[0]);
+    // array headers of the three arrays
+    private static final int OVERHEAD_BYTES = 3 * 16;
+
+    private final long[] nodes;
+    private final int[] offsets;
+    private final long[] targets;
+
+    private FollowAdjacency(long[] nodes, int[] offsets, long[] targets) {
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    /**
+     * Build from the first size edges {@code sources[i] -> targets[i]}, edges must be distinct.
+     */
+    public static FollowAdjacency of(long[] sources, long[] targets, int size) {
+        if (size == 0)
+            return EMPTY;
+
+        long[] sorted = Arrays.copyOf(sources, size);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < size; i++)
+            if (i == 0 || sorted[i] != sorted[i - 1])
+                sorted[distinct++] = sorted[i];
+        long[] nodes = Arrays.copyOf(sorted, distinct);
+
+        // count edges per source, then place every edge at the next free slot of its row
+        int[] offsets = new int[distinct + 1];
+        for (int i = 0; i < size; i++)
+            offsets[Arrays.binarySearch(nodes, sources[i]) + 1]++;
+        for (int i = 0; i < distinct; i++)
+            offsets[i + 1] += offsets[i];
+        int[] next = Arrays.copyOf(offsets, distinct);
+        long[] rows = new long[size];
+        for (int i = 0; i < size; i++)
+            rows[next[Arrays.binarySearch(nodes, sources[i])]++] = targets[i];
+        for (int i = 0; i < distinct; i++)
+            Arrays.sort(rows, offsets[i], offsets[i + 1]);
+
+        return new FollowAdjacency(nodes, offsets, rows);
+    }
+
+    public boolean contains(long source, long target) {
+        int node = Arrays.binarySearch(nodes, source);
+        return node >= 0 && Arrays.binarySearch(targets, offsets[node], offsets[node + 1], target) >= 0;
+    }
+
+    public int degree(long source) {
+        int node = Arrays.binarySearch(nodes, source);
+        return node < 0 ? 0 : offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * Sorted targets of the source.
+     */
+    public long[] targets(long source) {
+        int node = Arrays.binarySearch(nodes, source);
+        return node < 0 ? new long[0] : Arrays.copyOfRange(targets, offsets[node], offsets[node + 1]);
+    }
+
+    public int nodes() {
+        return nodes.length;
+    }
+
+    public int edges() {
+        return targets.length;
+    }
+
+    public long bytes() {
+        return OVERHEAD_BYTES + 8L * nodes.length + 4L * offsets.length + 8L * targets.length;
+    }
+
+    /**
+     * Call the consumer with every edge, sources ascending.
+     */
+    public void forEach(EdgeConsumer consumer) {
+        for (int node = 0; node < nodes.length; node++)
+            for (int i = offsets[node]; i < offsets[node + 1]; i++)
+                consumer.accept(nodes[node], targets[i]);
+    }
+
+    @FunctionalInterface
+    public interface EdgeConsumer {
+        void accept(long source, long target);
+    }
+}
@@ -0,0 +1,41 @@
+package edu.popov.domain.profile.model;
+
+import edu.popov.domain.profile.repository.FollowRelationRepository.FollowProfile;
+import edu.popov.utils.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static java.lang.String.format;
+
+/**
+ * Position in a followers or followings list ordered by (followedAt desc, accountId desc).
+ * Clients get it as opaque string and send it back to seek to the next page.
+ */
+public record FollowCursor(LocalDateTime followedAt, Long accountId) {
+
+    private static final String INVALID_CURSOR = "Cursor %s is not valid";
+    private static final String SEPARATOR = "|";
+
+    public static FollowCursor of(FollowProfile profile) {
+        return new FollowCursor(profile.followedAt(), profile.id());
+    }
+
+    public String encode() {
+        String raw = followedAt.toString() + SEPARATOR + accountId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static FollowCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            LocalDateTime followedAt = LocalDateTime.parse(raw.substring(0, separator));
+            return new FollowCursor(followedAt, Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException(format(INVALID_CURSOR, cursor));
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package edu.popov.domain.profile.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Follow relations as {@link FollowAdjacency} in both directions plus follows and unfollows since the build.
+ * The delta keeps only edges that differ from the adjacency, sorted by source, so a row of the delta is a range
+ * and every answer stays O(log n). {@link #merged()} folds the delta into new adjacency arrays.
+ * Not thread safe, callers synchronize access.
+ */
+public final class FollowGraph {
+
+    private final FollowAdjacency followings;
+    private final FollowAdjacency followers;
+    // follower -> followee and followee -> follower edges that differ from the adjacency, true if followed
+    private final TreeMap<Edge, Boolean> followingsDelta = new TreeMap<>();
+    private final TreeMap<Edge, Boolean> followersDelta = new TreeMap<>();
+
+    private FollowGraph(FollowAdjacency followings, FollowAdjacency followers) {
+        this.followings = followings;
+        this.followers = followers;
+    }
+
+    /**
+     * Build from the first size relations {@code followerIds[i]} follows {@code followeeIds[i]}.
+     */
+    public static FollowGraph of(long[] followerIds, long[] followeeIds, int size) {
+        return new FollowGraph(FollowAdjacency.of(followerIds, followeeIds, size),
+                FollowAdjacency.of(followeeIds, followerIds, size));
+    }
+
+    public void follow(long followerId, long followeeId) {
+        set(followerId, followeeId, true);
+    }
+
+    public void unfollow(long followerId, long followeeId) {
+        set(followerId, followeeId, false);
+    }
+
+    public boolean isFollowing(long followerId, long followeeId) {
+        Boolean changed = followingsDelta.get(new Edge(followerId, followeeId));
+        return Objects.nonNull(changed) ? changed : followings.contains(followerId, followeeId);
+    }
+
+    /**
+     * Accounts followed by the follower, ascending.
+     */
+    public long[] followings(long followerId) {
+        return row(followings, followingsDelta, followerId);
+    }
+
+    /**
+     * Followers of the account, ascending.
+     */
+    public long[] followers(long followeeId) {
+        return row(followers, followersDelta, followeeId);
+    }
+
+    public int followersCount(long followeeId) {
+        int count = followers.degree(followeeId);
+        for (boolean followed : range(followersDelta, followeeId).values())
+            count += followed ? 1 : -1;
+        return count;
+    }
+
+    public int edges() {
+        int edges = followings.edges();
+        for (boolean followed : followingsDelta.values())
+            edges += followed ? 1 : -1;
+        return edges;
+    }
+
+    public int deltaSize() {
+        return followingsDelta.size();
+    }
+
+    /**
+     * Memory of the adjacency arrays, the delta is not counted.
+     */
+    public long bytes() {
+        return followings.bytes() + followers.bytes();
+    }
+
+    /**
+     * Graph with the same relations and an empty delta.
+     */
+    public FollowGraph merged() {
+        int size = edges();
+        long[] followerIds = new long[size];
+        long[] followeeIds = new long[size];
+        int[] next = {0};
+        followings.forEach((followerId, followeeId) -> {
+            if (!Boolean.FALSE.equals(followingsDelta.get(new Edge(followerId, followeeId)))) {
+                followerIds[next[0]] = followerId;
+                followeeIds[next[0]++] = followeeId;
+            }
+        });
+        followingsDelta.forEach((edge, followed) -> {
+            if (followed) {
+                followerIds[next[0]] = edge.source();
+                followeeIds[next[0]++] = edge.target();
+            }
+        });
+        return of(followerIds, followeeIds, next[0]);
+    }
+
+    private void set(long followerId, long followeeId, boolean followed) {
+        Edge following = new Edge(followerId, followeeId);
+        Edge follower = new Edge(followeeId, followerId);
+        if (followings.contains(followerId, followeeId) == followed) {
+            followingsDelta.remove(following);
+            followersDelta.remove(follower);
+        } else {
+            followingsDelta.put(following, followed);
+            followersDelta.put(follower, followed);
+        }
+    }
+
+    private static long[] row(FollowAdjacency adjacency, TreeMap<Edge, Boolean> delta, long source) {
+        long[] base = adjacency.targets(source);
+        NavigableMap<Edge, Boolean> changes = range(delta, source);
+        if (changes.isEmpty())
+            return base;
+
+        // both are sorted by target, removed targets are in base, added are not
+        long[] merged = new long[base.length + changes.size()];
+        int size = 0;
+        int i = 0;
+        for (Map.Entry<Edge, Boolean> change : changes.entrySet()) {
+            long target = change.getKey().target();
+            while (i < base.length && base[i] < target)
+                merged[size++] = base[i++];
+            if (change.getValue())
+                merged[size++] = target;
+            else
+                i++;
+        }
+        while (i < base.length)
+            merged[size++] = base[i++];
+        return size == merged.length ? merged : Arrays.copyOf(merged, size);
+    }
+
+    private static NavigableMap<Edge, Boolean> range(TreeMap<Edge, Boolean> delta, long source) {
+        return delta.subMap(new Edge(source, Long.MIN_VALUE), true, new Edge(source, Long.MAX_VALUE), true);
+    }
+
+    private record Edge(long source, long target) implements Comparable<Edge> {
+
+        @Override
+        public int compareTo(Edge other) {
+            int bySource = Long.compare(source, other.source);
+            return bySource != 0 ? bySource : Long.compare(target, other.target);
+        }
+    }
+}
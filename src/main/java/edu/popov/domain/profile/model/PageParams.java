@@ -0,0 +1,18 @@
+package edu.popov.domain.profile.model;
+
+import lombok.*;
+
+/**
+ * Page of a profile list: followers, followings or favorited articles.
+ */
+@Builder
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageParams {
+
+    private Integer limit;
+    private String cursor;
+
+}
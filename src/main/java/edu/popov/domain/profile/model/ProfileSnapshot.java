@@ -0,0 +1,53 @@
+package edu.popov.domain.profile.model;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.profile.dto.ProfileDTO;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Immutable copy of the public part of the account, safe to share between requests and to keep in the cache.
+ *
+ * @param json profile as seen by an anonymous viewer, serialized once per snapshot
+ */
+public record ProfileSnapshot(
+        Long id,
+        String username,
+        String bio,
+        String image,
+        long followersCount,
+        long articlesCount,
+        LocalDateTime updatedAt,
+        byte[] json
+) {
+
+    public static ProfileSnapshot of(AccountEntity account) {
+        return new ProfileSnapshot(
+                account.getId(),
+                account.getUsername(),
+                account.getBio(),
+                account.getImage(),
+                Objects.requireNonNullElse(account.getFollowersCount(), 0L),
+                Objects.requireNonNullElse(account.getArticlesCount(), 0L),
+                account.getUpdatedAt(),
+                null
+        );
+    }
+
+    public ProfileSnapshot withJson(byte[] json) {
+        return new ProfileSnapshot(id, username, bio, image, followersCount, articlesCount, updatedAt, json);
+    }
+
+    public ProfileDTO toProfileDTO(boolean following) {
+        return ProfileDTO.builder()
+                .username(username)
+                .bio(bio)
+                .image(image)
+                .following(following)
+                .followersCount(followersCount)
+                .articlesCount(articlesCount)
+                .build();
+    }
+
+}
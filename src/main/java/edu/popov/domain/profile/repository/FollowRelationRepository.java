@@ -3,10 +3,14 @@ package edu.popov.domain.profile.repository;
 import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.profile.entity.FollowRelationEntity;
 import edu.popov.domain.profile.entity.FollowRelationId;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +19,117 @@ public interface FollowRelationRepository extends JpaRepository<FollowRelationEn
     @Query("SELECT fr FROM FollowRelation fr WHERE fr.accountToFollow = :accountToFollow AND fr.userAccount = :userAccount")
     Optional<FollowRelationEntity> findByAccountToFollowAndUserAccount(AccountEntity accountToFollow, AccountEntity userAccount);
 
-    @Query("SELECT ac FROM FollowRelation fr JOIN Account ac ON fr.userAccount = ac.id WHERE fr.accountToFollow = :userAccount")
-    List<AccountEntity> findFollowers(@Param("userAccount") AccountEntity userAccount);
+    /**
+     * Followers of the account, latest follow first, only the columns of the profile are read.
+     */
+    @Query("SELECT new edu.popov.domain.profile.repository.FollowRelationRepository$FollowProfile(" +
+            "ac.id, ac.username, ac.bio, ac.image, ac.followersCount, ac.articlesCount, fr.createdAt) " +
+            "FROM FollowRelation fr JOIN fr.userAccount ac WHERE fr.id.accountToFollowId = :accountId " +
+            "ORDER BY fr.createdAt DESC, fr.id.userAccountId DESC")
+    List<FollowProfile> findFollowers(@Param("accountId") Long accountId, Pageable pageable);
 
-    @Query("SELECT ac FROM FollowRelation fr JOIN Account ac ON fr.accountToFollow = ac.id WHERE fr.userAccount = :userAccount")
-    List<AccountEntity> findFollowings(@Param("userAccount") AccountEntity userAccount);
+    /**
+     * Keyset variant of {@link #findFollowers}: seek to follows older than (followedAt, accountId) of the cursor.
+     */
+    @Query("SELECT new edu.popov.domain.profile.repository.FollowRelationRepository$FollowProfile(" +
+            "ac.id, ac.username, ac.bio, ac.image, ac.followersCount, ac.articlesCount, fr.createdAt) " +
+            "FROM FollowRelation fr JOIN fr.userAccount ac WHERE fr.id.accountToFollowId = :accountId AND " +
+            "(fr.createdAt < :followedAt OR (fr.createdAt = :followedAt AND fr.id.userAccountId < :cursorId)) " +
+            "ORDER BY fr.createdAt DESC, fr.id.userAccountId DESC")
+    List<FollowProfile> findFollowersBefore(
+            @Param("accountId") Long accountId,
+            @Param("followedAt") LocalDateTime followedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Accounts followed by the account, latest follow first, only the columns of the profile are read.
+     */
+    @Query("SELECT new edu.popov.domain.profile.repository.FollowRelationRepository$FollowProfile(" +
+            "ac.id, ac.username, ac.bio, ac.image, ac.followersCount, ac.articlesCount, fr.createdAt) " +
+            "FROM FollowRelation fr JOIN fr.accountToFollow ac WHERE fr.id.userAccountId = :accountId " +
+            "ORDER BY fr.createdAt DESC, fr.id.accountToFollowId DESC")
+    List<FollowProfile> findFollowings(@Param("accountId") Long accountId, Pageable pageable);
+
+    /**
+     * Keyset variant of {@link #findFollowings}: seek to follows older than (followedAt, accountId) of the cursor.
+     */
+    @Query("SELECT new edu.popov.domain.profile.repository.FollowRelationRepository$FollowProfile(" +
+            "ac.id, ac.username, ac.bio, ac.image, ac.followersCount, ac.articlesCount, fr.createdAt) " +
+            "FROM FollowRelation fr JOIN fr.accountToFollow ac WHERE fr.id.userAccountId = :accountId AND " +
+            "(fr.createdAt < :followedAt OR (fr.createdAt = :followedAt AND fr.id.accountToFollowId < :cursorId)) " +
+            "ORDER BY fr.createdAt DESC, fr.id.accountToFollowId DESC")
+    List<FollowProfile> findFollowingsBefore(
+            @Param("accountId") Long accountId,
+            @Param("followedAt") LocalDateTime followedAt,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable
+    );
+
+    /**
+     * Follow the account in one statement, concurrent follows of the same pair do not fail.
+     *
+     * @return 1 if the account is followed now, 0 if it was already followed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO follow_relation (account_to_follow_id, user_account_id, created_at) " +
+            "VALUES (:accountToFollowId, :userAccountId, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(
+            @Param("accountToFollowId") Long accountToFollowId,
+            @Param("userAccountId") Long userAccountId,
+            @Param("createdAt") LocalDateTime createdAt
+    );
+
+    /**
+     * @return 1 if the account is unfollowed now, 0 if it was not followed
+     */
+    @Modifying
+    @Query("DELETE FROM FollowRelation fr " +
+            "WHERE fr.id.accountToFollowId = :accountToFollowId AND fr.id.userAccountId = :userAccountId")
+    int deleteIfPresent(
+            @Param("accountToFollowId") Long accountToFollowId,
+            @Param("userAccountId") Long userAccountId
+    );
+
+    @Query("SELECT fr.id.accountToFollowId FROM FollowRelation fr " +
+            "WHERE fr.id.userAccountId = :userAccountId AND fr.id.accountToFollowId IN :accountIds")
+    List<Long> findFollowedAccountIds(
+            @Param("userAccountId") Long userAccountId,
+            @Param("accountIds") Collection<Long> accountIds
+    );
+
+    @Query("SELECT fr.id.accountToFollowId FROM FollowRelation fr WHERE fr.id.userAccountId = :userAccountId")
+    List<Long> findFollowingIds(@Param("userAccountId") Long userAccountId);
+
+    @Query("SELECT fr.id.userAccountId FROM FollowRelation fr WHERE fr.id.accountToFollowId = :accountToFollowId")
+    List<Long> findFollowerIds(@Param("accountToFollowId") Long accountToFollowId);
+
+    /**
+     * Followees of the user that have more than threshold followers.
+     */
+    @Query("SELECT fr.id.accountToFollowId FROM FollowRelation fr " +
+            "WHERE fr.id.userAccountId = :userAccountId AND fr.accountToFollow.followersCount > :threshold")
+    List<Long> findFollowedAccountIdsWithFollowersAbove(
+            @Param("userAccountId") Long userAccountId,
+            @Param("threshold") long threshold
+    );
+
+    /**
+     * Every follow relation, rows are records built by the query as all relations are read.
+     */
+    @Query("SELECT new edu.popov.domain.profile.repository.FollowRelationRepository$Relation(" +
+            "fr.id.userAccountId, fr.id.accountToFollowId) FROM FollowRelation fr")
+    List<Relation> findAllRelations();
+
+    record Relation(Long userAccountId, Long accountToFollowId) {
+    }
+
+    /**
+     * Profile columns of the other side of a relation and the time of the follow.
+     */
+    record FollowProfile(Long id, String username, String bio, String image, Long followersCount,
+                         Long articlesCount, LocalDateTime followedAt) {
+    }
 
 }
@@ -0,0 +1,34 @@
+package edu.popov.domain.profile.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface FollowGraphService {
+
+    boolean isFollowing(Long followerId, Long followeeId);
+
+    /**
+     * Accounts of the given ones that the follower follows.
+     */
+    Set<Long> findFollowed(Long followerId, Collection<Long> accountIds);
+
+    List<Long> getFollowingIds(Long followerId);
+
+    List<Long> getFollowerIds(Long followeeId);
+
+    /**
+     * Accounts followed by the follower that have more than threshold followers.
+     */
+    List<Long> getFollowingIdsWithFollowersAbove(Long followerId, long threshold);
+
+    /**
+     * Relation is applied after the current transaction is committed.
+     */
+    void followed(Long followerId, Long followeeId);
+
+    void unfollowed(Long followerId, Long followeeId);
+
+    void rebuild();
+
+}
@@ -0,0 +1,153 @@
+package edu.popov.domain.profile.service;
+
+import edu.popov.domain.profile.entity.FollowRelationId;
+import edu.popov.domain.profile.model.FollowGraph;
+import edu.popov.domain.profile.repository.FollowRelationRepository;
+import edu.popov.utils.RebuildableIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static java.lang.String.format;
+
+/**
+ * Follow relations answered from an in-memory {@link FollowGraph} without database access. The graph is built
+ * on startup and on profile.follow-graph.rebuild-cron, follows and unfollows of this instance are applied after
+ * commit and merged into the adjacency arrays once profile.follow-graph.max-delta of them are buffered.
+ * Until the first build every answer is a query.
+ */
+@Slf4j
+@Service
+public class FollowGraphServiceImpl implements FollowGraphService {
+
+    private static final double MILLION = 1_000_000;
+
+    private final FollowRelationRepository followRelationRepository;
+
+    @Value("${profile.follow-graph.max-delta}")
+    private Integer maxDelta;
+
+    private final RebuildableIndex<FollowGraph> followGraph = new RebuildableIndex<>();
+
+    public FollowGraphServiceImpl(FollowRelationRepository followRelationRepository, MeterRegistry meterRegistry) {
+        this.followRelationRepository = followRelationRepository;
+        Gauge.builder("profile.follow-graph.bytes", () -> read(FollowGraph::bytes, () -> 0L))
+                .register(meterRegistry);
+        Gauge.builder("profile.follow-graph.relations", () -> read(FollowGraph::edges, () -> 0))
+                .register(meterRegistry);
+        Gauge.builder("profile.follow-graph.delta", () -> read(FollowGraph::deltaSize, () -> 0))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean isFollowing(Long followerId, Long followeeId) {
+        if (Objects.isNull(followerId))
+            return false;
+        return read(graph -> graph.isFollowing(followerId, followeeId),
+                () -> followRelationRepository.existsById(FollowRelationId.builder()
+                        .accountToFollowId(followeeId)
+                        .userAccountId(followerId)
+                        .build()));
+    }
+
+    @Override
+    public Set<Long> findFollowed(Long followerId, Collection<Long> accountIds) {
+        if (Objects.isNull(followerId) || accountIds.isEmpty())
+            return Set.of();
+        return read(graph -> {
+            Set<Long> followed = new HashSet<>();
+            for (Long accountId : accountIds)
+                if (graph.isFollowing(followerId, accountId))
+                    followed.add(accountId);
+            return followed;
+        }, () -> new HashSet<>(followRelationRepository.findFollowedAccountIds(followerId, accountIds)));
+    }
+
+    @Override
+    public List<Long> getFollowingIds(Long followerId) {
+        return read(graph -> boxed(graph.followings(followerId)),
+                () -> followRelationRepository.findFollowingIds(followerId));
+    }
+
+    @Override
+    public List<Long> getFollowerIds(Long followeeId) {
+        return read(graph -> boxed(graph.followers(followeeId)),
+                () -> followRelationRepository.findFollowerIds(followeeId));
+    }
+
+    @Override
+    public List<Long> getFollowingIdsWithFollowersAbove(Long followerId, long threshold) {
+        return read(graph -> Arrays.stream(graph.followings(followerId))
+                        .filter(followeeId -> graph.followersCount(followeeId) > threshold)
+                        .boxed()
+                        .toList(),
+                () -> followRelationRepository.findFollowedAccountIdsWithFollowersAbove(followerId, threshold));
+    }
+
+    @Override
+    public void followed(Long followerId, Long followeeId) {
+        followGraph.updateAfterCommit(graph -> {
+            graph.follow(followerId, followeeId);
+            return merged(graph);
+        });
+    }
+
+    @Override
+    public void unfollowed(Long followerId, Long followeeId) {
+        followGraph.updateAfterCommit(graph -> {
+            graph.unfollow(followerId, followeeId);
+            return merged(graph);
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        followGraph.rebuild(() -> {
+            List<FollowRelationRepository.Relation> relations = followRelationRepository.findAllRelations();
+            long[] followerIds = new long[relations.size()];
+            long[] followeeIds = new long[relations.size()];
+            for (int i = 0; i < relations.size(); i++) {
+                followerIds[i] = relations.get(i).userAccountId();
+                followeeIds[i] = relations.get(i).accountToFollowId();
+            }
+            return FollowGraph.of(followerIds, followeeIds, relations.size());
+        }).ifPresent(FollowGraphServiceImpl::report);
+    }
+
+    private <T> T read(Function<FollowGraph, T> query, Supplier<T> fallback) {
+        return followGraph.read(query, fallback);
+    }
+
+    /**
+     * Graph with the delta merged into the adjacency arrays once max-delta relations are buffered.
+     */
+    private FollowGraph merged(FollowGraph graph) {
+        if (graph.deltaSize() <= maxDelta)
+            return graph;
+        FollowGraph merged = graph.merged();
+        log.debug("Follow graph delta is merged, {} relations", merged.edges());
+        return merged;
+    }
+
+    private static void report(FollowGraph graph) {
+        int relations = graph.edges();
+        log.info(format("Follow graph is built: %d relations, %d KB, %.1f MB per million relations",
+                relations, graph.bytes() / 1024,
+                relations == 0 ? 0 : graph.bytes() / (double) relations * MILLION / 1024 / 1024));
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+}
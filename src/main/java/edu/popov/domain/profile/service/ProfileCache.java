@@ -0,0 +1,31 @@
+package edu.popov.domain.profile.service;
+
+import edu.popov.domain.profile.model.ProfileSnapshot;
+
+import java.util.Optional;
+
+public interface ProfileCache {
+
+    /**
+     * Profile by username, empty when account is not exist.
+     */
+    Optional<ProfileSnapshot> getByUsername(String username);
+
+    /**
+     * Profile by account id, empty when account is not exist. Stays valid when the account is renamed.
+     */
+    Optional<ProfileSnapshot> getById(Long accountId);
+
+    /**
+     * Account id of a cached profile, empty when the username is not cached.
+     */
+    Optional<Long> getCachedId(String username);
+
+    /**
+     * Drop the profile now and once more after the current transaction is committed.
+     */
+    void invalidate(Long accountId);
+
+    void invalidateAll();
+
+}
@@ -0,0 +1,103 @@
+package edu.popov.domain.profile.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.profile.model.ProfileSnapshot;
+import edu.popov.utils.LruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded LRU cache of profile snapshots by account id plus an index of cached usernames, so profile views,
+ * article authors and ETags need no account lookup. Snapshots are dropped by the write paths of this instance
+ * (profile update, follow, unfollow, article create and delete), writes of other instances are picked up
+ * after profile.cache.ttl.
+ */
+@Service
+public class ProfileCacheImpl implements ProfileCache {
+
+    private static final String CACHE_NAME = "profile";
+
+    private final AccountRepository accountRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${profile.cache.max-size}")
+    private Integer maxSize;
+    @Value("${profile.cache.ttl}")
+    private Duration ttl;
+
+    // usernames of cached snapshots, an evicted snapshot takes its username along
+    private final Map<String, Long> ids = new ConcurrentHashMap<>();
+    private final LruCache<Long, ProfileSnapshot> cache;
+
+    public ProfileCacheImpl(AccountRepository accountRepository, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.accountRepository = accountRepository;
+        this.objectMapper = objectMapper;
+        this.cache = LruCache.<Long, ProfileSnapshot>builder(CACHE_NAME, meterRegistry)
+                .maxSize(() -> maxSize)
+                .ttl(snapshot -> ttl)
+                .onAdd((id, snapshot) -> ids.put(snapshot.username(), id))
+                .onRemoval((id, snapshot) -> ids.remove(snapshot.username(), id))
+                .build();
+    }
+
+    @Override
+    public Optional<ProfileSnapshot> getByUsername(String username) {
+        long generation = cache.generation();
+        Optional<ProfileSnapshot> cached = cache.getIfPresent(ids.get(username));
+        if (cached.isPresent())
+            return cached;
+        return load(accountRepository.findByUsername(username), generation);
+    }
+
+    @Override
+    public Optional<ProfileSnapshot> getById(Long accountId) {
+        long generation = cache.generation();
+        Optional<ProfileSnapshot> cached = cache.getIfPresent(accountId);
+        if (cached.isPresent())
+            return cached;
+        return load(accountRepository.findById(accountId), generation);
+    }
+
+    @Override
+    public Optional<Long> getCachedId(String username) {
+        return Optional.ofNullable(ids.get(username));
+    }
+
+    @Override
+    public void invalidate(Long accountId) {
+        cache.invalidate(accountId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Snapshot of the loaded account, cached unless an invalidation happened since generation was read.
+     */
+    private Optional<ProfileSnapshot> load(Optional<AccountEntity> account, long generation) {
+        Optional<ProfileSnapshot> profile = account
+                .map(ProfileSnapshot::of)
+                .map(snapshot -> snapshot.withJson(serialize(snapshot)));
+        profile.ifPresent(snapshot -> cache.put(snapshot.id(), snapshot, generation));
+        return profile;
+    }
+
+    private byte[] serialize(ProfileSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsBytes(snapshot.toProfileDTO(false));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -2,13 +2,20 @@ package edu.popov.domain.profile.service;
 
 import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.profile.dto.ProfileDTO;
-
-import java.util.List;
+import edu.popov.domain.profile.model.PageParams;
 
 public interface ProfileService {
 
     ProfileDTO getProfile(String username, Long id);
 
+    ProfileDTO getProfileById(Long accountId, Long id);
+
+    byte[] getProfileJson(String username);
+
+    String getProfileETag(String username, Long id);
+
+    String getProfileETagById(Long accountId, Long id);
+
     ProfileDTO followProfile(String username, Long id);
 
     ProfileDTO unfollowProfile(String username, Long id);
@@ -17,8 +24,8 @@ public interface ProfileService {
 
     AccountEntity getAccountByUsername(String username);
 
-    List<ProfileDTO> getFollowers(Long id);
+    ProfileDTO.MultipleProfiles getFollowers(Long id, PageParams pageParams);
 
-    List<ProfileDTO> getFollowings(Long id);
+    ProfileDTO.MultipleProfiles getFollowings(Long id, PageParams pageParams);
 
 }
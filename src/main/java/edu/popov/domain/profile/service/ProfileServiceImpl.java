@@ -2,21 +2,30 @@ package edu.popov.domain.profile.service;
 
 import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.service.FeedService;
 import edu.popov.domain.profile.dto.ProfileDTO;
-import edu.popov.domain.profile.dto.ProfileMapper;
-import edu.popov.domain.profile.entity.FollowRelationEntity;
-import edu.popov.domain.profile.entity.FollowRelationId;
+import edu.popov.domain.profile.model.FollowCursor;
+import edu.popov.domain.profile.model.PageParams;
+import edu.popov.domain.profile.model.ProfileSnapshot;
 import edu.popov.domain.profile.repository.FollowRelationRepository;
+import edu.popov.domain.profile.repository.FollowRelationRepository.FollowProfile;
+import edu.popov.utils.ETag;
+import edu.popov.utils.exception.BadRequestException;
 import edu.popov.utils.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import static java.lang.String.format;
 
@@ -27,91 +36,107 @@ public class ProfileServiceImpl implements ProfileService {
 
     private final AccountRepository accountRepository;
     private final FollowRelationRepository followRelationRepository;
-    private final ProfileMapper mapper;
+    private final FeedService feedService;
+    private final ProfileCache profileCache;
+    private final FollowGraphService followGraphService;
+
+    @Value("${profile.follows.max-limit}")
+    private Integer maxLimit;
 
     private static final String ACCOUNT_NOT_FOUND_BY_USERNAME = "Account with username %s is not exist";
     private static final String ACCOUNT_NOT_FOUND_BY_ID = "Account with id %d is not exist";
+    private static final String LIMIT_IS_OUT_OF_RANGE = "Limit %d is out of range, use 1 to %d";
+    private static final int DEFAULT_LIMIT = 20;
 
     /**
-     * Show profile info
+     * Show profile info, the profile is read from the cache and only the following flag is looked up.
      */
     @Override
     public ProfileDTO getProfile(String username, Long id) {
-        AccountEntity profile = getAccountByUsername(username);
-        ProfileDTO profileDTO = mapper.mapToProfileDTO(profile);
+        ProfileSnapshot profile = getProfileSnapshot(username);
+        return profile.toProfileDTO(isFollowing(profile, id));
+    }
 
-        FollowRelationId followRelationId = FollowRelationId.builder()
-                .accountToFollowId(profile.getId())
-                .userAccountId(id)
-                .build();
+    /**
+     * Show profile of the account, for authors of cached articles that keep the id across renames.
+     */
+    @Override
+    public ProfileDTO getProfileById(Long accountId, Long id) {
+        ProfileSnapshot profile = getProfileSnapshot(accountId);
+        return profile.toProfileDTO(isFollowing(profile, id));
+    }
 
-        Optional<FollowRelationEntity> optionalFollowRelation =
-                followRelationRepository.findById(followRelationId);
-        if (optionalFollowRelation.isPresent())
-            profileDTO.setFollowing(true);
+    /**
+     * Profile as seen by an anonymous viewer, serialized once per cached profile.
+     */
+    @Override
+    public byte[] getProfileJson(String username) {
+        return getProfileSnapshot(username).json();
+    }
 
-        return profileDTO;
+    /**
+     * Version of the profile for the viewer: account update time, counters and following flag.
+     */
+    @Override
+    public String getProfileETag(String username, Long id) {
+        return getProfileETag(getProfileSnapshot(username), id);
+    }
+
+    @Override
+    public String getProfileETagById(Long accountId, Long id) {
+        return getProfileETag(getProfileSnapshot(accountId), id);
+    }
+
+    private String getProfileETag(ProfileSnapshot profile, Long id) {
+        return ETag.of(profile.id(), profile.username(), profile.updatedAt(),
+                profile.followersCount(), profile.articlesCount(), isFollowing(profile, id));
     }
 
     /**
      * Follow profile and now profile updated will be in our feed.
+     * The relation is inserted by one conditional statement, the counter is only moved when the row is new,
+     * and the response is built from the cached profile.
      */
     @Override
     @Transactional
     public ProfileDTO followProfile(String username, Long id) {
-        AccountEntity profile = getAccountByUsername(username);
-        AccountEntity userAccount = getAccountById(id);
-
-        ProfileDTO followedProfile = mapper.mapToProfileDTO(profile);
-        followedProfile.setFollowing(true);
-
-        FollowRelationId followRelationId = FollowRelationId.builder()
-                .accountToFollowId(profile.getId())
-                .userAccountId(userAccount.getId())
-                .build();
+        ProfileSnapshot profile = getProfileSnapshot(username);
 
         // if already follow then just return
-        if (followRelationRepository.findById(followRelationId).isPresent())
-            return followedProfile;
-
-        FollowRelationEntity followRelation = FollowRelationEntity.builder()
-                .id(followRelationId)
-                .accountToFollow(profile)
-                .userAccount(userAccount)
-                .createdAt(LocalDateTime.now())
-                .build();
+        if (followRelationRepository.insertIfAbsent(profile.id(), id, LocalDateTime.now()) == 0)
+            return profile.toProfileDTO(true);
 
-        followRelationRepository.save(followRelation);
+        accountRepository.incrementFollowersCount(profile.id(), 1);
+        profileCache.invalidate(profile.id());
+        followGraphService.followed(id, profile.id());
+        feedService.follow(id, profile.id());
 
-        log.info("account {} follow account {}", profile.getUsername(), userAccount.getUsername());
+        ProfileDTO followedProfile = profile.toProfileDTO(true);
+        followedProfile.setFollowersCount(profile.followersCount() + 1);
+        log.info("account {} follow account {}", id, profile.username());
         return followedProfile;
     }
 
     /**
-     * Unfollow profile.
+     * Unfollow profile, by one conditional delete.
      */
     @Override
     @Transactional
     public ProfileDTO unfollowProfile(String username, Long id) {
-        AccountEntity profile = getAccountByUsername(username);
-        AccountEntity userAccount = getAccountById(id);
-
-        ProfileDTO unfollowedProfile = mapper.mapToProfileDTO(profile);
-        unfollowedProfile.setFollowing(false);
+        ProfileSnapshot profile = getProfileSnapshot(username);
 
-        FollowRelationId followRelationId = FollowRelationId.builder()
-                .accountToFollowId(profile.getId())
-                .userAccountId(userAccount.getId())
-                .build();
-
-        System.out.println(followRelationId);
         // if already unfollow then just return
-        if (followRelationRepository.findById(followRelationId).isEmpty())
-            return unfollowedProfile;
+        if (followRelationRepository.deleteIfPresent(profile.id(), id) == 0)
+            return profile.toProfileDTO(false);
 
-        followRelationRepository.deleteById(followRelationId);
+        accountRepository.incrementFollowersCount(profile.id(), -1);
+        profileCache.invalidate(profile.id());
+        followGraphService.unfollowed(id, profile.id());
+        feedService.unfollow(id, profile.id());
 
-        log.info("account {} unfollow account {}", profile.getUsername(), userAccount.getUsername());
+        ProfileDTO unfollowedProfile = profile.toProfileDTO(false);
+        unfollowedProfile.setFollowersCount(profile.followersCount() - 1);
+        log.info("account {} unfollow account {}", id, profile.username());
         return unfollowedProfile;
     }
 
@@ -124,33 +149,109 @@ public class ProfileServiceImpl implements ProfileService {
         return optionalProfile.get();
     }
 
+    /**
+     * Cached username is loaded by primary key, the account could be renamed by another instance since it was cached.
+     */
     @Override
     public AccountEntity getAccountByUsername(String username) {
-        Optional<AccountEntity> optionalProfile = accountRepository.findByUsername(username);
+        Optional<AccountEntity> optionalProfile = profileCache.getCachedId(username)
+                .flatMap(accountRepository::findById)
+                .filter(account -> account.getUsername().equals(username))
+                .or(() -> accountRepository.findByUsername(username));
         if(optionalProfile.isEmpty())
             throw new NotFoundException(format(ACCOUNT_NOT_FOUND_BY_USERNAME, username));
 
         return optionalProfile.get();
     }
 
+    private ProfileSnapshot getProfileSnapshot(String username) {
+        Optional<ProfileSnapshot> optionalProfile = profileCache.getByUsername(username);
+        if (optionalProfile.isEmpty())
+            throw new NotFoundException(format(ACCOUNT_NOT_FOUND_BY_USERNAME, username));
+
+        return optionalProfile.get();
+    }
+
+    private ProfileSnapshot getProfileSnapshot(Long accountId) {
+        Optional<ProfileSnapshot> optionalProfile = profileCache.getById(accountId);
+        if (optionalProfile.isEmpty())
+            throw new NotFoundException(format(ACCOUNT_NOT_FOUND_BY_ID, accountId));
+
+        return optionalProfile.get();
+    }
+
+    private boolean isFollowing(ProfileSnapshot profile, Long id) {
+        return followGraphService.isFollowing(id, profile.id());
+    }
+
     /**
-     * Get users followers.
+     * Get users followers, latest follow first. One page of profile columns is read in one statement,
+     * following flags of the page come from the follow graph.
      */
     @Override
-    @Transactional
-    public List<ProfileDTO> getFollowers(Long id) {
-        return followRelationRepository.findFollowers(getAccountById(id))
-                .stream().map(mapper::mapToProfileDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public ProfileDTO.MultipleProfiles getFollowers(Long id, PageParams pageParams) {
+        int limit = getLimit(pageParams);
+        Pageable page = PageRequest.of(0, limit);
+        List<FollowProfile> followers;
+        if (Objects.isNull(pageParams.getCursor()))
+            followers = followRelationRepository.findFollowers(id, page);
+        else {
+            FollowCursor cursor = FollowCursor.decode(pageParams.getCursor());
+            followers = followRelationRepository.findFollowersBefore(id, cursor.followedAt(), cursor.accountId(), page);
+        }
+
+        Set<Long> followed = followGraphService.findFollowed(id, followers.stream().map(FollowProfile::id).toList());
+        return getProfiles(followers, limit, followed::contains);
     }
 
     /**
-     * Get users followings.
+     * Get users followings, latest follow first.
      */
     @Override
-    public List<ProfileDTO> getFollowings(Long id) {
-        return followRelationRepository.findFollowings(getAccountById(id))
-                .stream().map(mapper::mapFollowingsToProfileDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public ProfileDTO.MultipleProfiles getFollowings(Long id, PageParams pageParams) {
+        int limit = getLimit(pageParams);
+        Pageable page = PageRequest.of(0, limit);
+        List<FollowProfile> followings;
+        if (Objects.isNull(pageParams.getCursor()))
+            followings = followRelationRepository.findFollowings(id, page);
+        else {
+            FollowCursor cursor = FollowCursor.decode(pageParams.getCursor());
+            followings = followRelationRepository.findFollowingsBefore(id, cursor.followedAt(), cursor.accountId(), page);
+        }
+
+        return getProfiles(followings, limit, followee -> true);
+    }
+
+    /**
+     * Profiles in the order of the page, with the cursor of the last one when the page is full.
+     */
+    private static ProfileDTO.MultipleProfiles getProfiles(List<FollowProfile> page, int limit, Predicate<Long> following) {
+        List<ProfileDTO> profiles = page.stream()
+                .map(profile -> ProfileDTO.builder()
+                        .username(profile.username())
+                        .bio(profile.bio())
+                        .image(profile.image())
+                        .following(following.test(profile.id()))
+                        .followersCount(profile.followersCount())
+                        .articlesCount(profile.articlesCount())
+                        .build())
+                .toList();
+        String nextCursor = page.size() < limit ? null : FollowCursor.of(page.get(page.size() - 1)).encode();
+        return ProfileDTO.MultipleProfiles.builder()
+                .profiles(profiles)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private int getLimit(PageParams pageParams) {
+        int limit = Objects.isNull(pageParams.getLimit()) ? DEFAULT_LIMIT : pageParams.getLimit();
+        if (limit < 1 || limit > maxLimit) {
+            String msg = format(LIMIT_IS_OUT_OF_RANGE, limit, maxLimit);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        return limit;
     }
-}
\ No newline at end of file
+}
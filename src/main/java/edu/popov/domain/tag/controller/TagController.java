@@ -1,11 +1,14 @@
 package edu.popov.domain.tag.controller;
 
-import edu.popov.domain.tag.dto.TagDTO;
 import edu.popov.domain.tag.service.TagService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RequiredArgsConstructor
 @RestController
@@ -15,8 +18,16 @@ public class TagController {
     private final TagService tagService;
 
     @GetMapping
-    public TagDTO.TagList getTags() {
-        return TagDTO.TagList.builder().tags(tagService.getTags()).build();
+    public ResponseEntity<byte[]> getTags(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "prefix", required = false) String prefix,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(tagService.getTagsETag(limit, prefix)))
+            return null;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(tagService.getTags(limit, prefix));
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,16 +1,23 @@
 package edu.popov.domain.tag.entity;
 
-import edu.popov.domain.article.entity.ArticleEntity;
 import jakarta.persistence.*;
 import lombok.*;
 
+/**
+ * Tag dictionary, one row per tag name. Articles reference tags through article_tag.
+ */
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
 @Setter
 @Entity(name = "Tag")
-@Table(name = "tag")
+@Table(
+        name = "tag",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "tag_tag_name_unique", columnNames = "tag_name")
+        }
+)
 public class TagEntity {
 
     @Id
@@ -19,16 +26,7 @@ public class TagEntity {
     @Column(name = "id", updatable = false)
     private Long id;
 
-    @Column(name = "tag_name", nullable = false)
+    @Column(name = "tag_name", nullable = false, updatable = false)
     private String tagName;
 
-    @ManyToOne
-    @JoinColumn(
-            name = "article_id", nullable = false,
-            foreignKey = @ForeignKey(
-                    name = "tag_article_id_fk"
-            )
-    )
-    private ArticleEntity article;
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,171 @@
+package edu.popov.domain.tag.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Tags ranked by number of articles, most used first. Entries with the same count form a run,
+ * so +1 or -1 moves an entry with one swap to the edge of its run instead of re-sorting.
+ * Tags without articles are not kept. Not thread safe, callers synchronize on the index.
+ */
+public final class TagPopularityIndex {
+
+    /**
+     * Returned by updates that did not change the order of tags.
+     */
+    public static final int UNCHANGED = -1;
+
+    private final List<Entry> ranked = new ArrayList<>();
+    private final Map<String, Entry> byName = new HashMap<>();
+    // first and last position of each count run
+    private final Map<Long, Integer> first = new HashMap<>();
+    private final Map<Long, Integer> last = new HashMap<>();
+
+    public static TagPopularityIndex of(Map<String, Long> counts) {
+        TagPopularityIndex index = new TagPopularityIndex();
+        counts.entrySet().stream()
+                .filter(count -> count.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(count -> index.append(count.getKey(), count.getValue()));
+        return index;
+    }
+
+    public int size() {
+        return ranked.size();
+    }
+
+    public long count(String tagName) {
+        Entry entry = byName.get(tagName);
+        return Objects.isNull(entry) ? 0 : entry.count;
+    }
+
+    /**
+     * Add one article to the tag.
+     *
+     * @return lowest position whose tag changed, {@link #UNCHANGED} if the order is the same
+     */
+    public int increment(String tagName) {
+        Entry entry = byName.get(tagName);
+        if (Objects.isNull(entry)) {
+            append(tagName, 1);
+            return ranked.size() - 1;
+        }
+
+        long count = entry.count;
+        int position = entry.position;
+        int target = first.get(count);
+        swap(position, target);
+        leaveRunAtStart(count, target);
+        entry.count = count + 1;
+        if (last.containsKey(entry.count))
+            last.put(entry.count, target);
+        else
+            startRun(entry.count, target);
+        return position == target ? UNCHANGED : target;
+    }
+
+    /**
+     * Remove one article from the tag, tag is dropped when no articles are left.
+     *
+     * @return lowest position whose tag changed, {@link #UNCHANGED} if the order is the same
+     */
+    public int decrement(String tagName) {
+        Entry entry = byName.get(tagName);
+        if (Objects.isNull(entry))
+            return UNCHANGED;
+
+        long count = entry.count;
+        int position = entry.position;
+        int target = last.get(count);
+        swap(position, target);
+        leaveRunAtEnd(count, target);
+        if (count == 1) {
+            // run of count 1 is the last one, so the entry is at the end
+            ranked.remove(target);
+            byName.remove(tagName);
+            return position;
+        }
+        entry.count = count - 1;
+        if (first.containsKey(entry.count))
+            first.put(entry.count, target);
+        else
+            startRun(entry.count, target);
+        return position == target ? UNCHANGED : position;
+    }
+
+    /**
+     * Most used tags starting with the prefix (all tags when prefix is null), one pass over the ranking.
+     */
+    public List<String> top(int limit, String prefix) {
+        List<String> tags = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && tags.size() < limit; i++) {
+            String tagName = ranked.get(i).name;
+            if (Objects.isNull(prefix) || tagName.startsWith(prefix))
+                tags.add(tagName);
+        }
+        return tags;
+    }
+
+    private void append(String tagName, long count) {
+        Entry entry = new Entry(tagName, count, ranked.size());
+        ranked.add(entry);
+        byName.put(tagName, entry);
+        if (last.containsKey(count))
+            last.put(count, entry.position);
+        else
+            startRun(count, entry.position);
+    }
+
+    private void startRun(long count, int position) {
+        first.put(count, position);
+        last.put(count, position);
+    }
+
+    private void leaveRunAtStart(long count, int position) {
+        if (first.get(count).equals(last.get(count)))
+            removeRun(count);
+        else
+            first.put(count, position + 1);
+    }
+
+    private void leaveRunAtEnd(long count, int position) {
+        if (first.get(count).equals(last.get(count)))
+            removeRun(count);
+        else
+            last.put(count, position - 1);
+    }
+
+    private void removeRun(long count) {
+        first.remove(count);
+        last.remove(count);
+    }
+
+    private void swap(int i, int j) {
+        if (i == j)
+            return;
+        Entry a = ranked.get(i);
+        Entry b = ranked.get(j);
+        ranked.set(i, b);
+        ranked.set(j, a);
+        a.position = j;
+        b.position = i;
+    }
+
+    private static final class Entry {
+
+        private final String name;
+        private long count;
+        private int position;
+
+        private Entry(String name, long count, int position) {
+            this.name = name;
+            this.count = count;
+            this.position = position;
+        }
+    }
+}
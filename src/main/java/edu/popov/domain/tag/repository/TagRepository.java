@@ -2,6 +2,46 @@ package edu.popov.domain.tag.repository;
 
 import edu.popov.domain.tag.entity.TagEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TagRepository extends JpaRepository<TagEntity, Long> {
+
+    List<TagEntity> findByTagNameIn(Collection<String> tagNames);
+
+    @Query("SELECT t.tagName AS tagName, COUNT(ar) AS articlesCount FROM Article ar JOIN ar.tags t GROUP BY t.tagName")
+    List<TagUsage> findUsage();
+
+    /**
+     * Number of articles of every used tag, rows are records built by the query as all tags are read.
+     */
+    @Query("SELECT new edu.popov.domain.tag.repository.TagRepository$TagCount(t.tagName, COUNT(ar)) " +
+            "FROM Article ar JOIN ar.tags t GROUP BY t.tagName")
+    List<TagCount> findArticleCounts();
+
+    @Query("SELECT ar.id AS articleId, t.tagName AS tagName FROM Article ar JOIN ar.tags t WHERE ar.id IN :articleIds")
+    List<ArticleTag> findByArticleIds(@Param("articleIds") Collection<Long> articleIds);
+
+    interface ArticleTag {
+
+        Long getArticleId();
+
+        String getTagName();
+
+    }
+
+    record TagCount(String tagName, Long articlesCount) {
+    }
+
+    interface TagUsage {
+
+        String getTagName();
+
+        Long getArticlesCount();
+
+    }
+
 }
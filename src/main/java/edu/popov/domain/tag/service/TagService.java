@@ -1,9 +1,25 @@
 package edu.popov.domain.tag.service;
 
+import edu.popov.domain.tag.entity.TagEntity;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface TagService {
 
-    List<String> getTags();
+    byte[] getTags(Integer limit, String prefix);
+
+    String getTagsETag(Integer limit, String prefix);
+
+    List<TagEntity> resolveTags(Collection<String> tagNames);
+
+    Map<String, Long> findTagIds(Collection<String> tagNames);
+
+    void articleTagsAdded(Collection<String> tagNames);
+
+    void articleTagsRemoved(Collection<String> tagNames);
+
+    void rebuildPopularity();
 
-}
\ No newline at end of file
+}
@@ -1,26 +1,188 @@
 package edu.popov.domain.tag.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.popov.domain.autocomplete.service.AutocompleteService;
+import edu.popov.domain.tag.dto.TagDTO;
 import edu.popov.domain.tag.entity.TagEntity;
+import edu.popov.domain.tag.model.TagPopularityIndex;
 import edu.popov.domain.tag.repository.TagRepository;
+import edu.popov.utils.ETag;
+import edu.popov.utils.exception.BadRequestException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
+import static java.lang.String.format;
+
+@Slf4j
 @RequiredArgsConstructor
 @Service
 public class TagServiceImpl implements TagService {
 
     private final TagRepository tagRepository;
+    private final ObjectMapper objectMapper;
+    private final AutocompleteService autocompleteService;
+
+    @Value("${tag.popularity.default-limit}")
+    private Integer defaultLimit;
+    @Value("${tag.popularity.max-limit}")
+    private Integer maxLimit;
+
+    private static final String LIMIT_IS_OUT_OF_RANGE = "Limit %d is not in range 1..%d";
+
+    // ETags of the previous process must not match, so versions start from the start time
+    private final long epoch = System.currentTimeMillis();
+
+    private TagPopularityIndex index = new TagPopularityIndex();
+    private long version;
+    private byte[] defaultResponse;
+
+    /**
+     * Most used tags as JSON, served from the popularity index without database access.
+     * Response with default limit and without prefix is serialized once per ranking change.
+     */
+    @Override
+    public byte[] getTags(Integer limit, String prefix) {
+        int checkedLimit = checkLimit(limit);
+        List<String> tags;
+        synchronized (this) {
+            if (checkedLimit == defaultLimit && Objects.isNull(prefix)) {
+                if (Objects.isNull(defaultResponse))
+                    defaultResponse = serialize(index.top(defaultLimit, null));
+                return defaultResponse;
+            }
+            tags = index.top(checkedLimit, prefix);
+        }
+        return serialize(tags);
+    }
+
+    @Override
+    public synchronized String getTagsETag(Integer limit, String prefix) {
+        return ETag.of(epoch, version, checkLimit(limit), prefix);
+    }
 
     /**
-     * Return list of existing tags
+     * Dictionary tags for the names in the given order without duplicates. Existing tags are read
+     * in one statement, only unknown names are inserted.
      */
     @Override
-    public List<String> getTags() {
-        return tagRepository.findAll().stream()
-                .map(TagEntity::getTagName)
-                .distinct()
+    @Transactional
+    public List<TagEntity> resolveTags(Collection<String> tagNames) {
+        List<String> names = tagNames.stream().distinct().toList();
+        if (names.isEmpty())
+            return List.of();
+
+        Map<String, TagEntity> tags = new HashMap<>();
+        tagRepository.findByTagNameIn(names).forEach(tag -> tags.put(tag.getTagName(), tag));
+
+        List<TagEntity> created = names.stream()
+                .filter(name -> !tags.containsKey(name))
+                .map(name -> TagEntity.builder().tagName(name).build())
                 .toList();
+        tagRepository.saveAll(created).forEach(tag -> tags.put(tag.getTagName(), tag));
+        if (!created.isEmpty())
+            autocompleteService.tagsAdded(created.stream().map(TagEntity::getTagName).toList());
+
+        return names.stream().map(tags::get).toList();
+    }
+
+    /**
+     * Dictionary ids of known tags by name in one statement, unknown names are absent from the map.
+     */
+    @Override
+    public Map<String, Long> findTagIds(Collection<String> tagNames) {
+        if (tagNames.isEmpty())
+            return Map.of();
+        Map<String, Long> ids = new HashMap<>();
+        tagRepository.findByTagNameIn(tagNames).forEach(tag -> ids.put(tag.getTagName(), tag.getId()));
+        return ids;
+    }
+
+    /**
+     * Count the tags of a created article, applied after commit so a rolled back article is not counted.
+     */
+    @Override
+    public void articleTagsAdded(Collection<String> tagNames) {
+        afterCommit(() -> update(tagNames, true));
+    }
+
+    @Override
+    public void articleTagsRemoved(Collection<String> tagNames) {
+        afterCommit(() -> update(tagNames, false));
+    }
+
+    /**
+     * Build the index again from article_tag. Writes of other instances are picked up here.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void rebuildPopularity() {
+        Map<String, Long> counts = new HashMap<>();
+        tagRepository.findUsage().forEach(usage -> counts.put(usage.getTagName(), usage.getArticlesCount()));
+        TagPopularityIndex rebuilt = TagPopularityIndex.of(counts);
+
+        synchronized (this) {
+            index = rebuilt;
+            version++;
+            defaultResponse = null;
+        }
+        log.info("Tag popularity index is built, {} tags", rebuilt.size());
+    }
+
+    private synchronized void update(Collection<String> tagNames, boolean added) {
+        int changed = TagPopularityIndex.UNCHANGED;
+        for (String tagName : tagNames) {
+            int position = added ? index.increment(tagName) : index.decrement(tagName);
+            if (position != TagPopularityIndex.UNCHANGED)
+                changed = changed == TagPopularityIndex.UNCHANGED ? position : Math.min(changed, position);
+        }
+        if (changed == TagPopularityIndex.UNCHANGED)
+            return;
+        version++;
+        if (changed < defaultLimit)
+            defaultResponse = null;
+    }
+
+    private int checkLimit(Integer limit) {
+        if (Objects.isNull(limit))
+            return defaultLimit;
+        if (limit < 1 || limit > maxLimit) {
+            String msg = format(LIMIT_IS_OUT_OF_RANGE, limit, maxLimit);
+            log.error(msg);
+            throw new BadRequestException(msg);
+        }
+        return limit;
+    }
+
+    private byte[] serialize(List<String> tags) {
+        try {
+            return objectMapper.writeValueAsBytes(TagDTO.TagList.builder().tags(tags).build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 }
@@ -25,4 +25,11 @@ public class AuthenticationProvider {
                 .orElse(null);
     }
 
-}
\ No newline at end of file
+    /**
+     * Authenticate account built from verified token claims, without account lookup
+     */
+    public Authentication getAuthentication(AccountDetails accountDetails) {
+        return new UsernamePasswordAuthenticationToken(accountDetails, null, accountDetails.getAuthorities());
+    }
+
+}
\ No newline at end of file
@@ -1,7 +1,9 @@
 package edu.popov.security;
 
 import edu.popov.security.jwt.JwtAuthFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -15,6 +17,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @RequiredArgsConstructor
 @EnableWebSecurity
 @Configuration
@@ -30,9 +34,11 @@ public class SecurityConfig {
         return http
                 .csrf().disable()
                 .authorizeHttpRequests()
-                .requestMatchers(HttpMethod.GET, "/api/articles/feed").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/articles/feed", "/api/profiles/followers",
+                        "/api/profiles/followings").authenticated()
                 .requestMatchers(HttpMethod.POST,"/api/users/**").permitAll()
-                .requestMatchers(HttpMethod.GET,"/api/articles/**", "/api/profiles/**", "/api/tags").permitAll()
+                .requestMatchers(HttpMethod.GET,"/api/articles/**", "/api/profiles/**", "/api/tags", "/api/autocomplete/**",
+                        "/api/users/availability").permitAll()
                 .anyRequest()
                 .authenticated()
                 .and()
@@ -46,11 +52,15 @@ public class SecurityConfig {
     }
 
     /**
-     * Encrypt user password
+     * Encrypt user password, hashing runs on a bounded pool off request threads
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password-hashing.threads}") Integer threads,
+            @Value("${security.password-hashing.queue-size}") Integer queueSize,
+            @Value("${security.password-hashing.retry-after}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueSize, retryAfter, meterRegistry);
     }
 
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package edu.popov.security.jwt;
 
-import edu.popov.security.AuthenticationProvider;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -19,17 +18,14 @@ import java.util.Optional;
 public class JwtAuthFilter extends GenericFilter {
 
     private static final String TOKEN_PREFIX = "Token ";
-    private final JwtUtils jwtUtils;
-    private final AuthenticationProvider authenticationProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain) throws IOException, ServletException {
         Optional.ofNullable(((HttpServletRequest)request).getHeader(HttpHeaders.AUTHORIZATION)) // get auth header
                 .filter(authHeader -> authHeader.startsWith(TOKEN_PREFIX)) // search for bearer token
                 .map(authHeader -> authHeader.substring(TOKEN_PREFIX.length())) // remove Bearer prefix
-                .filter(jwtUtils::isTokenValid) // check that token is not expired and username (email) is exists
-                .map(jwtUtils::extractUsername) // get username from token
-                .map(authenticationProvider::getAuthentication) // authenticate user
+                .flatMap(verifiedTokenCache::authenticate) // verify token and authenticate its owner, cached until token expires
                 .ifPresent(SecurityContextHolder.getContext()::setAuthentication); // set authentication token to context
         chain.doFilter(request, response);
     }
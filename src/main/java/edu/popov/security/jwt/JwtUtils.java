@@ -1,6 +1,8 @@
 package edu.popov.security.jwt;
 
+import edu.popov.security.AccountDetails;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,16 +16,22 @@ import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
 
+    private static final String ACCOUNT_ID_CLAIM = "account_id";
+    private static final String TOKEN_VERSION_CLAIM = "token_version";
+
     @Value("${jwt.valid-time}")
     private Long validTime;
 
     private final Key key;
+    // immutable and thread safe, built once instead of per token
+    private final JwtParser parser;
     private final UserDetailsService userDetailsService;
 
     /**
@@ -40,6 +48,7 @@ public class JwtUtils {
             throw new Exception("signKey must have length at least 32");
         }
         key = Keys.hmacShaKeyFor(signKey.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder().setSigningKey(key).build();
         this.userDetailsService = userDetailsService;
     }
 
@@ -49,7 +58,23 @@ public class JwtUtils {
      * @return jwt token as string
      */
     public String generateToken(UserDetails userDetails) {
+        return generateToken(userDetails, new HashMap<>());
+    }
+
+    /**
+     * Generate jwt token with account id and token version, so the account can be authenticated from claims only
+     * @param accountDetails account credentials
+     * @param tokenVersion current token version of the account
+     * @return jwt token as string
+     */
+    public String generateToken(AccountDetails accountDetails, Long tokenVersion) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put(ACCOUNT_ID_CLAIM, accountDetails.id());
+        claims.put(TOKEN_VERSION_CLAIM, tokenVersion);
+        return generateToken(accountDetails, claims);
+    }
+
+    private String generateToken(UserDetails userDetails, Map<String, Object> claims) {
         return Jwts.builder().setClaims(claims)
                 .setSubject(userDetails.getUsername())
                 .setIssuer("real-world-app")
@@ -64,9 +89,10 @@ public class JwtUtils {
      * @param token jwt token
      */
     public boolean isTokenValid(String token) {
-        boolean expired = isTokenExpired(token);
+        Claims claims = extractClaims(token);
+        boolean expired = claims.getExpiration().before(new Date());
         Optional<UserDetails> userDetails = Optional.ofNullable(
-                userDetailsService.loadUserByUsername(extractUsername(token)));
+                userDetailsService.loadUserByUsername(claims.getSubject()));
         return (userDetails.isPresent() && !expired);
     }
 
@@ -91,12 +117,34 @@ public class JwtUtils {
         return exp.before(Date.from(now));
     }
 
+    /**
+     * Token owner built from claims without account lookup, empty for tokens issued without account id and version
+     * @param claims verified token claims
+     */
+    public Optional<AccountDetails> extractAccountDetails(Claims claims) {
+        Long id = claims.get(ACCOUNT_ID_CLAIM, Long.class);
+        if (Objects.isNull(id) || Objects.isNull(extractTokenVersion(claims)))
+            return Optional.empty();
+        return Optional.of(AccountDetails.builder()
+                .id(id)
+                .email(claims.getSubject())
+                .build());
+    }
+
+    /**
+     * Token version the token was issued with, null for tokens issued without version
+     * @param claims verified token claims
+     */
+    public Long extractTokenVersion(Claims claims) {
+        return claims.get(TOKEN_VERSION_CLAIM, Long.class);
+    }
+
     /**
      * Extract encrypted information about token (owner, who issue, when issued and etc.)
      * @param token jwt token
      */
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package edu.popov.security.jwt;
+
+import edu.popov.domain.account.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version by account id, only accounts whose tokens were revoked are kept, others have version 0.
+ * Versions only grow, so revocations of this instance and refreshes from the database are merged by maximum.
+ * Loaded on first use and refreshed on jwt.token-version.refresh-cron to pick up revocations of other instances.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class TokenVersions {
+
+    private final AccountRepository accountRepository;
+
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    /**
+     * Token of the given version is not revoked.
+     */
+    public boolean isCurrent(Long accountId, long tokenVersion) {
+        if (!loaded)
+            refresh();
+        return tokenVersion >= versions.getOrDefault(accountId, 0L);
+    }
+
+    /**
+     * Tokens of the account with a lower version are revoked once the transaction is committed.
+     */
+    public void revoked(Long accountId, long tokenVersion) {
+        Runnable revoke = () -> versions.merge(accountId, tokenVersion, Math::max);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            revoke.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                revoke.run();
+            }
+        });
+    }
+
+    public void refresh() {
+        accountRepository.findRevokedTokenVersions().forEach(version ->
+                versions.merge(version.id(), Objects.requireNonNullElse(version.tokenVersion(), 0L), Math::max));
+        loaded = true;
+        log.debug("Token versions are refreshed, {} accounts", versions.size());
+    }
+}
@@ -0,0 +1,127 @@
+package edu.popov.security.jwt;
+
+import edu.popov.security.AccountDetails;
+import edu.popov.security.AuthenticationProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import edu.popov.utils.LruCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Bounded LRU cache of verified tokens by SHA-256 digest. An entry holds the authenticated principal and expires
+ * at the expiration of its token, so a hit needs neither signature verification nor account lookup. A miss parses
+ * the token once. Entries of an account are dropped when its credentials change.
+ * <p>
+ * With jwt.auth-mode claims a miss builds the principal from account id and token version claims instead of
+ * looking the account up, and every request checks the token version against {@link TokenVersions}.
+ * Tokens issued without these claims are still authenticated by lookup.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "token";
+    private static final String CLAIMS_MODE = "claims";
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final JwtUtils jwtUtils;
+    private final AuthenticationProvider authenticationProvider;
+    private final TokenVersions tokenVersions;
+    private final LruCache<String, Entry> cache;
+
+    @Value("${jwt.cache.max-size}")
+    private Integer maxSize;
+    @Value("${jwt.auth-mode}")
+    private String authMode;
+
+    public VerifiedTokenCache(JwtUtils jwtUtils, AuthenticationProvider authenticationProvider,
+                              TokenVersions tokenVersions, MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.authenticationProvider = authenticationProvider;
+        this.tokenVersions = tokenVersions;
+        this.cache = LruCache.<String, Entry>builder(CACHE_NAME, meterRegistry)
+                .maxSize(() -> maxSize)
+                .ttl(entry -> Duration.ofMillis(entry.expiresAt() - System.currentTimeMillis()))
+                .build();
+    }
+
+    /**
+     * Authentication of the token owner, empty if the token is malformed, expired, badly signed, revoked or its owner
+     * does not exist.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        String digest = digest(token);
+        long generation = cache.generation();
+        Optional<Entry> cached = cache.getIfPresent(digest, entry -> isCurrent(entry.authentication(), entry.tokenVersion()));
+        if (cached.isPresent())
+            return Optional.of(cached.get().authentication());
+
+        Claims claims;
+        try {
+            claims = jwtUtils.extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Token is rejected: {}", e.getMessage());
+            return Optional.empty();
+        }
+        if (Objects.isNull(claims.getExpiration()))
+            return Optional.empty();
+
+        Optional<AccountDetails> claimed = CLAIMS_MODE.equals(authMode)
+                ? jwtUtils.extractAccountDetails(claims)
+                : Optional.empty();
+        Long tokenVersion = claimed.isPresent() ? jwtUtils.extractTokenVersion(claims) : null;
+        Optional<Authentication> authentication = claimed.isPresent()
+                ? claimed.map(authenticationProvider::getAuthentication).filter(value -> isCurrent(value, tokenVersion))
+                : Optional.ofNullable(authenticationProvider.getAuthentication(claims.getSubject()));
+        authentication.ifPresent(value ->
+                cache.put(digest, new Entry(value, claims.getExpiration().getTime(), tokenVersion), generation));
+        return authentication;
+    }
+
+    /**
+     * Drop tokens of the account, their principal holds the old email and password.
+     */
+    public void invalidateAccount(Long accountId) {
+        cache.invalidateIf(entry -> entry.authentication().getPrincipal() instanceof AccountDetails details
+                && Objects.equals(details.id(), accountId));
+    }
+
+    /**
+     * Principals built from claims are checked against current token version, looked up principals are current.
+     */
+    private boolean isCurrent(Authentication authentication, Long tokenVersion) {
+        return Objects.isNull(tokenVersion)
+                || authentication.getPrincipal() instanceof AccountDetails details
+                && tokenVersions.isCurrent(details.id(), tokenVersion);
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    /**
+     * @param expiresAt token expiration, epoch millis
+     * @param tokenVersion token version of principal built from claims, null for looked up principal
+     */
+    private record Entry(Authentication authentication, long expiresAt, Long tokenVersion) {
+    }
+}
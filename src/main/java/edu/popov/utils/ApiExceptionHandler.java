@@ -3,6 +3,8 @@ package edu.popov.utils;
 import edu.popov.utils.exception.BadRequestException;
 import edu.popov.utils.exception.ForbiddenException;
 import edu.popov.utils.exception.NotFoundException;
+import edu.popov.utils.exception.ServiceUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -36,6 +38,17 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(apiException, HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * Overloaded resource, client is told when to retry
+     */
+    @ExceptionHandler(value = ServiceUnavailableException.class)
+    public ResponseEntity<Object> handle503ApiRequestException(ServiceUnavailableException e) {
+        ApiException apiException = new ApiException(e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(apiException);
+    }
+
     /**
      * Spting validation exception handling
      */
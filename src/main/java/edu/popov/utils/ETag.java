@@ -0,0 +1,24 @@
+package edu.popov.utils;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+/**
+ * Strong entity tag built from version stamps of a response, so a conditional request
+ * can be answered without building the response body.
+ */
+public final class ETag {
+
+    private ETag() {
+    }
+
+    public static String of(Object... stamps) {
+        StringJoiner joiner = new StringJoiner("|");
+        for (Object stamp : stamps)
+            joiner.add(String.valueOf(stamp));
+        return "\"" + DigestUtils.md5DigestAsHex(joiner.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+}
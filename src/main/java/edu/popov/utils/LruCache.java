@@ -0,0 +1,397 @@
+package edu.popov.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded LRU map of the in-memory caches, bounded by the number of entries or by the estimated bytes of values.
+ * Concurrent misses of one key wait for a single load. Writers invalidate entries now and once more after their
+ * transaction is committed, as a concurrent request could load the old row before the commit. A value loaded
+ * while an invalidation happened is returned but not kept.
+ * Limits and ttls are read on use, so they can be injected after the cache is built.
+ */
+public final class LruCache<K, V> {
+
+    private final MeterRegistry meterRegistry;
+    private final String name;
+    // looked up once, every get counts
+    private final Counter hits;
+    private final Counter misses;
+    private final Supplier<Integer> maxSize;
+    private final Supplier<DataSize> budget;
+    private final ToLongFunction<V> weigher;
+    private final Function<V, Duration> ttl;
+    private final Function<V, String> loadResult;
+    private final BiConsumer<K, V> onAdd;
+    private final BiConsumer<K, V> onRemoval;
+
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // estimated bytes of loaded values, guarded by entries
+    private long bytes;
+    // values loaded before the last invalidation may hold old rows, guarded by entries
+    private long invalidations;
+
+    private LruCache(Builder<K, V> builder) {
+        this.meterRegistry = builder.meterRegistry;
+        this.name = builder.name;
+        this.hits = meterRegistry.counter("cache.gets", "cache", name, "result", "hit");
+        this.misses = meterRegistry.counter("cache.gets", "cache", name, "result", "miss");
+        this.maxSize = builder.maxSize;
+        this.budget = builder.budget;
+        this.weigher = builder.weigher;
+        this.ttl = builder.ttl;
+        this.loadResult = builder.loadResult;
+        this.onAdd = builder.onAdd;
+        this.onRemoval = builder.onRemoval;
+        meterRegistry.gaugeMapSize("cache.size", Tags.of("cache", name), entries);
+        if (Objects.nonNull(budget))
+            Gauge.builder("cache.bytes", this, LruCache::bytes)
+                    .tag("cache", name)
+                    .register(meterRegistry);
+    }
+
+    public static <K, V> Builder<K, V> builder(String name, MeterRegistry meterRegistry) {
+        return new Builder<>(name, meterRegistry);
+    }
+
+    /**
+     * Cached value of the key, loaded by the loader on a miss. Callers that miss together wait for one load,
+     * a failed load is thrown to all of them and not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry;
+        boolean load = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (Objects.isNull(entry) || entry.isExpired(now)) {
+                remove(key);
+                entry = new Entry<>(invalidations);
+                entries.put(key, entry);
+                trim();
+                load = true;
+            }
+        }
+
+        if (!load) {
+            hits.increment();
+            return await(entry);
+        }
+
+        misses.increment();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        V value;
+        try {
+            value = loader.apply(key);
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                if (entries.get(key) == entry)
+                    remove(key);
+            }
+            entry.value.completeExceptionally(e);
+            throw e;
+        }
+        entry.expiresAt = System.nanoTime() + ttl.apply(value).toNanos();
+        entry.value.complete(value);
+        synchronized (entries) {
+            if (entries.get(key) == entry)
+                store(key, entry, value);
+        }
+        sample.stop(Objects.isNull(loadResult)
+                ? meterRegistry.timer("cache.load", "cache", name)
+                : meterRegistry.timer("cache.load", "cache", name, "result", loadResult.apply(value)));
+        return value;
+    }
+
+    /**
+     * Loaded value of the key, empty on a miss. A value that is no longer valid is dropped and counted as a miss.
+     */
+    public Optional<V> getIfPresent(K key, Predicate<V> valid) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (Objects.nonNull(entry) && entry.isLoaded()) {
+                V value = entry.value.join();
+                if (!entry.isExpired(now) && valid.test(value)) {
+                    hits.increment();
+                    return Optional.of(value);
+                }
+                remove(key);
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public Optional<V> getIfPresent(K key) {
+        return getIfPresent(key, value -> true);
+    }
+
+    /**
+     * Version of the cache for {@link #put}, read before the value is loaded.
+     */
+    public long generation() {
+        synchronized (entries) {
+            return invalidations;
+        }
+    }
+
+    /**
+     * Cache the value loaded by the caller unless an invalidation happened since generation was read.
+     *
+     * @return true if the value is cached
+     */
+    public boolean put(K key, V value, long generation) {
+        Entry<V> entry = new Entry<>(generation);
+        entry.expiresAt = System.nanoTime() + ttl.apply(value).toNanos();
+        entry.value.complete(value);
+        synchronized (entries) {
+            if (generation != invalidations)
+                return false;
+            remove(key);
+            entries.put(key, entry);
+            trim();
+            return store(key, entry, value);
+        }
+    }
+
+    /**
+     * Drop the key now and once more after the current transaction is committed.
+     */
+    public void invalidate(K key) {
+        invalidate(List.of(key));
+    }
+
+    public void invalidate(Collection<K> keys) {
+        afterCommit(() -> keys.forEach(this::remove));
+    }
+
+    /**
+     * Drop loaded values matching the predicate now and once more after the current transaction is committed.
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        afterCommit(() -> entries.entrySet().removeIf(entry -> {
+            if (!entry.getValue().isLoaded() || !predicate.test(entry.getValue().value.join()))
+                return false;
+            removed(entry.getKey(), entry.getValue());
+            return true;
+        }));
+    }
+
+    /**
+     * Drop every value now and once more after the current transaction is committed.
+     */
+    public void invalidateAll() {
+        afterCommit(() -> {
+            entries.forEach(this::removed);
+            entries.clear();
+        });
+    }
+
+    private void afterCommit(Runnable eviction) {
+        evict(eviction);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(eviction);
+                }
+            });
+    }
+
+    private void evict(Runnable eviction) {
+        synchronized (entries) {
+            invalidations++;
+            eviction.run();
+        }
+    }
+
+    /**
+     * Account the loaded value, least recently used values are dropped until the cache fits the budget.
+     * A value loaded across an invalidation is not kept, a value larger than the budget is not kept either.
+     * Callers hold the lock of entries.
+     */
+    private boolean store(K key, Entry<V> entry, V value) {
+        if (entry.generation != invalidations) {
+            remove(key);
+            return false;
+        }
+        if (Objects.nonNull(budget)) {
+            long weight = weigher.applyAsLong(value);
+            long limit = budget.get().toBytes();
+            if (weight > limit) {
+                remove(key);
+                return false;
+            }
+            entry.bytes = weight;
+            bytes += weight;
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (bytes > limit && eldest.hasNext()) {
+                Map.Entry<K, Entry<V>> evicted = eldest.next();
+                if (evicted.getValue() == entry)
+                    continue;
+                removed(evicted.getKey(), evicted.getValue());
+                eldest.remove();
+            }
+        }
+        if (Objects.nonNull(onAdd))
+            onAdd.accept(key, value);
+        return true;
+    }
+
+    // callers hold the lock of entries
+    private void trim() {
+        if (Objects.isNull(maxSize))
+            return;
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize.get() && eldest.hasNext()) {
+            Map.Entry<K, Entry<V>> evicted = eldest.next();
+            removed(evicted.getKey(), evicted.getValue());
+            eldest.remove();
+        }
+    }
+
+    // callers hold the lock of entries
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (Objects.nonNull(entry))
+            removed(key, entry);
+    }
+
+    // callers hold the lock of entries and take the entry out of the map
+    private void removed(K key, Entry<V> entry) {
+        bytes -= entry.bytes;
+        if (Objects.nonNull(onRemoval) && entry.isLoaded())
+            onRemoval.accept(key, entry.value.join());
+    }
+
+    private long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    private static <V> V await(Entry<V> entry) {
+        try {
+            return entry.value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    private static final class Entry<V> {
+
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+        private final long generation;
+        private volatile long expiresAt;
+        // zero until the value is loaded, guarded by entries
+        private long bytes;
+
+        private Entry(long generation) {
+            this.generation = generation;
+        }
+
+        private boolean isLoaded() {
+            return value.isDone() && !value.isCompletedExceptionally();
+        }
+
+        // in-flight entries do not expire
+        private boolean isExpired(long now) {
+            return value.isDone() && expiresAt - now < 0;
+        }
+
+    }
+
+    public static final class Builder<K, V> {
+
+        private final String name;
+        private final MeterRegistry meterRegistry;
+        private Supplier<Integer> maxSize;
+        private Supplier<DataSize> budget;
+        private ToLongFunction<V> weigher;
+        private Function<V, Duration> ttl;
+        private Function<V, String> loadResult;
+        private BiConsumer<K, V> onAdd;
+        private BiConsumer<K, V> onRemoval;
+
+        private Builder(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.meterRegistry = meterRegistry;
+        }
+
+        public Builder<K, V> maxSize(Supplier<Integer> maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        /**
+         * Bound the cache by the sum of value weights in bytes instead of the number of entries.
+         */
+        public Builder<K, V> budget(Supplier<DataSize> budget, ToLongFunction<V> weigher) {
+            this.budget = budget;
+            this.weigher = weigher;
+            return this;
+        }
+
+        public Builder<K, V> ttl(Function<V, Duration> ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Result tag of the load timer.
+         */
+        public Builder<K, V> loadResult(Function<V, String> loadResult) {
+            this.loadResult = loadResult;
+            return this;
+        }
+
+        /**
+         * Called under the lock of the cache when a value is cached.
+         */
+        public Builder<K, V> onAdd(BiConsumer<K, V> onAdd) {
+            this.onAdd = onAdd;
+            return this;
+        }
+
+        /**
+         * Called under the lock of the cache when a cached value is evicted, invalidated or replaced.
+         */
+        public Builder<K, V> onRemoval(BiConsumer<K, V> onRemoval) {
+            this.onRemoval = onRemoval;
+            return this;
+        }
+
+        public LruCache<K, V> build() {
+            Objects.requireNonNull(ttl, "ttl");
+            if (Objects.isNull(maxSize) == Objects.isNull(budget))
+                throw new IllegalStateException("Cache " + name + " needs either max size or budget");
+            return new LruCache<>(this);
+        }
+
+    }
+}
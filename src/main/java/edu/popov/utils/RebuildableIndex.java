@@ -0,0 +1,144 @@
+package edu.popov.utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holder of an in-memory index that is rebuilt from the database while reads are answered by the old one.
+ * Writes applied during a rebuild are kept and replayed on the new index before it is swapped in,
+ * so writes must be idempotent. One rebuild runs at a time, a rebuild started meanwhile is skipped.
+ * An update may replace the index, for example by a compacted copy, or drop it by returning null.
+ */
+public final class RebuildableIndex<T> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuilding = new ReentrantLock();
+
+    // null until built and after an update dropped it
+    private T index;
+    // updates applied while the index is rebuilt, replayed on the new index
+    private List<UnaryOperator<T>> pending;
+
+    public RebuildableIndex() {
+    }
+
+    public RebuildableIndex(T initial) {
+        this.index = initial;
+    }
+
+    /**
+     * Query the index under the read lock, the fallback answers when there is no index.
+     */
+    public <R> R read(Function<T, R> query, Supplier<R> notBuilt) {
+        lock.readLock().lock();
+        try {
+            if (Objects.nonNull(index))
+                return query.apply(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return notBuilt.get();
+    }
+
+    public void write(Consumer<T> write) {
+        update(index -> {
+            write.accept(index);
+            return index;
+        });
+    }
+
+    /**
+     * Apply the update under the write lock, its result replaces the index.
+     */
+    public void update(UnaryOperator<T> update) {
+        lock.writeLock().lock();
+        try {
+            if (Objects.nonNull(pending))
+                pending.add(update);
+            if (Objects.nonNull(index))
+                index = update.apply(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply the write after the current transaction is committed, at once outside of a transaction.
+     */
+    public void writeAfterCommit(Consumer<T> write) {
+        afterCommit(() -> write(write));
+    }
+
+    public void updateAfterCommit(UnaryOperator<T> update) {
+        afterCommit(() -> update(update));
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.isLocked();
+    }
+
+    /**
+     * Load a new index and swap it in after replaying the updates applied during the load.
+     * A null index from the loader or from an update leaves no index.
+     *
+     * @return the new index, empty if there is none or another rebuild is running
+     */
+    public Optional<T> rebuild(Supplier<T> loader) {
+        if (!rebuilding.tryLock())
+            return Optional.empty();
+        try {
+            lock.writeLock().lock();
+            try {
+                pending = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            T rebuilt = loader.get();
+
+            lock.writeLock().lock();
+            try {
+                for (UnaryOperator<T> update : pending)
+                    if (Objects.nonNull(rebuilt))
+                        rebuilt = update.apply(rebuilt);
+                index = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return Optional.ofNullable(rebuilt);
+        } finally {
+            // a failed load must not keep collecting updates
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            rebuilding.unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package edu.popov.utils.job;
+
+import edu.popov.domain.account.service.AccountAvailabilityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bloom filters of usernames and emails cannot drop renamed names and only learn names written by this instance,
+ * so they are built on startup and rebuilt periodically from all accounts.
+ */
+@RequiredArgsConstructor
+@Component
+public class AccountAvailabilityRebuildJob {
+
+    private final AccountAvailabilityService accountAvailabilityService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        accountAvailabilityService.rebuild();
+    }
+
+    @Scheduled(cron = "${account.availability.rebuild-cron}")
+    public void rebuild() {
+        accountAvailabilityService.rebuild();
+    }
+
+}
@@ -0,0 +1,30 @@
+package edu.popov.utils.job;
+
+import edu.popov.domain.autocomplete.service.AutocompleteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autocomplete tries are immutable and only names written by this instance are added on top of them,
+ * so they are built on startup and rebuilt periodically with current popularity and writes of other instances.
+ */
+@RequiredArgsConstructor
+@Component
+public class AutocompleteRebuildJob {
+
+    private final AutocompleteService autocompleteService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        autocompleteService.rebuild();
+    }
+
+    @Scheduled(cron = "${autocomplete.rebuild-cron}")
+    public void rebuild() {
+        autocompleteService.rebuild();
+    }
+
+}
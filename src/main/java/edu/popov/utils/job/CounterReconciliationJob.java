@@ -0,0 +1,39 @@
+package edu.popov.utils.job;
+
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.profile.service.ProfileCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Counters are maintained by write paths in the same transaction, this job only repairs drift
+ * (manual SQL, failed deploys). Every counter is fixed by one set-based UPDATE.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CounterReconciliationJob {
+
+    private final ArticleRepository articleRepository;
+    private final AccountRepository accountRepository;
+    private final ProfileCache profileCache;
+
+    @Scheduled(cron = "${counters.reconciliation-cron}")
+    @Transactional
+    public void reconcile() {
+        int favorites = articleRepository.reconcileFavoritesCount();
+        int comments = articleRepository.reconcileCommentsCount();
+        int followers = accountRepository.reconcileFollowersCount();
+        int articles = accountRepository.reconcileArticlesCount();
+        // repaired counters are not tracked per account
+        if (followers + articles > 0)
+            profileCache.invalidateAll();
+        log.info("Reconciled counters: favorites {}, comments {}, followers {}, articles {}",
+                favorites, comments, followers, articles);
+    }
+
+}
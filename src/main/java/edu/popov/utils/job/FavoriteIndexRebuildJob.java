@@ -0,0 +1,30 @@
+package edu.popov.utils.job;
+
+import edu.popov.domain.article.service.FavoriteIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Favorite index only learns favorites written by this instance and keeps deleted articles, so it is built
+ * on startup and rebuilt periodically from all favorites.
+ */
+@RequiredArgsConstructor
+@Component
+public class FavoriteIndexRebuildJob {
+
+    private final FavoriteIndexService favoriteIndexService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        favoriteIndexService.rebuild();
+    }
+
+    @Scheduled(cron = "${article.favorites.rebuild-cron}")
+    public void rebuild() {
+        favoriteIndexService.rebuild();
+    }
+
+}
@@ -0,0 +1,30 @@
+package edu.popov.utils.job;
+
+import edu.popov.domain.profile.service.FollowGraphService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Follow graph only learns relations written by this instance, so it is built on startup and rebuilt
+ * periodically from all relations.
+ */
+@RequiredArgsConstructor
+@Component
+public class FollowGraphRebuildJob {
+
+    private final FollowGraphService followGraphService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        followGraphService.rebuild();
+    }
+
+    @Scheduled(cron = "${profile.follow-graph.rebuild-cron}")
+    public void rebuild() {
+        followGraphService.rebuild();
+    }
+
+}
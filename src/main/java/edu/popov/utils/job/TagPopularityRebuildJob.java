@@ -0,0 +1,30 @@
+package edu.popov.utils.job;
+
+import edu.popov.domain.tag.service.TagService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tag popularity index is updated in memory by article writes of this instance only,
+ * so it is built on startup and rebuilt periodically to pick up writes of other instances.
+ */
+@RequiredArgsConstructor
+@Component
+public class TagPopularityRebuildJob {
+
+    private final TagService tagService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        tagService.rebuildPopularity();
+    }
+
+    @Scheduled(cron = "${tag.popularity.rebuild-cron}")
+    public void rebuild() {
+        tagService.rebuildPopularity();
+    }
+
+}
@@ -0,0 +1,23 @@
+package edu.popov.utils.job;
+
+import edu.popov.security.jwt.TokenVersions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token versions are updated in memory by credential changes of this instance only,
+ * so they are refreshed periodically to pick up revocations of other instances.
+ */
+@RequiredArgsConstructor
+@Component
+public class TokenVersionRefreshJob {
+
+    private final TokenVersions tokenVersions;
+
+    @Scheduled(cron = "${jwt.token-version.refresh-cron}")
+    public void refresh() {
+        tokenVersions.refresh();
+    }
+
+}
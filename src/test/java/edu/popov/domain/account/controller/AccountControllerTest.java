@@ -20,8 +20,10 @@ import java.util.Objects;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -299,5 +301,39 @@ class AccountControllerTest {
 
         // then
     }
+    @Test
+    @Order(11)
+    void itShouldSuggestRegisteredUsername() throws Exception {
+        // when
+        // then
+        mockMvc.perform(get("/api/autocomplete/users")
+                                .param("prefix", "USER")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions", Matchers.hasItem("user1")));
+
+        mockMvc.perform(get("/api/autocomplete/users")
+                                .param("prefix", "user")
+                                .param("limit", "100")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+    @Test
+    @Order(12)
+    void itShouldCheckAvailability() throws Exception {
+        // when
+        // then
+        mockMvc.perform(get("/api/users/availability")
+                                .param("username", "user1")
+                                .param("email", "free@gmail.com")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.availability.username").value(false))
+                .andExpect(jsonPath("$.availability.email").value(true));
+
+        mockMvc.perform(get("/api/users/availability")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
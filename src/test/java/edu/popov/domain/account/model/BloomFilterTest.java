@@ -0,0 +1,59 @@
+package edu.popov.domain.account.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    @Test
+    void itShouldContainEveryAddedName() {
+        // given
+        BloomFilter underTest = BloomFilter.of(10_000, 0.01);
+
+        // when
+        IntStream.range(0, 10_000).forEach(i -> underTest.put("user" + i));
+
+        // then
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> underTest.mightContain("user" + i))).isTrue();
+    }
+
+    @Test
+    void itShouldKeepFalsePositiveRateNearTarget() {
+        // given
+        BloomFilter underTest = BloomFilter.of(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> underTest.put("user" + i));
+
+        // when
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> underTest.mightContain("other" + i)).count();
+
+        // then
+        assertThat(falsePositives).isBetween(500L, 1500L);
+        assertThat(underTest.falsePositiveRate()).isBetween(0.005, 0.015);
+        assertThat(underTest.bitSize()).isEqualTo(95851L);
+        assertThat(underTest.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    void itShouldAnswerAbsent_whenEmpty() {
+        // given
+        BloomFilter underTest = BloomFilter.of(100, 0.01);
+
+        // when
+        // then
+        assertThat(underTest.mightContain("user")).isFalse();
+        assertThat(underTest.falsePositiveRate()).isZero();
+    }
+
+    @Test
+    void itShouldThrow_whenRateIsOutOfRange() {
+        // when
+        // then
+        assertThatThrownBy(() -> BloomFilter.of(100, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("False positive rate must be in (0, 1)");
+    }
+}
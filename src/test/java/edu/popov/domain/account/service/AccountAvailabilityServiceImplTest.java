@@ -0,0 +1,105 @@
+package edu.popov.domain.account.service;
+
+import edu.popov.domain.account.dto.AccountDTO;
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.utils.exception.BadRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class AccountAvailabilityServiceImplTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AccountAvailabilityServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new AccountAvailabilityServiceImpl(accountRepository, meterRegistry);
+        setField(underTest, "expectedAccounts", 1000L);
+        setField(underTest, "falsePositiveRate", 0.001);
+    }
+
+    @Test
+    void itShouldLookUpOnlyNamesThatMayBeTaken() {
+        // given
+        when(accountRepository.findAllNames()).thenReturn(List.of(
+                new AccountRepository.AccountNames("user1", "user1@gmail.com")));
+        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(AccountEntity.builder().build()));
+        underTest.rebuild();
+
+        // when
+        AccountDTO.Availability taken = underTest.availability("user1", null);
+        AccountDTO.Availability free = underTest.availability("user2", "user2@gmail.com");
+
+        // then
+        assertThat(taken.getUsername()).isFalse();
+        assertThat(taken.getEmail()).isNull();
+        assertThat(free.getUsername()).isTrue();
+        assertThat(free.getEmail()).isTrue();
+        verify(accountRepository, times(1)).findByUsername("user1");
+        verify(accountRepository, never()).findByUsername("user2");
+        verify(accountRepository, never()).findByEmail(anyString());
+        assertThat(meterRegistry.get("account.availability.filter.bytes").tag("name", "username").gauge().value())
+                .isPositive();
+    }
+
+    @Test
+    void itShouldAddWrittenNames() {
+        // given
+        when(accountRepository.findAllNames()).thenReturn(List.of());
+        underTest.rebuild();
+
+        // when
+        underTest.accountAdded("user1", "user1@gmail.com");
+        underTest.usernameChanged("user2");
+        underTest.emailChanged("user2@gmail.com");
+
+        // then
+        assertThat(underTest.mayExistByUsername("user1")).isTrue();
+        assertThat(underTest.mayExistByUsername("user2")).isTrue();
+        assertThat(underTest.mayExistByEmail("user1@gmail.com")).isTrue();
+        assertThat(underTest.mayExistByEmail("user2@gmail.com")).isTrue();
+        assertThat(underTest.mayExistByUsername("user3")).isFalse();
+        assertThat(underTest.mayExistByEmail(null)).isFalse();
+    }
+
+    @Test
+    void itShouldLookUpEveryName_whenFiltersAreNotBuilt() {
+        // given
+        when(accountRepository.findByEmail("user1@gmail.com")).thenReturn(Optional.empty());
+
+        // when
+        AccountDTO.Availability expected = underTest.availability(null, "user1@gmail.com");
+
+        // then
+        assertThat(expected.getEmail()).isTrue();
+        verify(accountRepository, times(1)).findByEmail("user1@gmail.com");
+    }
+
+    @Test
+    void itShouldThrow_whenNothingIsAsked() {
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.availability(null, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Username or email is required");
+    }
+}
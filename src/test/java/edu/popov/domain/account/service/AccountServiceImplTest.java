@@ -4,20 +4,29 @@ import edu.popov.domain.account.dto.AccountDTO;
 import edu.popov.domain.account.dto.AccountMapper;
 import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.autocomplete.service.AutocompleteService;
+import edu.popov.domain.profile.service.ProfileCache;
 import edu.popov.security.AccountDetails;
 import edu.popov.security.jwt.JwtUtils;
+import edu.popov.security.jwt.TokenVersions;
+import edu.popov.security.jwt.VerifiedTokenCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,11 +48,31 @@ class AccountServiceImplTest {
     @Mock
     private JwtUtils jwtUtils;
 
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Mock
+    private TokenVersions tokenVersions;
+
+    @Mock
+    private AccountAvailabilityService accountAvailabilityService;
+
+    @Mock
+    private ProfileCache profileCache;
+
+    @Mock
+    private TransactionOperations transactionOperations;
+
     private AccountServiceImpl underTest;
 
     @BeforeEach
     void setUp() {
-        underTest = new AccountServiceImpl(accountRepository, mapper, accountValidationService, passwordEncoder, jwtUtils);
+        underTest = new AccountServiceImpl(accountRepository, mapper, accountValidationService, passwordEncoder, jwtUtils,
+                autocompleteService, verifiedTokenCache, tokenVersions, accountAvailabilityService, profileCache,
+                transactionOperations);
     }
 
     @Test
@@ -82,6 +111,8 @@ class AccountServiceImplTest {
         then(passwordEncoder).should().encode(request.getPassword());
         then(mapper).should().mapToAccountDTO(account);
         then(accountRepository).should().save(account);
+        then(autocompleteService).should().userAdded("user1");
+        then(accountAvailabilityService).should().accountAdded("user1", "user1@gmail.com");
     }
 
     @Test
@@ -105,14 +136,14 @@ class AccountServiceImplTest {
                 .password("pass1")
                         .build();
         when(accountValidationService.authValidation(request)).thenReturn(account);
-        when(jwtUtils.generateToken(accountDetails)).thenReturn(anyString());
+        when(jwtUtils.generateToken(accountDetails, 0L)).thenReturn(anyString());
 
         // when
         underTest.auth(request);
 
         // then
         then(accountValidationService).should().authValidation(request);
-        then(jwtUtils).should().generateToken(accountDetails);
+        then(jwtUtils).should().generateToken(accountDetails, 0L);
     }
 
     @Test
@@ -144,6 +175,8 @@ class AccountServiceImplTest {
         when(passwordEncoder.encode(request.getPassword())).thenReturn(account.getPassword());
         when(accountRepository.save(account)).thenReturn(account);
         when(mapper.mapToAccountDTO(account)).thenReturn(accountDTO);
+        when(transactionOperations.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<AccountDTO>>getArgument(0).doInTransaction(null));
 
         // when
         AccountDTO update = underTest.update(1L, request);
@@ -154,6 +187,18 @@ class AccountServiceImplTest {
         then(passwordEncoder).should().encode(request.getPassword());
         then(accountRepository).should().save(account);
         then(mapper).should().mapToAccountDTO(account);
+        then(autocompleteService).should().userRenamed("user1", "user2", 0L);
+        then(verifiedTokenCache).should().invalidateAccount(account.getId());
+        then(tokenVersions).should().revoked(account.getId(), 1L);
+        then(accountAvailabilityService).should().usernameChanged("user2");
+        then(accountAvailabilityService).shouldHaveNoMoreInteractions();
+        then(profileCache).should().invalidate(account.getId());
+        assertThat(account.getTokenVersion()).isEqualTo(1L);
+        // password is hashed before the transaction takes a connection
+        InOrder inOrder = inOrder(passwordEncoder, transactionOperations, accountValidationService);
+        inOrder.verify(passwordEncoder).encode(request.getPassword());
+        inOrder.verify(transactionOperations).execute(any());
+        inOrder.verify(accountValidationService).updateValidation(1L, request);
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +32,8 @@ class AccountValidationServiceImplTest {
     private AccountRepository accountRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private AccountAvailabilityService accountAvailabilityService;
 
     private static final String ACCOUNT_ALREADY_EXIST_BY_EMAIL = "Account with email %s already exist";
     private static final String ACCOUNT_ALREADY_EXIST_BY_USERNAME = "Account with username %s already exist";
@@ -40,7 +43,29 @@ class AccountValidationServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        underTest = new AccountValidationServiceImpl(accountRepository, passwordEncoder);
+        underTest = new AccountValidationServiceImpl(accountRepository, passwordEncoder, accountAvailabilityService);
+        // filters answer "maybe", names are looked up
+        lenient().when(accountAvailabilityService.mayExistByEmail(anyString())).thenReturn(true);
+        lenient().when(accountAvailabilityService.mayExistByUsername(anyString())).thenReturn(true);
+    }
+
+    @Test
+    void itShouldNotLookUpNames_whenFiltersSayTheyAreFree() {
+        // given
+        AccountDTO.Registration request = AccountDTO.Registration.builder()
+                .username("free")
+                .email("free@gmail.com")
+                .password("pass1")
+                .build();
+        when(accountAvailabilityService.mayExistByEmail("free@gmail.com")).thenReturn(false);
+        when(accountAvailabilityService.mayExistByUsername("free")).thenReturn(false);
+
+        // when
+        Boolean expected = underTest.registryValidation(request);
+
+        // then
+        assertThat(expected).isTrue();
+        then(accountRepository).shouldHaveNoInteractions();
     }
 
     @Test
@@ -7,6 +7,7 @@ import edu.popov.domain.account.repository.AccountRepository;
 import edu.popov.domain.article.dto.ArticleDTO;
 import edu.popov.domain.article.dto.CommentDTO;
 import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.tag.service.TagService;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
@@ -46,6 +47,9 @@ class ArticleControllerTest {
     @Autowired
     private ArticleRepository articleRepository;
 
+    @Autowired
+    private TagService tagService;
+
     private static String Bearer1;
     private static String Bearer2;
 
@@ -435,6 +439,23 @@ class ArticleControllerTest {
         CommentDTO.MultipleComments article2Comments = objectMapper.readValue(comments2, CommentDTO.MultipleComments.class);
         assertThat(article2Comments.getComments().size()).isEqualTo(1);
 
+        // page through comments newest first
+        String newestPage = mockMvc.perform(get("/api/articles/title1/comments")
+                                .param("order", "newest")
+                                .param("limit", "1")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.comments[0].body", Matchers.is("comment2")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.commentsCount", Matchers.is(2)))
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(get("/api/articles/title1/comments")
+                                .param("order", "newest")
+                                .param("limit", "1")
+                                .param("cursor", objectMapper.readValue(newestPage, CommentDTO.MultipleComments.class).getNextCursor())
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.comments[0].body", Matchers.is("comment1")));
+
         // try delete comment without login and get FORBIDDEN
         mockMvc.perform(delete("/api/articles/title1/comments/2")
                                 .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer2)
@@ -462,4 +483,174 @@ class ArticleControllerTest {
         CommentDTO.MultipleComments answerCommentsAfterDeleting = objectMapper.readValue(commentsAfterDeleting, CommentDTO.MultipleComments.class);
         assertThat(answerCommentsAfterDeleting.getComments().size()).isEqualTo(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(6)
+    void itShouldReturnNotModified_whenETagMatches() throws Exception {
+        // given
+        String articleETag = mockMvc.perform(get("/api/articles/title1")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String commentsETag = mockMvc.perform(get("/api/articles/title1/comments")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String tagsETag = mockMvc.perform(get("/api/tags")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when
+        // then
+        mockMvc.perform(get("/api/articles/title1")
+                                .header(HttpHeaders.IF_NONE_MATCH, articleETag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/articles/title1/comments")
+                                .header(HttpHeaders.IF_NONE_MATCH, commentsETag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/tags")
+                                .header(HttpHeaders.IF_NONE_MATCH, tagsETag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        // user2 favorited title1, so the same ETag does not match for user2
+        mockMvc.perform(get("/api/articles/title1")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer2)
+                                .header(HttpHeaders.IF_NONE_MATCH, articleETag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.article.favorited", Matchers.is(true)));
+
+        // new comment changes the comments ETag
+        mockMvc.perform(post("/api/articles/title1/comments")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(CommentDTO.Create.builder().body("comment5").build()))
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/title1/comments")
+                                .header(HttpHeaders.IF_NONE_MATCH, commentsETag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/title1")
+                                .header(HttpHeaders.IF_NONE_MATCH, articleETag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @Order(7)
+    void itShouldReturnMostUsedTags() throws Exception {
+        // given
+        // articles of other test classes in the shared context are not counted after rebuild
+        tagService.rebuildPopularity();
+
+        // when
+        // then
+        mockMvc.perform(get("/api/tags")
+                                .param("limit", "2")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tags", Matchers.containsInAnyOrder("tag1", "tag2")));
+        mockMvc.perform(get("/api/tags")
+                                .param("prefix", "tag3")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.tags", Matchers.contains("tag3")));
+        mockMvc.perform(get("/api/tags")
+                                .param("limit", "0")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @Order(8)
+    void itShouldSearchArticles() throws Exception {
+        // given
+        String json = objectMapper.writeValueAsString(ArticleDTO.SingleArticle.builder()
+                .article(ArticleDTO.builder()
+                        .title("Dragons of Komodo")
+                        .description("desc")
+                        .body("Komodo dragons are large lizards")
+                        .build())
+                .build());
+        mockMvc.perform(post("/api/articles")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(json)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // when
+        // then
+        mockMvc.perform(get("/api/articles/search")
+                                .param("q", "komodo LIZARDS")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.articles[0].slug", Matchers.is("Dragons-of-Komodo")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.articlesCount", Matchers.is(1)));
+
+        String update = objectMapper.writeValueAsString(ArticleDTO.SingleArticle.builder()
+                .article(ArticleDTO.Update.builder().body("Monitor lizards").build())
+                .build());
+        mockMvc.perform(put("/api/articles/Dragons-of-Komodo")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(update)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/search")
+                                .param("q", "monitor")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.articlesCount", Matchers.is(1)));
+
+        mockMvc.perform(delete("/api/articles/Dragons-of-Komodo")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/articles/search")
+                                .param("q", "komodo")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.articlesCount", Matchers.is(0)));
+        mockMvc.perform(get("/api/articles/search")
+                                .param("q", " ?! ")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @Order(9)
+    void itShouldGetCachedArticle_whenAuthorIsRenamed() throws Exception {
+        // given the article is cached with the old author username
+        mockMvc.perform(get("/api/articles/title1")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.article.author.profile.username", Matchers.is("user1")));
+
+        // when
+        String rename = objectMapper.writeValueAsString(AccountDTO.Update.builder().username("user1-renamed").build());
+        mockMvc.perform(put("/api/user")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(rename)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        // then
+        mockMvc.perform(get("/api/articles/title1")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer2)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.article.author.profile.username", Matchers.is("user1-renamed")));
+        mockMvc.perform(post("/api/articles/title1/favorite")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer2)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.article.author.profile.username", Matchers.is("user1-renamed")));
+    }
+}
@@ -2,11 +2,13 @@ package edu.popov.domain.article.dto;
 
 import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.article.entity.ArticleEntity;
-import edu.popov.domain.article.entity.FavoriteEntity;
-import edu.popov.domain.article.entity.FavoriteEntityId;
+import edu.popov.domain.article.service.FavoriteIndexService;
 import edu.popov.domain.profile.dto.ProfileDTO;
+import edu.popov.domain.profile.dto.ProfileMapper;
+import edu.popov.domain.profile.service.FollowGraphService;
 import edu.popov.domain.profile.service.ProfileService;
 import edu.popov.domain.tag.entity.TagEntity;
+import edu.popov.domain.tag.repository.TagRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,9 +19,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ArticleMapperTest {
@@ -27,11 +30,23 @@ class ArticleMapperTest {
     @Mock
     private ProfileService profileService;
 
+    @Mock
+    private ProfileMapper profileMapper;
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private FavoriteIndexService favoriteIndexService;
+
+    @Mock
+    private FollowGraphService followGraphService;
+
     private ArticleMapper articleMapper;
 
     @BeforeEach
     void setUp() {
-        articleMapper = new ArticleMapper(profileService);
+        articleMapper = new ArticleMapper(profileService, profileMapper, tagRepository, favoriteIndexService, followGraphService);
     }
 
     @Test
@@ -50,11 +65,14 @@ class ArticleMapperTest {
                 .build();
 
         ArticleEntity articleEntity = ArticleEntity.builder()
+                .id(1L)
                 .slug("title")
                 .title("title")
                 .description("desc")
                 .body("body")
                 .author(account)
+                .favoritesCount(2L)
+                .commentsCount(3L)
                 .createdAt(ZonedDateTime.of(2022, 11, 10, 12, 12, 12, 10, ZoneId.systemDefault()))
                 .updatedAt(ZonedDateTime.of(2022, 11, 10, 12, 12, 12, 10, ZoneId.systemDefault()))
                 .build();
@@ -68,28 +86,8 @@ class ArticleMapperTest {
         articleEntity.addTag(tag1);
         articleEntity.addTag(tag2);
 
-        FavoriteEntityId favoriteEntityId1 = FavoriteEntityId.builder()
-                .articleId(1L)
-                .accountId(1L)
-                .build();
-        FavoriteEntity favoriteEntity1 = FavoriteEntity.builder()
-                .id(favoriteEntityId1)
-                .article(articleEntity)
-                .account(account)
-                .build();
-        FavoriteEntityId favoriteEntityId2 = FavoriteEntityId.builder()
-                .articleId(1L)
-                .accountId(2L)
-                .build();
-        FavoriteEntity favoriteEntity2 = FavoriteEntity.builder()
-                .id(favoriteEntityId1)
-                .article(articleEntity)
-                .account(account)
-                .build();
-        articleEntity.addFavorite(favoriteEntity1);
-        articleEntity.addFavorite(favoriteEntity2);
-
-        when(profileService.getProfile("user1", 1L)).thenReturn(profileDTO);
+        when(favoriteIndexService.isFavorited(1L, 1L)).thenReturn(true);
+        when(profileService.getProfileById(1L, 1L)).thenReturn(profileDTO);
 
         ArticleDTO articleDTO = ArticleDTO.builder()
                 .slug("title")
@@ -98,6 +96,7 @@ class ArticleMapperTest {
                 .body("body")
                 .author(profileDTO)
                 .favoritesCount(2L)
+                .commentsCount(3L)
                 .favorited(true)
                 .tagList(List.of("tag1", "tag2"))
                 .createdAt(ZonedDateTime.of(2022, 11, 10, 12, 12, 12, 10, ZoneId.systemDefault()))
@@ -109,4 +108,59 @@ class ArticleMapperTest {
         // then
         assertThat(articleDTO).isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    @Test
+    void itShouldMapListWithBatchedLookups() {
+        // given
+        AccountEntity author = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .build();
+        ArticleEntity article1 = ArticleEntity.builder()
+                .id(10L)
+                .slug("title-1")
+                .title("title 1")
+                .description("desc")
+                .body("body")
+                .author(author)
+                .build();
+        ArticleEntity article2 = ArticleEntity.builder()
+                .id(11L)
+                .slug("title-2")
+                .title("title 2")
+                .description("desc")
+                .body("body")
+                .author(author)
+                .favoritesCount(3L)
+                .build();
+        List<Long> articleIds = List.of(10L, 11L);
+        ProfileDTO profileDTO = ProfileDTO.builder()
+                .username("user1")
+                .build();
+        TagRepository.ArticleTag tag = mock(TagRepository.ArticleTag.class);
+        when(tag.getArticleId()).thenReturn(10L);
+        when(tag.getTagName()).thenReturn("tag1");
+
+        when(tagRepository.findByArticleIds(articleIds)).thenReturn(List.of(tag));
+        when(favoriteIndexService.findFavorited(2L, articleIds)).thenReturn(Set.of(11L));
+        when(followGraphService.findFollowed(2L, Set.of(1L))).thenReturn(Set.of(1L));
+        when(profileMapper.mapToProfileDTO(author)).thenReturn(profileDTO);
+
+        // when
+        List<ArticleDTO> expected = articleMapper.mapToMultipleArticleDTOList(List.of(article1, article2), 2L);
+
+        // then
+        assertThat(expected).hasSize(2);
+        assertThat(expected.get(0).getTagList()).containsExactly("tag1");
+        assertThat(expected.get(0).getFavorited()).isFalse();
+        assertThat(expected.get(0).getFavoritesCount()).isZero();
+        assertThat(expected.get(1).getTagList()).isEmpty();
+        assertThat(expected.get(1).getFavorited()).isTrue();
+        assertThat(expected.get(1).getFavoritesCount()).isEqualTo(3L);
+        assertThat(expected.get(1).getAuthor().isFollowing()).isTrue();
+        verify(profileMapper, times(1)).mapToProfileDTO(author);
+        verifyNoInteractions(profileService);
+    }
+}
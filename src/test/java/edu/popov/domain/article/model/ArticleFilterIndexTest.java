@@ -0,0 +1,136 @@
+package edu.popov.domain.article.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleFilterIndexTest {
+
+    private ArticleFilterIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        // article id, time, author, tags
+        underTest = new ArticleFilterIndex();
+        underTest.add(1, 10, 7, List.of(100L));
+        underTest.add(2, 20, 8, List.of(100L, 200L));
+        underTest.add(3, 30, 7, List.of(200L));
+        underTest.add(4, 30, 8, List.of(100L));
+    }
+
+    @Test
+    void itShouldReturnNewestArticlesFirst() {
+        // when
+        List<Long> expected = underTest.page(underTest.match(TagFilter.NONE, null, null), null, null, 1, 2);
+
+        // then
+        assertThat(expected).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void itShouldIntersectFilters() {
+        // given
+        underTest.favorite(2, 9);
+        underTest.favorite(4, 9);
+
+        // when
+        OrdinalBitmap matched = underTest.match(TagFilter.allOf(100L), 8L, 9L);
+
+        // then
+        assertThat(matched.cardinality()).isEqualTo(2);
+        assertThat(underTest.page(matched, null, null, 0, 10)).containsExactly(4L, 2L);
+        assertThat(underTest.match(TagFilter.allOf(200L), 8L, 9L).cardinality()).isEqualTo(1);
+        assertThat(underTest.match(TagFilter.allOf(300L), null, null).isEmpty()).isTrue();
+    }
+
+    @Test
+    void itShouldMatchAnyTagsWithoutExcludedTags() {
+        // when
+        OrdinalBitmap matched = underTest.match(new TagFilter(List.of(), List.of(100L, 200L), List.of(200L)), null, null);
+
+        // then
+        assertThat(underTest.page(matched, null, null, 0, 10)).containsExactly(4L, 1L);
+        assertThat(underTest.match(new TagFilter(List.of(), List.of(), List.of(100L)), null, null).cardinality()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldSeekAfterCursor() {
+        // when
+        List<Long> expected = underTest.page(underTest.match(TagFilter.allOf(100L), null, null), 30L, 4L, 5, 10);
+
+        // then
+        assertThat(expected).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void itShouldNotMatchRemovedArticle() {
+        // given
+        underTest.favorite(1, 9);
+
+        // when
+        underTest.remove(1);
+
+        // then
+        assertThat(underTest.size()).isEqualTo(3);
+        assertThat(underTest.match(TagFilter.allOf(100L), null, null).cardinality()).isEqualTo(2);
+        assertThat(underTest.match(TagFilter.NONE, 7L, null).cardinality()).isEqualTo(1);
+        assertThat(underTest.match(TagFilter.NONE, null, 9L).isEmpty()).isTrue();
+    }
+
+    @Test
+    void itShouldInsertArticleOlderThanLast() {
+        // given
+        underTest.favorite(3, 9);
+        underTest.remove(2);
+
+        // when
+        underTest.add(5, 25, 7, List.of(100L));
+        underTest.add(6, 5, 8, List.of(200L));
+
+        // then
+        assertThat(underTest.size()).isEqualTo(5);
+        assertThat(underTest.page(underTest.match(TagFilter.NONE, null, null), null, null, 0, 10))
+                .containsExactly(4L, 3L, 5L, 1L, 6L);
+        assertThat(underTest.page(underTest.match(TagFilter.allOf(100L), 7L, null), null, null, 0, 10))
+                .containsExactly(5L, 1L);
+        assertThat(underTest.page(underTest.match(TagFilter.NONE, null, 9L), null, null, 0, 10))
+                .containsExactly(3L);
+        assertThat(underTest.page(underTest.match(TagFilter.NONE, null, null), 30L, 3L, 0, 10))
+                .containsExactly(5L, 1L, 6L);
+        assertThat(underTest.page(underTest.match(TagFilter.NONE, null, null), 25L, 5L, 0, 10))
+                .containsExactly(1L, 6L);
+        assertThat(underTest.page(underTest.match(TagFilter.NONE, null, null), null, null, 2, 2))
+                .containsExactly(5L, 1L);
+    }
+
+    @Test
+    void itShouldPageInFeedOrder_whenArticlesComeLate() {
+        // given
+        Random random = new Random(42);
+        ArticleFilterIndex index = new ArticleFilterIndex();
+        // article id is the time with a tie breaker, so the expected order is the id order
+        TreeSet<Long> articles = new TreeSet<>();
+
+        // when
+        for (long time = 1; time <= 2_000; time++) {
+            long late = time - random.nextInt(3) * random.nextInt(200);
+            long articleId = late * 10 + random.nextInt(10);
+            if (late > 0 && articles.add(articleId))
+                index.add(articleId, late, 7, List.of());
+        }
+
+        // then
+        OrdinalBitmap matched = index.match(TagFilter.NONE, null, null);
+        assertThat(index.page(matched, null, null, 0, 5_000)).containsExactlyElementsOf(articles.descendingSet());
+        assertThat(index.page(matched, null, null, 100, 50))
+                .containsExactlyElementsOf(articles.descendingSet().stream().skip(100).limit(50).toList());
+        long cursorId = articles.descendingSet().stream().skip(500).findFirst().orElseThrow();
+        assertThat(index.page(matched, cursorId / 10, cursorId, 0, 50))
+                .containsExactlyElementsOf(articles.headSet(cursorId, false).descendingSet().stream().limit(50).toList());
+    }
+}
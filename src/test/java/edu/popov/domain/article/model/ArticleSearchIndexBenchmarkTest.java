@@ -0,0 +1,64 @@
+package edu.popov.domain.article.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search latency on a generated corpus, by default 1M articles over a 50k words vocabulary with skewed
+ * word frequencies. Sizes are set with -Dbenchmark.articles and -Dbenchmark.words.
+ * Not part of the test task, run with gradle benchmark.
+ */
+@Slf4j
+@Tag("benchmark")
+class ArticleSearchIndexBenchmarkTest {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 1_000_000);
+    private static final int WORDS = Integer.getInteger("benchmark.words", 50_000);
+    private static final int QUERIES = 2000;
+    private static final long P99_LIMIT_MS = 20;
+
+    @Test
+    void itShouldAnswerQueriesWithinLimit() {
+        // given
+        Random random = new Random(42);
+        ArticleSearchIndex index = new ArticleSearchIndex();
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < ARTICLES; i++)
+            index.add(ArticleSearchIndex.Document.of(i, text(random, 6), text(random, 15), text(random, 80)));
+        log.info("Indexed {} articles in {} ms", ARTICLES, (System.nanoTime() - buildStart) / 1_000_000);
+
+        // when
+        long[] micros = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            List<String> terms = ArticleSearchIndex.terms(text(random, 1 + random.nextInt(3)));
+            long start = System.nanoTime();
+            index.search(terms, 20);
+            micros[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(micros);
+
+        // then
+        long p50 = micros[QUERIES / 2];
+        long p99 = micros[QUERIES * 99 / 100];
+        log.info("Search latency p50 {} us, p99 {} us, max {} us", p50, p99, micros[QUERIES - 1]);
+        assertThat(p99).isLessThan(P99_LIMIT_MS * 1000);
+    }
+
+    /**
+     * Words w0..wN, word popularity falls off as a power of the word number.
+     */
+    private static String text(Random random, int words) {
+        return IntStream.range(0, words)
+                .mapToObj(i -> "w" + (int) (WORDS * Math.pow(random.nextDouble(), 3)))
+                .collect(Collectors.joining(" "));
+    }
+}
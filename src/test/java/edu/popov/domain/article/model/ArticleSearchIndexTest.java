@@ -0,0 +1,76 @@
+package edu.popov.domain.article.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArticleSearchIndexTest {
+
+    private ArticleSearchIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ArticleSearchIndex();
+        underTest.add(ArticleSearchIndex.Document.of(1, "How to train your dragon", "Dragons", "Fire and wings"));
+        underTest.add(ArticleSearchIndex.Document.of(2, "Lizards", "Reptiles", "Komodo dragon is the largest lizard"));
+        underTest.add(ArticleSearchIndex.Document.of(3, "Cooking", "Food", "Fire is needed"));
+    }
+
+    @Test
+    void itShouldSplitTextIntoLowerCaseTerms() {
+        // when
+        List<String> expected = ArticleSearchIndex.terms("Hello, World! Java-17 " + "x".repeat(41));
+
+        // then
+        assertThat(expected).containsExactly("hello", "world", "java", "17");
+    }
+
+    @Test
+    void itShouldRankTitleMatchesFirst() {
+        // when
+        ArticleSearchIndex.Hits expected = underTest.search(List.of("dragon"), 10);
+
+        // then
+        assertThat(expected.articleIds()).containsExactly(1L, 2L);
+        assertThat(expected.total()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldSumScoresOfTerms() {
+        // when
+        ArticleSearchIndex.Hits expected = underTest.search(List.of("fire", "cooking"), 1);
+
+        // then
+        assertThat(expected.articleIds()).containsExactly(3L);
+        assertThat(expected.total()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldReplaceUpdatedArticle() {
+        // when
+        underTest.add(ArticleSearchIndex.Document.of(1, "Gardening", "Plants", "Roses"));
+
+        // then
+        assertThat(underTest.search(List.of("dragon"), 10).articleIds()).containsExactly(2L);
+        assertThat(underTest.search(List.of("roses"), 10).articleIds()).containsExactly(1L);
+        assertThat(underTest.size()).isEqualTo(3);
+    }
+
+    @Test
+    void itShouldNotFindRemovedArticles_afterCompaction() {
+        // when
+        underTest.remove(2);
+        ArticleSearchIndex.Hits beforeCompaction = underTest.search(List.of("dragon"), 10);
+        underTest.compact();
+        underTest.add(ArticleSearchIndex.Document.of(4, "Dragon fruit", "Food", "Sweet"));
+
+        // then
+        assertThat(beforeCompaction.articleIds()).containsExactly(1L);
+        assertThat(underTest.search(List.of("dragon"), 10).articleIds()).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(underTest.search(List.of("lizard"), 10).total()).isZero();
+        assertThat(underTest.search(List.of("fire"), 10).articleIds()).containsExactlyInAnyOrder(1L, 3L);
+    }
+}
@@ -0,0 +1,63 @@
+package edu.popov.domain.article.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FavoriteIndexTest {
+
+    @Test
+    void itShouldPageFavoritesNewestFirst() {
+        // given
+        FavoriteIndex underTest = new FavoriteIndex();
+        underTest.favorite(3L, 1L);
+        underTest.favorite(70_000L, 1L);
+        underTest.favorite(200_000L, 1L);
+        underTest.favorite(5L, 2L);
+
+        // when
+        // then
+        assertThat(underTest.page(1L, null, 0, 2)).containsExactly(200_000L, 70_000L);
+        assertThat(underTest.page(1L, null, 1, 5)).containsExactly(70_000L, 3L);
+        assertThat(underTest.page(1L, 70_000L, 1, 5)).containsExactly(3L);
+        assertThat(underTest.page(3L, null, 0, 5)).isEmpty();
+        assertThat(underTest.count(1L)).isEqualTo(3);
+        assertThat(underTest.size()).isEqualTo(4);
+        assertThat(underTest.accounts()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldSkipUnfavoritedAndDeletedArticles() {
+        // given
+        FavoriteIndex underTest = new FavoriteIndex();
+        underTest.favorite(1L, 1L);
+        underTest.favorite(2L, 1L);
+        underTest.favorite(3L, 1L);
+        underTest.favorite(3L, 1L);
+
+        // when
+        underTest.unfavorite(1L, 1L);
+        underTest.unfavorite(1L, 1L);
+        underTest.remove(3L);
+
+        // then
+        assertThat(underTest.isFavorited(1L, 1L)).isFalse();
+        assertThat(underTest.isFavorited(1L, 2L)).isTrue();
+        assertThat(underTest.isFavorited(1L, 3L)).isFalse();
+        assertThat(underTest.page(1L, null, 0, 5)).containsExactly(2L);
+        assertThat(underTest.count(1L)).isEqualTo(1);
+        assertThat(underTest.size()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldRejectArticleIdOutOfRange() {
+        // given
+        FavoriteIndex underTest = new FavoriteIndex();
+
+        // when
+        // then
+        assertThat(underTest.favorite(Integer.MAX_VALUE + 1L, 1L)).isFalse();
+        assertThat(underTest.isFavorited(1L, Integer.MAX_VALUE + 1L)).isFalse();
+        assertThat(underTest.size()).isZero();
+    }
+}
@@ -0,0 +1,112 @@
+package edu.popov.domain.article.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrdinalBitmapTest {
+
+    @Test
+    void itShouldFindPreviousValueAcrossChunks() {
+        // given
+        OrdinalBitmap underTest = new OrdinalBitmap();
+        underTest.add(3);
+        underTest.add(70_000);
+        underTest.add(200_000);
+
+        // when
+        // then
+        assertThat(underTest.previous(Integer.MAX_VALUE)).isEqualTo(200_000);
+        assertThat(underTest.previous(199_999)).isEqualTo(70_000);
+        assertThat(underTest.previous(69_999)).isEqualTo(3);
+        assertThat(underTest.previous(2)).isEqualTo(-1);
+        assertThat(underTest.cardinality()).isEqualTo(3);
+    }
+
+    @Test
+    void itShouldConvertDenseChunkToBitsetAndBack() {
+        // given
+        OrdinalBitmap underTest = new OrdinalBitmap();
+        for (int i = 0; i < 10_000; i++)
+            underTest.add(i * 2);
+
+        // when
+        for (int i = 0; i < 9_000; i++)
+            underTest.remove(i * 2);
+
+        // then
+        assertThat(underTest.cardinality()).isEqualTo(1_000);
+        assertThat(underTest.contains(18_000)).isTrue();
+        assertThat(underTest.contains(17_998)).isFalse();
+        assertThat(underTest.previous(18_001)).isEqualTo(18_000);
+        assertThat(underTest.previous(17_999)).isEqualTo(-1);
+    }
+
+    @Test
+    void itShouldDropEmptyChunk() {
+        // given
+        OrdinalBitmap underTest = new OrdinalBitmap();
+        underTest.add(70_000);
+
+        // when
+        underTest.remove(70_000);
+
+        // then
+        assertThat(underTest.isEmpty()).isTrue();
+        assertThat(underTest.previous(Integer.MAX_VALUE)).isEqualTo(-1);
+    }
+
+    @Test
+    void itShouldMatchSortedSet_afterRandomUpdatesAndSetOperations() {
+        // given
+        Random random = new Random(42);
+        OrdinalBitmap first = new OrdinalBitmap();
+        OrdinalBitmap second = new OrdinalBitmap();
+        TreeSet<Integer> firstValues = new TreeSet<>();
+        TreeSet<Integer> secondValues = new TreeSet<>();
+
+        // when
+        // dense values in the first chunks, sparse values in the others
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(2) == 0 ? random.nextInt(70_000) : random.nextInt(1_000_000);
+            if (random.nextInt(4) == 0) {
+                first.remove(value);
+                firstValues.remove(value);
+            } else {
+                first.add(value);
+                firstValues.add(value);
+            }
+            value = random.nextInt(2) == 0 ? random.nextInt(70_000) : random.nextInt(1_000_000);
+            second.add(value);
+            secondValues.add(value);
+        }
+        OrdinalBitmap both = first.and(second);
+        OrdinalBitmap any = first.or(second);
+        OrdinalBitmap firstOnly = first.andNot(second);
+
+        // then
+        TreeSet<Integer> bothValues = new TreeSet<>(firstValues);
+        bothValues.retainAll(secondValues);
+        TreeSet<Integer> anyValues = new TreeSet<>(firstValues);
+        anyValues.addAll(secondValues);
+        TreeSet<Integer> firstOnlyValues = new TreeSet<>(firstValues);
+        firstOnlyValues.removeAll(secondValues);
+        assertThat(first.cardinality()).isEqualTo(firstValues.size());
+        assertThat(both.cardinality()).isEqualTo(bothValues.size());
+        assertThat(descending(both)).containsExactlyElementsOf(bothValues.descendingSet());
+        assertThat(descending(any)).containsExactlyElementsOf(anyValues.descendingSet());
+        assertThat(descending(firstOnly)).containsExactlyElementsOf(firstOnlyValues.descendingSet());
+    }
+
+    private static List<Integer> descending(OrdinalBitmap bitmap) {
+        List<Integer> values = new ArrayList<>();
+        for (int value = bitmap.previous(Integer.MAX_VALUE); value >= 0; value = bitmap.previous(value - 1))
+            values.add(value);
+        return values;
+    }
+}
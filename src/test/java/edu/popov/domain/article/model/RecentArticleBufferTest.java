@@ -0,0 +1,57 @@
+package edu.popov.domain.article.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentArticleBufferTest {
+
+    @Test
+    void itShouldKeepNewestEntriesInOrder() {
+        // given
+        RecentArticleBuffer underTest = new RecentArticleBuffer(3);
+
+        // when
+        underTest.add(10, 1);
+        underTest.add(30, 3);
+        underTest.add(20, 2);
+        underTest.add(40, 4);
+        underTest.add(40, 4);
+
+        // then
+        RecentArticleBuffer.Snapshot snapshot = underTest.snapshot();
+        assertThat(snapshot.articleIds()).containsExactly(4, 3, 2);
+        assertThat(snapshot.createdAt()).containsExactly(40, 30, 20);
+        assertThat(snapshot.complete()).isFalse();
+    }
+
+    @Test
+    void itShouldRemoveEntry() {
+        // given
+        RecentArticleBuffer underTest = new RecentArticleBuffer(3);
+        underTest.add(10, 1);
+        underTest.add(20, 2);
+        underTest.add(30, 3);
+
+        // when
+        boolean removed = underTest.remove(2);
+
+        // then
+        assertThat(removed).isTrue();
+        assertThat(underTest.snapshot().articleIds()).containsExactly(3, 1);
+        assertThat(underTest.isComplete()).isTrue();
+    }
+
+    @Test
+    void itShouldRoundKeyToMicroseconds() {
+        // given
+        ZonedDateTime time = ZonedDateTime.of(2022, 12, 11, 17, 20, 20, 999_999_600, ZoneId.of("UTC"));
+
+        // when
+        // then
+        assertThat(RecentArticleBuffer.key(time)).isEqualTo(RecentArticleBuffer.key(time.plusNanos(400)));
+    }
+}
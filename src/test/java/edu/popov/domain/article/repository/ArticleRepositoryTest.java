@@ -5,6 +5,8 @@ import edu.popov.domain.account.repository.AccountRepository;
 import edu.popov.domain.article.entity.ArticleEntity;
 import edu.popov.domain.article.entity.FavoriteEntity;
 import edu.popov.domain.article.entity.FavoriteEntityId;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.TagFilter;
 import edu.popov.domain.profile.entity.FollowRelationEntity;
 import edu.popov.domain.profile.entity.FollowRelationId;
 import edu.popov.domain.profile.repository.FollowRelationRepository;
@@ -13,11 +15,13 @@ import edu.popov.domain.tag.repository.TagRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +43,9 @@ class ArticleRepositoryTest {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Autowired
     private ArticleRepository underTest;
 
@@ -146,9 +153,9 @@ class ArticleRepositoryTest {
                 .build();
 
         String filterTag = "tag1";
-        TagEntity tag = TagEntity.builder()
+        TagEntity tag = tagRepository.save(TagEntity.builder()
                 .tagName(filterTag)
-                .build();
+                .build());
         article.addTag(tag);
 
         accountRepository.saveAndFlush(account1);
@@ -170,7 +177,7 @@ class ArticleRepositoryTest {
         favoriteRepository.save(favoriteEntity);
 
         // when
-        List<ArticleEntity> expected = underTest.findByFilter(filterTag, filterAuthor, account2, null);
+        List<ArticleEntity> expected = underTest.findByFilter(TagFilter.allOf(tag.getId()), filterAuthor, account2, null, 20, 0);
 
         // then
         assertThat(expected).isNotEmpty();
@@ -219,13 +226,13 @@ class ArticleRepositoryTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        TagEntity tag1 = TagEntity.builder()
+        TagEntity tag1 = tagRepository.save(TagEntity.builder()
                 .tagName("tag1")
-                .build();
+                .build());
         article1.addTag(tag1);
-        TagEntity tag2 = TagEntity.builder()
+        TagEntity tag2 = tagRepository.save(TagEntity.builder()
                 .tagName("tag2")
-                .build();
+                .build());
         article2.addTag(tag2);
 
         accountRepository.saveAndFlush(account1);
@@ -252,4 +259,181 @@ class ArticleRepositoryTest {
         assertThat(expected).isNotEmpty();
         assertThat(expected.get(0)).isEqualTo(article2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void itShouldFindByFilterBefore() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+        ZonedDateTime createdAt = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        ArticleEntity older = ArticleEntity.builder()
+                .slug("article-1")
+                .title("article 1")
+                .description("description")
+                .body("body")
+                .author(account)
+                .createdAt(createdAt.minusMinutes(1))
+                .updatedAt(createdAt)
+                .build();
+        ArticleEntity newer = ArticleEntity.builder()
+                .slug("article-2")
+                .title("article 2")
+                .description("description")
+                .body("body")
+                .author(account)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+        accountRepository.saveAndFlush(account);
+        underTest.saveAndFlush(older);
+        underTest.saveAndFlush(newer);
+
+        // when
+        List<ArticleEntity> expected = underTest.findByFilter(
+                TagFilter.NONE, null, null, ArticleCursor.of(newer), 10, 0);
+
+        // then
+        assertThat(expected).containsExactly(older);
+    }
+
+    @Test
+    void itShouldCountByFilter() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+        ArticleEntity article1 = ArticleEntity.builder()
+                .slug("article-1")
+                .title("article 1")
+                .description("description")
+                .body("body")
+                .author(account)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+        TagEntity tag1 = tagRepository.save(TagEntity.builder().tagName("tag1").build());
+        TagEntity tag2 = tagRepository.save(TagEntity.builder().tagName("tag2").build());
+        article1.addTag(tag1);
+        article1.addTag(tag2);
+        ArticleEntity article2 = ArticleEntity.builder()
+                .slug("article-2")
+                .title("article 2")
+                .description("description")
+                .body("body")
+                .author(account)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+        article2.addTag(tag2);
+        accountRepository.saveAndFlush(account);
+        underTest.saveAndFlush(article1);
+        underTest.saveAndFlush(article2);
+
+        // when
+        // then
+        assertThat(underTest.countByFilter(TagFilter.NONE, null, null)).isEqualTo(2L);
+        assertThat(underTest.countByFilter(TagFilter.allOf(tag2.getId()), "user1", null)).isEqualTo(2L);
+        assertThat(underTest.countByFilter(TagFilter.allOf(tag1.getId()), null, null)).isEqualTo(1L);
+        assertThat(underTest.countByFilter(TagFilter.NONE, "user2", null)).isZero();
+        assertThat(underTest.estimateByFilter(TagFilter.NONE, null, null)).isEmpty();
+    }
+
+    @Test
+    void itShouldFindByAllAnyAndNotTags() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+        accountRepository.saveAndFlush(account);
+        TagEntity java = tagRepository.save(TagEntity.builder().tagName("java").build());
+        TagEntity spring = tagRepository.save(TagEntity.builder().tagName("spring").build());
+        TagEntity kotlin = tagRepository.save(TagEntity.builder().tagName("kotlin").build());
+        ZonedDateTime now = ZonedDateTime.now();
+        ArticleEntity javaSpring = article(account, "java-spring", now.minusSeconds(3), java, spring);
+        ArticleEntity javaKotlin = article(account, "java-kotlin", now.minusSeconds(2), java, spring, kotlin);
+        ArticleEntity kotlinOnly = article(account, "kotlin", now.minusSeconds(1), kotlin);
+
+        // when
+        // then
+        assertThat(underTest.findByFilter(TagFilter.allOf(java.getId(), spring.getId()), null, null, null, 10, 0))
+                .containsExactly(javaKotlin, javaSpring);
+        assertThat(underTest.findByFilter(new TagFilter(List.of(java.getId()), List.of(), List.of(kotlin.getId())),
+                null, null, null, 10, 0))
+                .containsExactly(javaSpring);
+        assertThat(underTest.findByFilter(new TagFilter(List.of(), List.of(spring.getId(), kotlin.getId()), List.of()),
+                null, null, null, 10, 0))
+                .containsExactly(kotlinOnly, javaKotlin, javaSpring);
+        assertThat(underTest.countByFilter(new TagFilter(List.of(), List.of(spring.getId(), kotlin.getId()), List.of(java.getId())),
+                null, null))
+                .isEqualTo(1L);
+    }
+
+    private ArticleEntity article(AccountEntity author, String slug, ZonedDateTime createdAt, TagEntity... tags) {
+        ArticleEntity article = ArticleEntity.builder()
+                .slug(slug)
+                .title(slug)
+                .description("description")
+                .body("body")
+                .author(author)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+        for (TagEntity tag : tags)
+            article.addTag(tag);
+        return underTest.saveAndFlush(article);
+    }
+
+    @Test
+    void itShouldReconcileFavoritesCount() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+        ArticleEntity article = ArticleEntity.builder()
+                .slug("article-1")
+                .title("article 1")
+                .description("description")
+                .body("body")
+                .author(account)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+        accountRepository.saveAndFlush(account);
+        underTest.saveAndFlush(article);
+        favoriteRepository.saveAndFlush(FavoriteEntity.builder()
+                .id(FavoriteEntityId.builder()
+                        .articleId(article.getId())
+                        .accountId(account.getId())
+                        .build())
+                .article(article)
+                .account(account)
+                .build());
+        underTest.incrementFavoritesCount(article.getId(), 5);
+
+        // when
+        int repaired = underTest.reconcileFavoritesCount();
+
+        // then
+        entityManager.clear();
+        assertThat(repaired).isEqualTo(1);
+        assertThat(underTest.findBySlug("article-1").orElseThrow().getFavoritesCount()).isEqualTo(1L);
+        assertThat(underTest.reconcileFavoritesCount()).isZero();
+    }
+}
@@ -7,6 +7,7 @@ import edu.popov.domain.article.entity.CommentEntity;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
@@ -114,4 +115,57 @@ class CommentRepositoryTest {
         assertThat(expected).isPresent();
         assertThat(expected.get()).isEqualTo(commentEntity);
     }
-}
\ No newline at end of file
+
+    @Test
+    void itShouldFindCommentPagesWithAuthor() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .bio("bio")
+                .image("image")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+
+        ArticleEntity article = ArticleEntity.builder()
+                .slug("article-1")
+                .title("article 1")
+                .description("description")
+                .body("body")
+                .author(account)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+
+        accountRepository.saveAndFlush(account);
+        articleRepository.saveAndFlush(article);
+
+        for (String body : List.of("first", "second", "third"))
+            underTest.save(CommentEntity.builder()
+                    .body(body)
+                    .article(article)
+                    .account(account)
+                    .createdAt(ZonedDateTime.now())
+                    .updatedAt(ZonedDateTime.now())
+                    .build());
+
+        // when
+        List<CommentRepository.CommentView> oldest = underTest.findOldest(article.getId(), PageRequest.of(0, 2));
+        List<CommentRepository.CommentView> afterOldest = underTest.findOldestAfter(article.getId(),
+                oldest.get(1).id(), PageRequest.of(0, 2));
+        List<CommentRepository.CommentView> newest = underTest.findNewest(article.getId(), PageRequest.of(0, 2));
+        List<CommentRepository.CommentView> beforeNewest = underTest.findNewestBefore(article.getId(),
+                newest.get(1).id(), PageRequest.of(0, 2));
+
+        // then
+        assertThat(oldest).extracting(CommentRepository.CommentView::body).containsExactly("first", "second");
+        assertThat(afterOldest).extracting(CommentRepository.CommentView::body).containsExactly("third");
+        assertThat(newest).extracting(CommentRepository.CommentView::body).containsExactly("third", "second");
+        assertThat(beforeNewest).extracting(CommentRepository.CommentView::body).containsExactly("first");
+        assertThat(oldest.get(0).authorUsername()).isEqualTo("user1");
+        assertThat(oldest.get(0).authorId()).isEqualTo(account.getId());
+    }
+
+}
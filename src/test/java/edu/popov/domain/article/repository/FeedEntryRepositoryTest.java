@@ -0,0 +1,167 @@
+package edu.popov.domain.article.repository;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.profile.entity.FollowRelationEntity;
+import edu.popov.domain.profile.entity.FollowRelationId;
+import edu.popov.domain.profile.repository.FollowRelationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class FeedEntryRepositoryTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private FollowRelationRepository followRelationRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private FeedEntryRepository underTest;
+
+    private AccountEntity author;
+    private AccountEntity follower;
+    private ArticleEntity older;
+    private ArticleEntity newer;
+
+    @BeforeEach
+    void setUp() {
+        author = accountRepository.saveAndFlush(account("user1"));
+        follower = accountRepository.saveAndFlush(account("user2"));
+        followRelationRepository.saveAndFlush(FollowRelationEntity.builder()
+                .id(FollowRelationId.builder()
+                        .accountToFollowId(author.getId())
+                        .userAccountId(follower.getId())
+                        .build())
+                .accountToFollow(author)
+                .userAccount(follower)
+                .createdAt(LocalDateTime.now())
+                .build());
+
+        ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        older = articleRepository.saveAndFlush(article("article-1", now.minusHours(1)));
+        newer = articleRepository.saveAndFlush(article("article-2", now));
+    }
+
+    @Test
+    void itShouldFanOutToFollowers() {
+        // when
+        int inserted = underTest.fanOut(newer.getId(), 10);
+        int insertedAgain = underTest.fanOut(newer.getId(), 10);
+
+        // then
+        assertThat(inserted).isEqualTo(1);
+        assertThat(insertedAgain).isZero();
+        assertThat(underTest.findByFollower(follower.getId(), page(10)))
+                .extracting(FeedEntryRepository.FeedItem::getArticleId)
+                .containsExactly(newer.getId());
+    }
+
+    @Test
+    void itShouldNotFanOut_whenAuthorIsAboveThreshold() {
+        // when
+        int inserted = underTest.fanOut(newer.getId(), -1);
+
+        // then
+        assertThat(inserted).isZero();
+    }
+
+    @Test
+    void itShouldBackfillAndReadInFeedOrder() {
+        // when
+        int inserted = underTest.backfill(follower.getId(), author.getId(), 10, 10);
+
+        // then
+        assertThat(inserted).isEqualTo(2);
+        assertThat(underTest.findByFollower(follower.getId(), page(10)))
+                .extracting(FeedEntryRepository.FeedItem::getArticleId)
+                .containsExactly(newer.getId(), older.getId());
+        assertThat(underTest.findByFollowerBefore(follower.getId(), newer.getCreatedAt(), newer.getId(), page(10)))
+                .extracting(FeedEntryRepository.FeedItem::getArticleId)
+                .containsExactly(older.getId());
+    }
+
+    @Test
+    void itShouldBackfillFollowers_whenAuthorDroppedToThreshold() {
+        // given
+        accountRepository.incrementFollowersCount(author.getId(), 1);
+
+        // when
+        int aboveThreshold = underTest.backfillFollowers(author.getId(), 0, 1);
+        int atThreshold = underTest.backfillFollowers(author.getId(), 1, 1);
+
+        // then
+        assertThat(aboveThreshold).isZero();
+        assertThat(atThreshold).isEqualTo(1);
+        assertThat(underTest.findByFollower(follower.getId(), page(10)))
+                .extracting(FeedEntryRepository.FeedItem::getArticleId)
+                .containsExactly(newer.getId());
+    }
+
+    @Test
+    void itShouldDeleteByArticleAndByAuthor() {
+        // given
+        underTest.backfill(follower.getId(), author.getId(), 10, 10);
+
+        // when
+        int byArticle = underTest.deleteByArticleId(newer.getId());
+        int byAuthor = underTest.deleteByFollowerAndAuthor(follower.getId(), author.getId());
+
+        // then
+        assertThat(byArticle).isEqualTo(1);
+        assertThat(byAuthor).isEqualTo(1);
+        assertThat(underTest.findByFollower(follower.getId(), page(10))).isEmpty();
+    }
+
+    @Test
+    void itShouldFindByAuthors() {
+        // when
+        List<FeedEntryRepository.FeedItem> expected = underTest.findByAuthors(List.of(author.getId()), page(1));
+
+        // then
+        assertThat(expected)
+                .extracting(FeedEntryRepository.FeedItem::getArticleId)
+                .containsExactly(newer.getId());
+    }
+
+    private static OffsetBasedPageRequest page(int limit) {
+        return new OffsetBasedPageRequest(limit, 0, Sort.unsorted());
+    }
+
+    private ArticleEntity article(String slug, ZonedDateTime createdAt) {
+        return ArticleEntity.builder()
+                .slug(slug)
+                .title(slug)
+                .description("description")
+                .body("body")
+                .author(author)
+                .createdAt(createdAt)
+                .updatedAt(createdAt)
+                .build();
+    }
+
+    private static AccountEntity account(String username) {
+        return AccountEntity.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("pass")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleSnapshot;
+import edu.popov.domain.article.repository.ArticleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleCacheImplTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ArticleCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new ArticleCacheImpl(articleRepository, meterRegistry);
+        setField(underTest, "maxSize", 2);
+        setField(underTest, "ttl", Duration.ofMinutes(10));
+        setField(underTest, "negativeTtl", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void itShouldLoadArticleOnce() {
+        // given
+        ArticleEntity article = article("title");
+        when(articleRepository.findWithAuthorAndTagsBySlug("title")).thenReturn(Optional.of(article));
+
+        // when
+        underTest.getBySlug("title");
+        Optional<ArticleSnapshot> expected = underTest.getBySlug("title");
+
+        // then
+        assertThat(expected).contains(ArticleSnapshot.of(article));
+        verify(articleRepository, times(1)).findWithAuthorAndTagsBySlug("title");
+        assertThat(meterRegistry.counter("cache.gets", "cache", "article", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("cache.gets", "cache", "article", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldCacheUnknownSlug() {
+        // given
+        when(articleRepository.findWithAuthorAndTagsBySlug("unknown")).thenReturn(Optional.empty());
+
+        // when
+        underTest.getBySlug("unknown");
+        Optional<ArticleSnapshot> expected = underTest.getBySlug("unknown");
+
+        // then
+        assertThat(expected).isEmpty();
+        verify(articleRepository, times(1)).findWithAuthorAndTagsBySlug("unknown");
+    }
+
+    @Test
+    void itShouldReloadArticle_whenNegativeEntryIsExpired() {
+        // given
+        setField(underTest, "negativeTtl", Duration.ZERO);
+        when(articleRepository.findWithAuthorAndTagsBySlug("unknown")).thenReturn(Optional.empty());
+
+        // when
+        underTest.getBySlug("unknown");
+        underTest.getBySlug("unknown");
+
+        // then
+        verify(articleRepository, times(2)).findWithAuthorAndTagsBySlug("unknown");
+    }
+
+    @Test
+    void itShouldReloadArticle_whenInvalidated() {
+        // given
+        ArticleEntity article = article("title");
+        when(articleRepository.findWithAuthorAndTagsBySlug("title")).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(article));
+
+        // when
+        underTest.getBySlug("title");
+        underTest.invalidate("title");
+        Optional<ArticleSnapshot> expected = underTest.getBySlug("title");
+
+        // then
+        assertThat(expected).contains(ArticleSnapshot.of(article));
+        verify(articleRepository, times(2)).findWithAuthorAndTagsBySlug("title");
+    }
+
+    @Test
+    void itShouldEvictLeastRecentlyUsedArticle() {
+        // given
+        when(articleRepository.findWithAuthorAndTagsBySlug(anyString())).thenReturn(Optional.empty());
+
+        // when
+        underTest.getBySlug("a");
+        underTest.getBySlug("b");
+        underTest.getBySlug("a");
+        underTest.getBySlug("c");
+        underTest.getBySlug("a");
+        underTest.getBySlug("b");
+
+        // then
+        verify(articleRepository, times(1)).findWithAuthorAndTagsBySlug("a");
+        verify(articleRepository, times(2)).findWithAuthorAndTagsBySlug("b");
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldLoadArticleOnce_whenRequestedConcurrently() throws Exception {
+        // given
+        ArticleEntity article = article("title");
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(articleRepository.findWithAuthorAndTagsBySlug("title")).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(article);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            // when
+            List<Future<Optional<ArticleSnapshot>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> underTest.getBySlug("title")));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++)
+                results.add(executor.submit(() -> underTest.getBySlug("title")));
+            release.countDown();
+
+            // then
+            for (Future<Optional<ArticleSnapshot>> result : results)
+                assertThat(result.get(5, TimeUnit.SECONDS)).contains(ArticleSnapshot.of(article));
+            verify(articleRepository, times(1)).findWithAuthorAndTagsBySlug("title");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ArticleEntity article(String slug) {
+        AccountEntity author = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .email("user1@gmail.com")
+                .build();
+        return ArticleEntity.builder()
+                .id(1L)
+                .slug(slug)
+                .title(slug)
+                .description("desc")
+                .body("body")
+                .author(author)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,144 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCountMode;
+import edu.popov.domain.article.model.TagFilter;
+import edu.popov.domain.article.repository.ArticleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleCountServiceImplTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    private ArticleCountServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ArticleCountServiceImpl(articleRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(underTest, "estimateThreshold", 1000L);
+        ReflectionTestUtils.setField(underTest, "cacheSize", 10);
+        ReflectionTestUtils.setField(underTest, "cacheTtl", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void itShouldCountExactAndThenReturnCached() {
+        // given
+        when(articleRepository.estimateByFilter(TagFilter.allOf(1L), null, null)).thenReturn(OptionalLong.empty());
+        when(articleRepository.countByFilter(TagFilter.allOf(1L), null, null)).thenReturn(5L);
+
+        // when
+        ArticleCount first = underTest.countByFilter(TagFilter.allOf(1L), null, null);
+        ArticleCount second = underTest.countByFilter(TagFilter.allOf(1L), null, null);
+
+        // then
+        assertThat(first).isEqualTo(new ArticleCount(5L, ArticleCountMode.EXACT));
+        assertThat(second).isEqualTo(new ArticleCount(5L, ArticleCountMode.CACHED));
+        verify(articleRepository, times(1)).countByFilter(TagFilter.allOf(1L), null, null);
+    }
+
+    @Test
+    void itShouldCountAgain_whenInvalidated() {
+        // given
+        AccountEntity favorited = AccountEntity.builder().id(1L).build();
+        when(articleRepository.countByFilter(TagFilter.NONE, "user1", favorited)).thenReturn(5L, 6L);
+
+        // when
+        underTest.countByFilter(TagFilter.NONE, "user1", favorited);
+        underTest.invalidate();
+        ArticleCount expected = underTest.countByFilter(TagFilter.NONE, "user1", favorited);
+
+        // then
+        assertThat(expected).isEqualTo(new ArticleCount(6L, ArticleCountMode.EXACT));
+        verify(articleRepository, times(2)).countByFilter(TagFilter.NONE, "user1", favorited);
+        verify(articleRepository, never()).estimateByFilter(any(), any(), any());
+    }
+
+    @Test
+    void itShouldCountAgainAfterCommit_whenInvalidatedInTransaction() {
+        // given
+        when(articleRepository.countByFilter(TagFilter.NONE, "user1", null)).thenReturn(5L, 6L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        try {
+            underTest.invalidate();
+            // concurrent request counts the rows before the commit
+            underTest.countByFilter(TagFilter.NONE, "user1", null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        underTest.countByFilter(TagFilter.NONE, "user1", null);
+        ArticleCount expected = underTest.countByFilter(TagFilter.NONE, "user1", null);
+
+        // then
+        assertThat(expected).isEqualTo(new ArticleCount(6L, ArticleCountMode.CACHED));
+        verify(articleRepository, times(2)).countByFilter(TagFilter.NONE, "user1", null);
+    }
+
+    @Test
+    void itShouldEstimate_whenResultIsLarge() {
+        // given
+        when(articleRepository.estimateByFilter(TagFilter.NONE, null, null)).thenReturn(OptionalLong.of(5000L));
+
+        // when
+        ArticleCount expected = underTest.countByFilter(TagFilter.NONE, null, null);
+
+        // then
+        assertThat(expected).isEqualTo(new ArticleCount(5000L, ArticleCountMode.ESTIMATED));
+        verify(articleRepository, never()).countByFilter(any(), any(), any());
+    }
+
+    @Test
+    void itShouldReturnCachedEstimate() {
+        // given
+        when(articleRepository.estimateByFilter(TagFilter.NONE, null, null)).thenReturn(OptionalLong.of(5000L));
+
+        // when
+        underTest.countByFilter(TagFilter.NONE, null, null);
+        ArticleCount expected = underTest.countByFilter(TagFilter.NONE, null, null);
+
+        // then
+        assertThat(expected).isEqualTo(new ArticleCount(5000L, ArticleCountMode.ESTIMATED));
+        verify(articleRepository, times(1)).estimateByFilter(TagFilter.NONE, null, null);
+    }
+
+    @Test
+    void itShouldEvictLeastRecentlyUsedCount_whenCacheIsFull() {
+        // given
+        ReflectionTestUtils.setField(underTest, "cacheSize", 2);
+        when(articleRepository.countByFilter(any(), any(), any())).thenReturn(5L);
+
+        // when
+        underTest.countByFilter(TagFilter.NONE, "a", null);
+        underTest.countByFilter(TagFilter.NONE, "b", null);
+        underTest.countByFilter(TagFilter.NONE, "a", null);
+        underTest.countByFilter(TagFilter.NONE, "c", null);
+        ArticleCount a = underTest.countByFilter(TagFilter.NONE, "a", null);
+        ArticleCount b = underTest.countByFilter(TagFilter.NONE, "b", null);
+
+        // then
+        assertThat(a.mode()).isEqualTo(ArticleCountMode.CACHED);
+        assertThat(b.mode()).isEqualTo(ArticleCountMode.EXACT);
+        verify(articleRepository, times(1)).countByFilter(TagFilter.NONE, "a", null);
+        verify(articleRepository, times(2)).countByFilter(TagFilter.NONE, "b", null);
+    }
+
+}
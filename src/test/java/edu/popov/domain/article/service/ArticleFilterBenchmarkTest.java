@@ -0,0 +1,168 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.model.TagFilter;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FavoriteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latency of tag filters on a generated data set, by default 1M articles with 3 tags each over 50k tags.
+ * Tag popularity is skewed, so filters mix popular and rare tags. Sizes are set with
+ * -Dbenchmark.articles and -Dbenchmark.tags. SQL counts bypass the count cache. Not part of the test task,
+ * run with gradle benchmark.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ArticleFilterBenchmarkTest {
+
+    private static final int ARTICLES = Integer.getInteger("benchmark.articles", 1_000_000);
+    private static final int TAGS = Integer.getInteger("benchmark.tags", 50_000);
+    private static final int AUTHORS = 1000;
+    private static final int TAGS_PER_ARTICLE = 3;
+    private static final int BATCH_SIZE = 10_000;
+    private static final int RUNS = 20;
+    // ids far above the sequences, so rows of other tests do not clash
+    private static final long FIRST_ID = 100_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    private final List<Long> authorIds = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        for (int i = 0; i < AUTHORS; i++) {
+            AccountEntity author = accountRepository.save(AccountEntity.builder()
+                    .username("benchmark" + i)
+                    .email("benchmark" + i + "@gmail.com")
+                    .password("pass")
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+            authorIds.add(author.getId());
+        }
+
+        List<Object[]> tags = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < TAGS; i++) {
+            tags.add(new Object[]{FIRST_ID + i, "tag" + i});
+            if (tags.size() == BATCH_SIZE || i == TAGS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO tag (id, tag_name) VALUES (?, ?)", tags);
+                tags.clear();
+            }
+        }
+
+        Random random = new Random(42);
+        Timestamp start = Timestamp.valueOf(LocalDateTime.of(2020, 1, 1, 0, 0));
+        List<Object[]> articles = new ArrayList<>(BATCH_SIZE);
+        List<Object[]> articleTags = new ArrayList<>(BATCH_SIZE * TAGS_PER_ARTICLE);
+        for (int i = 0; i < ARTICLES; i++) {
+            long id = FIRST_ID + i;
+            Timestamp createdAt = new Timestamp(start.getTime() + i * 1000L);
+            articles.add(new Object[]{id, "slug" + id, "title", "description", "body",
+                    authorIds.get(random.nextInt(AUTHORS)), createdAt, createdAt});
+            for (long tagId : tagIds(random))
+                articleTags.add(new Object[]{id, tagId});
+            if (articles.size() == BATCH_SIZE || i == ARTICLES - 1) {
+                jdbcTemplate.batchUpdate("""
+                        INSERT INTO article (id, slug, title, description, body, author_id,
+                        favorites_count, comments_count, created_at, updated_at)
+                        VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?)""", articles);
+                jdbcTemplate.batchUpdate("INSERT INTO article_tag (article_id, tag_id) VALUES (?, ?)", articleTags);
+                articles.clear();
+                articleTags.clear();
+            }
+        }
+        log.info("Generated {} articles over {} tags", ARTICLES, TAGS);
+    }
+
+    @Test
+    void itShouldMeasureTagFilters() {
+        // given
+        ArticleFilterEngine sql = new SqlArticleFilterEngine(articleRepository, articleCountService);
+        BitmapArticleFilterEngine bitmap =
+                new BitmapArticleFilterEngine(articleRepository, favoriteRepository, accountRepository, articleCountService);
+        long buildStart = System.nanoTime();
+        bitmap.rebuild();
+        log.info("Bitmap index built in {} ms", (System.nanoTime() - buildStart) / 1_000_000);
+
+        long popular = FIRST_ID;
+        long common = FIRST_ID + 10;
+        long rare = FIRST_ID + TAGS / 2;
+        Map<String, TagFilter> filters = new LinkedHashMap<>();
+        filters.put("popular AND common", new TagFilter(List.of(popular, common), List.of(), List.of()));
+        filters.put("popular AND rare", new TagFilter(List.of(popular, rare), List.of(), List.of()));
+        filters.put("common OR rare", new TagFilter(List.of(), List.of(common, rare), List.of()));
+        filters.put("common NOT popular", new TagFilter(List.of(common), List.of(), List.of(popular)));
+
+        // when
+        // then
+        filters.forEach((name, filter) -> {
+            int sqlSize = sql.findByFilter(filter, null, null, null, 20, 0).size();
+            int bitmapSize = bitmap.findByFilter(filter, null, null, null, 20, 0).size();
+            assertThat(bitmapSize).isEqualTo(sqlSize);
+
+            log.info("{}: sql page {} us, sql count {} us, bitmap page {} us, bitmap count {} us", name,
+                    median(() -> sql.findByFilter(filter, null, null, null, 20, 0)),
+                    median(() -> articleRepository.countByFilter(filter, null, null)),
+                    median(() -> bitmap.findByFilter(filter, null, null, null, 20, 0)),
+                    median(() -> bitmap.countByFilter(filter, null, null)));
+        });
+    }
+
+    /**
+     * Distinct tags of one article, tag popularity falls off as a power of the tag number.
+     */
+    private static long[] tagIds(Random random) {
+        return random.doubles(TAGS_PER_ARTICLE * 2L)
+                .mapToLong(r -> FIRST_ID + (long) (TAGS * Math.pow(r, 4)))
+                .distinct()
+                .limit(TAGS_PER_ARTICLE)
+                .toArray();
+    }
+
+    private static long median(Supplier<?> query) {
+        long[] micros = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            query.get();
+            micros[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(micros);
+        return micros[RUNS / 2];
+    }
+}
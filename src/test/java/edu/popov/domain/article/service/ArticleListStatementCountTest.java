@@ -0,0 +1,173 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.dto.ArticleDTO;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.entity.FavoriteEntity;
+import edu.popov.domain.article.entity.FavoriteEntityId;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleFilter;
+import edu.popov.domain.article.model.FeedParams;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FavoriteRepository;
+import edu.popov.domain.profile.entity.FollowRelationEntity;
+import edu.popov.domain.profile.entity.FollowRelationId;
+import edu.popov.domain.profile.repository.FollowRelationRepository;
+import edu.popov.domain.tag.service.TagService;
+import edu.popov.security.AccountDetails;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Number of statements for one page of articles must not depend on page size.
+ */
+@SpringBootTest
+@Transactional
+class ArticleListStatementCountTest {
+
+    private static final int ARTICLES_PER_AUTHOR = 40;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private ArticleCountService articleCountService;
+
+    @Autowired
+    private FeedService feedService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private FollowRelationRepository followRelationRepository;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    private AccountEntity reader;
+
+    private final List<ArticleEntity> articles = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        reader = accountRepository.save(account("count-reader"));
+        for (int a = 0; a < 3; a++) {
+            AccountEntity author = accountRepository.save(account("count-author-" + a));
+            followRelationRepository.save(FollowRelationEntity.builder()
+                    .id(FollowRelationId.builder()
+                            .accountToFollowId(author.getId())
+                            .userAccountId(reader.getId())
+                            .build())
+                    .accountToFollow(author)
+                    .userAccount(reader)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+
+            for (int i = 0; i < ARTICLES_PER_AUTHOR; i++) {
+                ArticleEntity article = ArticleEntity.builder()
+                        .slug("count-article-" + a + "-" + i)
+                        .title("count article " + a + " " + i)
+                        .description("description")
+                        .body("body")
+                        .author(author)
+                        .createdAt(ZonedDateTime.now())
+                        .updatedAt(ZonedDateTime.now())
+                        .build();
+                tagService.resolveTags(List.of("tag1", "tag" + i)).forEach(article::addTag);
+                articleRepository.save(article);
+                articles.add(article);
+
+                if (i % 2 == 0)
+                    favoriteRepository.save(FavoriteEntity.builder()
+                            .id(FavoriteEntityId.builder()
+                                    .articleId(article.getId())
+                                    .accountId(reader.getId())
+                                    .build())
+                            .article(article)
+                            .account(reader)
+                            .build());
+            }
+        }
+        entityManager.flush();
+        articles.forEach(article -> feedService.articleCreated(
+                new ArticleCreatedEvent(article.getId(), article.getAuthor().getId(), article.getCreatedAt())));
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void itShouldNotDependOnPageSize_whenGetArticlesByFilter() {
+        AccountDetails user = AccountDetails.builder().id(reader.getId()).build();
+
+        long small = countStatements(() -> articleService.getArticlesByFilter(
+                ArticleFilter.builder().limit(1).build(), user));
+        long large = countStatements(() -> articleService.getArticlesByFilter(
+                ArticleFilter.builder().limit(100).build(), user));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void itShouldNotDependOnPageSize_whenGetArticlesByFeed() {
+        long small = countStatements(() -> articleService.getArticlesByFeed(
+                FeedParams.builder().limit(1).build(), reader.getId()));
+        long large = countStatements(() -> articleService.getArticlesByFeed(
+                FeedParams.builder().limit(100).build(), reader.getId()));
+
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long countStatements(Supplier<ArticleDTO.MultipleArticle> call) {
+        entityManager.clear();
+        articleCountService.invalidate();
+        statistics.clear();
+        ArticleDTO.MultipleArticle articles = call.get();
+        assertThat(articles.getArticles()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private AccountEntity account(String username) {
+        return AccountEntity.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("pass")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+}
@@ -0,0 +1,89 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleSearchIndex;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.utils.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ArticleSearchServiceImplTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+
+    private ArticleSearchServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ArticleSearchServiceImpl(articleRepository);
+        ReflectionTestUtils.setField(underTest, "maxTerms", 3);
+        ReflectionTestUtils.setField(underTest, "rebuildThreads", 2);
+        ReflectionTestUtils.setField(underTest, "rebuildChunkSize", 2);
+    }
+
+    @Test
+    void itShouldRebuildIndexFromIdRanges() {
+        // given
+        when(articleRepository.findIdRange()).thenReturn(new ArticleRepository.IdRange(1L, 5L));
+        when(articleRepository.findTextsByIdBetween(1L, 2L)).thenReturn(List.of(
+                new ArticleRepository.ArticleText(1L, "dragon", "desc", "body"),
+                new ArticleRepository.ArticleText(2L, "lizard", "desc", "body")));
+        when(articleRepository.findTextsByIdBetween(3L, 4L)).thenReturn(List.of());
+        when(articleRepository.findTextsByIdBetween(5L, 5L)).thenReturn(List.of(
+                new ArticleRepository.ArticleText(5L, "title", "dragon", "body")));
+
+        // when
+        underTest.rebuild();
+        ArticleSearchIndex.Hits expected = underTest.search("Dragon", 10);
+
+        // then
+        assertThat(expected.articleIds()).containsExactly(1L, 5L);
+        assertThat(expected.total()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldApplyWrites() {
+        // given
+        when(articleRepository.findIdRange()).thenReturn(new ArticleRepository.IdRange(null, null));
+        underTest.rebuild();
+
+        // when
+        underTest.articleIndexed(ArticleEntity.builder().id(1L).title("dragon").description("desc").body("body").build());
+        underTest.articleIndexed(ArticleEntity.builder().id(2L).title("dragon").description("desc").body("body").build());
+        underTest.articleRemoved(1L);
+
+        // then
+        assertThat(underTest.search("dragon", 10).articleIds()).containsExactly(2L);
+        verify(articleRepository, never()).findTextsByIdBetween(any(), any());
+    }
+
+    @Test
+    void itShouldNotSearch_whenQueryHasNoWords() {
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.search(" ?! ", 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Search query has no words");
+    }
+
+    @Test
+    void itShouldNotSearch_whenQueryHasTooManyWords() {
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.search("a b c d", 10))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Search query has 4 words, at most 3 are allowed");
+    }
+}
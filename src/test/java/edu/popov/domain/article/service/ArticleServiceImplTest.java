@@ -1,18 +1,29 @@
 package edu.popov.domain.article.service;
 
 import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
 import edu.popov.domain.article.dto.ArticleDTO;
 import edu.popov.domain.article.dto.ArticleMapper;
 import edu.popov.domain.article.entity.ArticleEntity;
-import edu.popov.domain.article.entity.FavoriteEntity;
-import edu.popov.domain.article.entity.FavoriteEntityId;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCountMode;
+import edu.popov.domain.article.model.ArticleCursor;
 import edu.popov.domain.article.model.ArticleFilter;
+import edu.popov.domain.article.model.ArticleSearchIndex;
+import edu.popov.domain.article.model.ArticleSnapshot;
+import edu.popov.domain.article.model.FavoriteCursor;
 import edu.popov.domain.article.model.FeedParams;
+import edu.popov.domain.article.model.SearchParams;
+import edu.popov.domain.article.model.TagFilter;
 import edu.popov.domain.article.repository.ArticleRepository;
 import edu.popov.domain.article.repository.FavoriteRepository;
-import edu.popov.domain.article.repository.OffsetBasedPageRequest;
 import edu.popov.domain.profile.dto.ProfileDTO;
+import edu.popov.domain.profile.model.PageParams;
+import edu.popov.domain.profile.service.ProfileCache;
 import edu.popov.domain.profile.service.ProfileService;
+import edu.popov.domain.tag.entity.TagEntity;
+import edu.popov.domain.tag.service.TagService;
 import edu.popov.security.AccountDetails;
 import edu.popov.utils.exception.BadRequestException;
 import edu.popov.utils.exception.ForbiddenException;
@@ -23,12 +34,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -51,6 +64,33 @@ class ArticleServiceImplTest {
     @Mock
     private ArticleMapper articleMapper;
 
+    @Mock
+    private ArticleCountService articleCountService;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private FeedService feedService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ArticleCache articleCache;
+
+    @Mock
+    private TagService tagService;
+
+    @Mock
+    private ArticleSearchService articleSearchService;
+    @Mock
+    private ProfileCache profileCache;
+    @Mock
+    private FavoriteIndexService favoriteIndexService;
+    @Mock
+    private CommentCache commentCache;
+
     private ArticleService underTest;
 
     private static final String ARTICLE_NOT_FOUND_BY_SLUG = "Article with slug %s is not found";
@@ -59,7 +99,14 @@ class ArticleServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        underTest = new ArticleServiceImpl(articleRepository, profileService, articleMapper, favoriteRepository);
+        underTest = new ArticleServiceImpl(articleRepository, profileService, articleMapper, favoriteRepository, articleCountService,
+                accountRepository, feedService, eventPublisher, articleCache, tagService,
+                new SqlArticleFilterEngine(articleRepository, articleCountService), articleSearchService, profileCache,
+                favoriteIndexService, commentCache);
+        ReflectionTestUtils.setField(underTest, "maxOffset", 100);
+        ReflectionTestUtils.setField(underTest, "maxTags", 3);
+        ReflectionTestUtils.setField(underTest, "maxFavoritesLimit", 100);
+        ReflectionTestUtils.setField(underTest, "maxSearchLimit", 100);
     }
 
     @Test
@@ -95,6 +142,8 @@ class ArticleServiceImplTest {
 
         when(articleRepository.findBySlug("title")).thenReturn(Optional.empty());
         when(profileService.getAccountById(1L)).thenReturn(account);
+        when(tagService.resolveTags(List.of("tag1", "tag2"))).thenReturn(List.of(
+                TagEntity.builder().id(1L).tagName("tag1").build(), TagEntity.builder().id(2L).tagName("tag2").build()));
         when(articleRepository.save(any(ArticleEntity.class))).thenReturn(articleEntity);
         when(articleMapper.mapToSingleArticleDTO(any(ArticleEntity.class), anyLong())).thenReturn(articleDTO);
 
@@ -104,7 +153,11 @@ class ArticleServiceImplTest {
         // then
         verify(articleRepository, times(1)).findBySlug("title");
         verify(profileService, times(1)).getAccountById(1L);
+        verify(tagService, times(1)).resolveTags(List.of("tag1", "tag2"));
         verify(articleRepository, times(1)).save(any(ArticleEntity.class));
+        verify(accountRepository, times(1)).incrementArticlesCount(1L, 1);
+        verify(profileCache, times(1)).invalidate(1L);
+        verify(eventPublisher, times(1)).publishEvent(any(ArticleCreatedEvent.class));
         verify(articleMapper, times(1)).mapToSingleArticleDTO(any(ArticleEntity.class), anyLong());
     }
 
@@ -177,15 +230,16 @@ class ArticleServiceImplTest {
                 .tagList(List.of("tag1", "tag2"))
                 .build();
 
-        when(articleRepository.findBySlug(slug)).thenReturn(Optional.of(articleEntity));
-        when(articleMapper.mapToSingleArticleDTO(articleEntity, 1L)).thenReturn(articleDTO);
+        ArticleSnapshot snapshot = ArticleSnapshot.of(articleEntity);
+        when(articleCache.getBySlug(slug)).thenReturn(Optional.of(snapshot));
+        when(articleMapper.mapToSingleArticleDTO(snapshot, 1L)).thenReturn(articleDTO);
 
         // when
         ArticleDTO.SingleArticle<ArticleDTO> expected = underTest.getArticleBySlug(slug, 1L);
 
         // then
         ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
-        verify(articleRepository).findBySlug(captor.capture());
+        verify(articleCache).getBySlug(captor.capture());
         assertThat(expected.getArticle().getSlug()).isEqualTo(captor.getValue());
     }
 
@@ -193,7 +247,7 @@ class ArticleServiceImplTest {
     void itShouldNotGetArticleBySlug_whenSlugIsNotExists() {
         // given
         String slug = "slug";
-        when(articleRepository.findBySlug(slug)).thenReturn(Optional.empty());
+        when(articleCache.getBySlug(slug)).thenReturn(Optional.empty());
 
         // when
         // then
@@ -241,7 +295,7 @@ class ArticleServiceImplTest {
                 .build();
 
         when(articleRepository.findBySlug("title")).thenReturn(Optional.of(articleEntity1));
-        when(articleRepository.save(articleEntity2)).thenReturn(articleEntity2);
+        when(articleRepository.save(articleEntity1)).thenReturn(articleEntity2);
         when(articleMapper.mapToSingleArticleDTO(articleEntity2, 1L)).thenReturn(articleDTO);
 
         // when
@@ -249,8 +303,13 @@ class ArticleServiceImplTest {
 
         // then
         verify(articleRepository, times(1)).findBySlug("title");
-        verify(articleRepository, times(1)).save(articleEntity2);
+        verify(articleRepository, times(1)).save(articleEntity1);
         verify(articleMapper, times(1)).mapToSingleArticleDTO(articleEntity2, 1L);
+        verify(articleCache, times(1)).invalidate("title");
+        verify(articleCache, times(1)).invalidate("title-title");
+        assertThat(articleEntity1.getUpdatedAt()).isNotNull();
+        articleEntity1.setUpdatedAt(null);
+        assertThat(articleEntity1).isEqualTo(articleEntity2);
     }
 
     @Test
@@ -294,6 +353,11 @@ class ArticleServiceImplTest {
         // then
         verify(articleRepository, times(1)).findBySlug(slug);
         verify(articleRepository, times(1)).deleteBySlug(slug);
+        verify(accountRepository, times(1)).incrementArticlesCount(account.getId(), -1);
+        verify(profileCache, times(1)).invalidate(account.getId());
+        verify(feedService, times(1)).articleDeleted(articleEntity1);
+        verify(articleSearchService, times(1)).articleRemoved(articleEntity1.getId());
+        verify(commentCache, times(1)).invalidate(articleEntity1.getId());
     }
 
     @Test
@@ -349,11 +413,13 @@ class ArticleServiceImplTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
         ArticleEntity articleEntity1 = ArticleEntity.builder()
+                .id(1L)
                 .slug("title")
                 .title("title")
                 .description("desc")
                 .body("body")
                 .author(account)
+                .createdAt(ZonedDateTime.now())
                 .build();
         ArticleDTO articleDTO = ArticleDTO.builder()
                 .slug("title")
@@ -365,28 +431,31 @@ class ArticleServiceImplTest {
         ArticleFilter articleFilter = ArticleFilter.builder()
                 .author("user1")
                 .favorited("user1")
-                .tag("tag1")
+                .tag(List.of("tag1"))
                 .limit(1)
                 .offset(1)
                 .build();
         AccountDetails accountDetails = AccountDetails.builder()
                 .id(1L)
                 .build();
-        Pageable pageable = new OffsetBasedPageRequest(
-                articleFilter.getLimit(), articleFilter.getOffset(), Sort.by(Sort.Order.desc("createdAt")));
 
         when(profileService.getAccountByUsername(articleFilter.getFavorited())).thenReturn(account);
+        when(tagService.findTagIds(List.of("tag1"))).thenReturn(Map.of("tag1", 3L));
         List<ArticleEntity> articleEntities = List.of(articleEntity1);
-        when(articleRepository.findByFilter(articleFilter.getTag(), articleFilter.getAuthor(), account, pageable)).thenReturn(articleEntities);
+        when(articleRepository.findByFilter(TagFilter.allOf(3L), articleFilter.getAuthor(), account, null, 1, 1)).thenReturn(articleEntities);
         when(articleMapper.mapToMultipleArticleDTOList(articleEntities, 1L)).thenReturn(List.of(articleDTO));
+        when(articleCountService.countByFilter(TagFilter.allOf(3L), articleFilter.getAuthor(), account))
+                .thenReturn(new ArticleCount(2L, ArticleCountMode.EXACT));
 
         // when
-        underTest.getArticlesByFilter(articleFilter, accountDetails);
+        ArticleDTO.MultipleArticle expected = underTest.getArticlesByFilter(articleFilter, accountDetails);
 
         // then
         verify(profileService, times(1)).getAccountByUsername(articleFilter.getFavorited());
-        verify(articleRepository, times(1)).findByFilter(articleFilter.getTag(), articleFilter.getAuthor(), account, pageable);
+        verify(articleRepository, times(1)).findByFilter(TagFilter.allOf(3L), articleFilter.getAuthor(), account, null, 1, 1);
         verify(articleMapper, times(1)).mapToMultipleArticleDTOList(articleEntities, 1L);
+        assertThat(expected.getArticlesCount()).isEqualTo(2);
+        assertThat(expected.getArticlesCountMode()).isEqualTo(ArticleCountMode.EXACT);
     }
 
     @Test
@@ -401,11 +470,13 @@ class ArticleServiceImplTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
         ArticleEntity articleEntity1 = ArticleEntity.builder()
+                .id(1L)
                 .slug("title")
                 .title("title")
                 .description("desc")
                 .body("body")
                 .author(account)
+                .createdAt(ZonedDateTime.now())
                 .build();
         ArticleDTO articleDTO = ArticleDTO.builder()
                 .slug("title")
@@ -417,30 +488,139 @@ class ArticleServiceImplTest {
         ArticleFilter articleFilter = ArticleFilter.builder()
                 .author("user1")
                 .favorited("user1")
-                .tag("tag1")
+                .tag(List.of("tag1"))
                 .limit(1)
                 .offset(1)
                 .build();
-        Pageable pageable = new OffsetBasedPageRequest(
-                articleFilter.getLimit(), articleFilter.getOffset(), Sort.by(Sort.Order.desc("createdAt")));
         AccountDetails accountDetails = AccountDetails.builder()
                 .id(1L)
                 .build();
 
         when(profileService.getAccountByUsername(articleFilter.getFavorited())).thenReturn(null);
+        when(tagService.findTagIds(List.of("tag1"))).thenReturn(Map.of("tag1", 3L));
         List<ArticleEntity> articleEntities = List.of(articleEntity1);
-        when(articleRepository.findByFilter(articleFilter.getTag(), articleFilter.getAuthor(), null, pageable)).thenReturn(articleEntities);
+        when(articleRepository.findByFilter(TagFilter.allOf(3L), articleFilter.getAuthor(), null, null, 1, 1)).thenReturn(articleEntities);
         when(articleMapper.mapToMultipleArticleDTOList(articleEntities, 1L)).thenReturn(List.of(articleDTO));
+        when(articleCountService.countByFilter(TagFilter.allOf(3L), articleFilter.getAuthor(), null))
+                .thenReturn(new ArticleCount(1L, ArticleCountMode.CACHED));
 
         // when
         underTest.getArticlesByFilter(articleFilter, accountDetails);
 
         // then
         verify(profileService, times(1)).getAccountByUsername(articleFilter.getFavorited());
-        verify(articleRepository, times(1)).findByFilter(articleFilter.getTag(), articleFilter.getAuthor(), null, pageable);
+        verify(articleRepository, times(1)).findByFilter(TagFilter.allOf(3L), articleFilter.getAuthor(), null, null, 1, 1);
         verify(articleMapper, times(1)).mapToMultipleArticleDTOList(articleEntities, 1L);
     }
 
+    @Test
+    void itShouldGetFavoritedArticlesFromIndex() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .build();
+        ArticleEntity articleEntity = ArticleEntity.builder()
+                .id(7L)
+                .slug("title")
+                .author(account)
+                .createdAt(ZonedDateTime.now())
+                .build();
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .favorited("user1")
+                .limit(1)
+                .build();
+
+        when(profileService.getAccountByUsername("user1")).thenReturn(account);
+        when(favoriteIndexService.findFavoritedPage(1L, null, 1, 0)).thenReturn(Optional.of(List.of(7L)));
+        when(favoriteIndexService.countFavorited(1L)).thenReturn(Optional.of(3));
+        when(articleRepository.findAllWithAuthorInOrder(List.of(7L))).thenReturn(List.of(articleEntity));
+        when(articleMapper.mapToMultipleArticleDTOList(List.of(articleEntity), null)).thenReturn(List.of(ArticleDTO.builder().build()));
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.getArticlesByFilter(articleFilter, null);
+
+        // then
+        verify(articleRepository, never()).findByFilter(any(), any(), any(), any(), anyInt(), anyInt());
+        verifyNoInteractions(articleCountService);
+        assertThat(expected.getArticles()).hasSize(1);
+        assertThat(expected.getArticlesCount()).isEqualTo(3);
+        assertThat(expected.getArticlesCountMode()).isEqualTo(ArticleCountMode.EXACT);
+        assertThat(expected.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void itShouldGetFavoritedArticlesByEngine_whenIndexIsNotBuilt() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .build();
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .favorited("user1")
+                .limit(1)
+                .build();
+
+        when(profileService.getAccountByUsername("user1")).thenReturn(account);
+        when(favoriteIndexService.findFavoritedPage(1L, null, 1, 0)).thenReturn(Optional.empty());
+        when(articleRepository.findByFilter(TagFilter.NONE, null, account, null, 1, 0)).thenReturn(List.of());
+        when(articleCountService.countByFilter(TagFilter.NONE, null, account))
+                .thenReturn(new ArticleCount(0L, ArticleCountMode.EXACT));
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.getArticlesByFilter(articleFilter, null);
+
+        // then
+        verify(articleRepository, times(1)).findByFilter(TagFilter.NONE, null, account, null, 1, 0);
+        assertThat(expected.getArticlesCount()).isZero();
+    }
+
+    @Test
+    void itShouldGetFavoritedArticlesOfProfile_whenCursorIsSet() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .build();
+        ArticleEntity articleEntity = ArticleEntity.builder()
+                .id(5L)
+                .slug("title")
+                .author(account)
+                .build();
+        PageParams pageParams = new PageParams(1, new FavoriteCursor(7L).encode());
+
+        when(profileService.getAccountByUsername("user1")).thenReturn(account);
+        when(favoriteRepository.findFavoritedIdsBefore(1L, 7L, PageRequest.of(0, 1))).thenReturn(List.of(5L));
+        when(favoriteIndexService.countFavorited(1L)).thenReturn(Optional.empty());
+        when(articleCountService.countByFilter(TagFilter.NONE, null, account))
+                .thenReturn(new ArticleCount(2L, ArticleCountMode.EXACT));
+        when(articleRepository.findAllWithAuthorInOrder(List.of(5L))).thenReturn(List.of(articleEntity));
+        when(articleMapper.mapToMultipleArticleDTOList(List.of(articleEntity), 2L)).thenReturn(List.of(ArticleDTO.builder().build()));
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.getFavoritedArticles("user1", pageParams, 2L);
+
+        // then
+        verify(favoriteIndexService, never()).findFavoritedPage(any(), any(), anyInt(), anyInt());
+        verify(articleRepository, never()).findByFilter(any(), any(), any(), any(), anyInt(), anyInt());
+        assertThat(expected.getArticles()).hasSize(1);
+        assertThat(expected.getArticlesCount()).isEqualTo(2);
+        assertThat(FavoriteCursor.decode(expected.getNextCursor()).articleId()).isEqualTo(5L);
+    }
+
+    @Test
+    void itShouldNotGetFavoritedArticlesOfProfile_whenLimitIsTooLarge() {
+        // given
+        PageParams pageParams = new PageParams(101, null);
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.getFavoritedArticles("user1", pageParams, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Limit 101 is out of range, use 1 to 100");
+        verifyNoInteractions(favoriteRepository);
+    }
+
     @Test
     void itShouldFavoriteArticle() {
         // given
@@ -469,31 +649,21 @@ class ArticleServiceImplTest {
                 .favorited(false)
                 .build();
 
-        FavoriteEntityId favoriteEntityId = FavoriteEntityId.builder()
-                .articleId(articleEntity.getId())
-                .accountId(user.getId())
-                .build();
-
-        FavoriteEntity favorite = FavoriteEntity.builder()
-                .id(favoriteEntityId)
-                .article(articleEntity)
-                .account(user)
-                .build();
-
-        when(articleRepository.findBySlug(articleEntity.getSlug())).thenReturn(Optional.of(articleEntity));
-        when(profileService.getAccountById(user.getId())).thenReturn(user);
-        when(favoriteRepository.findById(favoriteEntityId)).thenReturn(Optional.empty());
-        when(favoriteRepository.save(favorite)).thenReturn(favorite);
-        when(articleMapper.mapToSingleArticleDTO(articleEntity, 1L)).thenReturn(articleDTO);
+        ArticleSnapshot snapshot = ArticleSnapshot.of(articleEntity);
+        when(articleCache.getBySlug(articleEntity.getSlug())).thenReturn(Optional.of(snapshot));
+        when(favoriteRepository.insertIfAbsent(snapshot.id(), 1L)).thenReturn(1);
+        when(articleMapper.mapToSingleArticleDTO(snapshot.withFavoritesCount(1L), 1L, true)).thenReturn(articleDTO);
 
         // when
         underTest.favoriteArticle(articleEntity.getSlug(), 1L);
 
         // then
-        verify(articleRepository, times(2)).findBySlug(articleEntity.getSlug());
-        verify(profileService, times(1)).getAccountById(user.getId());
-        verify(favoriteRepository, times(1)).findById(favoriteEntityId);
-        verify(favoriteRepository, times(1)).save(favorite);
+        verify(articleCache, times(1)).getBySlug(articleEntity.getSlug());
+        verify(favoriteRepository, times(1)).insertIfAbsent(snapshot.id(), 1L);
+        verify(favoriteIndexService, times(1)).articleFavorited(snapshot.id(), 1L);
+        verifyNoInteractions(profileService);
+        verify(articleRepository, times(1)).incrementFavoritesCount(articleEntity.getId(), 1);
+        verify(articleCache, times(1)).invalidate(articleEntity.getSlug());
     }
 
     @Test
@@ -515,7 +685,7 @@ class ArticleServiceImplTest {
                 .author(user)
                 .build();
 
-        when(articleRepository.findBySlug(articleEntity.getSlug())).thenReturn(Optional.empty());
+        when(articleCache.getBySlug(articleEntity.getSlug())).thenReturn(Optional.empty());
 
         // when
         // then
@@ -552,30 +722,19 @@ class ArticleServiceImplTest {
                 .favorited(false)
                 .build();
 
-        FavoriteEntityId favoriteEntityId = FavoriteEntityId.builder()
-                .articleId(articleEntity.getId())
-                .accountId(user.getId())
-                .build();
-
-        FavoriteEntity favorite = FavoriteEntity.builder()
-                .id(favoriteEntityId)
-                .article(articleEntity)
-                .account(user)
-                .build();
-
-        when(articleRepository.findBySlug(articleEntity.getSlug())).thenReturn(Optional.of(articleEntity));
-        when(profileService.getAccountById(user.getId())).thenReturn(user);
-        when(favoriteRepository.findById(favoriteEntityId)).thenReturn(Optional.of(favorite));
-        when(articleMapper.mapToSingleArticleDTO(articleEntity, 1L)).thenReturn(articleDTO);
+        ArticleSnapshot snapshot = ArticleSnapshot.of(articleEntity);
+        when(articleCache.getBySlug(articleEntity.getSlug())).thenReturn(Optional.of(snapshot));
+        when(favoriteRepository.insertIfAbsent(snapshot.id(), 1L)).thenReturn(0);
+        when(articleMapper.mapToSingleArticleDTO(snapshot, 1L, true)).thenReturn(articleDTO);
 
         // when
         underTest.favoriteArticle(articleEntity.getSlug(), 1L);
 
         // then
-        verify(articleRepository, times(2)).findBySlug(articleEntity.getSlug());
-        verify(profileService, times(1)).getAccountById(user.getId());
-        verify(favoriteRepository, times(1)).findById(favoriteEntityId);
-        verify(favoriteRepository, times(0)).save(favorite);
+        verify(articleCache, times(1)).getBySlug(articleEntity.getSlug());
+        verify(favoriteRepository, times(1)).insertIfAbsent(snapshot.id(), 1L);
+        verify(articleRepository, never()).incrementFavoritesCount(any(), anyLong());
+        verifyNoInteractions(favoriteIndexService);
     }
 
     @Test
@@ -595,6 +754,7 @@ class ArticleServiceImplTest {
                 .description("desc")
                 .body("body")
                 .author(user)
+                .favoritesCount(1L)
                 .build();
 
         ArticleDTO articleDTO = ArticleDTO.builder()
@@ -606,30 +766,21 @@ class ArticleServiceImplTest {
                 .favorited(false)
                 .build();
 
-        FavoriteEntityId favoriteEntityId = FavoriteEntityId.builder()
-                .articleId(articleEntity.getId())
-                .accountId(user.getId())
-                .build();
-
-        FavoriteEntity favorite = FavoriteEntity.builder()
-                .id(favoriteEntityId)
-                .article(articleEntity)
-                .account(user)
-                .build();
-
-        when(articleRepository.findBySlug(articleEntity.getSlug())).thenReturn(Optional.of(articleEntity));
-        when(profileService.getAccountById(user.getId())).thenReturn(user);
-        when(favoriteRepository.findById(favoriteEntityId)).thenReturn(Optional.of(favorite));
-        when(articleMapper.mapToSingleArticleDTO(articleEntity, 1L)).thenReturn(articleDTO);
+        ArticleSnapshot snapshot = ArticleSnapshot.of(articleEntity);
+        when(articleCache.getBySlug(articleEntity.getSlug())).thenReturn(Optional.of(snapshot));
+        when(favoriteRepository.deleteIfPresent(snapshot.id(), 1L)).thenReturn(1);
+        when(articleMapper.mapToSingleArticleDTO(snapshot.withFavoritesCount(0L), 1L, false)).thenReturn(articleDTO);
 
         // when
         underTest.unfavoriteArticle(articleEntity.getSlug(), 1L);
 
         // then
-        verify(articleRepository, times(2)).findBySlug(articleEntity.getSlug());
-        verify(profileService, times(1)).getAccountById(user.getId());
-        verify(favoriteRepository, times(1)).findById(favoriteEntityId);
-        verify(favoriteRepository, times(1)).deleteById(favoriteEntityId);
+        verify(articleCache, times(1)).getBySlug(articleEntity.getSlug());
+        verify(favoriteRepository, times(1)).deleteIfPresent(snapshot.id(), 1L);
+        verify(favoriteIndexService, times(1)).articleUnfavorited(snapshot.id(), 1L);
+        verifyNoInteractions(profileService);
+        verify(articleRepository, times(1)).incrementFavoritesCount(articleEntity.getId(), -1);
+        verify(articleCache, times(1)).invalidate(articleEntity.getSlug());
     }
 
     @Test
@@ -651,7 +802,7 @@ class ArticleServiceImplTest {
                 .author(user)
                 .build();
 
-        when(articleRepository.findBySlug(articleEntity.getSlug())).thenReturn(Optional.empty());
+        when(articleCache.getBySlug(articleEntity.getSlug())).thenReturn(Optional.empty());
 
         // when
         // then
@@ -688,30 +839,19 @@ class ArticleServiceImplTest {
                 .favorited(false)
                 .build();
 
-        FavoriteEntityId favoriteEntityId = FavoriteEntityId.builder()
-                .articleId(articleEntity.getId())
-                .accountId(user.getId())
-                .build();
-
-        FavoriteEntity favorite = FavoriteEntity.builder()
-                .id(favoriteEntityId)
-                .article(articleEntity)
-                .account(user)
-                .build();
-
-        when(articleRepository.findBySlug(articleEntity.getSlug())).thenReturn(Optional.of(articleEntity));
-        when(profileService.getAccountById(user.getId())).thenReturn(user);
-        when(favoriteRepository.findById(favoriteEntityId)).thenReturn(Optional.empty());
-        when(articleMapper.mapToSingleArticleDTO(articleEntity, 1L)).thenReturn(articleDTO);
+        ArticleSnapshot snapshot = ArticleSnapshot.of(articleEntity);
+        when(articleCache.getBySlug(articleEntity.getSlug())).thenReturn(Optional.of(snapshot));
+        when(favoriteRepository.deleteIfPresent(snapshot.id(), 1L)).thenReturn(0);
+        when(articleMapper.mapToSingleArticleDTO(snapshot, 1L, false)).thenReturn(articleDTO);
 
         // when
         underTest.unfavoriteArticle(articleEntity.getSlug(), 1L);
 
         // then
-        verify(articleRepository, times(2)).findBySlug(articleEntity.getSlug());
-        verify(profileService, times(1)).getAccountById(user.getId());
-        verify(favoriteRepository, times(1)).findById(favoriteEntityId);
-        verify(favoriteRepository, times(0)).deleteById(favoriteEntityId);
+        verify(articleCache, times(1)).getBySlug(articleEntity.getSlug());
+        verify(favoriteRepository, times(1)).deleteIfPresent(snapshot.id(), 1L);
+        verify(articleRepository, never()).incrementFavoritesCount(any(), anyLong());
+        verifyNoInteractions(favoriteIndexService);
     }
 
     @Test
@@ -726,11 +866,13 @@ class ArticleServiceImplTest {
                 .updatedAt(LocalDateTime.now())
                 .build();
         ArticleEntity articleEntity1 = ArticleEntity.builder()
+                .id(1L)
                 .slug("title")
                 .title("title")
                 .description("desc")
                 .body("body")
                 .author(account)
+                .createdAt(ZonedDateTime.now())
                 .build();
         ArticleDTO articleDTO = ArticleDTO.builder()
                 .slug("title")
@@ -744,12 +886,9 @@ class ArticleServiceImplTest {
                 .offset(1)
                 .build();
 
-        Pageable pageable = new OffsetBasedPageRequest(
-                feedParams.getLimit(), feedParams.getOffset(), Sort.by(Sort.Order.desc("createdAt")));
-
         when(profileService.getAccountById(account.getId())).thenReturn(account);
         List<ArticleEntity> articleEntities = List.of(articleEntity1);
-        when(articleRepository.findByFeed(account, pageable)).thenReturn(articleEntities);
+        when(feedService.getFeed(account.getId(), null, 1, 1)).thenReturn(articleEntities);
         when(articleMapper.mapToMultipleArticleDTOList(articleEntities, account.getId())).thenReturn(List.of(articleDTO));
 
         // when
@@ -757,8 +896,220 @@ class ArticleServiceImplTest {
 
         // then
         verify(profileService, times(1)).getAccountById(account.getId());
-        verify(articleRepository, times(1)).findByFeed(account, pageable);
+        verify(feedService, times(1)).getFeed(account.getId(), null, 1, 1);
         verify(articleMapper, times(1)).mapToMultipleArticleDTOList(articleEntities, account.getId());
     }
 
-}
\ No newline at end of file
+    @Test
+    void itShouldSearchArticles() {
+        // given
+        ArticleEntity articleEntity2 = ArticleEntity.builder().id(2L).slug("title2").build();
+        ArticleDTO articleDTO = ArticleDTO.builder().slug("title2").build();
+        SearchParams searchParams = SearchParams.builder()
+                .q("dragons")
+                .limit(1)
+                .offset(1)
+                .build();
+        when(articleSearchService.search("dragons", 2)).thenReturn(new ArticleSearchIndex.Hits(List.of(1L, 2L), 5));
+        when(articleRepository.findAllWithAuthorInOrder(List.of(2L))).thenReturn(List.of(articleEntity2));
+        when(articleMapper.mapToMultipleArticleDTOList(List.of(articleEntity2), null)).thenReturn(List.of(articleDTO));
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.searchArticles(searchParams, null);
+
+        // then
+        assertThat(expected.getArticles()).containsExactly(articleDTO);
+        assertThat(expected.getArticlesCount()).isEqualTo(5);
+        assertThat(expected.getArticlesCountMode()).isEqualTo(ArticleCountMode.EXACT);
+    }
+
+    @Test
+    void itShouldNotSearchArticles_whenOffsetIsTooLarge() {
+        // given
+        SearchParams searchParams = SearchParams.builder()
+                .q("dragons")
+                .offset(101)
+                .build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.searchArticles(searchParams, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Offset 101 is larger than 100");
+        verifyNoInteractions(articleSearchService);
+    }
+
+    @Test
+    void itShouldNotSearchArticles_whenOffsetIsNegative() {
+        // given
+        SearchParams searchParams = SearchParams.builder()
+                .q("dragons")
+                .offset(-1)
+                .build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.searchArticles(searchParams, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Offset -1 is negative");
+        verifyNoInteractions(articleSearchService);
+    }
+
+    @Test
+    void itShouldNotSearchArticles_whenLimitIsTooLarge() {
+        // given
+        SearchParams searchParams = SearchParams.builder()
+                .q("dragons")
+                .limit(100_000_000)
+                .build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.searchArticles(searchParams, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Limit 100000000 is out of range, use 1 to 100");
+        verifyNoInteractions(articleSearchService);
+    }
+
+    @Test
+    void itShouldGetArticlesByFilter_whenCursorIsSet() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .build();
+        ZonedDateTime createdAt = ZonedDateTime.now();
+        ArticleEntity articleEntity1 = ArticleEntity.builder()
+                .id(5L)
+                .slug("title")
+                .title("title")
+                .description("desc")
+                .body("body")
+                .author(account)
+                .createdAt(createdAt)
+                .build();
+        ArticleCursor cursor = new ArticleCursor(createdAt, 6L);
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .limit(1)
+                .offset(1000)
+                .cursor(cursor.encode())
+                .build();
+        List<ArticleEntity> articleEntities = List.of(articleEntity1);
+
+        when(articleRepository.findByFilter(TagFilter.NONE, null, null, cursor, 1, 1000)).thenReturn(articleEntities);
+        when(articleMapper.mapToMultipleArticleDTOList(articleEntities, null)).thenReturn(List.of(new ArticleDTO()));
+        when(articleCountService.countByFilter(TagFilter.NONE, null, null)).thenReturn(new ArticleCount(1L, ArticleCountMode.EXACT));
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.getArticlesByFilter(articleFilter, null);
+
+        // then
+        assertThat(ArticleCursor.decode(expected.getNextCursor())).isEqualTo(ArticleCursor.of(articleEntity1));
+    }
+
+    @Test
+    void itShouldReturnNoArticles_whenTagIsUnknown() {
+        // given
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .tag(List.of("unknown"))
+                .build();
+        when(tagService.findTagIds(List.of("unknown"))).thenReturn(Map.of());
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.getArticlesByFilter(articleFilter, null);
+
+        // then
+        assertThat(expected.getArticles()).isEmpty();
+        assertThat(expected.getArticlesCount()).isZero();
+        verifyNoInteractions(articleRepository, articleCountService);
+    }
+
+    @Test
+    void itShouldResolveAllAnyAndNotTags() {
+        // given
+        ReflectionTestUtils.setField(underTest, "maxTags", 6);
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .tag(List.of("java", "spring"))
+                .anyTag(List.of("web", "unknown"))
+                .notTag(List.of("kotlin", "unknown"))
+                .build();
+        when(tagService.findTagIds(List.of("java", "spring", "web", "unknown", "kotlin")))
+                .thenReturn(Map.of("java", 1L, "spring", 2L, "web", 3L, "kotlin", 4L));
+        TagFilter tags = new TagFilter(List.of(1L, 2L), List.of(3L), List.of(4L));
+        when(articleRepository.findByFilter(tags, null, null, null, 20, 0)).thenReturn(List.of());
+        when(articleMapper.mapToMultipleArticleDTOList(List.of(), null)).thenReturn(List.of());
+        when(articleCountService.countByFilter(tags, null, null)).thenReturn(new ArticleCount(0L, ArticleCountMode.EXACT));
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.getArticlesByFilter(articleFilter, null);
+
+        // then
+        assertThat(expected.getArticles()).isEmpty();
+        verify(articleRepository, times(1)).findByFilter(tags, null, null, null, 20, 0);
+    }
+
+    @Test
+    void itShouldReturnNoArticles_whenNoneOfAnyTagsIsKnown() {
+        // given
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .anyTag(List.of("unknown"))
+                .notTag(List.of("kotlin"))
+                .build();
+        when(tagService.findTagIds(List.of("unknown", "kotlin"))).thenReturn(Map.of("kotlin", 4L));
+
+        // when
+        ArticleDTO.MultipleArticle expected = underTest.getArticlesByFilter(articleFilter, null);
+
+        // then
+        assertThat(expected.getArticlesCount()).isZero();
+        verifyNoInteractions(articleRepository, articleCountService);
+    }
+
+    @Test
+    void itShouldNotGetArticlesByFilter_whenFilterHasTooManyTags() {
+        // given
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .tag(List.of("tag1", "tag2"))
+                .notTag(List.of("tag3", "tag4"))
+                .build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.getArticlesByFilter(articleFilter, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Filter has 4 tags, at most 3 are allowed");
+        verifyNoInteractions(tagService, articleRepository);
+    }
+
+    @Test
+    void itShouldNotGetArticlesByFilter_whenOffsetIsTooLarge() {
+        // given
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .limit(10)
+                .offset(101)
+                .build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.getArticlesByFilter(articleFilter, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Offset 101 is larger than 100");
+        verifyNoInteractions(articleRepository);
+    }
+
+    @Test
+    void itShouldNotGetArticlesByFilter_whenCursorIsInvalid() {
+        // given
+        ArticleFilter articleFilter = ArticleFilter.builder()
+                .cursor("not a cursor")
+                .build();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.getArticlesByFilter(articleFilter, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+}
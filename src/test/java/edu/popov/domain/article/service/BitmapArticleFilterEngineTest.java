@@ -0,0 +1,174 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.model.ArticleCount;
+import edu.popov.domain.article.model.ArticleCountMode;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.model.TagFilter;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FavoriteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BitmapArticleFilterEngineTest {
+
+    @Mock
+    private ArticleRepository articleRepository;
+    @Mock
+    private FavoriteRepository favoriteRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private ArticleCountService articleCountService;
+
+    private BitmapArticleFilterEngine underTest;
+
+    private static final ZonedDateTime NOW = ZonedDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        underTest = new BitmapArticleFilterEngine(articleRepository, favoriteRepository, accountRepository, articleCountService);
+    }
+
+    @Test
+    void itShouldFilterByTagAuthorAndFavorited() {
+        // given
+        AccountEntity author = AccountEntity.builder().id(7L).username("user7").build();
+        AccountEntity favorited = AccountEntity.builder().id(9L).username("user9").build();
+        when(articleRepository.findAllOrdinals()).thenReturn(List.of(
+                ordinal(1L, NOW.minusSeconds(30), 7L),
+                ordinal(2L, NOW.minusSeconds(20), 7L),
+                ordinal(3L, NOW.minusSeconds(10), 8L)));
+        when(articleRepository.findAllArticleTags()).thenReturn(List.of(
+                articleTag(1L, 100L), articleTag(2L, 100L), articleTag(3L, 100L)));
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of(
+                favorite(1L, 9L), favorite(3L, 9L)));
+        when(accountRepository.findByUsername("user7")).thenReturn(Optional.of(author));
+        ArticleEntity article1 = ArticleEntity.builder().id(1L).build();
+        when(articleRepository.findAllWithAuthorInOrder(List.of(1L))).thenReturn(List.of(article1));
+        underTest.rebuild();
+
+        // when
+        List<ArticleEntity> expected = underTest.findByFilter(TagFilter.allOf(100L), "user7", favorited, null, 10, 0);
+        ArticleCount count = underTest.countByFilter(TagFilter.allOf(100L), null, favorited);
+
+        // then
+        assertThat(expected).containsExactly(article1);
+        assertThat(count).isEqualTo(new ArticleCount(2, ArticleCountMode.EXACT));
+        verify(articleRepository, never()).findByFilter(any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void itShouldApplyWrites() {
+        // given
+        when(articleRepository.findAllOrdinals()).thenReturn(List.of());
+        when(articleRepository.findAllArticleTags()).thenReturn(List.of());
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of());
+        when(articleRepository.findAllWithAuthorInOrder(List.of(1L))).thenReturn(List.of());
+        underTest.rebuild();
+
+        // when
+        underTest.articleCreated(1L, NOW.minusSeconds(20), 7L, List.of(100L));
+        underTest.articleCreated(2L, NOW.minusSeconds(10), 7L, List.of(100L));
+        underTest.articleFavorited(1L, 9L);
+        underTest.articleDeleted(2L);
+
+        // then
+        assertThat(underTest.countByFilter(TagFilter.allOf(100L), null, null).count()).isEqualTo(1);
+        underTest.findByFilter(TagFilter.NONE, null, AccountEntity.builder().id(9L).build(), null, 10, 0);
+        verify(articleRepository, times(1)).findAllWithAuthorInOrder(List.of(1L));
+    }
+
+    @Test
+    void itShouldSeekByCursor() {
+        // given
+        when(articleRepository.findAllOrdinals()).thenReturn(List.of(
+                ordinal(1L, NOW.minusSeconds(30), 7L),
+                ordinal(2L, NOW.minusSeconds(20), 7L),
+                ordinal(3L, NOW.minusSeconds(10), 7L)));
+        when(articleRepository.findAllArticleTags()).thenReturn(List.of());
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of());
+        when(articleRepository.findAllWithAuthorInOrder(List.of(1L))).thenReturn(List.of());
+        underTest.rebuild();
+
+        // when
+        underTest.findByFilter(TagFilter.NONE, null, null, new ArticleCursor(NOW.minusSeconds(20), 2L), 10, 0);
+
+        // then
+        verify(articleRepository, times(1)).findAllWithAuthorInOrder(List.of(1L));
+    }
+
+    @Test
+    void itShouldNotMatch_whenAuthorIsUnknown() {
+        // given
+        when(articleRepository.findAllOrdinals()).thenReturn(List.of(ordinal(1L, NOW, 7L)));
+        when(articleRepository.findAllArticleTags()).thenReturn(List.of());
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of());
+        when(accountRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+        underTest.rebuild();
+
+        // when
+        ArticleCount expected = underTest.countByFilter(TagFilter.NONE, "unknown", null);
+
+        // then
+        assertThat(expected.count()).isZero();
+    }
+
+    @Test
+    void itShouldKeepIndex_whenArticleIsOutOfOrder() {
+        // given
+        when(articleRepository.findAllOrdinals()).thenReturn(List.of());
+        when(articleRepository.findAllArticleTags()).thenReturn(List.of());
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of());
+        underTest.rebuild();
+        underTest.articleCreated(2L, NOW, 7L, List.of());
+
+        // when
+        underTest.articleCreated(1L, NOW.minusSeconds(10), 7L, List.of());
+        ArticleCount expected = underTest.countByFilter(TagFilter.NONE, null, null);
+
+        // then
+        assertThat(expected.count()).isEqualTo(2);
+        assertThat(expected.mode()).isEqualTo(ArticleCountMode.EXACT);
+        verify(articleRepository, times(1)).findAllOrdinals();
+        verifyNoInteractions(articleCountService);
+    }
+
+    @Test
+    void itShouldReadFromDatabase_whenIndexIsNotBuilt() {
+        // given
+        when(articleCountService.countByFilter(TagFilter.NONE, null, null)).thenReturn(new ArticleCount(2, ArticleCountMode.EXACT));
+
+        // when
+        ArticleCount expected = underTest.countByFilter(TagFilter.NONE, null, null);
+
+        // then
+        assertThat(expected.count()).isEqualTo(2);
+        verify(articleCountService).countByFilter(TagFilter.NONE, null, null);
+    }
+
+    private static ArticleRepository.ArticleOrdinal ordinal(Long id, ZonedDateTime createdAt, Long authorId) {
+        return new ArticleRepository.ArticleOrdinal(id, createdAt, authorId);
+    }
+
+    private static ArticleRepository.ArticleTag articleTag(Long articleId, Long tagId) {
+        return new ArticleRepository.ArticleTag(articleId, tagId);
+    }
+
+    private static FavoriteRepository.FavoritePair favorite(Long articleId, Long accountId) {
+        return new FavoriteRepository.FavoritePair(articleId, accountId);
+    }
+}
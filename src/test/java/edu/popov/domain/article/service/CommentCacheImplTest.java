@@ -0,0 +1,153 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.repository.CommentRepository;
+import edu.popov.domain.article.repository.CommentRepository.CommentView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCacheImplTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private CommentCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new CommentCacheImpl(commentRepository, meterRegistry);
+        setField(underTest, "pageSize", 20);
+        setField(underTest, "budget", DataSize.ofKilobytes(1));
+        setField(underTest, "ttl", Duration.ofMinutes(1));
+    }
+
+    @Test
+    void itShouldLoadPageOnce() {
+        // given
+        List<CommentView> page = List.of(comment(1L, "body"));
+        when(commentRepository.findOldest(eq(1L), any(Pageable.class))).thenReturn(page);
+
+        // when
+        underTest.getFirstPage(1L, false);
+        List<CommentView> expected = underTest.getFirstPage(1L, false);
+
+        // then
+        assertThat(expected).isEqualTo(page);
+        verify(commentRepository, times(1)).findOldest(eq(1L), any(Pageable.class));
+        assertThat(meterRegistry.counter("cache.gets", "cache", "comment", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("cache.gets", "cache", "comment", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldReloadBothPages_whenInvalidated() {
+        // given
+        when(commentRepository.findOldest(eq(1L), any(Pageable.class))).thenReturn(List.of(comment(1L, "body")));
+        when(commentRepository.findNewest(eq(1L), any(Pageable.class))).thenReturn(List.of(comment(1L, "body")));
+
+        // when
+        underTest.getFirstPage(1L, false);
+        underTest.getFirstPage(1L, true);
+        underTest.invalidate(1L);
+        underTest.getFirstPage(1L, false);
+        underTest.getFirstPage(1L, true);
+
+        // then
+        verify(commentRepository, times(2)).findOldest(eq(1L), any(Pageable.class));
+        verify(commentRepository, times(2)).findNewest(eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void itShouldEvictLeastRecentlyUsedPage_whenBudgetIsExceeded() {
+        // given each page takes a bit less than half of the budget
+        when(commentRepository.findOldest(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> List.of(comment(1L, "b".repeat(100))));
+
+        // when
+        underTest.getFirstPage(1L, false);
+        underTest.getFirstPage(2L, false);
+        underTest.getFirstPage(1L, false);
+        underTest.getFirstPage(3L, false);
+        underTest.getFirstPage(1L, false);
+        underTest.getFirstPage(2L, false);
+
+        // then
+        verify(commentRepository, times(1)).findOldest(eq(1L), any(Pageable.class));
+        verify(commentRepository, times(2)).findOldest(eq(2L), any(Pageable.class));
+        assertThat(meterRegistry.get("cache.size").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.bytes").gauge().value()).isLessThanOrEqualTo(1024);
+    }
+
+    @Test
+    void itShouldNotKeepPage_whenPageIsLargerThanBudget() {
+        // given
+        when(commentRepository.findOldest(eq(1L), any(Pageable.class))).thenReturn(List.of(comment(1L, "b".repeat(1024))));
+
+        // when
+        underTest.getFirstPage(1L, false);
+        underTest.getFirstPage(1L, false);
+
+        // then
+        verify(commentRepository, times(2)).findOldest(eq(1L), any(Pageable.class));
+        assertThat(meterRegistry.get("cache.bytes").gauge().value()).isZero();
+    }
+
+    @Test
+    void itShouldLoadPageOnce_whenRequestedConcurrently() throws Exception {
+        // given
+        List<CommentView> page = List.of(comment(1L, "body"));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(commentRepository.findOldest(eq(1L), any(Pageable.class))).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return page;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            // when
+            List<Future<List<CommentView>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> underTest.getFirstPage(1L, false)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++)
+                results.add(executor.submit(() -> underTest.getFirstPage(1L, false)));
+            release.countDown();
+
+            // then
+            for (Future<List<CommentView>> result : results)
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(page);
+            verify(commentRepository, times(1)).findOldest(eq(1L), any(Pageable.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static CommentView comment(Long id, String body) {
+        return new CommentView(id, body, ZonedDateTime.now(), ZonedDateTime.now(), 1L, "user1", null, null, 0L, 0L,
+                LocalDateTime.of(2022, 12, 11, 17, 20, 20));
+    }
+}
@@ -6,10 +6,17 @@ import edu.popov.domain.article.dto.CommentDTO;
 import edu.popov.domain.article.dto.CommentMapper;
 import edu.popov.domain.article.entity.ArticleEntity;
 import edu.popov.domain.article.entity.CommentEntity;
+import edu.popov.domain.article.model.ArticleSnapshot;
+import edu.popov.domain.article.model.CommentCursor;
+import edu.popov.domain.article.model.CommentParams;
 import edu.popov.domain.article.repository.ArticleRepository;
 import edu.popov.domain.article.repository.CommentRepository;
+import edu.popov.domain.article.repository.CommentRepository.CommentStamp;
+import edu.popov.domain.article.repository.CommentRepository.CommentView;
 import edu.popov.domain.profile.dto.ProfileDTO;
+import edu.popov.domain.profile.service.FollowGraphService;
 import edu.popov.domain.profile.service.ProfileService;
+import edu.popov.utils.exception.BadRequestException;
 import edu.popov.utils.exception.ForbiddenException;
 import edu.popov.utils.exception.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,14 +24,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 @ExtendWith(MockitoExtension.class)
 class CommentServiceImplTest {
@@ -37,6 +48,12 @@ class CommentServiceImplTest {
     private ArticleRepository articleRepository;
     @Mock
     private CommentMapper commentMapper;
+    @Mock
+    private ArticleCache articleCache;
+    @Mock
+    private FollowGraphService followGraphService;
+    @Mock
+    private CommentCache commentCache;
 
     private CommentService underTest;
 
@@ -46,7 +63,10 @@ class CommentServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        underTest = new CommentServiceImpl(commentRepository, profileService, articleRepository, commentMapper);
+        underTest = new CommentServiceImpl(commentRepository, profileService, articleRepository, commentMapper, articleCache,
+                followGraphService, commentCache);
+        setField(underTest, "defaultLimit", 20);
+        setField(underTest, "maxLimit", 100);
     }
 
     @Test
@@ -95,7 +115,8 @@ class CommentServiceImplTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.of(article));
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+        when(articleRepository.getReferenceById(article.getId())).thenReturn(article);
         when(profileService.getAccountById(account.getId())).thenReturn(account);
         when(commentRepository.save(any(CommentEntity.class))).thenReturn(commentEntity);
         when(commentMapper.mapToCommentDTO(any(CommentEntity.class))).thenReturn(commentDTO);
@@ -104,9 +125,12 @@ class CommentServiceImplTest {
         underTest.addComment(article.getSlug(), create, account.getId());
 
         // then
-        verify(articleRepository, times(1)).findBySlug(article.getSlug());
+        verify(articleCache, times(1)).getBySlug(article.getSlug());
         verify(profileService, times(1)).getAccountById(account.getId());
         verify(commentRepository, times(1)).save(any(CommentEntity.class));
+        verify(articleRepository, times(1)).incrementCommentsCount(article.getId(), 1);
+        verify(articleCache, times(1)).invalidate(article.getSlug());
+        verify(commentCache, times(1)).invalidate(article.getId());
         verify(commentMapper, times(1)).mapToCommentDTO(any(CommentEntity.class));
     }
 
@@ -137,7 +161,7 @@ class CommentServiceImplTest {
                 .body("body")
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.empty());
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.empty());
 
         // when
         // then
@@ -189,17 +213,144 @@ class CommentServiceImplTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.of(article));
-        when(commentRepository.findByArticle(article)).thenReturn(List.of(commentEntity));
-        when(commentMapper.mapToCommentDTOList(List.of(commentEntity))).thenReturn(List.of(commentDTO));
+        CommentView comment = view(1L, account);
+
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+        when(commentCache.getFirstPage(article.getId(), false)).thenReturn(List.of(comment));
+        when(followGraphService.findFollowed(2L, List.of(account.getId()))).thenReturn(Set.of(account.getId()));
+        when(commentMapper.mapToCommentDTO(comment, true)).thenReturn(commentDTO);
+
+        // when
+        CommentDTO.MultipleComments comments = underTest.getComments(article.getSlug(), new CommentParams(), 2L);
+
+        // then
+        verify(articleCache, times(1)).getBySlug(article.getSlug());
+        verify(commentCache, times(1)).getFirstPage(article.getId(), false);
+        verifyNoInteractions(commentRepository);
+        verify(commentMapper, times(1)).mapToCommentDTO(comment, true);
+        assertThat(comments.getComments()).containsExactly(commentDTO);
+        assertThat(comments.getNextCursor()).isNull();
+    }
+
+    @Test
+    void itShouldGetNewestComments_whenCursorIsSet() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+        ArticleEntity article = ArticleEntity.builder()
+                .id(1L)
+                .slug("article-1")
+                .title("article 1")
+                .description("description")
+                .body("body")
+                .author(account)
+                .commentsCount(3L)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+        CommentView comment = view(2L, account);
+        CommentParams params = CommentParams.builder()
+                .order("newest")
+                .limit(1)
+                .cursor(new CommentCursor(3L).encode())
+                .build();
+
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+        when(commentRepository.findNewestBefore(eq(article.getId()), eq(3L), any(Pageable.class))).thenReturn(List.of(comment));
+        when(followGraphService.findFollowed(null, List.of(account.getId()))).thenReturn(Set.of());
+
+        // when
+        CommentDTO.MultipleComments comments = underTest.getComments(article.getSlug(), params, null);
+
+        // then
+        verify(commentMapper, times(1)).mapToCommentDTO(comment, false);
+        assertThat(comments.getCommentsCount()).isEqualTo(3L);
+        assertThat(CommentCursor.decode(comments.getNextCursor())).isEqualTo(new CommentCursor(2L));
+    }
+
+    @Test
+    void itShouldGetCommentsETag_withoutReadingComments() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+        ArticleEntity article = ArticleEntity.builder()
+                .id(1L)
+                .slug("article-1")
+                .title("article 1")
+                .description("description")
+                .body("body")
+                .author(account)
+                .commentsCount(3L)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+        CommentStamp comment = view(2L, account).stamp();
+        CommentParams params = CommentParams.builder()
+                .order("newest")
+                .limit(1)
+                .cursor(new CommentCursor(3L).encode())
+                .build();
+
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+        when(commentRepository.findNewestStampsBefore(eq(article.getId()), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(comment));
+        when(followGraphService.findFollowed(2L, List.of(account.getId())))
+                .thenReturn(Set.of())
+                .thenReturn(Set.of(account.getId()));
 
         // when
-        underTest.getComments(article.getSlug());
+        String before = underTest.getCommentsETag(article.getSlug(), params, 2L);
+        String after = underTest.getCommentsETag(article.getSlug(), params, 2L);
 
         // then
-        verify(articleRepository, times(1)).findBySlug(article.getSlug());
-        verify(commentRepository, times(1)).findByArticle(article);
-        verify(commentMapper, times(1)).mapToCommentDTOList(List.of(commentEntity));
+        verify(commentRepository, never()).findNewestBefore(any(), any(), any());
+        verifyNoInteractions(commentMapper);
+        assertThat(after).isNotEqualTo(before);
+    }
+
+    @Test
+    void itShouldNotGetComments_whenOrderIsNotValid() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .email("user1@gmail.com")
+                .password("pass1")
+                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+        ArticleEntity article = ArticleEntity.builder()
+                .id(1L)
+                .slug("article-1")
+                .title("article 1")
+                .description("description")
+                .body("body")
+                .author(account)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build();
+        CommentParams params = CommentParams.builder().order("popular").build();
+
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.getComments(article.getSlug(), params, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Order popular is not valid, use oldest or newest");
+        verifyNoInteractions(commentRepository);
     }
 
     @Test
@@ -226,11 +377,11 @@ class CommentServiceImplTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.empty());
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.empty());
 
         // when
         // then
-        assertThatThrownBy(() -> underTest.getComments(article.getSlug()))
+        assertThatThrownBy(() -> underTest.getComments(article.getSlug(), new CommentParams(), null))
                 .isInstanceOf(NotFoundException.class)
                 .hasMessageContaining(ARTICLE_NOT_FOUND_BY_SLUG, article.getSlug());
     }
@@ -278,17 +429,21 @@ class CommentServiceImplTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.of(article));
-        when(commentRepository.findByIdAndArticle(commentEntity.getId(), article)).thenReturn(Optional.of(commentEntity));
-        when(profileService.getAccountById(account.getId())).thenReturn(account);
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+        when(articleRepository.getReferenceById(article.getId())).thenReturn(article);
+        when(commentRepository.deleteOwned(commentEntity.getId(), article.getId(), account.getId())).thenReturn(1);
 
         // when
         underTest.deleteComment(article.getSlug(), commentEntity.getId(), account.getId());
 
         // then
-        verify(articleRepository, times(1)).findBySlug(article.getSlug());
-        verify(commentRepository, times(1)).findByIdAndArticle(commentEntity.getId(), article);
-        verify(commentRepository, times(1)).deleteById(commentEntity.getId());
+        verify(articleCache, times(1)).getBySlug(article.getSlug());
+        verify(commentRepository, times(1)).deleteOwned(commentEntity.getId(), article.getId(), account.getId());
+        verify(commentRepository, never()).findByIdAndArticle(any(), any());
+        verifyNoInteractions(profileService);
+        verify(articleRepository, times(1)).incrementCommentsCount(article.getId(), -1);
+        verify(articleCache, times(1)).invalidate(article.getSlug());
+        verify(commentCache, times(1)).invalidate(article.getId());
     }
 
     @Test
@@ -322,7 +477,7 @@ class CommentServiceImplTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.empty());
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.empty());
 
         // when
         // then
@@ -362,7 +517,8 @@ class CommentServiceImplTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.of(article));
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+        when(articleRepository.getReferenceById(article.getId())).thenReturn(article);
         when(commentRepository.findByIdAndArticle(commentEntity.getId(), article)).thenReturn(Optional.empty());
 
         // when
@@ -414,7 +570,8 @@ class CommentServiceImplTest {
                 .updatedAt(ZonedDateTime.now())
                 .build();
 
-        when(articleRepository.findBySlug(article.getSlug())).thenReturn(Optional.of(article));
+        when(articleCache.getBySlug(article.getSlug())).thenReturn(Optional.of(ArticleSnapshot.of(article)));
+        when(articleRepository.getReferenceById(article.getId())).thenReturn(article);
         when(commentRepository.findByIdAndArticle(commentEntity.getId(), article)).thenReturn(Optional.of(commentEntity));
         when(profileService.getAccountById(account.getId())).thenReturn(account);
 
@@ -425,4 +582,9 @@ class CommentServiceImplTest {
                 .hasMessageContaining(IS_NOT_AN_OWNER_OF_COMMENT, commentEntity.getId(), account.getUsername());
     }
 
-}
\ No newline at end of file
+    private static CommentView view(Long id, AccountEntity author) {
+        return new CommentView(id, "body", ZonedDateTime.now(), ZonedDateTime.now(), author.getId(),
+                author.getUsername(), author.getBio(), author.getImage(), 0L, 0L, author.getUpdatedAt());
+    }
+
+}
@@ -0,0 +1,108 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.FavoriteEntityId;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.repository.FavoriteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FavoriteIndexServiceImplTest {
+
+    @Mock
+    private FavoriteRepository favoriteRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FavoriteIndexServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new FavoriteIndexServiceImpl(favoriteRepository, meterRegistry);
+    }
+
+    @Test
+    void itShouldAnswerFromIndex() {
+        // given
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of(
+                new FavoriteRepository.FavoritePair(10L, 1L),
+                new FavoriteRepository.FavoritePair(11L, 1L),
+                new FavoriteRepository.FavoritePair(11L, 2L)));
+        underTest.rebuild();
+
+        // when
+        // then
+        assertThat(underTest.isFavorited(1L, 10L)).isTrue();
+        assertThat(underTest.isFavorited(2L, 10L)).isFalse();
+        assertThat(underTest.isFavorited(null, 10L)).isFalse();
+        assertThat(underTest.findFavorited(1L, List.of(10L, 12L))).containsExactly(10L);
+        assertThat(underTest.findFavoritedPage(1L, null, 1, 0)).contains(List.of(11L));
+        assertThat(underTest.findFavoritedPage(1L, new ArticleCursor(ZonedDateTime.now(), 11L), 5, 0))
+                .contains(List.of(10L));
+        assertThat(underTest.countFavorited(1L)).contains(2);
+        verify(favoriteRepository, times(1)).findAllPairs();
+        verifyNoMoreInteractions(favoriteRepository);
+        assertThat(meterRegistry.get("article.favorites.size").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void itShouldApplyWrites() {
+        // given
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of());
+        underTest.rebuild();
+
+        // when
+        underTest.articleFavorited(10L, 1L);
+        underTest.articleFavorited(11L, 1L);
+        underTest.articleFavorited(12L, 1L);
+        underTest.articleUnfavorited(10L, 1L);
+        underTest.articleDeleted(12L);
+
+        // then
+        assertThat(underTest.findFavoritedPage(1L, null, 5, 0)).contains(List.of(11L));
+        assertThat(underTest.countFavorited(1L)).contains(1);
+    }
+
+    @Test
+    void itShouldQueryDatabase_whenIndexIsNotBuilt() {
+        // given
+        when(favoriteRepository.existsById(FavoriteEntityId.builder()
+                .articleId(10L)
+                .accountId(1L)
+                .build())).thenReturn(true);
+        when(favoriteRepository.findFavoritedArticleIds(1L, Set.of(10L))).thenReturn(List.of(10L));
+
+        // when
+        // then
+        assertThat(underTest.isFavorited(1L, 10L)).isTrue();
+        assertThat(underTest.findFavorited(1L, Set.of(10L))).containsExactly(10L);
+        assertThat(underTest.findFavoritedPage(1L, null, 5, 0)).isEmpty();
+        assertThat(underTest.countFavorited(1L)).isEmpty();
+    }
+
+    @Test
+    void itShouldDropIndex_whenArticleIdDoesNotFit() {
+        // given
+        when(favoriteRepository.findAllPairs()).thenReturn(List.of());
+        underTest.rebuild();
+
+        // when
+        underTest.articleFavorited(Integer.MAX_VALUE + 1L, 1L);
+
+        // then
+        assertThat(underTest.countFavorited(1L)).isEqualTo(Optional.empty());
+    }
+}
@@ -0,0 +1,82 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.repository.FeedEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class FeedServiceImplTest {
+
+    @Mock
+    private FeedEntryRepository feedEntryRepository;
+    @Mock
+    private FeedEngine feedEngine;
+
+    private FeedService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new FeedServiceImpl(feedEntryRepository, feedEngine);
+        setField(underTest, "fanOutThreshold", 100L);
+        setField(underTest, "backfillSize", 10);
+    }
+
+    @Test
+    void itShouldFanOutAndNotifyEngine_whenArticleCreated() {
+        // given
+        ArticleCreatedEvent event = new ArticleCreatedEvent(1L, 7L, ZonedDateTime.now());
+
+        // when
+        underTest.articleCreated(event);
+
+        // then
+        verify(feedEntryRepository, times(1)).fanOut(1L, 100L);
+        verify(feedEngine, times(1)).articleCreated(event);
+    }
+
+    @Test
+    void itShouldRemoveFromInboxesAndEngine_whenArticleDeleted() {
+        // given
+        ArticleEntity article = ArticleEntity.builder()
+                .id(1L)
+                .author(AccountEntity.builder().id(7L).build())
+                .build();
+
+        // when
+        underTest.articleDeleted(article);
+
+        // then
+        verify(feedEntryRepository, times(1)).deleteByArticleId(1L);
+        verify(feedEngine, times(1)).articleDeleted(7L, 1L);
+    }
+
+    @Test
+    void itShouldBackfill_whenFollow() {
+        // when
+        underTest.follow(5L, 7L);
+
+        // then
+        verify(feedEntryRepository, times(1)).backfill(5L, 7L, 100L, 10);
+    }
+
+    @Test
+    void itShouldBackfillFollowers_whenUnfollow() {
+        // when
+        underTest.unfollow(5L, 7L);
+
+        // then
+        verify(feedEntryRepository, times(1)).deleteByFollowerAndAuthor(5L, 7L);
+        verify(feedEntryRepository, times(1)).backfillFollowers(7L, 100L, 10);
+    }
+}
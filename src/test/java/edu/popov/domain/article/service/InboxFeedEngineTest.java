@@ -0,0 +1,94 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FeedEntryRepository;
+import edu.popov.domain.article.repository.OffsetBasedPageRequest;
+import edu.popov.domain.profile.service.FollowGraphService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class InboxFeedEngineTest {
+
+    @Mock
+    private FeedEntryRepository feedEntryRepository;
+    @Mock
+    private ArticleRepository articleRepository;
+    @Mock
+    private FollowGraphService followGraphService;
+
+    private FeedEngine underTest;
+
+    private static final ZonedDateTime NOW = ZonedDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        underTest = new InboxFeedEngine(feedEntryRepository, articleRepository, followGraphService);
+        setField(underTest, "fanOutThreshold", 100L);
+    }
+
+    @Test
+    void itShouldReadInbox_whenNoPulledAuthors() {
+        // given
+        ArticleEntity article = ArticleEntity.builder().id(1L).build();
+        when(followGraphService.getFollowingIdsWithFollowersAbove(5L, 100L)).thenReturn(List.of());
+        when(feedEntryRepository.findByFollower(5L, new OffsetBasedPageRequest(2, 4, Sort.unsorted())))
+                .thenReturn(List.of(item(1L, NOW)));
+        when(articleRepository.findAllWithAuthorInOrder(List.of(1L))).thenReturn(List.of(article));
+
+        // when
+        List<ArticleEntity> expected = underTest.getFeed(5L, null, 2, 4);
+
+        // then
+        assertThat(expected).containsExactly(article);
+        verify(feedEntryRepository, never()).findByAuthors(anyList(), any());
+    }
+
+    @Test
+    void itShouldMergePulledAuthors() {
+        // given
+        ArticleEntity article1 = ArticleEntity.builder().id(1L).build();
+        ArticleEntity article2 = ArticleEntity.builder().id(2L).build();
+        OffsetBasedPageRequest window = new OffsetBasedPageRequest(3, 0, Sort.unsorted());
+        when(followGraphService.getFollowingIdsWithFollowersAbove(5L, 100L)).thenReturn(List.of(7L));
+        when(feedEntryRepository.findByFollower(5L, window))
+                .thenReturn(List.of(item(3L, NOW), item(1L, NOW.minusHours(2))));
+        when(feedEntryRepository.findByAuthors(List.of(7L), window))
+                .thenReturn(List.of(item(3L, NOW), item(2L, NOW.minusHours(1)), item(4L, NOW.minusHours(3))));
+        when(articleRepository.findAllWithAuthorInOrder(List.of(2L, 1L)))
+                .thenReturn(List.of(article2, article1));
+
+        // when
+        List<ArticleEntity> expected = underTest.getFeed(5L, null, 2, 1);
+
+        // then
+        assertThat(expected).containsExactly(article2, article1);
+    }
+
+    private static FeedEntryRepository.FeedItem item(Long articleId, ZonedDateTime createdAt) {
+        return new FeedEntryRepository.FeedItem() {
+            @Override
+            public Long getArticleId() {
+                return articleId;
+            }
+
+            @Override
+            public ZonedDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
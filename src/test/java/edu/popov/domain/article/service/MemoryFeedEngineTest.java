@@ -0,0 +1,148 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.event.ArticleCreatedEvent;
+import edu.popov.domain.article.model.ArticleCursor;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.FeedEntryRepository;
+import edu.popov.domain.article.repository.OffsetBasedPageRequest;
+import edu.popov.domain.profile.service.FollowGraphService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.unit.DataSize;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class MemoryFeedEngineTest {
+
+    @Mock
+    private FeedEntryRepository feedEntryRepository;
+    @Mock
+    private ArticleRepository articleRepository;
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private FollowGraphService followGraphService;
+
+    private FeedEngine underTest;
+
+    private static final ZonedDateTime NOW = ZonedDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        underTest = new MemoryFeedEngine(feedEntryRepository, articleRepository, accountRepository, followGraphService);
+        setField(underTest, "bufferSize", 10);
+        setField(underTest, "budget", DataSize.ofMegabytes(1));
+    }
+
+    @Test
+    void itShouldMergeAuthorBuffers() {
+        // given
+        ArticleEntity article3 = ArticleEntity.builder().id(3L).build();
+        ArticleEntity article4 = ArticleEntity.builder().id(4L).build();
+        when(followGraphService.getFollowingIds(5L)).thenReturn(List.of(7L, 8L));
+        when(feedEntryRepository.findByAuthors(List.of(7L), page(11)))
+                .thenReturn(List.of(item(5L, NOW.minusSeconds(10)), item(3L, NOW.minusSeconds(30))));
+        when(feedEntryRepository.findByAuthors(List.of(8L), page(11)))
+                .thenReturn(List.of(item(4L, NOW.minusSeconds(20)), item(1L, NOW.minusSeconds(40))));
+        when(articleRepository.findAllWithAuthorInOrder(List.of(4L, 3L))).thenReturn(List.of(article4, article3));
+
+        // when
+        List<ArticleEntity> expected = underTest.getFeed(5L, null, 2, 1);
+
+        // then
+        assertThat(expected).containsExactly(article4, article3);
+    }
+
+    @Test
+    void itShouldSeekByCursorAndReuseBuffers() {
+        // given
+        ArticleEntity article1 = ArticleEntity.builder().id(1L).build();
+        when(followGraphService.getFollowingIds(5L)).thenReturn(List.of(7L));
+        when(feedEntryRepository.findByAuthors(List.of(7L), page(11)))
+                .thenReturn(List.of(item(2L, NOW.minusSeconds(10)), item(1L, NOW.minusSeconds(20))));
+        when(articleRepository.findAllWithAuthorInOrder(anyList())).thenReturn(List.of());
+        when(articleRepository.findAllWithAuthorInOrder(List.of(1L))).thenReturn(List.of(article1));
+
+        // when
+        underTest.getFeed(5L, null, 1, 0);
+        List<ArticleEntity> expected = underTest.getFeed(5L, new ArticleCursor(NOW.minusSeconds(10), 2L), 1, 0);
+
+        // then
+        assertThat(expected).containsExactly(article1);
+        verify(feedEntryRepository, times(1)).findByAuthors(List.of(7L), page(11));
+    }
+
+    @Test
+    void itShouldAddCreatedArticleToLoadedBuffer() {
+        // given
+        ArticleEntity article9 = ArticleEntity.builder().id(9L).build();
+        when(followGraphService.getFollowingIds(5L)).thenReturn(List.of(7L));
+        when(feedEntryRepository.findByAuthors(List.of(7L), page(11)))
+                .thenReturn(List.of(item(2L, NOW.minusSeconds(10))));
+        when(articleRepository.findAllWithAuthorInOrder(anyList())).thenReturn(List.of());
+        underTest.getFeed(5L, null, 1, 0);
+
+        // when
+        underTest.articleCreated(new ArticleCreatedEvent(9L, 7L, NOW));
+        underTest.articleCreated(new ArticleCreatedEvent(10L, 8L, NOW));
+        when(articleRepository.findAllWithAuthorInOrder(List.of(9L))).thenReturn(List.of(article9));
+        List<ArticleEntity> expected = underTest.getFeed(5L, null, 1, 0);
+
+        // then
+        assertThat(expected).containsExactly(article9);
+    }
+
+    @Test
+    void itShouldFallbackToSql_whenBufferIsIncomplete() {
+        // given
+        setField(underTest, "bufferSize", 1);
+        AccountEntity follower = AccountEntity.builder().id(5L).build();
+        ArticleEntity article2 = ArticleEntity.builder().id(2L).build();
+        ArticleEntity article1 = ArticleEntity.builder().id(1L).build();
+        when(followGraphService.getFollowingIds(5L)).thenReturn(List.of(7L));
+        when(feedEntryRepository.findByAuthors(List.of(7L), page(2)))
+                .thenReturn(List.of(item(2L, NOW.minusSeconds(10)), item(1L, NOW.minusSeconds(20))));
+        when(accountRepository.getReferenceById(5L)).thenReturn(follower);
+        when(articleRepository.findByFeed(follower, new OffsetBasedPageRequest(
+                2, 0, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))))
+                .thenReturn(List.of(article2, article1));
+
+        // when
+        List<ArticleEntity> expected = underTest.getFeed(5L, null, 2, 0);
+
+        // then
+        assertThat(expected).containsExactly(article2, article1);
+        verify(articleRepository, never()).findAllWithAuthorInOrder(anyList());
+    }
+
+    private static OffsetBasedPageRequest page(int limit) {
+        return new OffsetBasedPageRequest(limit, 0, Sort.unsorted());
+    }
+
+    private static FeedEntryRepository.FeedItem item(Long articleId, ZonedDateTime createdAt) {
+        return new FeedEntryRepository.FeedItem() {
+            @Override
+            public Long getArticleId() {
+                return articleId;
+            }
+
+            @Override
+            public ZonedDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,193 @@
+package edu.popov.domain.article.service;
+
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.dto.CommentDTO;
+import edu.popov.domain.article.entity.ArticleEntity;
+import edu.popov.domain.article.repository.ArticleRepository;
+import edu.popov.domain.article.repository.CommentRepository;
+import edu.popov.domain.article.repository.FavoriteRepository;
+import edu.popov.domain.profile.repository.FollowRelationRepository;
+import edu.popov.domain.profile.service.ProfileService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Favorite, follow and comment delete are single conditional statements: parallel toggles of the same pair
+ * never fail on the primary key and counters stay equal to the rows.
+ */
+@SpringBootTest
+class ToggleConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TOGGLES = 25;
+
+    @Autowired
+    private ArticleService articleService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private ProfileService profileService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private ArticleRepository articleRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private FollowRelationRepository followRelationRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private AccountEntity reader;
+    private AccountEntity author;
+    private AccountEntity followee;
+    private ArticleEntity article;
+
+    @BeforeEach
+    void setUp() {
+        reader = accountRepository.save(account("toggle-reader"));
+        author = accountRepository.save(account("toggle-author"));
+        followee = accountRepository.save(account("toggle-followee"));
+        article = articleRepository.save(ArticleEntity.builder()
+                .slug("toggle-article")
+                .title("toggle article")
+                .description("description")
+                .body("body")
+                .author(author)
+                .createdAt(ZonedDateTime.now())
+                .updatedAt(ZonedDateTime.now())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            favoriteRepository.deleteIfPresent(article.getId(), reader.getId());
+            followRelationRepository.deleteIfPresent(followee.getId(), reader.getId());
+            commentRepository.deleteAll(commentRepository.findByArticle(article));
+        });
+        articleRepository.deleteById(article.getId());
+        accountRepository.deleteAllById(List.of(reader.getId(), author.getId(), followee.getId()));
+    }
+
+    @Test
+    void itShouldNotFail_whenFavoriteIsToggledInParallel() throws Exception {
+        run(i -> {
+            if (i % 2 == 0)
+                articleService.favoriteArticle(article.getSlug(), reader.getId());
+            else
+                articleService.unfavoriteArticle(article.getSlug(), reader.getId());
+        });
+
+        long favorites = favoriteRepository.findFavoritedArticleIds(reader.getId(), List.of(article.getId())).size();
+        assertThat(articleRepository.findById(article.getId()).orElseThrow().getFavoritesCount()).isEqualTo(favorites);
+    }
+
+    @Test
+    void itShouldNotFail_whenFollowIsToggledInParallel() throws Exception {
+        run(i -> {
+            if (i % 2 == 0)
+                profileService.followProfile(followee.getUsername(), reader.getId());
+            else
+                profileService.unfollowProfile(followee.getUsername(), reader.getId());
+        });
+
+        long followers = followRelationRepository.findFollowerIds(followee.getId()).size();
+        assertThat(accountRepository.findById(followee.getId()).orElseThrow().getFollowersCount()).isEqualTo(followers);
+    }
+
+    @Test
+    void itShouldWriteInTwoStatements() {
+        CommentDTO.Create comment = CommentDTO.Create.builder().body("body").build();
+        Long commentId = commentService.addComment(article.getSlug(), comment, reader.getId()).getComment().getId();
+
+        assertThat(countStatements(() -> articleService.favoriteArticle(article.getSlug(), reader.getId()))).isLessThanOrEqualTo(2);
+        assertThat(countStatements(() -> articleService.favoriteArticle(article.getSlug(), reader.getId()))).isLessThanOrEqualTo(1);
+        assertThat(countStatements(() -> articleService.unfavoriteArticle(article.getSlug(), reader.getId()))).isLessThanOrEqualTo(2);
+        assertThat(countStatements(() -> commentService.deleteComment(article.getSlug(), commentId, reader.getId()))).isLessThanOrEqualTo(2);
+    }
+
+    private void run(Toggle toggle) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                results.add(executor.submit((Callable<Void>) () -> {
+                    for (int i = 0; i < TOGGLES; i++)
+                        toggle.apply(thread + i);
+                    return null;
+                }));
+            }
+            // rethrows the first failure of any thread
+            for (Future<Void> result : results)
+                result.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Statements of the write alone, the article is read into the cache first as writes invalidate it.
+     */
+    private long countStatements(Runnable write) {
+        articleService.getArticleBySlug(article.getSlug(), reader.getId());
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            write.run();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private AccountEntity account(String username) {
+        return AccountEntity.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("pass")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface Toggle {
+        void apply(int i);
+    }
+
+}
@@ -0,0 +1,96 @@
+package edu.popov.domain.autocomplete.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixTrieTest {
+
+    @Test
+    void itShouldRankNamesStartingWithPrefix() {
+        // given
+        PrefixTrie underTest = PrefixTrie.of(Map.of("java", 3L, "javascript", 5L, "jvm", 1L, "kotlin", 4L), 10);
+
+        // when
+        List<Suggestion> expected = underTest.top("ja", 10);
+
+        // then
+        assertThat(expected).containsExactly(new Suggestion("javascript", 5L), new Suggestion("java", 3L));
+        assertThat(underTest.top("j", 10)).extracting(Suggestion::name).containsExactly("javascript", "java", "jvm");
+        assertThat(underTest.top("", 2)).extracting(Suggestion::name).containsExactly("javascript", "kotlin");
+    }
+
+    @Test
+    void itShouldMatchPrefixInsideCollapsedNode() {
+        // given
+        PrefixTrie underTest = PrefixTrie.of(Map.of("spring-boot", 2L, "spring-data", 1L), 10);
+
+        // when
+        // then
+        assertThat(underTest.top("spr", 10)).extracting(Suggestion::name).containsExactly("spring-boot", "spring-data");
+        assertThat(underTest.top("spring-b", 10)).extracting(Suggestion::name).containsExactly("spring-boot");
+        assertThat(underTest.top("sprung", 10)).isEmpty();
+        assertThat(underTest.top("spring-boot-starter", 10)).isEmpty();
+    }
+
+    @Test
+    void itShouldIgnoreCase() {
+        // given
+        PrefixTrie underTest = PrefixTrie.of(Map.of("Alice", 2L, "alice", 1L, "ALEX", 3L), 10);
+
+        // when
+        // then
+        assertThat(underTest.top("AL", 10)).extracting(Suggestion::name).containsExactly("ALEX", "Alice", "alice");
+        assertThat(underTest.top("alI", 10)).extracting(Suggestion::name).containsExactly("Alice", "alice");
+    }
+
+    @Test
+    void itShouldAnswerNothing_whenEmpty() {
+        // given
+        PrefixTrie underTest = PrefixTrie.of(Map.of(), 10);
+
+        // when
+        // then
+        assertThat(underTest.top("", 10)).isEmpty();
+        assertThat(underTest.size()).isZero();
+    }
+
+    @Test
+    void itShouldMatchBruteForce_whenNodesKeepBestEntries() {
+        // given
+        Random random = new Random(7);
+        Map<String, Long> scores = new HashMap<>();
+        while (scores.size() < 5000)
+            scores.put(word(random), (long) random.nextInt(100));
+        PrefixTrie underTest = PrefixTrie.of(scores, 5);
+
+        for (int i = 0; i < 500; i++) {
+            String prefix = word(random).substring(0, random.nextInt(4));
+
+            // when
+            List<Suggestion> expected = underTest.top(prefix, 5);
+
+            // then
+            List<Suggestion> all = scores.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(prefix))
+                    .map(entry -> new Suggestion(entry.getKey(), entry.getValue()))
+                    .sorted(Suggestion.BEST_FIRST)
+                    .limit(5)
+                    .toList();
+            assertThat(expected).as(prefix).isEqualTo(all);
+        }
+    }
+
+    private static String word(Random random) {
+        StringBuilder word = new StringBuilder();
+        int length = 3 + random.nextInt(6);
+        for (int i = 0; i < length; i++)
+            word.append((char) ('a' + random.nextInt(4)));
+        return word.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package edu.popov.domain.autocomplete.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionIndexTest {
+
+    @Test
+    void itShouldMergeAddedNamesWithTrie() {
+        // given
+        SuggestionIndex underTest = SuggestionIndex.of(Map.of("java", 3L, "javascript", 5L), 10);
+
+        // when
+        underTest.add("jakarta", 4L);
+        underTest.add("julia", 9L);
+
+        // then
+        assertThat(underTest.top("ja", 10)).extracting(Suggestion::name)
+                .containsExactly("javascript", "jakarta", "java");
+        assertThat(underTest.top("j", 2)).extracting(Suggestion::name).containsExactly("julia", "javascript");
+        assertThat(underTest.size()).isEqualTo(4);
+    }
+
+    @Test
+    void itShouldHideRemovedNames() {
+        // given
+        SuggestionIndex underTest = SuggestionIndex.of(Map.of("alice", 3L, "alex", 2L, "bob", 1L), 10);
+
+        // when
+        underTest.remove("alice");
+        underTest.add("alicia", 3L);
+        underTest.add("carol", 0L);
+        underTest.remove("carol");
+
+        // then
+        assertThat(underTest.top("al", 10)).extracting(Suggestion::name).containsExactly("alicia", "alex");
+        assertThat(underTest.top("", 10)).extracting(Suggestion::name).containsExactly("alicia", "alex", "bob");
+    }
+
+    @Test
+    void itShouldReplaceScore_whenNameIsAddedAgain() {
+        // given
+        SuggestionIndex underTest = SuggestionIndex.of(Map.of("alice", 1L, "alex", 2L), 10);
+
+        // when
+        underTest.add("alice", 5L);
+
+        // then
+        assertThat(underTest.top("al", 10))
+                .containsExactly(new Suggestion("alice", 5L), new Suggestion("alex", 2L));
+    }
+}
@@ -0,0 +1,94 @@
+package edu.popov.domain.autocomplete.service;
+
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.tag.repository.TagRepository;
+import edu.popov.utils.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceImplTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private AutocompleteServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new AutocompleteServiceImpl(tagRepository, accountRepository);
+        ReflectionTestUtils.setField(underTest, "defaultLimit", 2);
+        ReflectionTestUtils.setField(underTest, "maxLimit", 5);
+    }
+
+    @Test
+    void itShouldSuggestByPopularity() {
+        // given
+        when(tagRepository.findArticleCounts()).thenReturn(List.of(
+                new TagRepository.TagCount("java", 3L),
+                new TagRepository.TagCount("javascript", 5L),
+                new TagRepository.TagCount("jvm", 4L)));
+        when(accountRepository.findFollowersCounts()).thenReturn(List.of(
+                new AccountRepository.UsernameCount("alice", 1L),
+                new AccountRepository.UsernameCount("alex", 2L)));
+
+        // when
+        underTest.rebuild();
+
+        // then
+        assertThat(underTest.suggestTags("J", null).getSuggestions()).containsExactly("javascript", "jvm");
+        assertThat(underTest.suggestTags("jav", 5).getSuggestions()).containsExactly("javascript", "java");
+        assertThat(underTest.suggestUsers("al", null).getSuggestions()).containsExactly("alex", "alice");
+    }
+
+    @Test
+    void itShouldApplyWrites() {
+        // given
+        when(tagRepository.findArticleCounts()).thenReturn(List.of());
+        when(accountRepository.findFollowersCounts()).thenReturn(List.of(new AccountRepository.UsernameCount("alice", 1L)));
+        underTest.rebuild();
+
+        // when
+        underTest.tagsAdded(List.of("java"));
+        underTest.userAdded("alex");
+        underTest.userRenamed("alice", "alicia", 1L);
+
+        // then
+        assertThat(underTest.suggestTags("j", null).getSuggestions()).containsExactly("java");
+        assertThat(underTest.suggestUsers("al", 5).getSuggestions()).containsExactly("alicia", "alex");
+    }
+
+    @Test
+    void itShouldSuggestNothing_whenIndexIsNotBuilt() {
+        // when
+        underTest.userAdded("alex");
+
+        // then
+        assertThat(underTest.suggestUsers("al", null).getSuggestions()).isEmpty();
+        verifyNoInteractions(accountRepository);
+    }
+
+    @Test
+    void itShouldThrow_whenLimitIsOutOfRange() {
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.suggestTags("j", 6))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Limit 6 is not in range 1..5");
+        assertThatThrownBy(() -> underTest.suggestUsers("a", 0))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
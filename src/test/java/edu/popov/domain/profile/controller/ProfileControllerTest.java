@@ -23,6 +23,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -167,8 +168,8 @@ class ProfileControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].profile.username", Matchers.is("profiletest2")))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].profile.following", Matchers.is(true)));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profiles[0].profile.username", Matchers.is("profiletest2")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profiles[0].profile.following", Matchers.is(true)));
     }
 
     @Test
@@ -181,8 +182,8 @@ class ProfileControllerTest {
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].profile.username", Matchers.is("profiletest1")))
-                .andExpect(MockMvcResultMatchers.jsonPath("$[0].profile.following", Matchers.is(false)));
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profiles[0].profile.username", Matchers.is("profiletest1")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profiles[0].profile.following", Matchers.is(false)));
     }
 
     @Test
@@ -198,4 +199,92 @@ class ProfileControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$.profile.username", Matchers.is("profiletest2")))
                 .andExpect(MockMvcResultMatchers.jsonPath("$.profile.following", Matchers.is(false)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(7)
+    void itShouldReturnNotModified_whenProfileETagMatches() throws Exception {
+        // given
+        String eTag = mockMvc.perform(get("/api/profiles/profiletest2")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotEmpty();
+
+        // when
+        // then
+        mockMvc.perform(get("/api/profiles/profiletest2")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        // following flag is part of the validator
+        mockMvc.perform(post("/api/profiles/profiletest2/follow")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/profiles/profiletest2")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profile.following", Matchers.is(true)));
+    }
+
+    @Test
+    @Order(8)
+    void itShouldGetCachedProfile_whenAnonymous() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(get("/api/profiles/profiletest2")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profile.username", Matchers.is("profiletest2")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profile.following", Matchers.is(false)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profile.followersCount", Matchers.is(1)));
+
+        // follower count of the cached profile is dropped with the follow
+        mockMvc.perform(delete("/api/profiles/profiletest2/follow")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/profiles/profiletest2")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.profile.followersCount", Matchers.is(0)));
+    }
+
+    @Test
+    @Order(9)
+    void itShouldNotGetFollowings_whenLimitIsOutOfRange() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(get("/api/profiles/followings")
+                                .param("limit", "0")
+                                .header(HttpHeaders.AUTHORIZATION, "Token " + Bearer1)
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @Order(10)
+    void itShouldGetFavorites() throws Exception {
+        // given
+        // when
+        // then
+        mockMvc.perform(get("/api/profiles/profiletest1/favorites")
+                                .param("limit", "10")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.articles", Matchers.empty()))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.articlesCount", Matchers.is(0)));
+        mockMvc.perform(get("/api/profiles/profiletest1/favorites")
+                                .param("limit", "101")
+                                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+}
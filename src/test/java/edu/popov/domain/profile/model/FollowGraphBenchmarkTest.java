@@ -0,0 +1,56 @@
+package edu.popov.domain.profile.model;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Memory of the follow graph per million relations and cost of a follow check. Followees are skewed, so a few
+ * accounts have most followers like on a real site. Number of relations is set with -Dbenchmark.relations.
+ * Not part of the test task, run with gradle benchmark.
+ */
+@Slf4j
+@Tag("benchmark")
+class FollowGraphBenchmarkTest {
+
+    private static final int RELATIONS = Integer.getInteger("benchmark.relations", 1_000_000);
+    private static final int ACCOUNTS = RELATIONS / 20;
+    private static final int CHECKS = 1_000_000;
+
+    @Test
+    void itShouldKeepMillionRelationsInFewMegabytes() {
+        // given
+        Random random = new Random(42);
+        long[] followerIds = new long[RELATIONS];
+        long[] followeeIds = new long[RELATIONS];
+        // consecutive followees of one follower, so relations are distinct
+        for (int i = 0; i < RELATIONS; i++) {
+            followerIds[i] = i / 20;
+            followeeIds[i] = (long) (Math.pow(random.nextDouble(), 3) * ACCOUNTS) * 20 + i % 20;
+        }
+
+        // when
+        long start = System.nanoTime();
+        FollowGraph graph = FollowGraph.of(followerIds, followeeIds, RELATIONS);
+        double buildMillis = (System.nanoTime() - start) / 1e6;
+        int found = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < CHECKS; i++)
+            if (graph.isFollowing(random.nextInt(ACCOUNTS), random.nextInt(ACCOUNTS * 20)))
+                found++;
+        double checkNanos = (System.nanoTime() - start) / (double) CHECKS;
+
+        // then
+        double megabytesPerMillion = graph.bytes() / (double) RELATIONS * 1_000_000 / 1024 / 1024;
+        log.info("Follow graph: {} relations, {} MB per million relations, built in {} ms, follow check {} ns, {} found",
+                RELATIONS, String.format("%.1f", megabytesPerMillion), String.format("%.0f", buildMillis),
+                String.format("%.0f", checkNanos), found);
+        assertThat(graph.edges()).isEqualTo(RELATIONS);
+        // two copies of 8 byte ids per relation plus row headers
+        assertThat(megabytesPerMillion).isLessThan(40);
+    }
+}
@@ -0,0 +1,135 @@
+package edu.popov.domain.profile.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FollowGraphTest {
+
+    @Test
+    void itShouldAnswerFollowRelations() {
+        // given
+        // 1 -> 2, 1 -> 3, 2 -> 3
+        FollowGraph underTest = FollowGraph.of(new long[]{1, 2, 1}, new long[]{3, 3, 2}, 3);
+
+        // when
+        // then
+        assertThat(underTest.isFollowing(1, 2)).isTrue();
+        assertThat(underTest.isFollowing(2, 1)).isFalse();
+        assertThat(underTest.followings(1)).containsExactly(2, 3);
+        assertThat(underTest.followers(3)).containsExactly(1, 2);
+        assertThat(underTest.followers(1)).isEmpty();
+        assertThat(underTest.followersCount(3)).isEqualTo(2);
+        assertThat(underTest.edges()).isEqualTo(3);
+    }
+
+    @Test
+    void itShouldApplyFollowsAndUnfollows() {
+        // given
+        FollowGraph underTest = FollowGraph.of(new long[]{1, 1}, new long[]{2, 4}, 2);
+
+        // when
+        underTest.follow(1, 3);
+        underTest.unfollow(1, 4);
+        underTest.follow(5, 2);
+
+        // then
+        assertThat(underTest.isFollowing(1, 3)).isTrue();
+        assertThat(underTest.isFollowing(1, 4)).isFalse();
+        assertThat(underTest.followings(1)).containsExactly(2, 3);
+        assertThat(underTest.followers(2)).containsExactly(1, 5);
+        assertThat(underTest.followersCount(4)).isZero();
+        assertThat(underTest.edges()).isEqualTo(3);
+        assertThat(underTest.deltaSize()).isEqualTo(3);
+    }
+
+    @Test
+    void itShouldKeepOnlyChangesInDelta() {
+        // given
+        FollowGraph underTest = FollowGraph.of(new long[]{1}, new long[]{2}, 1);
+
+        // when
+        underTest.follow(1, 2);
+        underTest.unfollow(1, 3);
+        underTest.unfollow(1, 2);
+        underTest.follow(1, 2);
+
+        // then
+        assertThat(underTest.deltaSize()).isZero();
+        assertThat(underTest.isFollowing(1, 2)).isTrue();
+    }
+
+    @Test
+    void itShouldAnswerLikeSetOfRelations_afterRandomChangesAndMerges() {
+        // given
+        Random random = new Random(42);
+        int accounts = 50;
+        Set<Long> relations = new HashSet<>();
+        long[] followerIds = new long[500];
+        long[] followeeIds = new long[500];
+        int size = 0;
+        while (size < 500) {
+            long follower = random.nextInt(accounts);
+            long followee = random.nextInt(accounts);
+            if (relations.add(follower * accounts + followee)) {
+                followerIds[size] = follower;
+                followeeIds[size++] = followee;
+            }
+        }
+        FollowGraph underTest = FollowGraph.of(followerIds, followeeIds, size);
+
+        // when
+        for (int i = 0; i < 2000; i++) {
+            long follower = random.nextInt(accounts);
+            long followee = random.nextInt(accounts);
+            if (random.nextBoolean()) {
+                underTest.follow(follower, followee);
+                relations.add(follower * accounts + followee);
+            } else {
+                underTest.unfollow(follower, followee);
+                relations.remove(follower * accounts + followee);
+            }
+            if (i % 500 == 499)
+                underTest = underTest.merged();
+        }
+
+        // then
+        assertThat(underTest.edges()).isEqualTo(relations.size());
+        for (long account = 0; account < accounts; account++) {
+            long id = account;
+            assertThat(underTest.followings(id)).containsExactly(relations.stream()
+                    .filter(relation -> relation / accounts == id)
+                    .mapToLong(relation -> relation % accounts)
+                    .sorted()
+                    .toArray());
+            long[] followers = relations.stream()
+                    .filter(relation -> relation % accounts == id)
+                    .mapToLong(relation -> relation / accounts)
+                    .sorted()
+                    .toArray();
+            assertThat(underTest.followers(id)).containsExactly(followers);
+            assertThat(underTest.followersCount(id)).isEqualTo(followers.length);
+        }
+    }
+
+    @Test
+    void itShouldMergeDelta() {
+        // given
+        FollowGraph underTest = FollowGraph.of(new long[]{1, 1}, new long[]{2, 3}, 2);
+        underTest.unfollow(1, 2);
+        underTest.follow(2, 1);
+
+        // when
+        FollowGraph expected = underTest.merged();
+
+        // then
+        assertThat(expected.deltaSize()).isZero();
+        assertThat(expected.followings(1)).containsExactly(3);
+        assertThat(expected.followings(2)).containsExactly(1);
+        assertThat(expected.bytes()).isPositive();
+    }
+}
@@ -7,6 +7,7 @@ import edu.popov.domain.profile.entity.FollowRelationId;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -109,7 +110,7 @@ class FollowRelationRepositoryTest {
                         .build())
                 .accountToFollow(account1)
                 .userAccount(account2)
-                .createdAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.of(2023, 1, 1, 10, 0, 0))
                 .build();
 
         FollowRelationEntity followRelation2 = FollowRelationEntity.builder()
@@ -119,7 +120,7 @@ class FollowRelationRepositoryTest {
                         .build())
                 .accountToFollow(account1)
                 .userAccount(account3)
-                .createdAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.of(2023, 1, 2, 10, 0, 0))
                 .build();
 
         accountRepository.saveAndFlush(account1);
@@ -129,12 +130,14 @@ class FollowRelationRepositoryTest {
         underTest.save(followRelation2);
 
         // when
-        List<AccountEntity> followers = underTest.findFollowers(account1);
-
-        // then
-        assertThat(followers).isNotEmpty();
-        assertThat(followers.get(0)).isEqualTo(account2);
-        assertThat(followers.get(1)).isEqualTo(account3);
+        List<FollowRelationRepository.FollowProfile> firstPage = underTest.findFollowers(account1.getId(), PageRequest.of(0, 1));
+        FollowRelationRepository.FollowProfile last = firstPage.get(0);
+        List<FollowRelationRepository.FollowProfile> secondPage = underTest.findFollowersBefore(account1.getId(),
+                last.followedAt(), last.id(), PageRequest.of(0, 1));
+
+        // then latest follow first
+        assertThat(firstPage).extracting(FollowRelationRepository.FollowProfile::username).containsExactly("user3");
+        assertThat(secondPage).extracting(FollowRelationRepository.FollowProfile::username).containsExactly("user2");
     }
 
     @Test
@@ -177,7 +180,7 @@ class FollowRelationRepositoryTest {
                         .build())
                 .accountToFollow(account2)
                 .userAccount(account1)
-                .createdAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.of(2023, 1, 1, 10, 0, 0))
                 .build();
 
         FollowRelationEntity followRelation2 = FollowRelationEntity.builder()
@@ -187,7 +190,7 @@ class FollowRelationRepositoryTest {
                         .build())
                 .accountToFollow(account3)
                 .userAccount(account1)
-                .createdAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.of(2023, 1, 2, 10, 0, 0))
                 .build();
 
         accountRepository.saveAndFlush(account1);
@@ -197,11 +200,13 @@ class FollowRelationRepositoryTest {
         underTest.save(followRelation2);
 
         // when
-        List<AccountEntity> followers = underTest.findFollowings(account1);
-
-        // then
-        assertThat(followers).isNotEmpty();
-        assertThat(followers.get(0)).isEqualTo(account2);
-        assertThat(followers.get(1)).isEqualTo(account3);
+        List<FollowRelationRepository.FollowProfile> firstPage = underTest.findFollowings(account1.getId(), PageRequest.of(0, 1));
+        FollowRelationRepository.FollowProfile last = firstPage.get(0);
+        List<FollowRelationRepository.FollowProfile> secondPage = underTest.findFollowingsBefore(account1.getId(),
+                last.followedAt(), last.id(), PageRequest.of(0, 1));
+
+        // then latest follow first
+        assertThat(firstPage).extracting(FollowRelationRepository.FollowProfile::username).containsExactly("user3");
+        assertThat(secondPage).extracting(FollowRelationRepository.FollowProfile::username).containsExactly("user2");
     }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package edu.popov.domain.profile.service;
+
+import edu.popov.domain.profile.entity.FollowRelationId;
+import edu.popov.domain.profile.repository.FollowRelationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class FollowGraphServiceImplTest {
+
+    @Mock
+    private FollowRelationRepository followRelationRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private FollowGraphServiceImpl underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new FollowGraphServiceImpl(followRelationRepository, meterRegistry);
+        setField(underTest, "maxDelta", 2);
+    }
+
+    @Test
+    void itShouldAnswerFromGraph() {
+        // given
+        when(followRelationRepository.findAllRelations()).thenReturn(List.of(
+                new FollowRelationRepository.Relation(1L, 2L),
+                new FollowRelationRepository.Relation(1L, 3L),
+                new FollowRelationRepository.Relation(3L, 2L)));
+        underTest.rebuild();
+
+        // when
+        // then
+        assertThat(underTest.isFollowing(1L, 2L)).isTrue();
+        assertThat(underTest.isFollowing(2L, 1L)).isFalse();
+        assertThat(underTest.isFollowing(null, 1L)).isFalse();
+        assertThat(underTest.findFollowed(1L, List.of(2L, 4L))).containsExactly(2L);
+        assertThat(underTest.getFollowingIds(1L)).containsExactly(2L, 3L);
+        assertThat(underTest.getFollowerIds(2L)).containsExactly(1L, 3L);
+        assertThat(underTest.getFollowingIdsWithFollowersAbove(1L, 1)).containsExactly(2L);
+        verify(followRelationRepository, times(1)).findAllRelations();
+        verifyNoMoreInteractions(followRelationRepository);
+        assertThat(meterRegistry.get("profile.follow-graph.relations").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void itShouldApplyFollowsAndMergeDelta() {
+        // given
+        when(followRelationRepository.findAllRelations()).thenReturn(List.of());
+        underTest.rebuild();
+
+        // when
+        underTest.followed(1L, 2L);
+        underTest.followed(1L, 3L);
+        underTest.followed(2L, 3L);
+        underTest.unfollowed(1L, 2L);
+
+        // then
+        assertThat(underTest.getFollowingIds(1L)).containsExactly(3L);
+        assertThat(underTest.getFollowerIds(3L)).containsExactly(1L, 2L);
+        assertThat(meterRegistry.get("profile.follow-graph.delta").gauge().value()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void itShouldQueryDatabase_whenGraphIsNotBuilt() {
+        // given
+        when(followRelationRepository.existsById(FollowRelationId.builder()
+                .accountToFollowId(2L)
+                .userAccountId(1L)
+                .build())).thenReturn(true);
+        when(followRelationRepository.findFollowedAccountIds(1L, Set.of(2L))).thenReturn(List.of(2L));
+
+        // when
+        // then
+        assertThat(underTest.isFollowing(1L, 2L)).isTrue();
+        assertThat(underTest.findFollowed(1L, Set.of(2L))).containsExactly(2L);
+    }
+}
@@ -0,0 +1,178 @@
+package edu.popov.domain.profile.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.popov.domain.account.entity.AccountEntity;
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.profile.model.ProfileSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class ProfileCacheImplTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ProfileCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new ProfileCacheImpl(accountRepository, new ObjectMapper(), meterRegistry);
+        setField(underTest, "maxSize", 2);
+        setField(underTest, "ttl", Duration.ofMinutes(10));
+    }
+
+    @Test
+    void itShouldLoadProfileOnce() {
+        // given
+        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(account(1L, "user1")));
+
+        // when
+        underTest.getByUsername("user1");
+        Optional<ProfileSnapshot> expected = underTest.getByUsername("user1");
+
+        // then
+        assertThat(expected).isPresent();
+        assertThat(expected.get().id()).isEqualTo(1L);
+        assertThat(new String(expected.get().json(), StandardCharsets.UTF_8))
+                .contains("\"profile\"", "\"username\":\"user1\"", "\"following\":false");
+        assertThat(underTest.getCachedId("user1")).contains(1L);
+        verify(accountRepository, times(1)).findByUsername("user1");
+        assertThat(meterRegistry.counter("cache.gets", "cache", "profile", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("cache.gets", "cache", "profile", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldGetProfileById_whenCachedByUsername() {
+        // given
+        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(account(1L, "user1")));
+        underTest.getByUsername("user1");
+
+        // when
+        Optional<ProfileSnapshot> expected = underTest.getById(1L);
+
+        // then
+        assertThat(expected.map(ProfileSnapshot::username)).contains("user1");
+        verify(accountRepository, never()).findById(any());
+    }
+
+    @Test
+    void itShouldLoadProfileById_whenRenamed() {
+        // given
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account(1L, "user1-renamed")));
+        underTest.invalidate(1L);
+
+        // when
+        Optional<ProfileSnapshot> expected = underTest.getById(1L);
+
+        // then
+        assertThat(expected.map(ProfileSnapshot::username)).contains("user1-renamed");
+        assertThat(underTest.getCachedId("user1-renamed")).contains(1L);
+    }
+
+    @Test
+    void itShouldNotCacheUnknownUsername() {
+        // given
+        when(accountRepository.findByUsername("unknown")).thenReturn(Optional.empty());
+
+        // when
+        underTest.getByUsername("unknown");
+        Optional<ProfileSnapshot> expected = underTest.getByUsername("unknown");
+
+        // then
+        assertThat(expected).isEmpty();
+        assertThat(underTest.getCachedId("unknown")).isEmpty();
+        verify(accountRepository, times(2)).findByUsername("unknown");
+    }
+
+    @Test
+    void itShouldReloadProfile_whenInvalidated() {
+        // given
+        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(account(1L, "user1")));
+        underTest.getByUsername("user1");
+
+        // when
+        underTest.invalidate(1L);
+
+        // then
+        assertThat(underTest.getCachedId("user1")).isEmpty();
+        underTest.getByUsername("user1");
+        verify(accountRepository, times(2)).findByUsername("user1");
+    }
+
+    @Test
+    void itShouldDropUsername_whenProfileIsEvicted() {
+        // given
+        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(account(1L, "user1")));
+        when(accountRepository.findByUsername("user2")).thenReturn(Optional.of(account(2L, "user2")));
+        when(accountRepository.findByUsername("user3")).thenReturn(Optional.of(account(3L, "user3")));
+
+        // when
+        underTest.getByUsername("user1");
+        underTest.getByUsername("user2");
+        underTest.getByUsername("user3");
+
+        // then
+        assertThat(underTest.getCachedId("user1")).isEmpty();
+        assertThat(underTest.getCachedId("user2")).contains(2L);
+        assertThat(underTest.getCachedId("user3")).contains(3L);
+    }
+
+    @Test
+    void itShouldNotCacheLoad_whenInvalidatedDuringLoad() {
+        // given
+        when(accountRepository.findByUsername("user1")).thenAnswer(invocation -> {
+            // profile is written while the old row is being read
+            underTest.invalidate(1L);
+            return Optional.of(account(1L, "user1"));
+        });
+
+        // when
+        Optional<ProfileSnapshot> expected = underTest.getByUsername("user1");
+
+        // then
+        assertThat(expected).isPresent();
+        assertThat(underTest.getCachedId("user1")).isEmpty();
+    }
+
+    @Test
+    void itShouldReloadProfile_whenExpired() {
+        // given
+        setField(underTest, "ttl", Duration.ZERO);
+        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(account(1L, "user1")));
+
+        // when
+        underTest.getByUsername("user1");
+        underTest.getByUsername("user1");
+
+        // then
+        verify(accountRepository, times(2)).findByUsername("user1");
+    }
+
+    private static AccountEntity account(Long id, String username) {
+        return AccountEntity.builder()
+                .id(id)
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("pass")
+                .bio("bio")
+                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
+                .build();
+    }
+}
@@ -2,11 +2,14 @@ package edu.popov.domain.profile.service;
 
 import edu.popov.domain.account.entity.AccountEntity;
 import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.domain.article.service.FeedService;
 import edu.popov.domain.profile.dto.ProfileDTO;
-import edu.popov.domain.profile.dto.ProfileMapper;
-import edu.popov.domain.profile.entity.FollowRelationEntity;
 import edu.popov.domain.profile.entity.FollowRelationId;
+import edu.popov.domain.profile.model.FollowCursor;
+import edu.popov.domain.profile.model.PageParams;
+import edu.popov.domain.profile.model.ProfileSnapshot;
 import edu.popov.domain.profile.repository.FollowRelationRepository;
+import edu.popov.utils.exception.BadRequestException;
 import edu.popov.utils.exception.NotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,15 +17,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 
 import java.time.LocalDateTime;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
 
 @ExtendWith(MockitoExtension.class)
 class ProfileServiceImplTest {
@@ -34,7 +39,13 @@ class ProfileServiceImplTest {
     private FollowRelationRepository followRelationRepository;
 
     @Mock
-    private ProfileMapper mapper;
+    private FeedService feedService;
+
+    @Mock
+    private ProfileCache profileCache;
+
+    @Mock
+    private FollowGraphService followGraphService;
 
     private ProfileServiceImpl underTest;
 
@@ -43,7 +54,8 @@ class ProfileServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        underTest = new ProfileServiceImpl(accountRepository, followRelationRepository, mapper);
+        underTest = new ProfileServiceImpl(accountRepository, followRelationRepository, feedService, profileCache, followGraphService);
+        setField(underTest, "maxLimit", 100);
     }
 
     @Test
@@ -106,6 +118,46 @@ class ProfileServiceImplTest {
         assertThat(expected.getUsername()).isEqualTo(captor.getValue());
     }
 
+    @Test
+    void itShouldGetAccountByCachedId() {
+        // given
+        AccountEntity account = AccountEntity.builder()
+                .id(1L)
+                .username("user1")
+                .build();
+        when(profileCache.getCachedId("user1")).thenReturn(Optional.of(1L));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(account));
+
+        // when
+        AccountEntity expected = underTest.getAccountByUsername("user1");
+
+        // then
+        assertThat(expected).isSameAs(account);
+        verify(accountRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void itShouldGetAccountByUsername_whenCachedAccountIsRenamed() {
+        // given
+        AccountEntity renamed = AccountEntity.builder()
+                .id(1L)
+                .username("user2")
+                .build();
+        AccountEntity account = AccountEntity.builder()
+                .id(3L)
+                .username("user1")
+                .build();
+        when(profileCache.getCachedId("user1")).thenReturn(Optional.of(1L));
+        when(accountRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(account));
+
+        // when
+        AccountEntity expected = underTest.getAccountByUsername("user1");
+
+        // then
+        assertThat(expected).isSameAs(account);
+    }
+
     @Test
     void itShouldNotGetAccountByUsername_whenUsernameIsNotExists() {
         // given
@@ -139,29 +191,21 @@ class ProfileServiceImplTest {
                 .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .build();
 
-        ProfileDTO profileDTO = ProfileDTO.builder()
-                .username("user1")
-                .build();
         FollowRelationId followRelationId = FollowRelationId.builder()
                 .accountToFollowId(accountToFollow.getId())
                 .userAccountId(userAccount.getId())
                 .build();
-        FollowRelationEntity followRelation = FollowRelationEntity.builder()
-                .id(followRelationId)
-                .accountToFollow(accountToFollow)
-                .userAccount(userAccount)
-                .createdAt(LocalDateTime.now())
-                .build();
 
-        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(accountToFollow));
-        when(mapper.mapToProfileDTO(accountToFollow)).thenReturn(profileDTO);
-        when(followRelationRepository.findById(followRelationId)).thenReturn(Optional.of(followRelation));
+        when(profileCache.getByUsername("user1")).thenReturn(Optional.of(ProfileSnapshot.of(accountToFollow)));
+        when(followGraphService.isFollowing(userAccount.getId(), accountToFollow.getId())).thenReturn(true);
 
         // when
         ProfileDTO profile = underTest.getProfile(accountToFollow.getUsername(), userAccount.getId());
 
         // then
         assertThat(profile.isFollowing()).isEqualTo(true);
+        assertThat(profile.getUsername()).isEqualTo("user1");
+        verifyNoInteractions(accountRepository);
     }
 
     @Test
@@ -184,17 +228,13 @@ class ProfileServiceImplTest {
                 .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .build();
 
-        ProfileDTO profileDTO = ProfileDTO.builder()
-                .username("user1")
-                .build();
         FollowRelationId followRelationId = FollowRelationId.builder()
                 .accountToFollowId(accountToFollow.getId())
                 .userAccountId(userAccount.getId())
                 .build();
 
-        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(accountToFollow));
-        when(mapper.mapToProfileDTO(accountToFollow)).thenReturn(profileDTO);
-        when(followRelationRepository.findById(followRelationId)).thenReturn(Optional.empty());
+        when(profileCache.getByUsername("user1")).thenReturn(Optional.of(ProfileSnapshot.of(accountToFollow)));
+        when(followGraphService.isFollowing(userAccount.getId(), accountToFollow.getId())).thenReturn(false);
 
         // when
         ProfileDTO profile = underTest.getProfile(accountToFollow.getUsername(), userAccount.getId());
@@ -214,39 +254,17 @@ class ProfileServiceImplTest {
                 .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .build();
-        AccountEntity userAccount = AccountEntity.builder()
-                .id(2L)
-                .username("user2")
-                .email("user2@gmail.com")
-                .password("pass2")
-                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .build();
-
-        ProfileDTO profileDTO = ProfileDTO.builder()
-                .username("user1")
-                .build();
-        FollowRelationId followRelationId = FollowRelationId.builder()
-                .accountToFollowId(accountToFollow.getId())
-                .userAccountId(userAccount.getId())
-                .build();
-        FollowRelationEntity followRelation = FollowRelationEntity.builder()
-                .id(followRelationId)
-                .accountToFollow(accountToFollow)
-                .userAccount(userAccount)
-                .createdAt(LocalDateTime.now())
-                .build();
 
-        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(accountToFollow));
-        when(accountRepository.findById(2L)).thenReturn(Optional.of(userAccount));
-        when(mapper.mapToProfileDTO(accountToFollow)).thenReturn(profileDTO);
-        when(followRelationRepository.findById(followRelationId)).thenReturn(Optional.of(followRelation));
+        when(profileCache.getByUsername("user1")).thenReturn(Optional.of(ProfileSnapshot.of(accountToFollow)));
+        when(followRelationRepository.insertIfAbsent(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(0);
 
         // when
-        ProfileDTO profile = underTest.followProfile(accountToFollow.getUsername(), userAccount.getId());
+        ProfileDTO profile = underTest.followProfile(accountToFollow.getUsername(), 2L);
 
         // then
         assertThat(profile.isFollowing()).isEqualTo(true);
+        verify(accountRepository, never()).incrementFollowersCount(anyLong(), anyLong());
+        verifyNoInteractions(followGraphService, feedService);
     }
 
     @Test
@@ -260,33 +278,20 @@ class ProfileServiceImplTest {
                 .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .build();
-        AccountEntity userAccount = AccountEntity.builder()
-                .id(2L)
-                .username("user2")
-                .email("user2@gmail.com")
-                .password("pass2")
-                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .build();
 
-        ProfileDTO profileDTO = ProfileDTO.builder()
-                .username("user1")
-                .build();
-        FollowRelationId followRelationId = FollowRelationId.builder()
-                .accountToFollowId(accountToFollow.getId())
-                .userAccountId(userAccount.getId())
-                .build();
-
-        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(accountToFollow));
-        when(accountRepository.findById(2L)).thenReturn(Optional.of(userAccount));
-        when(mapper.mapToProfileDTO(accountToFollow)).thenReturn(profileDTO);
-        when(followRelationRepository.findById(followRelationId)).thenReturn(Optional.empty());
+        when(profileCache.getByUsername("user1")).thenReturn(Optional.of(ProfileSnapshot.of(accountToFollow)));
+        when(followRelationRepository.insertIfAbsent(eq(1L), eq(2L), any(LocalDateTime.class))).thenReturn(1);
 
         // when
-        ProfileDTO profile = underTest.followProfile(accountToFollow.getUsername(), userAccount.getId());
+        ProfileDTO profile = underTest.followProfile(accountToFollow.getUsername(), 2L);
 
         // then
         assertThat(profile.isFollowing()).isEqualTo(true);
+        assertThat(profile.getFollowersCount()).isEqualTo(1L);
+        verify(accountRepository, times(1)).incrementFollowersCount(accountToFollow.getId(), 1);
+        verify(followGraphService, times(1)).followed(2L, accountToFollow.getId());
+        verify(profileCache, times(1)).invalidate(accountToFollow.getId());
+        verify(feedService, times(1)).follow(2L, accountToFollow.getId());
     }
 
     @Test
@@ -300,39 +305,19 @@ class ProfileServiceImplTest {
                 .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .build();
-        AccountEntity userAccount = AccountEntity.builder()
-                .id(2L)
-                .username("user2")
-                .email("user2@gmail.com")
-                .password("pass2")
-                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .build();
-
-        ProfileDTO profileDTO = ProfileDTO.builder()
-                .username("user1")
-                .build();
-        FollowRelationId followRelationId = FollowRelationId.builder()
-                .accountToFollowId(accountToFollow.getId())
-                .userAccountId(userAccount.getId())
-                .build();
-        FollowRelationEntity followRelation = FollowRelationEntity.builder()
-                .id(followRelationId)
-                .accountToFollow(accountToFollow)
-                .userAccount(userAccount)
-                .createdAt(LocalDateTime.now())
-                .build();
 
-        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(accountToFollow));
-        when(accountRepository.findById(2L)).thenReturn(Optional.of(userAccount));
-        when(mapper.mapToProfileDTO(accountToFollow)).thenReturn(profileDTO);
-        when(followRelationRepository.findById(followRelationId)).thenReturn(Optional.of(followRelation));
+        when(profileCache.getByUsername("user1")).thenReturn(Optional.of(ProfileSnapshot.of(accountToFollow)));
+        when(followRelationRepository.deleteIfPresent(1L, 2L)).thenReturn(1);
 
         // when
-        ProfileDTO profile = underTest.unfollowProfile(accountToFollow.getUsername(), userAccount.getId());
+        ProfileDTO profile = underTest.unfollowProfile(accountToFollow.getUsername(), 2L);
 
         // then
         assertThat(profile.isFollowing()).isEqualTo(false);
+        verify(accountRepository, times(1)).incrementFollowersCount(accountToFollow.getId(), -1);
+        verify(followGraphService, times(1)).unfollowed(2L, accountToFollow.getId());
+        verify(profileCache, times(1)).invalidate(accountToFollow.getId());
+        verify(feedService, times(1)).unfollow(2L, accountToFollow.getId());
     }
 
     @Test
@@ -346,94 +331,81 @@ class ProfileServiceImplTest {
                 .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
                 .build();
-        AccountEntity userAccount = AccountEntity.builder()
-                .id(2L)
-                .username("user2")
-                .email("user2@gmail.com")
-                .password("pass2")
-                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .build();
 
-        ProfileDTO profileDTO = ProfileDTO.builder()
-                .username("user1")
-                .build();
-        FollowRelationId followRelationId = FollowRelationId.builder()
-                .accountToFollowId(accountToFollow.getId())
-                .userAccountId(userAccount.getId())
-                .build();
-        FollowRelationEntity followRelation = FollowRelationEntity.builder()
-                .id(followRelationId)
-                .accountToFollow(accountToFollow)
-                .userAccount(userAccount)
-                .createdAt(LocalDateTime.now())
-                .build();
-
-        when(accountRepository.findByUsername("user1")).thenReturn(Optional.of(accountToFollow));
-        when(accountRepository.findById(2L)).thenReturn(Optional.of(userAccount));
-        when(mapper.mapToProfileDTO(accountToFollow)).thenReturn(profileDTO);
-        when(followRelationRepository.findById(followRelationId)).thenReturn(Optional.empty());
+        when(profileCache.getByUsername("user1")).thenReturn(Optional.of(ProfileSnapshot.of(accountToFollow)));
+        when(followRelationRepository.deleteIfPresent(1L, 2L)).thenReturn(0);
 
         // when
-        ProfileDTO profile = underTest.unfollowProfile(accountToFollow.getUsername(), userAccount.getId());
+        ProfileDTO profile = underTest.unfollowProfile(accountToFollow.getUsername(), 2L);
 
         // then
         assertThat(profile.isFollowing()).isEqualTo(false);
+        verify(accountRepository, never()).incrementFollowersCount(anyLong(), anyLong());
+        verifyNoInteractions(followGraphService, feedService);
     }
 
     @Test
     void itShouldGetFollowers() {
         // given
-        AccountEntity userAccount = AccountEntity.builder()
-                .id(1L)
-                .username("user1")
-                .email("user1@gmail.com")
-                .password("pass1")
-                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .build();
-        AccountEntity follower = AccountEntity.builder()
-                .id(2L)
-                .username("user2")
-                .email("user2@gmail.com")
-                .password("pass2")
-                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .build();
-        ProfileDTO profileDTO = ProfileDTO.builder()
-                .username("user2")
-                .build();
-        when(mapper.mapToProfileDTO(follower)).thenReturn(profileDTO);
-        when(accountRepository.findById(userAccount.getId())).thenReturn(Optional.of(userAccount));
-        when(followRelationRepository.findFollowers(userAccount)).thenReturn(List.of(follower));
+        FollowRelationRepository.FollowProfile follower = new FollowRelationRepository.FollowProfile(
+                2L, "user2", "bio", "image", 1L, 0L, LocalDateTime.of(2022, 12, 11, 17, 20, 20));
+        when(followRelationRepository.findFollowers(eq(1L), any(Pageable.class))).thenReturn(List.of(follower));
+        when(followGraphService.findFollowed(1L, List.of(2L))).thenReturn(Set.of(2L));
 
         // when
-        List<ProfileDTO> followers = underTest.getFollowers(userAccount.getId());
+        ProfileDTO.MultipleProfiles followers = underTest.getFollowers(1L, PageParams.builder().limit(1).build());
 
         // then
-        assertThat(followers).isNotEmpty();
-        assertThat(followers.get(0)).isEqualTo(profileDTO);
+        assertThat(followers.getProfiles()).hasSize(1);
+        assertThat(followers.getProfiles().get(0).getUsername()).isEqualTo("user2");
+        assertThat(followers.getProfiles().get(0).isFollowing()).isTrue();
+        assertThat(FollowCursor.decode(followers.getNextCursor())).isEqualTo(FollowCursor.of(follower));
     }
 
     @Test
-    void itShouldNotGetFollowings() {
+    void itShouldGetFollowings_whenCursorIsSet() {
         // given
-        AccountEntity userAccount = AccountEntity.builder()
-                .id(1L)
-                .username("user1")
-                .email("user1@gmail.com")
-                .password("pass1")
-                .createdAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .updatedAt(LocalDateTime.of(2022, 12, 11, 17, 20, 20))
-                .build();
+        FollowCursor cursor = new FollowCursor(LocalDateTime.of(2022, 12, 11, 17, 20, 20), 3L);
+        FollowRelationRepository.FollowProfile following = new FollowRelationRepository.FollowProfile(
+                2L, "user2", "bio", "image", 1L, 0L, LocalDateTime.of(2022, 12, 10, 17, 20, 20));
+        when(followRelationRepository.findFollowingsBefore(eq(1L), eq(cursor.followedAt()), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(following));
 
-        when(accountRepository.findById(userAccount.getId())).thenReturn(Optional.of(userAccount));
-        when(followRelationRepository.findFollowings(userAccount)).thenReturn(Collections.emptyList());
+        // when
+        ProfileDTO.MultipleProfiles followings = underTest.getFollowings(1L, PageParams.builder()
+                .cursor(cursor.encode())
+                .build());
+
+        // then
+        assertThat(followings.getProfiles()).hasSize(1);
+        assertThat(followings.getProfiles().get(0).isFollowing()).isTrue();
+        assertThat(followings.getNextCursor()).isNull();
+        verifyNoInteractions(followGraphService);
+    }
+
+    @Test
+    void itShouldNotGetFollowings() {
+        // given
+        when(followRelationRepository.findFollowings(eq(1L), any(Pageable.class))).thenReturn(List.of());
 
         // when
-        List<ProfileDTO> followings = underTest.getFollowings(userAccount.getId());
+        ProfileDTO.MultipleProfiles followings = underTest.getFollowings(1L, new PageParams());
+
+        // then
+        assertThat(followings.getProfiles()).isEmpty();
+        assertThat(followings.getNextCursor()).isNull();
+    }
 
+    @Test
+    void itShouldNotGetFollowings_whenLimitIsOutOfRange() {
+        // given
+        PageParams pageParams = PageParams.builder().limit(101).build();
+
+        // when
         // then
-        assertThat(followings).isEmpty();
+        assertThatThrownBy(() -> underTest.getFollowings(1L, pageParams))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessage("Limit 101 is out of range, use 1 to 100");
+        verifyNoInteractions(followRelationRepository);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,107 @@
+package edu.popov.domain.tag.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TagPopularityIndexTest {
+
+    @Test
+    void itShouldRankTagsByCount() {
+        // given
+        TagPopularityIndex underTest = TagPopularityIndex.of(Map.of("tag1", 1L, "tag2", 3L, "tag3", 2L, "tag4", 0L));
+
+        // when
+        List<String> expected = underTest.top(10, null);
+
+        // then
+        assertThat(expected).containsExactly("tag2", "tag3", "tag1");
+    }
+
+    @Test
+    void itShouldMoveTagUp_whenIncremented() {
+        // given
+        TagPopularityIndex underTest = TagPopularityIndex.of(Map.of("tag1", 2L, "tag2", 1L, "tag3", 1L));
+
+        // when
+        int first = underTest.increment("tag3");
+        int second = underTest.increment("tag3");
+
+        // then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(0);
+        assertThat(underTest.top(10, null)).containsExactly("tag3", "tag1", "tag2");
+    }
+
+    @Test
+    void itShouldReturnUnchanged_whenOrderIsTheSame() {
+        // given
+        TagPopularityIndex underTest = TagPopularityIndex.of(Map.of("tag1", 2L, "tag2", 1L));
+
+        // when
+        // then
+        assertThat(underTest.increment("tag1")).isEqualTo(TagPopularityIndex.UNCHANGED);
+        assertThat(underTest.decrement("tag1")).isEqualTo(TagPopularityIndex.UNCHANGED);
+        assertThat(underTest.decrement("unknown")).isEqualTo(TagPopularityIndex.UNCHANGED);
+    }
+
+    @Test
+    void itShouldDropTag_whenCountIsZero() {
+        // given
+        TagPopularityIndex underTest = TagPopularityIndex.of(Map.of("tag1", 1L, "tag2", 1L, "tag3", 2L));
+
+        // when
+        underTest.decrement("tag1");
+
+        // then
+        assertThat(underTest.size()).isEqualTo(2);
+        assertThat(underTest.count("tag1")).isZero();
+        assertThat(underTest.top(10, null)).containsExactly("tag3", "tag2");
+    }
+
+    @Test
+    void itShouldFilterByPrefix() {
+        // given
+        TagPopularityIndex underTest = TagPopularityIndex.of(Map.of("java", 3L, "javascript", 2L, "go", 5L, "jvm", 1L));
+
+        // when
+        // then
+        assertThat(underTest.top(10, "ja")).containsExactly("java", "javascript");
+        assertThat(underTest.top(1, "j")).containsExactly("java");
+    }
+
+    @Test
+    void itShouldMatchSortedCounts_afterRandomUpdates() {
+        // given
+        TagPopularityIndex underTest = new TagPopularityIndex();
+        Map<String, Long> counts = new HashMap<>();
+        Random random = new Random(42);
+
+        // when
+        for (int i = 0; i < 10_000; i++) {
+            String tagName = "tag" + random.nextInt(30);
+            if (random.nextInt(3) == 0) {
+                underTest.decrement(tagName);
+                counts.computeIfPresent(tagName, (name, count) -> count == 1 ? null : count - 1);
+            } else {
+                underTest.increment(tagName);
+                counts.merge(tagName, 1L, Long::sum);
+            }
+        }
+
+        // then
+        List<String> ranked = underTest.top(100, null);
+        assertThat(ranked).containsExactlyInAnyOrderElementsOf(counts.keySet());
+        Map<String, Long> actual = ranked.stream().collect(Collectors.toMap(Function.identity(), underTest::count));
+        assertThat(actual).isEqualTo(counts);
+        for (int i = 1; i < ranked.size(); i++)
+            assertThat(underTest.count(ranked.get(i - 1))).isGreaterThanOrEqualTo(underTest.count(ranked.get(i)));
+    }
+}
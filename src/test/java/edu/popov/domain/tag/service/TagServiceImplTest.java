@@ -0,0 +1,141 @@
+package edu.popov.domain.tag.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.popov.domain.autocomplete.service.AutocompleteService;
+import edu.popov.domain.tag.entity.TagEntity;
+import edu.popov.domain.tag.repository.TagRepository;
+import edu.popov.utils.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class TagServiceImplTest {
+
+    @Mock
+    private TagRepository tagRepository;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    private TagService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new TagServiceImpl(tagRepository, new ObjectMapper(), autocompleteService);
+        setField(underTest, "defaultLimit", 2);
+        setField(underTest, "maxLimit", 10);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itShouldResolveExistingTagsAndInsertOnlyUnknown() {
+        // given
+        TagEntity tag1 = TagEntity.builder().id(1L).tagName("tag1").build();
+        when(tagRepository.findByTagNameIn(List.of("tag2", "tag1"))).thenReturn(List.of(tag1));
+        when(tagRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TagEntity> tags = invocation.getArgument(0);
+            tags.forEach(tag -> tag.setId(2L));
+            return tags;
+        });
+
+        // when
+        List<TagEntity> expected = underTest.resolveTags(List.of("tag2", "tag1", "tag2"));
+
+        // then
+        ArgumentCaptor<List<TagEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(tagRepository, times(1)).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(TagEntity::getTagName).containsExactly("tag2");
+        assertThat(expected).extracting(TagEntity::getId).containsExactly(2L, 1L);
+        verify(autocompleteService, times(1)).tagsAdded(List.of("tag2"));
+    }
+
+    @Test
+    void itShouldNotQuery_whenTagListIsEmpty() {
+        // when
+        List<TagEntity> expected = underTest.resolveTags(List.of());
+
+        // then
+        assertThat(expected).isEmpty();
+        verifyNoInteractions(tagRepository, autocompleteService);
+    }
+
+    @Test
+    void itShouldReturnMostUsedTags() {
+        // given
+        underTest.articleTagsAdded(List.of("tag1", "tag2"));
+        underTest.articleTagsAdded(List.of("tag2", "tag3"));
+        underTest.articleTagsAdded(List.of("tag3"));
+
+        // when
+        // then
+        assertThat(new String(underTest.getTags(null, null))).isEqualTo("{\"tags\":[\"tag2\",\"tag3\"]}");
+        assertThat(new String(underTest.getTags(1, "tag1"))).isEqualTo("{\"tags\":[\"tag1\"]}");
+        verifyNoInteractions(tagRepository);
+    }
+
+    @Test
+    void itShouldChangeETag_whenRankingChanges() {
+        // given
+        underTest.articleTagsAdded(List.of("tag1"));
+        String eTag = underTest.getTagsETag(null, null);
+
+        // when
+        underTest.articleTagsAdded(List.of("tag2"));
+
+        // then
+        assertThat(underTest.getTagsETag(null, null)).isNotEqualTo(eTag);
+        assertThat(new String(underTest.getTags(null, null))).isEqualTo("{\"tags\":[\"tag1\",\"tag2\"]}");
+    }
+
+    @Test
+    void itShouldRemoveTag_whenLastArticleIsDeleted() {
+        // given
+        underTest.articleTagsAdded(List.of("tag1", "tag2"));
+        underTest.articleTagsAdded(List.of("tag2"));
+
+        // when
+        underTest.articleTagsRemoved(List.of("tag1", "tag2"));
+
+        // then
+        assertThat(new String(underTest.getTags(null, null))).isEqualTo("{\"tags\":[\"tag2\"]}");
+    }
+
+    @Test
+    void itShouldRebuildTagsFromArticles() {
+        // given
+        underTest.articleTagsAdded(List.of("stale"));
+        TagRepository.TagUsage usage = mock(TagRepository.TagUsage.class);
+        when(usage.getTagName()).thenReturn("tag1");
+        when(usage.getArticlesCount()).thenReturn(3L);
+        when(tagRepository.findUsage()).thenReturn(List.of(usage));
+
+        // when
+        underTest.rebuildPopularity();
+
+        // then
+        assertThat(new String(underTest.getTags(null, null))).isEqualTo("{\"tags\":[\"tag1\"]}");
+    }
+
+    @Test
+    void itShouldThrow_whenLimitIsOutOfRange() {
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.getTags(11, null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Limit 11 is not in range 1..10");
+        assertThatThrownBy(() -> underTest.getTags(0, null))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+}
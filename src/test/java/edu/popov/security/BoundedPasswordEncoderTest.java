@@ -0,0 +1,102 @@
+package edu.popov.security;
+
+import edu.popov.utils.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BoundedPasswordEncoder underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = new BoundedPasswordEncoder(delegate, 1, 1, Duration.ofSeconds(2), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.close();
+    }
+
+    @Test
+    void itShouldHashOnPool() {
+        // given
+        when(delegate.encode("pass")).thenAnswer(invocation -> Thread.currentThread().getName());
+        when(delegate.matches("pass", "hash")).thenReturn(true);
+
+        // when
+        String expected = underTest.encode("pass");
+
+        // then
+        assertThat(expected).startsWith("password-hashing-");
+        assertThat(underTest.matches("pass", "hash")).isTrue();
+        assertThat(meterRegistry.timer("password.hashing.wait").count()).isEqualTo(2);
+        assertThat(meterRegistry.timer("password.hashing").count()).isEqualTo(2);
+    }
+
+    @Test
+    void itShouldReject_whenQueueIsFull() throws Exception {
+        // given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.encode("slow")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return "hash";
+        });
+        when(delegate.encode("queued")).thenReturn("hash");
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> underTest.encode("slow"));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> underTest.encode("queued"));
+        while (meterRegistry.get("password.hashing.queue").gauge().value() < 1)
+            Thread.onSpinWait();
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.encode("rejected"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessageContaining("Too many logins")
+                .extracting(e -> ((ServiceUnavailableException) e).getRetryAfter())
+                .isEqualTo(Duration.ofSeconds(2));
+        assertThat(meterRegistry.counter("password.hashing.rejected").count()).isEqualTo(1);
+        verify(delegate, never()).encode("rejected");
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isEqualTo("hash");
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo("hash");
+    }
+
+    @Test
+    void itShouldRethrowDelegateException() {
+        // given
+        when(delegate.matches("pass", "broken")).thenThrow(new IllegalArgumentException("Encoded password does not look like BCrypt"));
+
+        // when
+        // then
+        assertThatThrownBy(() -> underTest.matches("pass", "broken"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("does not look like BCrypt");
+    }
+}
@@ -0,0 +1,131 @@
+package edu.popov.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.popov.domain.account.dto.AccountDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Read latency while logins arrive at -Dbenchmark.logins-per-second (500 by default) for a few seconds. Logins are
+ * served by a pool as large as the default Tomcat pool, reads by the test thread. Bcrypt runs on the bounded
+ * password hashing pool, so reads keep the other cores and logins above its capacity get 503. The pool size
+ * of application.yml is overridden with -Dbenchmark.hashing-threads, the machine needs more cores than that.
+ * Not part of the test task, run with gradle benchmark.
+ */
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class PasswordHashingLoadTest {
+
+    private static final int LOGINS_PER_SECOND = Integer.getInteger("benchmark.logins-per-second", 500);
+    private static final int STORM_SECONDS = 5;
+    private static final int REQUEST_THREADS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DynamicPropertySource
+    static void hashingThreads(DynamicPropertyRegistry registry) {
+        String threads = System.getProperty("benchmark.hashing-threads");
+        if (threads != null)
+            registry.add("security.password-hashing.threads", () -> threads);
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void itShouldKeepReadLatency_whenLoginsStorm() throws Exception {
+        // given
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(AccountDTO.Registration.builder()
+                                .username("storm").email("storm@gmail.com").password("pass").build())))
+                .andExpect(status().isOk());
+        String login = objectMapper.writeValueAsString(AccountDTO.Auth.builder()
+                .email("storm@gmail.com").password("pass").build());
+        read(500);
+        long[] baseline = read(1000);
+
+        // when
+        Map<Integer, AtomicInteger> statuses = new ConcurrentHashMap<>();
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        ScheduledExecutorService clock = Executors.newSingleThreadScheduledExecutor();
+        clock.scheduleAtFixedRate(() -> requestThreads.execute(() -> {
+            try {
+                int status = mockMvc.perform(post("/api/users/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(login))
+                        .andReturn().getResponse().getStatus();
+                statuses.computeIfAbsent(status, s -> new AtomicInteger()).incrementAndGet();
+            } catch (Exception e) {
+                statuses.computeIfAbsent(-1, s -> new AtomicInteger()).incrementAndGet();
+            }
+        }), 0, 1_000_000 / LOGINS_PER_SECOND, TimeUnit.MICROSECONDS);
+        long[] storm = readFor(TimeUnit.SECONDS.toNanos(STORM_SECONDS));
+        clock.shutdownNow();
+        requestThreads.shutdown();
+        assertThat(requestThreads.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // then
+        long baselineP99 = baseline[baseline.length * 99 / 100];
+        long stormP99 = storm[storm.length * 99 / 100];
+        log.info("Read p50/p99: baseline {}/{} us, during {} logins/s {}/{} us, login statuses {}",
+                baseline[baseline.length / 2], baselineP99, LOGINS_PER_SECOND,
+                storm[storm.length / 2], stormP99, statuses);
+        assertThat(statuses.get(200)).isNotNull();
+        assertThat(statuses).doesNotContainKey(-1);
+        assertThat(stormP99).isLessThan(baselineP99 * 5 + 20_000);
+    }
+
+    private long[] read(int requests) throws Exception {
+        long[] micros = new long[requests];
+        for (int i = 0; i < requests; i++)
+            micros[i] = readOnce();
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private long[] readFor(long nanos) throws Exception {
+        long[] micros = new long[1024];
+        int count = 0;
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            if (count == micros.length)
+                micros = Arrays.copyOf(micros, count * 2);
+            micros[count++] = readOnce();
+        }
+        micros = Arrays.copyOf(micros, count);
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private long readOnce() throws Exception {
+        long start = System.nanoTime();
+        mockMvc.perform(get("/api/articles").param("limit", "20")).andExpect(status().isOk());
+        return (System.nanoTime() - start) / 1000;
+    }
+}
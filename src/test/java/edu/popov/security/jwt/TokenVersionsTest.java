@@ -0,0 +1,59 @@
+package edu.popov.security.jwt;
+
+import edu.popov.domain.account.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionsTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private TokenVersions underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new TokenVersions(accountRepository);
+    }
+
+    @Test
+    void itShouldLoadVersionsOnFirstUse() {
+        // given
+        when(accountRepository.findRevokedTokenVersions()).thenReturn(List.of(new AccountRepository.TokenVersion(1L, 2L)));
+
+        // when
+        boolean revoked = underTest.isCurrent(1L, 1L);
+        boolean current = underTest.isCurrent(1L, 2L);
+        boolean other = underTest.isCurrent(2L, 0L);
+
+        // then
+        assertThat(revoked).isFalse();
+        assertThat(current).isTrue();
+        assertThat(other).isTrue();
+        verify(accountRepository, times(1)).findRevokedTokenVersions();
+    }
+
+    @Test
+    void itShouldKeepNewerVersion_whenRefreshedWithOlder() {
+        // given
+        when(accountRepository.findRevokedTokenVersions()).thenReturn(List.of(new AccountRepository.TokenVersion(1L, 1L)));
+        underTest.refresh();
+
+        // when
+        underTest.revoked(1L, 2L);
+        underTest.refresh();
+
+        // then
+        assertThat(underTest.isCurrent(1L, 1L)).isFalse();
+        assertThat(underTest.isCurrent(1L, 2L)).isTrue();
+    }
+}
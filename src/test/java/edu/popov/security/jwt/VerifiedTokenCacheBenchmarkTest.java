@@ -0,0 +1,96 @@
+package edu.popov.security.jwt;
+
+import edu.popov.domain.account.repository.AccountRepository;
+import edu.popov.security.AccountDetails;
+import edu.popov.security.AuthenticationProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * Authentication cost per request of the filter before the cache (verify twice, parse three times, two account
+ * lookups), with the cache and with the cache in claims mode, where misses need no account lookup. Accounts are looked up from a map, so database time is not included but
+ * lookups are counted. Number of requests is set with -Dbenchmark.requests.
+ * Not part of the test task, run with gradle benchmark.
+ */
+@Slf4j
+@Tag("benchmark")
+class VerifiedTokenCacheBenchmarkTest {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 200_000);
+    private static final int USERS = 1000;
+
+    @Test
+    void itShouldAuthenticateCachedTokensWithoutVerification() throws Exception {
+        // given
+        Map<String, UserDetails> accounts = IntStream.range(0, USERS)
+                .mapToObj(i -> AccountDetails.builder().id((long) i).email("user" + i + "@gmail.com").password("pass").build())
+                .collect(Collectors.toMap(AccountDetails::email, Function.identity()));
+        AtomicLong lookups = new AtomicLong();
+        UserDetailsService userDetailsService = username -> {
+            lookups.incrementAndGet();
+            return accounts.get(username);
+        };
+        JwtUtils jwtUtils = new JwtUtils("secret-secret-secret-secret-secret-secret", userDetailsService);
+        setField(jwtUtils, "validTime", 24L);
+        AuthenticationProvider authenticationProvider = new AuthenticationProvider(userDetailsService);
+        TokenVersions tokenVersions = new TokenVersions(mock(AccountRepository.class));
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtUtils, authenticationProvider, tokenVersions, new SimpleMeterRegistry());
+        setField(cache, "maxSize", 10_000);
+        setField(cache, "authMode", "lookup");
+        VerifiedTokenCache claimsCache = new VerifiedTokenCache(jwtUtils, authenticationProvider, tokenVersions, new SimpleMeterRegistry());
+        setField(claimsCache, "maxSize", 10_000);
+        setField(claimsCache, "authMode", "claims");
+        List<String> tokens = accounts.values().stream()
+                .map(account -> jwtUtils.generateToken((AccountDetails) account, 0L))
+                .toList();
+
+        // when
+        measure(REQUESTS / 10, tokens, token -> jwtUtils.isTokenValid(token)
+                ? authenticationProvider.getAuthentication(jwtUtils.extractUsername(token)) : null);
+        long uncachedLookups = lookups.getAndSet(0);
+        double uncached = measure(REQUESTS, tokens, token -> jwtUtils.isTokenValid(token)
+                ? authenticationProvider.getAuthentication(jwtUtils.extractUsername(token)) : null);
+        lookups.set(0);
+        measure(REQUESTS / 10, tokens, cache::authenticate);
+        long cachedLookups = lookups.getAndSet(0);
+        double cached = measure(REQUESTS, tokens, cache::authenticate);
+        measure(REQUESTS / 10, tokens, claimsCache::authenticate);
+        double claims = measure(REQUESTS, tokens, claimsCache::authenticate);
+
+        // then
+        log.info("Auth per request: uncached {} us with {} lookups, cached {} us with {} lookups, claims {} us",
+                String.format("%.2f", uncached), uncachedLookups * 10 / REQUESTS,
+                String.format("%.2f", cached), cachedLookups * 10 / REQUESTS, String.format("%.2f", claims));
+        assertThat(lookups.get()).isZero();
+        assertThat(claims).isLessThan(uncached / 5);
+        assertThat(cachedLookups).isEqualTo(USERS);
+        assertThat(cached).isLessThan(uncached / 5);
+    }
+
+    /**
+     * Average micros per request.
+     */
+    private static double measure(int requests, List<String> tokens, Function<String, Object> authenticate) {
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++)
+            sink = authenticate.apply(tokens.get(i % tokens.size()));
+        assertThat(sink).isNotNull();
+        return (System.nanoTime() - start) / 1000.0 / requests;
+    }
+}
@@ -0,0 +1,237 @@
+package edu.popov.security.jwt;
+
+import edu.popov.security.AccountDetails;
+import edu.popov.security.AuthenticationProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+@ExtendWith(MockitoExtension.class)
+class VerifiedTokenCacheTest {
+
+    private static final String SECRET = "secret-secret-secret-secret-secret-secret";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private AuthenticationProvider authenticationProvider;
+
+    @Mock
+    private TokenVersions tokenVersions;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JwtUtils jwtUtils;
+
+    private VerifiedTokenCache underTest;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtils = spy(new JwtUtils(SECRET, userDetailsService));
+        setField(jwtUtils, "validTime", 24L);
+        underTest = new VerifiedTokenCache(jwtUtils, authenticationProvider, tokenVersions, meterRegistry);
+        setField(underTest, "maxSize", 2);
+        setField(underTest, "authMode", "lookup");
+    }
+
+    @Test
+    void itShouldVerifyTokenOnce() {
+        // given
+        String token = jwtUtils.generateToken(details(1L, "user1@gmail.com"));
+        Authentication authentication = authentication(1L, "user1@gmail.com");
+        when(authenticationProvider.getAuthentication("user1@gmail.com")).thenReturn(authentication);
+
+        // when
+        underTest.authenticate(token);
+        Optional<Authentication> expected = underTest.authenticate(token);
+
+        // then
+        assertThat(expected).contains(authentication);
+        verify(jwtUtils, times(1)).extractClaims(token);
+        verify(authenticationProvider, times(1)).getAuthentication("user1@gmail.com");
+        verifyNoInteractions(userDetailsService);
+        assertThat(meterRegistry.counter("cache.gets", "cache", "token", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("cache.gets", "cache", "token", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    void itShouldRejectInvalidTokens() {
+        // given
+        String token = jwtUtils.generateToken(details(1L, "user1@gmail.com"));
+        String forged = Jwts.builder()
+                .setSubject("user1@gmail.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("other-other-other-other-other-other-other".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        setField(jwtUtils, "validTime", -1L);
+        String expired = jwtUtils.generateToken(details(1L, "user1@gmail.com"));
+
+        // when
+        // then
+        assertThat(underTest.authenticate(forged)).isEmpty();
+        assertThat(underTest.authenticate(expired)).isEmpty();
+        assertThat(underTest.authenticate("not a token")).isEmpty();
+        assertThat(underTest.authenticate(token.substring(0, token.length() - 2))).isEmpty();
+        verifyNoInteractions(authenticationProvider);
+    }
+
+    @Test
+    void itShouldNotCache_whenAccountIsUnknown() {
+        // given
+        String token = jwtUtils.generateToken(details(1L, "user1@gmail.com"));
+
+        // when
+        underTest.authenticate(token);
+        Optional<Authentication> expected = underTest.authenticate(token);
+
+        // then
+        assertThat(expected).isEmpty();
+        verify(authenticationProvider, times(2)).getAuthentication("user1@gmail.com");
+    }
+
+    @Test
+    void itShouldExpireEntry_whenTokenExpires() throws InterruptedException {
+        // given
+        String token = Jwts.builder()
+                .setSubject("user1@gmail.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 1000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        when(authenticationProvider.getAuthentication("user1@gmail.com"))
+                .thenReturn(authentication(1L, "user1@gmail.com"));
+        assertThat(underTest.authenticate(token)).isPresent();
+
+        // when
+        Thread.sleep(1100);
+        Optional<Authentication> expected = underTest.authenticate(token);
+
+        // then
+        assertThat(expected).isEmpty();
+        verify(jwtUtils, times(2)).extractClaims(token);
+    }
+
+    @Test
+    void itShouldDropTokensOfAccount_whenInvalidated() {
+        // given
+        String token1 = jwtUtils.generateToken(details(1L, "user1@gmail.com"));
+        String token2 = jwtUtils.generateToken(details(2L, "user2@gmail.com"));
+        when(authenticationProvider.getAuthentication("user1@gmail.com"))
+                .thenReturn(authentication(1L, "user1@gmail.com"));
+        when(authenticationProvider.getAuthentication("user2@gmail.com"))
+                .thenReturn(authentication(2L, "user2@gmail.com"));
+        underTest.authenticate(token1);
+        underTest.authenticate(token2);
+
+        // when
+        underTest.invalidateAccount(1L);
+        underTest.authenticate(token1);
+        underTest.authenticate(token2);
+
+        // then
+        verify(authenticationProvider, times(2)).getAuthentication("user1@gmail.com");
+        verify(authenticationProvider, times(1)).getAuthentication("user2@gmail.com");
+    }
+
+    @Test
+    void itShouldEvictLeastRecentlyUsedToken_whenFull() {
+        // given
+        String token1 = jwtUtils.generateToken(details(1L, "user1@gmail.com"));
+        String token2 = jwtUtils.generateToken(details(2L, "user2@gmail.com"));
+        String token3 = jwtUtils.generateToken(details(3L, "user3@gmail.com"));
+        when(authenticationProvider.getAuthentication(anyString()))
+                .thenAnswer(invocation -> authentication(1L, invocation.getArgument(0)));
+
+        // when
+        underTest.authenticate(token1);
+        underTest.authenticate(token2);
+        underTest.authenticate(token1);
+        underTest.authenticate(token3);
+        underTest.authenticate(token1);
+        underTest.authenticate(token2);
+
+        // then
+        verify(authenticationProvider, times(1)).getAuthentication("user1@gmail.com");
+        verify(authenticationProvider, times(2)).getAuthentication("user2@gmail.com");
+    }
+
+    @Test
+    void itShouldAuthenticateFromClaims_whenClaimsModeIsOn() {
+        // given
+        setField(underTest, "authMode", "claims");
+        String token = jwtUtils.generateToken(details(1L, "user1@gmail.com"), 2L);
+        when(authenticationProvider.getAuthentication(any(AccountDetails.class))).thenCallRealMethod();
+        when(tokenVersions.isCurrent(1L, 2L)).thenReturn(true);
+
+        // when
+        underTest.authenticate(token);
+        Optional<Authentication> expected = underTest.authenticate(token);
+
+        // then
+        assertThat(expected).map(Authentication::getPrincipal)
+                .contains(AccountDetails.builder().id(1L).email("user1@gmail.com").build());
+        verify(authenticationProvider, never()).getAuthentication(anyString());
+        verify(jwtUtils, times(1)).extractClaims(token);
+        verify(tokenVersions, times(2)).isCurrent(1L, 2L);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void itShouldRejectRevokedToken_whenClaimsModeIsOn() {
+        // given
+        setField(underTest, "authMode", "claims");
+        String token = jwtUtils.generateToken(details(1L, "user1@gmail.com"), 0L);
+        when(authenticationProvider.getAuthentication(any(AccountDetails.class))).thenCallRealMethod();
+        when(tokenVersions.isCurrent(1L, 0L)).thenReturn(true, false);
+        assertThat(underTest.authenticate(token)).isPresent();
+
+        // when
+        Optional<Authentication> expected = underTest.authenticate(token);
+
+        // then
+        assertThat(expected).isEmpty();
+        verify(authenticationProvider, never()).getAuthentication(anyString());
+    }
+
+    @Test
+    void itShouldLookUpAccount_whenTokenHasNoVersion() {
+        // given
+        setField(underTest, "authMode", "claims");
+        String token = jwtUtils.generateToken(details(1L, "user1@gmail.com"));
+        when(authenticationProvider.getAuthentication("user1@gmail.com"))
+                .thenReturn(authentication(1L, "user1@gmail.com"));
+
+        // when
+        Optional<Authentication> expected = underTest.authenticate(token);
+
+        // then
+        assertThat(expected).isPresent();
+        verifyNoInteractions(tokenVersions);
+    }
+
+    private static AccountDetails details(Long id, String email) {
+        return AccountDetails.builder().id(id).email(email).password("pass").build();
+    }
+
+    private static Authentication authentication(Long id, String email) {
+        AccountDetails details = details(id, email);
+        return new UsernamePasswordAuthenticationToken(details, details.getPassword(), details.getAuthorities());
+    }
+}
@@ -0,0 +1,98 @@
+package edu.popov.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LruCacheTest {
+
+    private final List<String> removed = new ArrayList<>();
+
+    private LruCache<String, String> underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = LruCache.<String, String>builder("test", new SimpleMeterRegistry())
+                .maxSize(() -> 2)
+                .ttl(value -> Duration.ofMinutes(1))
+                .onRemoval((key, value) -> removed.add(key))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void itShouldEvictKeyAgain_whenTransactionIsCommitted() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        underTest.get("key", key -> "old");
+
+        // when
+        underTest.invalidate("key");
+        // concurrent request loads the row before the commit
+        underTest.get("key", key -> "old");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // then
+        assertThat(underTest.get("key", key -> "new")).isEqualTo("new");
+    }
+
+    @Test
+    void itShouldNotPut_whenInvalidatedSinceGeneration() {
+        // given
+        long generation = underTest.generation();
+
+        // when
+        underTest.invalidate("other");
+
+        // then
+        assertThat(underTest.put("key", "value", generation)).isFalse();
+        assertThat(underTest.getIfPresent("key")).isEmpty();
+    }
+
+    @Test
+    void itShouldNotifyRemoval_whenLeastRecentlyUsedIsEvicted() {
+        // given
+        underTest.get("key1", key -> "value1");
+        underTest.get("key2", key -> "value2");
+        underTest.get("key1", key -> "value1");
+
+        // when
+        underTest.get("key3", key -> "value3");
+
+        // then
+        assertThat(removed).containsExactly("key2");
+        assertThat(underTest.getIfPresent("key1")).contains("value1");
+    }
+
+    @Test
+    void itShouldNotKeepValue_whenValueIsLargerThanBudget() {
+        // given
+        LruCache<String, String> budgeted = LruCache.<String, String>builder("budget", new SimpleMeterRegistry())
+                .budget(() -> DataSize.ofBytes(4), String::length)
+                .ttl(value -> Duration.ofMinutes(1))
+                .build();
+
+        // when
+        budgeted.get("key1", key -> "abc");
+        budgeted.get("key2", key -> "toolarge");
+
+        // then
+        assertThat(budgeted.getIfPresent("key1")).contains("abc");
+        assertThat(budgeted.getIfPresent("key2")).isEmpty();
+    }
+}
@@ -0,0 +1,98 @@
+package edu.popov.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RebuildableIndexTest {
+
+    private final RebuildableIndex<List<String>> underTest = new RebuildableIndex<>();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void itShouldReplayWrites_whenWrittenDuringRebuild() {
+        // when
+        underTest.rebuild(() -> {
+            underTest.write(index -> index.add("written"));
+            return new ArrayList<>(List.of("loaded"));
+        });
+
+        // then
+        assertThat(contents()).containsExactly("loaded", "written");
+    }
+
+    @Test
+    void itShouldSkipRebuild_whenRebuildIsRunning() {
+        // when
+        underTest.rebuild(() -> {
+            assertThat(underTest.isRebuilding()).isTrue();
+            assertThat(CompletableFuture.supplyAsync(() -> underTest.rebuild(() -> new ArrayList<>(List.of("other"))))
+                    .join()).isEmpty();
+            return new ArrayList<>(List.of("loaded"));
+        });
+
+        // then
+        assertThat(underTest.isRebuilding()).isFalse();
+        assertThat(contents()).containsExactly("loaded");
+    }
+
+    @Test
+    void itShouldNotReplayWrites_whenLoadFailed() {
+        // given
+        assertThatThrownBy(() -> underTest.rebuild(() -> {
+            throw new IllegalStateException("load failed");
+        })).isInstanceOf(IllegalStateException.class);
+        underTest.write(index -> index.add("written"));
+
+        // when
+        underTest.rebuild(() -> new ArrayList<>(List.of("loaded")));
+
+        // then
+        assertThat(contents()).containsExactly("loaded");
+    }
+
+    @Test
+    void itShouldDropIndex_whenUpdateReturnsNull() {
+        // given
+        underTest.rebuild(() -> new ArrayList<>(List.of("loaded")));
+
+        // when
+        underTest.update(index -> null);
+
+        // then
+        assertThat(underTest.read(index -> true, () -> false)).isFalse();
+    }
+
+    @Test
+    void itShouldWriteAfterCommit_whenTransactionIsActive() {
+        // given
+        underTest.rebuild(() -> new ArrayList<>(List.of("loaded")));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // when
+        underTest.writeAfterCommit(index -> index.add("written"));
+        List<String> beforeCommit = contents();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // then
+        assertThat(beforeCommit).containsExactly("loaded");
+        assertThat(contents()).containsExactly("loaded", "written");
+    }
+
+    private List<String> contents() {
+        return underTest.read(List::copyOf, List::of);
+    }
+}